@@ -7,6 +7,9 @@ USER="${INVENTORY_DB_USER:-cloud}"
 
 SIZE="${SIZE:-20}"
 DEEP_PAGE="${DEEP_PAGE:-500}"
+# Window for the partition-pruning reports (default: the previous calendar month, UTC).
+RANGE_FROM="${RANGE_FROM:-}"
+RANGE_TO="${RANGE_TO:-}"
 
 if ! [[ "${SIZE}" =~ ^[0-9]+$ ]] || [[ "${SIZE}" -lt 1 ]] || [[ "${SIZE}" -gt 1000 ]]; then
   echo "SIZE must be an integer between 1 and 1000" >&2
@@ -73,11 +76,43 @@ EXPLAIN (ANALYZE, BUFFERS)
 SELECT id, order_id, reservation_id, reason, created_at
 FROM inventory_release_events
 WHERE
-  created_at < '${after_created_at}'::timestamptz
-  OR (created_at = '${after_created_at}'::timestamptz AND id < '${after_id}'::uuid)
+  created_at <= '${after_created_at}'::timestamptz
+  AND (created_at < '${after_created_at}'::timestamptz OR id < '${after_id}'::uuid)
 ORDER BY created_at DESC, id DESC
 LIMIT ${SIZE};
 SQL
 
+if [[ -z "${RANGE_FROM}" || -z "${RANGE_TO}" ]]; then
+  range_line="$(
+    docker compose -f "${COMPOSE_FILE}" exec -T postgres \
+      psql -U "${USER}" -d "${DB}" -t -A -F '|' -v ON_ERROR_STOP=1 \
+      -c "SELECT to_char(date_trunc('month', now() AT TIME ZONE 'UTC') - interval '1 month', 'YYYY-MM-DD\"T\"HH24:MI:SS\"Z\"'), to_char(date_trunc('month', now() AT TIME ZONE 'UTC') - interval '1 second', 'YYYY-MM-DD\"T\"HH24:MI:SS\"Z\"');"
+  )"
+  RANGE_FROM="${RANGE_FROM:-$(echo "${range_line}" | cut -d'|' -f1)}"
+  RANGE_TO="${RANGE_TO:-$(echo "${range_line}" | cut -d'|' -f2)}"
+fi
+
+echo "Partition-pruning window: ${RANGE_FROM} .. ${RANGE_TO}"
+
+docker compose -f "${COMPOSE_FILE}" exec -T postgres \
+  psql -U "${USER}" -d "${DB}" -v ON_ERROR_STOP=1 <<SQL > "${REPORT_DIR}/release-events-explain-range-page1.txt"
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, order_id, reservation_id, reason, created_at
+FROM inventory_release_events
+WHERE created_at >= '${RANGE_FROM}'::timestamptz
+  AND created_at <= '${RANGE_TO}'::timestamptz
+ORDER BY created_at DESC, id DESC
+LIMIT ${SIZE};
+SQL
+
+docker compose -f "${COMPOSE_FILE}" exec -T postgres \
+  psql -U "${USER}" -d "${DB}" -v ON_ERROR_STOP=1 <<SQL > "${REPORT_DIR}/release-events-explain-range-count.txt"
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(*)
+FROM inventory_release_events
+WHERE created_at >= '${RANGE_FROM}'::timestamptz
+  AND created_at <= '${RANGE_TO}'::timestamptz;
+SQL
+
 echo "Done."
 
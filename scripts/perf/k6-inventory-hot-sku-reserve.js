@@ -0,0 +1,63 @@
+import http from 'k6/http';
+import { check } from 'k6';
+
+const baseUrl = __ENV.INVENTORY_BASE_URL || 'http://localhost:8082';
+const skuId = __ENV.SKU_ID || 'SKU-HOT-001';
+const initialQty = Number(__ENV.INITIAL_QTY || 1000000);
+const bucketCount = Number(__ENV.BUCKETS || 0);
+const targetVus = Number(__ENV.VUS || 100);
+
+export const options = {
+  scenarios: {
+    hot_sku_reservations: {
+      executor: 'ramping-vus',
+      startVUs: 1,
+      stages: [
+        { duration: '30s', target: targetVus },
+        { duration: '1m', target: targetVus },
+        { duration: '15s', target: 0 }
+      ]
+    }
+  },
+  thresholds: {
+    http_req_failed: ['rate<0.01'],
+    checks: ['rate>0.99']
+  }
+};
+
+function uuidv4() {
+  return 'xxxxxxxx-xxxx-4xxx-yxxx-xxxxxxxxxxxx'.replace(/[xy]/g, (c) => {
+    const r = (Math.random() * 16) | 0;
+    const v = c === 'x' ? r : (r & 0x3) | 0x8;
+    return v.toString(16);
+  });
+}
+
+export function setup() {
+  const params = { headers: { 'Content-Type': 'application/json' } };
+  const seeded = http.post(`${baseUrl}/api/stocks`, JSON.stringify({ skuId: skuId, availableQty: initialQty }), params);
+  check(seeded, { 'seed stock success': (r) => r.status === 200 });
+
+  const resized = http.put(`${baseUrl}/api/stocks/${skuId}/buckets`, JSON.stringify({ bucketCount: bucketCount }), params);
+  check(resized, { 'bucket resize success': (r) => r.status === 200 });
+}
+
+export default function () {
+  const payload = JSON.stringify({
+    orderId: uuidv4(),
+    items: [{ skuId: skuId, quantity: 1 }]
+  });
+  const res = http.post(`${baseUrl}/api/stocks/reservations`, payload, {
+    headers: { 'Content-Type': 'application/json' },
+    tags: { buckets: String(bucketCount) }
+  });
+  check(res, {
+    'reservation processed': (r) => r.status === 200,
+    'reservation reserved': (r) => r.json('status') === 'RESERVED'
+  });
+}
+
+export function teardown() {
+  const res = http.get(`${baseUrl}/api/stocks/${skuId}/buckets`);
+  check(res, { 'bucket snapshot readable': (r) => r.status === 200 });
+}
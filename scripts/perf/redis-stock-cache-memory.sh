@@ -0,0 +1,68 @@
+#!/usr/bin/env bash
+set -euo pipefail
+
+# Measures Redis memory per cached stock entry for the compact and legacy JSON encodings.
+# Writes COUNT synthetic entries per encoding under a scratch prefix, reads used_memory before/after, then deletes them.
+
+COUNT="${1:-1000000}"
+if ! [[ "${COUNT}" =~ ^[0-9]+$ ]] || [[ "${COUNT}" -lt 1 ]]; then
+  echo "Usage: $0 [entry_count]" >&2
+  exit 2
+fi
+
+COMPOSE_FILE="${COMPOSE_FILE:-infra/docker-compose.yml}"
+PREFIX="${PREFIX:-perf:stock-cache-memory:}"
+CHUNK=10000
+REPORT_DIR="docs/reports"
+REPORT="${REPORT_DIR}/redis-stock-cache-memory.txt"
+mkdir -p "${REPORT_DIR}"
+
+redis() {
+  docker compose -f "${COMPOSE_FILE}" exec -T redis redis-cli "$@"
+}
+
+used_memory() {
+  redis INFO memory | tr -d '\r' | awk -F: '$1 == "used_memory" { print $2 }'
+}
+
+# Same shapes InventoryStockCacheService writes, with a TTL so the keys use the same encoding as real entries.
+LOAD_SCRIPT='
+local prefix, encoding, from, to = ARGV[1], ARGV[2], tonumber(ARGV[3]), tonumber(ARGV[4])
+for i = from, to do
+  local sku = string.format("SKU-%07d", i)
+  local value
+  if encoding == "compact" then
+    value = string.format("1|%d|%d|%d|%d|%d|%d", 1000 + i % 9000, i % 50, 1767225600000000 + i, i % 1000, 1767225900000 + i, 3)
+  else
+    value = string.format("{\"skuId\":\"%s\",\"availableQty\":%d,\"reservedQty\":%d,\"updatedAt\":\"2026-01-01T00:00:00.%06dZ\",\"version\":%d,\"expiresAt\":%d,\"loadMillis\":%d}",
+      sku, 1000 + i % 9000, i % 50, i % 1000000, i % 1000, 1767225900000 + i, 3)
+  end
+  redis.call("SET", prefix .. encoding .. ":" .. sku, value, "EX", 3600)
+end
+return to - from + 1
+'
+
+measure() {
+  local encoding="$1"
+  local before after from to
+  redis MEMORY PURGE >/dev/null || true
+  before="$(used_memory)"
+  for ((from = 1; from <= COUNT; from += CHUNK)); do
+    to=$((from + CHUNK - 1))
+    if [[ "${to}" -gt "${COUNT}" ]]; then
+      to="${COUNT}"
+    fi
+    redis EVAL "${LOAD_SCRIPT}" 0 "${PREFIX}" "${encoding}" "${from}" "${to}" >/dev/null
+  done
+  after="$(used_memory)"
+  local sample_key="${PREFIX}${encoding}:SKU-0000001"
+  echo "${encoding}: entries=${COUNT} used_memory_delta=$((after - before)) bytes_per_entry=$(((after - before) / COUNT)) memory_usage_sample=$(redis MEMORY USAGE "${sample_key}" | tr -d '\r') value_bytes=$(redis STRLEN "${sample_key}" | tr -d '\r')"
+  redis --scan --pattern "${PREFIX}${encoding}:*" | xargs -r -n 1000 docker compose -f "${COMPOSE_FILE}" exec -T redis redis-cli UNLINK >/dev/null
+}
+
+{
+  echo "# Redis memory per cached stock entry ($(date -u +%Y-%m-%dT%H:%M:%SZ))"
+  redis INFO server | tr -d '\r' | grep -E '^redis_version:'
+  measure compact
+  measure json
+} | tee "${REPORT}"
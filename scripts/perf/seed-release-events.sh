@@ -11,17 +11,32 @@ if ! [[ "${COUNT}" =~ ^[0-9]+$ ]]; then
   exit 2
 fi
 
+SPAN_DAYS="${SPAN_DAYS:-7}"
+if ! [[ "${SPAN_DAYS}" =~ ^[0-9]+$ ]] || [[ "${SPAN_DAYS}" -lt 1 ]]; then
+  echo "SPAN_DAYS must be a positive integer" >&2
+  exit 2
+fi
+
 COMPOSE_FILE="${COMPOSE_FILE:-infra/docker-compose.yml}"
 DB="${INVENTORY_DB_NAME:-inventory_db}"
 USER="${INVENTORY_DB_USER:-cloud}"
 
-echo "Seeding ${COUNT} rows into ${DB}.inventory_release_events..."
+echo "Seeding ${COUNT} rows over the last ${SPAN_DAYS} days into ${DB}.inventory_release_events..."
 
 docker compose -f "${COMPOSE_FILE}" exec -T postgres \
-  psql -U "${USER}" -d "${DB}" -v ON_ERROR_STOP=1 -v count="${COUNT}" <<'SQL'
+  psql -U "${USER}" -d "${DB}" -v ON_ERROR_STOP=1 -v count="${COUNT}" -v span_days="${SPAN_DAYS}" <<'SQL'
 CREATE EXTENSION IF NOT EXISTS pgcrypto;
 
 TRUNCATE TABLE inventory_release_events;
+TRUNCATE TABLE inventory_release_event_orders;
+
+-- Monthly partitions for the seeded span (the service only keeps current and upcoming months ahead).
+SELECT count(*) FILTER (WHERE inventory_release_events_ensure_partition(month_start::date)) AS partitions_created
+FROM generate_series(
+  date_trunc('month', (now() - make_interval(days => :span_days)) AT TIME ZONE 'UTC'),
+  date_trunc('month', now() AT TIME ZONE 'UTC'),
+  interval '1 month'
+) AS month_start;
 
 INSERT INTO inventory_release_events (id, order_id, reservation_id, reason, created_at)
 SELECT
@@ -34,7 +49,7 @@ SELECT
     WHEN random() < 0.95 THEN 'INVENTORY_EXPIRED'
     ELSE 'UNKNOWN'
   END,
-  date_trunc('second', now() - random() * interval '7 days')
+  date_trunc('second', now() - random() * make_interval(days => :span_days))
 FROM generate_series(1, :count);
 
 ANALYZE inventory_release_events;
@@ -3,10 +3,12 @@ package com.cloud.catalog.api;
 import com.cloud.catalog.domain.Product;
 import com.cloud.catalog.service.CatalogService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -15,6 +17,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Instant;
 import java.util.List;
 
 @RestController
@@ -61,8 +64,12 @@ public class CatalogController {
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Products listed")
     })
-    public List<ProductResponse> listProducts(@RequestParam(value = "active", required = false) Boolean active) {
-        return catalogService.listProducts(active).stream()
+    public List<ProductResponse> listProducts(
+            @RequestParam(value = "active", required = false) Boolean active,
+            @Parameter(description = "Only return products updated at or after this timestamp (ISO-8601)")
+            @RequestParam(value = "updatedSince", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant updatedSince
+    ) {
+        return catalogService.listProducts(active, updatedSince).stream()
                 .map(this::toResponse)
                 .toList();
     }
@@ -38,9 +38,10 @@ public class CatalogService {
         return product;
     }
 
-    public List<Product> listProducts(Boolean active) {
+    public List<Product> listProducts(Boolean active, Instant updatedSince) {
         return productsBySku.values().stream()
                 .filter(product -> active == null || product.active() == active)
+                .filter(product -> updatedSince == null || !product.updatedAt().isBefore(updatedSince))
                 .sorted(Comparator.comparing(Product::skuId))
                 .toList();
     }
@@ -0,0 +1,57 @@
+package com.cloud.inventory.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode cost of one cached stock value, compact record vs the legacy Jackson JSON.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StockCacheCodecBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private InventoryStockCacheService.CachedStock stock;
+    private String compact;
+    private String json;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        stock = new InventoryStockCacheService.CachedStock(
+                "SKU-000123", 9_870, 130, Instant.parse("2026-01-01T12:34:56.789123Z"), 4_812L, 1_767_271_196_789L, 3L);
+        compact = StockCacheCodec.encode(stock);
+        json = objectMapper.writeValueAsString(stock);
+    }
+
+    @Benchmark
+    public String encodeCompact() {
+        return StockCacheCodec.encode(stock);
+    }
+
+    @Benchmark
+    public String encodeJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(stock);
+    }
+
+    @Benchmark
+    public InventoryStockCacheService.CachedStock decodeCompact() {
+        return StockCacheCodec.decode("SKU-000123", compact);
+    }
+
+    @Benchmark
+    public InventoryStockCacheService.CachedStock decodeJson() throws JsonProcessingException {
+        return objectMapper.readValue(json, InventoryStockCacheService.CachedStock.class);
+    }
+}
@@ -9,10 +9,12 @@ public record InventoryReleaseEventCursorPageResponse(
         List<InventoryReleaseEventResponse> items,
         @Schema(description = "Page size", example = "20")
         int size,
-        @Schema(description = "Whether more results exist after this page", example = "true")
+        @Schema(description = "Whether more results exist after this page (older ones; for tail, newer ones)", example = "true")
         boolean hasMore,
-        @Schema(description = "Cursor to pass as 'after' to fetch the next page; null when hasMore is false")
-        String nextCursor
+        @Schema(description = "Cursor to pass as 'after' to fetch the next older page, or as 'since' to keep tailing")
+        String nextCursor,
+        @Schema(description = "Cursor to pass as 'before' to fetch the newer page, or as 'since' to start tailing; null at the newest page")
+        String prevCursor
 ) {
 }
 
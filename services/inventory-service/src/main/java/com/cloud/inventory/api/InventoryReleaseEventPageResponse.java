@@ -11,11 +11,13 @@ public record InventoryReleaseEventPageResponse(
         int page,
         @Schema(description = "Page size", example = "20")
         int size,
-        @Schema(description = "Total matched event count", example = "37")
-        long totalElements,
-        @Schema(description = "Total pages", example = "2")
-        int totalPages,
+        @Schema(description = "Total matched event count; approximate unless countMode is EXACT, null for NONE", example = "37")
+        Long totalElements,
+        @Schema(description = "Total pages derived from totalElements, null for NONE", example = "2")
+        Integer totalPages,
         @Schema(description = "Whether next page exists", example = "true")
-        boolean hasNext
+        boolean hasNext,
+        @Schema(description = "Count strategy used for totalElements", example = "EXACT")
+        String countMode
 ) {
 }
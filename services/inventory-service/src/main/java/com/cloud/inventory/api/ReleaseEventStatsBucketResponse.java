@@ -0,0 +1,16 @@
+package com.cloud.inventory.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.Map;
+
+public record ReleaseEventStatsBucketResponse(
+        @Schema(description = "Bucket start (UTC hour or day boundary)", example = "2026-02-11T10:00:00Z")
+        Instant bucketStart,
+        @Schema(description = "Release events in the bucket", example = "12")
+        long total,
+        @Schema(description = "Release events in the bucket per reason")
+        Map<String, Long> byReason
+) {
+}
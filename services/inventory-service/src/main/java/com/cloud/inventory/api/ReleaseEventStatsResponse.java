@@ -0,0 +1,23 @@
+package com.cloud.inventory.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+public record ReleaseEventStatsResponse(
+        @Schema(description = "Bucket width", example = "HOUR")
+        String granularity,
+        @Schema(description = "Requested range start", example = "2026-02-11T00:00:00Z")
+        Instant from,
+        @Schema(description = "Requested range end", example = "2026-02-11T23:59:59Z")
+        Instant to,
+        @Schema(description = "Release events across all buckets", example = "240")
+        long total,
+        @Schema(description = "Release events across all buckets per reason")
+        Map<String, Long> totalsByReason,
+        @Schema(description = "Time-ordered buckets, empty buckets included")
+        List<ReleaseEventStatsBucketResponse> buckets
+) {
+}
@@ -0,0 +1,16 @@
+package com.cloud.inventory.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record ReleaseExportJobRequest(
+        @Schema(description = "Only export releases of this order")
+        UUID orderId,
+        @Schema(description = "Export releases created at or after this time (ISO-8601)", example = "2025-01-01T00:00:00Z")
+        Instant from,
+        @Schema(description = "Export releases created at or before this time (ISO-8601)", example = "2025-12-31T23:59:59Z")
+        Instant to
+) {
+}
@@ -0,0 +1,36 @@
+package com.cloud.inventory.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record ReleaseExportJobResponse(
+        @Schema(description = "Export job identifier")
+        UUID jobId,
+        @Schema(description = "QUEUED, RUNNING, COMPLETED or FAILED", example = "RUNNING")
+        String status,
+        @Schema(description = "Order filter")
+        UUID orderId,
+        @Schema(description = "Lower creation-time bound")
+        Instant from,
+        @Schema(description = "Upper creation-time bound")
+        Instant to,
+        @Schema(description = "Matching rows counted when the job started; null before that", example = "12500000")
+        Long totalRows,
+        @Schema(description = "Rows written so far", example = "4200000")
+        long rowsWritten,
+        @Schema(description = "Compressed bytes written so far", example = "73400320")
+        long bytesWritten,
+        @Schema(description = "Failure reason for FAILED jobs")
+        String error,
+        @Schema(description = "Submission time")
+        Instant createdAt,
+        @Schema(description = "First start time")
+        Instant startedAt,
+        @Schema(description = "Completion or failure time")
+        Instant completedAt,
+        @Schema(description = "Download path once COMPLETED", example = "/api/stocks/release-events/export-jobs/6b1f.../file")
+        String downloadUrl
+) {
+}
@@ -0,0 +1,13 @@
+package com.cloud.inventory.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public record SkuVolumeResponse(
+        @Schema(description = "SKU ID", example = "SKU-001")
+        String skuId,
+        @Schema(description = "Estimated quantity reserved in the window", example = "420")
+        long reservedQty,
+        @Schema(description = "Estimated quantity released back to stock in the window", example = "180")
+        long releasedQty
+) {
+}
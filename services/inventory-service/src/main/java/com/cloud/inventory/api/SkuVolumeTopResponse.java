@@ -0,0 +1,26 @@
+package com.cloud.inventory.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.List;
+
+public record SkuVolumeTopResponse(
+        @Schema(description = "Quantity the SKUs are ranked by", example = "RELEASED")
+        String rankBy,
+        @Schema(description = "CURRENT (still filling) or PREVIOUS (last complete window)", example = "CURRENT")
+        String window,
+        @Schema(description = "Window start", example = "2026-02-11T10:00:00Z")
+        Instant windowStart,
+        @Schema(description = "Window end (exclusive)", example = "2026-02-11T11:00:00Z")
+        Instant windowEnd,
+        @Schema(description = "Quantity reserved across all SKUs in the window on this instance", example = "15230")
+        long totalReserved,
+        @Schema(description = "Quantity released across all SKUs in the window on this instance", example = "4810")
+        long totalReleased,
+        @Schema(description = "Maximum overcount of any single estimate", example = "21")
+        long errorBound,
+        @Schema(description = "Heaviest SKUs, largest first")
+        List<SkuVolumeResponse> items
+) {
+}
@@ -0,0 +1,10 @@
+package com.cloud.inventory.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+
+public record StockBucketsRequest(
+        @Schema(description = "Number of bucket rows to split the SKU across; 0 keeps stock on the SKU row", example = "8")
+        @Min(0) int bucketCount
+) {
+}
@@ -0,0 +1,27 @@
+package com.cloud.inventory.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.List;
+
+public record StockBucketsResponse(
+        @Schema(description = "SKU identifier", example = "SKU-001")
+        String skuId,
+        @Schema(description = "Number of buckets; 0 means the SKU is not bucketed", example = "8")
+        int bucketCount,
+        @Schema(description = "Per-bucket quantities")
+        List<BucketResponse> buckets
+) {
+    public record BucketResponse(
+            @Schema(description = "Bucket number", example = "0")
+            int bucketNo,
+            @Schema(description = "Available quantity", example = "12")
+            int availableQty,
+            @Schema(description = "Reserved quantity", example = "1")
+            int reservedQty,
+            @Schema(description = "Last update time")
+            Instant updatedAt
+    ) {
+    }
+}
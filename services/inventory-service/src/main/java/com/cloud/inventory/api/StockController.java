@@ -1,9 +1,22 @@
 package com.cloud.inventory.api;
 
+import com.cloud.inventory.domain.ReleaseExportJobEntity;
+import com.cloud.inventory.domain.ReleaseExportJobStatus;
+import com.cloud.inventory.domain.SkuStockBucketEntity;
 import com.cloud.inventory.domain.SkuStockEntity;
+import com.cloud.inventory.hotsku.SkuVolumeTracker;
 import com.cloud.inventory.service.InventoryReleaseAuditService;
 import com.cloud.inventory.service.InventoryReservationService;
+import com.cloud.inventory.service.ReleaseEventCountMode;
+import com.cloud.inventory.service.ReleaseEventTailWatcher;
+import com.cloud.inventory.service.ReleaseEventsCursor;
+import com.cloud.inventory.service.ReleaseExportJobService;
+import com.cloud.inventory.service.ReleaseStatsGranularity;
 import com.cloud.inventory.service.ReservationOutcome;
+import com.cloud.inventory.service.StockBucketService;
+import com.cloud.inventory.service.StockIngestResult;
+import com.cloud.inventory.service.StockIngestService;
+import com.cloud.inventory.service.StockUpdateStream;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -12,6 +25,8 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.Valid;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -20,14 +35,33 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/stocks")
@@ -35,12 +69,34 @@ import java.util.UUID;
 @Tag(name = "Inventory", description = "Inventory and release-audit APIs")
 public class StockController {
 
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    private static final int EXPORT_BUFFER_CHARS = 64 * 1024;
+
     private final InventoryReservationService reservationService;
     private final InventoryReleaseAuditService releaseAuditService;
+    private final StockBucketService stockBucketService;
+    private final StockIngestService stockIngestService;
+    private final ReleaseExportJobService releaseExportJobService;
+    private final SkuVolumeTracker skuVolumeTracker;
+    private final ReleaseEventTailWatcher releaseEventTailWatcher;
+    private final StockUpdateStream stockUpdateStream;
 
-    public StockController(InventoryReservationService reservationService, InventoryReleaseAuditService releaseAuditService) {
+    public StockController(InventoryReservationService reservationService,
+                           InventoryReleaseAuditService releaseAuditService,
+                           StockBucketService stockBucketService,
+                           StockIngestService stockIngestService,
+                           ReleaseExportJobService releaseExportJobService,
+                           SkuVolumeTracker skuVolumeTracker,
+                           ReleaseEventTailWatcher releaseEventTailWatcher,
+                           StockUpdateStream stockUpdateStream) {
         this.reservationService = reservationService;
         this.releaseAuditService = releaseAuditService;
+        this.stockBucketService = stockBucketService;
+        this.stockIngestService = stockIngestService;
+        this.releaseExportJobService = releaseExportJobService;
+        this.skuVolumeTracker = skuVolumeTracker;
+        this.releaseEventTailWatcher = releaseEventTailWatcher;
+        this.stockUpdateStream = stockUpdateStream;
     }
 
     @PostMapping
@@ -54,6 +110,27 @@ public class StockController {
         return toStockResponse(stock);
     }
 
+    @PostMapping(value = "/bulk", consumes = {"text/csv", "application/x-ndjson"})
+    @Operation(
+            summary = "Bulk upsert SKU stock from a CSV or NDJSON feed",
+            description = "The body is streamed and written in batches. CSV lines are `skuId,availableQty` "
+                    + "(optional header); NDJSON lines are `{\"skuId\":..,\"availableQty\":..}`. "
+                    + "Bucketed and reservation-engine SKUs are skipped."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Feed processed"),
+            @ApiResponse(responseCode = "415", description = "Unsupported content type")
+    })
+    public StockIngestResponse ingestStocks(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                            InputStream body) {
+        StockIngestService.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(TEXT_CSV)
+                ? StockIngestService.Format.CSV
+                : StockIngestService.Format.NDJSON;
+        StockIngestResult result = stockIngestService.ingest(body, format);
+        return new StockIngestResponse(result.received(), result.upserted(), result.skipped(), result.rejected(),
+                result.errors());
+    }
+
     @GetMapping("/{skuId}")
     @Operation(summary = "Get stock by SKU")
     @ApiResponses({
@@ -65,6 +142,111 @@ public class StockController {
         return toStockResponse(stock);
     }
 
+    @PostMapping("/lookup")
+    @Operation(
+            summary = "Get stock for many SKUs",
+            description = "Reads the cache in one round trip and loads all misses with a single query. "
+                    + "SKUs without stock are listed in `missing`."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Stocks returned"),
+            @ApiResponse(responseCode = "400", description = "Invalid request")
+    })
+    public StockLookupResponse lookupStocks(@Valid @RequestBody StockLookupRequest request) {
+        Map<String, SkuStockEntity> stocks = reservationService.lookupStocks(request.skuIds());
+        Map<String, StockResponse> items = new LinkedHashMap<>();
+        stocks.forEach((skuId, stock) -> items.put(skuId, toStockResponse(stock)));
+        List<String> missing = request.skuIds().stream()
+                .map(String::trim)
+                .distinct()
+                .filter(skuId -> !stocks.containsKey(skuId))
+                .toList();
+        return new StockLookupResponse(items, missing);
+    }
+
+    @GetMapping(value = "/updates/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Stream stock updates for a set of SKUs",
+            description = "Server-sent events. Sends one `stock` event per SKU with its current value on connect, then "
+                    + "one after each committed reserve, release or upsert. A client that falls behind receives only "
+                    + "the latest value per SKU. Unknown SKUs are skipped until their stock is created."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Stream opened"),
+            @ApiResponse(responseCode = "400", description = "No SKUs or too many SKUs"),
+            @ApiResponse(responseCode = "503", description = "Subscriber limit reached or stream disabled")
+    })
+    public SseEmitter streamStockUpdates(
+            @Parameter(description = "Comma-separated SKU ids")
+            @RequestParam("skuIds") List<String> skuIds
+    ) {
+        Set<String> normalizedSkuIds = new LinkedHashSet<>();
+        for (String skuId : skuIds) {
+            if (!skuId.isBlank()) {
+                normalizedSkuIds.add(skuId.trim());
+            }
+        }
+        return stockUpdateStream.subscribe(normalizedSkuIds,
+                () -> reservationService.lookupStocks(normalizedSkuIds).values());
+    }
+
+    @PutMapping("/{skuId}/buckets")
+    @Operation(
+            summary = "Split SKU stock across bucket rows",
+            description = "Spreads available quantity evenly over the buckets so concurrent reservations lock different rows. "
+                    + "Outstanding reserved quantity is consolidated into bucket 0. A bucket count of 0 moves stock back to the SKU row."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Buckets resized"),
+            @ApiResponse(responseCode = "400", description = "Invalid bucket count or SKU is in hot-SKU lease mode"),
+            @ApiResponse(responseCode = "404", description = "Stock not found")
+    })
+    public StockBucketsResponse resizeBuckets(@PathVariable("skuId") String skuId,
+                                              @Valid @RequestBody StockBucketsRequest request) {
+        List<SkuStockBucketEntity> buckets = stockBucketService.resize(skuId.trim(), request.bucketCount());
+        return toStockBucketsResponse(skuId.trim(), buckets);
+    }
+
+    @GetMapping("/{skuId}/buckets")
+    @Operation(summary = "Get per-bucket stock for a SKU")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Buckets returned"),
+            @ApiResponse(responseCode = "404", description = "Stock not found")
+    })
+    public StockBucketsResponse getBuckets(@PathVariable("skuId") String skuId) {
+        return toStockBucketsResponse(skuId.trim(), stockBucketService.listBuckets(skuId.trim()));
+    }
+
+    @GetMapping("/sku-volume/top")
+    @Operation(summary = "Heaviest SKUs by reserved or released quantity in the current or previous window")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Top SKUs returned"),
+            @ApiResponse(responseCode = "400", description = "Invalid query parameters")
+    })
+    public SkuVolumeTopResponse topSkuVolume(
+            @Parameter(description = "Rank by RESERVED or RELEASED quantity")
+            @RequestParam(value = "rankBy", defaultValue = "RELEASED") SkuVolumeTracker.Kind rankBy,
+            @Parameter(description = "CURRENT (still filling) or PREVIOUS (last complete window)")
+            @RequestParam(value = "window", defaultValue = "CURRENT") SkuVolumeTracker.Period window,
+            @Parameter(description = "Number of SKUs (1-100)")
+            @RequestParam(value = "limit", defaultValue = "20") @Min(1) @Max(100) int limit
+    ) {
+        SkuVolumeTracker.Report report = skuVolumeTracker.report(rankBy, limit, window);
+        List<SkuVolumeResponse> items = report.items().stream()
+                .map(item -> new SkuVolumeResponse(item.skuId(), item.reservedQty(), item.releasedQty()))
+                .toList();
+        return new SkuVolumeTopResponse(
+                report.rankBy().name(),
+                report.period().name(),
+                report.windowStart(),
+                report.windowEnd(),
+                report.totalReserved(),
+                report.totalReleased(),
+                report.errorBound(),
+                items
+        );
+    }
+
     @PostMapping("/reservations")
     @Operation(summary = "Reserve stock for an order")
     @ApiResponses({
@@ -95,10 +277,12 @@ public class StockController {
             @Parameter(description = "Page number, starting from 0")
             @RequestParam(value = "page", defaultValue = "0") @Min(0) int page,
             @Parameter(description = "Page size (1-100)")
-            @RequestParam(value = "size", defaultValue = "20") @Min(1) @Max(100) int size
+            @RequestParam(value = "size", defaultValue = "20") @Min(1) @Max(100) int size,
+            @Parameter(description = "Total count strategy: EXACT, CACHED (per-filter, short TTL), ESTIMATE (planner estimate when unfiltered) or NONE")
+            @RequestParam(value = "countMode", defaultValue = "EXACT") ReleaseEventCountMode countMode
     ) {
-        var result = releaseAuditService.listReleaseEvents(orderId, from, to, page, size);
-        List<InventoryReleaseEventResponse> items = result.getContent().stream()
+        var result = releaseAuditService.listReleaseEvents(orderId, from, to, page, size, countMode);
+        List<InventoryReleaseEventResponse> items = result.items().stream()
                 .map(event -> new InventoryReleaseEventResponse(
                         event.getId(),
                         event.getOrderId(),
@@ -108,13 +292,16 @@ public class StockController {
                 ))
                 .toList();
 
+        Long totalElements = result.totalElements();
+        Integer totalPages = totalElements == null ? null : (int) ((totalElements + size - 1) / size);
         return new InventoryReleaseEventPageResponse(
                 items,
-                result.getNumber(),
-                result.getSize(),
-                result.getTotalElements(),
-                result.getTotalPages(),
-                result.hasNext()
+                result.page(),
+                result.size(),
+                totalElements,
+                totalPages,
+                result.hasNext(),
+                result.countMode().name()
         );
     }
 
@@ -133,44 +320,189 @@ public class StockController {
             @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
             @Parameter(description = "Page size (1-100)")
             @RequestParam(value = "size", defaultValue = "20") @Min(1) @Max(100) int size,
-            @Parameter(description = "Cursor to fetch results after the previous page")
-            @RequestParam(value = "after", required = false) String after
+            @Parameter(description = "Cursor to fetch the older page after (nextCursor)")
+            @RequestParam(value = "after", required = false) String after,
+            @Parameter(description = "Cursor to fetch the newer page before (prevCursor)")
+            @RequestParam(value = "before", required = false) String before
     ) {
-        var result = releaseAuditService.listReleaseEventsCursor(orderId, from, to, size, after);
-        List<InventoryReleaseEventResponse> items = result.items().stream()
-                .map(event -> new InventoryReleaseEventResponse(
-                        event.getId(),
-                        event.getOrderId(),
-                        event.getReservationId(),
-                        event.getReason(),
-                        event.getCreatedAt()
-                ))
-                .toList();
+        return toCursorPageResponse(
+                releaseAuditService.listReleaseEventsCursor(orderId, from, to, size, after, before), size);
+    }
 
-        return new InventoryReleaseEventCursorPageResponse(items, size, result.hasMore(), result.nextCursor());
+    @GetMapping("/release-events/tail")
+    @Operation(summary = "Release events newer than a cursor, oldest first, optionally long-polling until one arrives")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "New events returned, or none when the wait timed out"),
+            @ApiResponse(responseCode = "400", description = "Invalid query parameters"),
+            @ApiResponse(responseCode = "503", description = "Too many tail requests waiting")
+    })
+    public DeferredResult<InventoryReleaseEventCursorPageResponse> tailReleaseEvents(
+            @Parameter(description = "Filter by order ID")
+            @RequestParam(value = "orderId", required = false) UUID orderId,
+            @Parameter(description = "Filter from timestamp (ISO-8601)")
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @Parameter(description = "Filter to timestamp (ISO-8601)")
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @Parameter(description = "Page size (1-100)")
+            @RequestParam(value = "size", defaultValue = "20") @Min(1) @Max(100) int size,
+            @Parameter(description = "Cursor to tail from (nextCursor of the previous tail, or prevCursor of a page); omitted starts with the newest events")
+            @RequestParam(value = "since", required = false) String since,
+            @Parameter(description = "Milliseconds to wait for new events when there are none (0-30000)")
+            @RequestParam(value = "waitMs", defaultValue = "0") @Min(0) @Max(30000) long waitMs
+    ) {
+        Supplier<InventoryReleaseAuditService.ReleaseEventsCursorPage> query = () -> releaseAuditService.tailReleaseEvents(
+                orderId, from, to, size, since, releaseEventTailWatcher.settledBefore());
+        InventoryReleaseAuditService.ReleaseEventsCursorPage first = query.get();
+        InventoryReleaseEventCursorPageResponse firstResponse = toCursorPageResponse(first, size);
+        if (!first.items().isEmpty() || waitMs == 0) {
+            DeferredResult<InventoryReleaseEventCursorPageResponse> done = new DeferredResult<>();
+            done.setResult(firstResponse);
+            return done;
+        }
+        ReleaseEventsCursor.Decoded position = first.nextCursor() == null
+                ? null
+                : ReleaseEventsCursor.decode(first.nextCursor(), ReleaseEventsCursor.filterHash(orderId, from, to));
+        return releaseEventTailWatcher.await(
+                position,
+                () -> Optional.of(query.get())
+                        .filter(page -> !page.items().isEmpty())
+                        .map(page -> toCursorPageResponse(page, size)),
+                firstResponse,
+                Duration.ofMillis(waitMs)
+        );
+    }
+
+    @GetMapping("/release-events/stats")
+    @Operation(summary = "Release event counts per reason as an hourly or daily time series")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Time series returned"),
+            @ApiResponse(responseCode = "400", description = "Invalid range or too many buckets")
+    })
+    public ReleaseEventStatsResponse releaseEventStats(
+            @Parameter(description = "Range start (ISO-8601)")
+            @RequestParam(value = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @Parameter(description = "Range end (ISO-8601)")
+            @RequestParam(value = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @Parameter(description = "Bucket width: HOUR or DAY")
+            @RequestParam(value = "granularity", defaultValue = "HOUR") ReleaseStatsGranularity granularity,
+            @Parameter(description = "Only count this reason")
+            @RequestParam(value = "reason", required = false) String reason
+    ) {
+        var buckets = releaseAuditService.releaseStats(from, to, granularity, reason);
+        Map<String, Long> totalsByReason = new TreeMap<>();
+        List<ReleaseEventStatsBucketResponse> bucketResponses = buckets.stream()
+                .map(bucket -> {
+                    bucket.countsByReason().forEach((name, count) -> totalsByReason.merge(name, count, Long::sum));
+                    return new ReleaseEventStatsBucketResponse(bucket.bucketStart(), bucket.total(), bucket.countsByReason());
+                })
+                .toList();
+        long total = totalsByReason.values().stream().mapToLong(Long::longValue).sum();
+        return new ReleaseEventStatsResponse(granularity.name(), from, to, total, totalsByReason, bucketResponses);
     }
 
     @GetMapping(value = "/release-events/export", produces = "text/csv")
-    @Operation(summary = "Export inventory release audit events as CSV")
+    @Operation(summary = "Export inventory release audit events as CSV, streamed newest first")
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "CSV generated"),
+            @ApiResponse(responseCode = "200", description = "CSV streamed"),
             @ApiResponse(responseCode = "400", description = "Invalid query parameters")
     })
-    public ResponseEntity<String> exportReleaseEvents(
+    public ResponseEntity<StreamingResponseBody> exportReleaseEvents(
             @Parameter(description = "Filter by order ID")
             @RequestParam(value = "orderId", required = false) UUID orderId,
             @Parameter(description = "Filter from timestamp (ISO-8601)")
             @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
             @Parameter(description = "Filter to timestamp (ISO-8601)")
             @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
-            @Parameter(description = "Maximum CSV rows (1-10000)")
-            @RequestParam(value = "limit", defaultValue = "1000") @Min(1) @Max(10000) int limit
+            @Parameter(description = "Maximum CSV rows (1-10000000)")
+            @RequestParam(value = "limit", defaultValue = "1000") @Min(1) @Max(InventoryReleaseAuditService.MAX_EXPORT_LIMIT) long limit
     ) {
-        String csv = releaseAuditService.exportReleaseEventsCsv(orderId, from, to, limit);
+        releaseAuditService.validateExport(from, to, limit);
+        StreamingResponseBody body = outputStream -> releaseAuditService.exportReleaseEventsCsv(orderId, from, to, limit,
+                new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), EXPORT_BUFFER_CHARS));
         return ResponseEntity.ok()
                 .contentType(MediaType.parseMediaType("text/csv;charset=UTF-8"))
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"inventory-release-events.csv\"")
-                .body(csv);
+                .body(body);
+    }
+
+    @PostMapping("/release-events/export-jobs")
+    @Operation(
+            summary = "Submit an asynchronous release-event export",
+            description = "Writes matching release events, newest first, to a gzip-compressed CSV file in the background. "
+                    + "Poll the job and download the file once it is COMPLETED."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Export job queued"),
+            @ApiResponse(responseCode = "400", description = "Invalid time range")
+    })
+    public ResponseEntity<ReleaseExportJobResponse> submitReleaseExportJob(@RequestBody ReleaseExportJobRequest request) {
+        ReleaseExportJobEntity job = releaseExportJobService.submit(request.orderId(), request.from(), request.to());
+        return ResponseEntity.accepted()
+                .location(URI.create(exportJobPath(job.getId())))
+                .body(toReleaseExportJobResponse(job));
+    }
+
+    @GetMapping("/release-events/export-jobs/{jobId}")
+    @Operation(summary = "Get release-event export job status and progress")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Job found"),
+            @ApiResponse(responseCode = "404", description = "Job not found")
+    })
+    public ReleaseExportJobResponse getReleaseExportJob(@PathVariable("jobId") UUID jobId) {
+        return toReleaseExportJobResponse(releaseExportJobService.getJob(jobId));
+    }
+
+    @GetMapping(value = "/release-events/export-jobs/{jobId}/file", produces = "application/gzip")
+    @Operation(summary = "Download a completed release-event export (gzip-compressed CSV)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "File returned"),
+            @ApiResponse(responseCode = "404", description = "Job or file not found on this instance"),
+            @ApiResponse(responseCode = "409", description = "Job not completed"),
+            @ApiResponse(responseCode = "410", description = "Job expired; its file has been deleted")
+    })
+    public ResponseEntity<Resource> downloadReleaseExport(@PathVariable("jobId") UUID jobId) {
+        Path file = releaseExportJobService.completedExportFile(jobId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"inventory-release-events-" + jobId + ".csv.gz\"")
+                .body(new FileSystemResource(file));
+    }
+
+    private InventoryReleaseEventCursorPageResponse toCursorPageResponse(
+            InventoryReleaseAuditService.ReleaseEventsCursorPage page, int size) {
+        List<InventoryReleaseEventResponse> items = page.items().stream()
+                .map(event -> new InventoryReleaseEventResponse(
+                        event.getId(),
+                        event.getOrderId(),
+                        event.getReservationId(),
+                        event.getReason(),
+                        event.getCreatedAt()
+                ))
+                .toList();
+        return new InventoryReleaseEventCursorPageResponse(items, size, page.hasMore(), page.nextCursor(), page.prevCursor());
+    }
+
+    private ReleaseExportJobResponse toReleaseExportJobResponse(ReleaseExportJobEntity job) {
+        return new ReleaseExportJobResponse(
+                job.getId(),
+                job.getStatus().name(),
+                job.getOrderId(),
+                job.getFrom(),
+                job.getTo(),
+                job.getTotalRows(),
+                job.getRowsWritten(),
+                job.getBytesWritten(),
+                job.getError(),
+                job.getCreatedAt(),
+                job.getStartedAt(),
+                job.getCompletedAt(),
+                job.getStatus() == ReleaseExportJobStatus.COMPLETED ? exportJobPath(job.getId()) + "/file" : null
+        );
+    }
+
+    private static String exportJobPath(UUID jobId) {
+        return "/api/stocks/release-events/export-jobs/" + jobId;
     }
 
     private StockResponse toStockResponse(SkuStockEntity stock) {
@@ -182,6 +514,18 @@ public class StockController {
         );
     }
 
+    private StockBucketsResponse toStockBucketsResponse(String skuId, List<SkuStockBucketEntity> buckets) {
+        List<StockBucketsResponse.BucketResponse> items = buckets.stream()
+                .map(bucket -> new StockBucketsResponse.BucketResponse(
+                        bucket.getBucketNo(),
+                        bucket.getAvailableQty(),
+                        bucket.getReservedQty(),
+                        bucket.getUpdatedAt()
+                ))
+                .toList();
+        return new StockBucketsResponse(skuId, items.size(), items);
+    }
+
     private ReservationResponse toReservationResponse(ReservationOutcome outcome) {
         List<ReservationResponse.ReservationItemResponse> items = outcome.items().stream()
                 .map(item -> new ReservationResponse.ReservationItemResponse(item.skuId(), item.quantity()))
@@ -0,0 +1,19 @@
+package com.cloud.inventory.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public record StockIngestResponse(
+        @Schema(description = "Valid rows read from the feed", example = "500000")
+        long received,
+        @Schema(description = "SKU rows inserted or updated", example = "499990")
+        long upserted,
+        @Schema(description = "Rows skipped because the SKU is bucketed or held by the reservation engine", example = "10")
+        long skipped,
+        @Schema(description = "Invalid rows", example = "0")
+        long rejected,
+        @Schema(description = "First invalid rows with line numbers")
+        List<String> errors
+) {
+}
@@ -0,0 +1,14 @@
+package com.cloud.inventory.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record StockLookupRequest(
+        @Schema(description = "SKU identifiers (1-500)", example = "[\"SKU-001\", \"SKU-002\"]")
+        @NotEmpty @Size(max = 500) List<@NotBlank String> skuIds
+) {
+}
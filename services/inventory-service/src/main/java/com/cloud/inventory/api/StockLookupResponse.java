@@ -0,0 +1,14 @@
+package com.cloud.inventory.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.Map;
+
+public record StockLookupResponse(
+        @Schema(description = "Stock by SKU identifier, in request order")
+        Map<String, StockResponse> stocks,
+        @Schema(description = "Requested SKU identifiers without stock")
+        List<String> missing
+) {
+}
@@ -4,22 +4,45 @@ import com.cloud.inventory.domain.SkuStockEntity;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.time.Duration;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 public class InventoryStockCacheService {
 
     private static final Logger log = LoggerFactory.getLogger(InventoryStockCacheService.class);
+    private static final RedisScript<Long> PUT_IF_NEWER_SCRIPT =
+            RedisScript.of(new ClassPathResource("cache/stock-put-if-newer.lua"), Long.class);
+    // Redis value marking a SKU that does not exist; never a valid compact or JSON payload.
+    private static final String MISSING_PAYLOAD = "-";
+    private static final byte[] PUT_IF_NEWER_SCRIPT_BYTES = bytes(PUT_IF_NEWER_SCRIPT.getScriptAsString());
 
     private final StringRedisTemplate redisTemplate;
     private final ObjectMapper objectMapper;
@@ -28,6 +51,22 @@ public class InventoryStockCacheService {
     private final Counter cacheFallbackCounter;
     private final Counter cacheWriteCounter;
     private final Counter cacheEvictCounter;
+    private final Counter cacheStaleWriteCounter;
+    private final Counter cacheEarlyRefreshCounter;
+    private final Counter cacheLegacyReadCounter;
+    private final Counter negativeNearHitCounter;
+    private final Counter negativeRedisHitCounter;
+    private final Counter negativeWriteCounter;
+    private final Counter nearHitCounter;
+    private final Counter nearMissCounter;
+    private final Counter nearInvalidationCounter;
+    private final StockNearCache<CachedStock> nearCache;
+    private final StockNearCache<Boolean> missingNearCache;
+    private final long negativeTtlSeconds;
+    private final String invalidationChannel;
+    private final StockCacheWriteMode writeMode;
+    // Lets an instance skip near-cache invalidations it published itself.
+    private final String instanceId = UUID.randomUUID().toString();
 
     @Value("${app.cache.stock.enabled:true}")
     private boolean enabled;
@@ -38,9 +77,24 @@ public class InventoryStockCacheService {
     @Value("${app.cache.stock.ttl-seconds:300}")
     private long ttlSeconds;
 
+    // XFetch beta: higher values refresh earlier; 0 disables probabilistic early refresh.
+    @Value("${app.cache.stock.early-refresh-beta:1.0}")
+    private double earlyRefreshBeta;
+
+    // Reads accept both encodings; JSON writes keep a fleet still running JSON-only readers working during rollout.
+    @Value("${app.cache.stock.encoding:COMPACT}")
+    private StockCacheEncoding encoding = StockCacheEncoding.COMPACT;
+
     public InventoryStockCacheService(StringRedisTemplate redisTemplate,
                                       ObjectMapper objectMapper,
-                                      MeterRegistry meterRegistry) {
+                                      MeterRegistry meterRegistry,
+                                      @Value("${app.cache.stock.near.enabled:true}") boolean nearEnabled,
+                                      @Value("${app.cache.stock.near.max-entries:10000}") int nearMaxEntries,
+                                      @Value("${app.cache.stock.near.ttl-ms:1000}") long nearTtlMillis,
+                                      @Value("${app.cache.stock.near.invalidation-channel:inventory:stock:invalidate}")
+                                      String invalidationChannel,
+                                      @Value("${app.cache.stock.write-mode:WRITE_THROUGH}") StockCacheWriteMode writeMode,
+                                      @Value("${app.cache.stock.negative-ttl-seconds:10}") long negativeTtlSeconds) {
         this.redisTemplate = redisTemplate;
         this.objectMapper = objectMapper;
         this.cacheHitCounter = meterRegistry.counter("inventory_stock_cache_hits");
@@ -48,57 +102,234 @@ public class InventoryStockCacheService {
         this.cacheFallbackCounter = meterRegistry.counter("inventory_stock_cache_fallback");
         this.cacheWriteCounter = meterRegistry.counter("inventory_stock_cache_writes");
         this.cacheEvictCounter = meterRegistry.counter("inventory_stock_cache_evictions");
+        this.cacheStaleWriteCounter = meterRegistry.counter("inventory_stock_cache_stale_writes_skipped");
+        this.cacheEarlyRefreshCounter = meterRegistry.counter("inventory_stock_cache_early_refreshes");
+        this.cacheLegacyReadCounter = meterRegistry.counter("inventory_stock_cache_legacy_json_reads");
+        this.negativeNearHitCounter = meterRegistry.counter("inventory_stock_cache_negative_hits", "tier", "near");
+        this.negativeRedisHitCounter = meterRegistry.counter("inventory_stock_cache_negative_hits", "tier", "redis");
+        this.negativeWriteCounter = meterRegistry.counter("inventory_stock_cache_negative_writes");
+        this.nearHitCounter = meterRegistry.counter("inventory_stock_near_cache_hits");
+        this.nearMissCounter = meterRegistry.counter("inventory_stock_near_cache_misses");
+        this.nearInvalidationCounter = meterRegistry.counter("inventory_stock_near_cache_invalidations");
+        this.nearCache = nearEnabled ? new StockNearCache<>(nearMaxEntries, nearTtlMillis) : null;
+        // Missing SKUs are remembered locally for the full negative TTL; creating the SKU invalidates them.
+        this.negativeTtlSeconds = negativeTtlSeconds;
+        this.missingNearCache = nearEnabled && negativeTtlSeconds > 0
+                ? new StockNearCache<>(nearMaxEntries, negativeTtlSeconds * 1000L)
+                : null;
+        this.invalidationChannel = invalidationChannel;
+        this.writeMode = writeMode;
+        if (nearCache != null) {
+            Gauge.builder("inventory_stock_near_cache_size", nearCache, StockNearCache::size)
+                    .register(meterRegistry);
+        }
     }
 
     public Optional<SkuStockEntity> get(String skuId) {
+        return lookup(skuId).stock();
+    }
+
+    /**
+     * Like {@link #get(String)}, but also reports SKUs cached as not existing, which callers can answer without
+     * going to Postgres.
+     */
+    public StockLookup lookup(String skuId) {
         if (!enabled) {
-            return Optional.empty();
+            return StockLookup.miss();
+        }
+        if (isMissingLocally(skuId)) {
+            return StockLookup.missing();
+        }
+        if (nearCache != null) {
+            Optional<CachedStock> near = nearCache.get(skuId);
+            if (near.isPresent()) {
+                nearHitCounter.increment();
+                return StockLookup.hit(near.get().toEntity());
+            }
+            nearMissCounter.increment();
         }
         String key = key(skuId);
         try {
             String payload = redisTemplate.opsForValue().get(key);
             if (payload == null || payload.isBlank()) {
                 cacheMissCounter.increment();
-                return Optional.empty();
+                return StockLookup.miss();
+            }
+            if (MISSING_PAYLOAD.equals(payload)) {
+                negativeRedisHitCounter.increment();
+                putMissingNear(skuId);
+                return StockLookup.missing();
+            }
+            CachedStock cached = decode(skuId, payload);
+            if (refreshEarly(cached)) {
+                return StockLookup.miss();
             }
-            CachedStock cached = objectMapper.readValue(payload, CachedStock.class);
             cacheHitCounter.increment();
-            return Optional.of(new SkuStockEntity(
-                    cached.skuId(),
-                    cached.availableQty(),
-                    cached.reservedQty(),
-                    cached.updatedAt()
-            ));
-        } catch (JsonProcessingException exception) {
+            putNear(cached);
+            return StockLookup.hit(cached.toEntity());
+        } catch (JsonProcessingException | IllegalArgumentException exception) {
             cacheFallbackCounter.increment();
             log.warn("Inventory stock cache decode failed for key={}: {}", key, exception.getMessage());
             evict(skuId);
-            return Optional.empty();
+            return StockLookup.miss();
         } catch (RuntimeException exception) {
             cacheFallbackCounter.increment();
             log.warn("Inventory stock cache read failed for key={}: {}", key, exception.getMessage());
-            return Optional.empty();
+            return StockLookup.miss();
+        }
+    }
+
+    /**
+     * Batch form of {@link #lookup(String)}: near-cache hits first, then a single MGET for the rest. Only hits and
+     * SKUs cached as missing are in the result; everything else is a cache miss (or was picked for early refresh).
+     */
+    public Map<String, StockLookup> lookupAll(Collection<String> skuIds) {
+        Map<String, StockLookup> found = new HashMap<>();
+        if (!enabled || skuIds.isEmpty()) {
+            return found;
+        }
+        List<String> remote = new ArrayList<>();
+        for (String skuId : skuIds) {
+            if (isMissingLocally(skuId)) {
+                found.put(skuId, StockLookup.missing());
+                continue;
+            }
+            Optional<CachedStock> near = nearCache == null ? Optional.empty() : nearCache.get(skuId);
+            if (near.isPresent()) {
+                nearHitCounter.increment();
+                found.put(skuId, StockLookup.hit(near.get().toEntity()));
+            } else {
+                if (nearCache != null) {
+                    nearMissCounter.increment();
+                }
+                remote.add(skuId);
+            }
         }
+        if (remote.isEmpty()) {
+            return found;
+        }
+
+        List<String> payloads;
+        try {
+            payloads = redisTemplate.opsForValue().multiGet(remote.stream().map(this::key).toList());
+        } catch (RuntimeException exception) {
+            cacheFallbackCounter.increment();
+            log.warn("Inventory stock cache batch read failed for {} keys: {}", remote.size(), exception.getMessage());
+            return found;
+        }
+        List<String> undecodable = new ArrayList<>();
+        for (int i = 0; i < remote.size(); i++) {
+            String skuId = remote.get(i);
+            String payload = payloads == null ? null : payloads.get(i);
+            if (payload == null || payload.isBlank()) {
+                cacheMissCounter.increment();
+                continue;
+            }
+            if (MISSING_PAYLOAD.equals(payload)) {
+                negativeRedisHitCounter.increment();
+                putMissingNear(skuId);
+                found.put(skuId, StockLookup.missing());
+                continue;
+            }
+            try {
+                CachedStock cached = decode(skuId, payload);
+                if (refreshEarly(cached)) {
+                    continue;
+                }
+                cacheHitCounter.increment();
+                putNear(cached);
+                found.put(skuId, StockLookup.hit(cached.toEntity()));
+            } catch (JsonProcessingException | IllegalArgumentException exception) {
+                cacheFallbackCounter.increment();
+                undecodable.add(skuId);
+            }
+        }
+        if (!undecodable.isEmpty()) {
+            log.warn("Inventory stock cache decode failed for skus={}", undecodable);
+            evictEverywhere(undecodable);
+        }
+        return found;
     }
 
+    /**
+     * Returns the SKUs this instance has recently seen not to exist. In-process only, so it is cheap enough for the
+     * reservation path; a SKU created on another instance is dropped from it by the invalidation message.
+     */
+    public Set<String> findKnownMissing(Collection<String> skuIds) {
+        Set<String> missing = new LinkedHashSet<>();
+        if (!enabled) {
+            return missing;
+        }
+        for (String skuId : skuIds) {
+            if (isMissingLocally(skuId)) {
+                missing.add(skuId);
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Caches that a SKU does not exist, for {@code negative-ttl-seconds}. Never replaces a cached stock value, so a
+     * SKU created while the miss was being loaded is not hidden.
+     */
+    public void putMissing(String skuId) {
+        putAllMissing(List.of(skuId));
+    }
+
+    public void putAllMissing(Collection<String> skuIds) {
+        if (!enabled || negativeTtlSeconds <= 0 || skuIds.isEmpty()) {
+            return;
+        }
+        skuIds.forEach(this::putMissingNear);
+        try {
+            Expiration expiration = Expiration.seconds(negativeTtlSeconds);
+            byte[] value = bytes(MISSING_PAYLOAD);
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (String skuId : skuIds) {
+                    connection.stringCommands().set(bytes(key(skuId)), value, expiration, SetOption.ifAbsent());
+                }
+                return null;
+            });
+            negativeWriteCounter.increment(skuIds.size());
+        } catch (RuntimeException exception) {
+            cacheFallbackCounter.increment();
+            log.warn("Inventory stock cache negative write failed for {} skus: {}", skuIds.size(), exception.getMessage());
+        }
+    }
+
+    /**
+     * Caches a stock value. Values carrying a row version are written with compare-and-set in both tiers, so an
+     * older value (e.g. from a slow read that raced a reservation) never replaces a newer one.
+     */
     public void put(SkuStockEntity stock) {
+        put(stock, 0L);
+    }
+
+    /**
+     * Same as {@link #put(SkuStockEntity)}, recording how long the value took to load from Postgres so reads can
+     * refresh it early in proportion to that cost.
+     */
+    public void put(SkuStockEntity stock, long loadMillis) {
         if (!enabled || stock == null) {
             return;
         }
         try {
-            CachedStock cached = new CachedStock(
-                    stock.getSkuId(),
-                    stock.getAvailableQty(),
-                    stock.getReservedQty(),
-                    stock.getUpdatedAt()
-            );
-            String payload = objectMapper.writeValueAsString(cached);
-            redisTemplate.opsForValue().set(
-                    key(stock.getSkuId()),
+            long ttl = Math.max(1, ttlSeconds);
+            CachedStock cached = CachedStock.of(stock, System.currentTimeMillis() + ttl * 1000L, loadMillis);
+            putNear(cached);
+            String payload = encode(cached);
+            Long written = redisTemplate.execute(
+                    PUT_IF_NEWER_SCRIPT,
+                    List.of(key(stock.getSkuId())),
                     payload,
-                    Duration.ofSeconds(Math.max(1, ttlSeconds))
+                    cached.version() == null ? "" : String.valueOf(cached.version()),
+                    String.valueOf(ttl)
             );
-            cacheWriteCounter.increment();
+            if (written != null && written == 0L) {
+                cacheStaleWriteCounter.increment();
+            } else {
+                cacheWriteCounter.increment();
+            }
         } catch (JsonProcessingException exception) {
             cacheFallbackCounter.increment();
             log.warn("Inventory stock cache encode failed for sku={}: {}", stock.getSkuId(), exception.getMessage());
@@ -108,30 +339,271 @@ public class InventoryStockCacheService {
         }
     }
 
-    public void evict(String skuId) {
-        if (!enabled || skuId == null || skuId.isBlank()) {
+    /**
+     * Batch form of {@link #put(SkuStockEntity, long)}: every compare-and-set write goes to Redis in one pipeline.
+     */
+    public void putAll(Collection<SkuStockEntity> stocks, long loadMillis) {
+        if (!enabled || stocks.isEmpty()) {
+            return;
+        }
+        long ttl = Math.max(1, ttlSeconds);
+        long expiresAt = System.currentTimeMillis() + ttl * 1000L;
+        List<byte[][]> writes = new ArrayList<>(stocks.size());
+        for (SkuStockEntity stock : stocks) {
+            CachedStock cached = CachedStock.of(stock, expiresAt, loadMillis);
+            putNear(cached);
+            try {
+                writes.add(new byte[][]{
+                        bytes(key(stock.getSkuId())),
+                        bytes(encode(cached)),
+                        bytes(cached.version() == null ? "" : String.valueOf(cached.version())),
+                        bytes(String.valueOf(ttl))
+                });
+            } catch (JsonProcessingException exception) {
+                cacheFallbackCounter.increment();
+                log.warn("Inventory stock cache encode failed for sku={}: {}", stock.getSkuId(), exception.getMessage());
+            }
+        }
+        if (writes.isEmpty()) {
             return;
         }
         try {
-            redisTemplate.delete(key(skuId));
-            cacheEvictCounter.increment();
+            List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (byte[][] write : writes) {
+                    connection.scriptingCommands().eval(PUT_IF_NEWER_SCRIPT_BYTES, ReturnType.INTEGER, 1, write);
+                }
+                return null;
+            });
+            for (Object result : results) {
+                if (Long.valueOf(0L).equals(result)) {
+                    cacheStaleWriteCounter.increment();
+                } else {
+                    cacheWriteCounter.increment();
+                }
+            }
         } catch (RuntimeException exception) {
             cacheFallbackCounter.increment();
-            log.warn("Inventory stock cache evict failed for sku={}: {}", skuId, exception.getMessage());
+            log.warn("Inventory stock cache batch write failed for {} keys: {}", writes.size(), exception.getMessage());
+        }
+    }
+
+    /**
+     * Refreshes the cache for a stock mutation once the surrounding transaction commits (immediately when there is
+     * none). In {@link StockCacheWriteMode#WRITE_THROUGH} mode the committed rows in {@code updated} are written to
+     * the cache; rows without a version, and every SKU in {@code evicted}, are evicted. In
+     * {@link StockCacheWriteMode#EVICT} mode everything is evicted.
+     */
+    public void refreshAfterCommit(Collection<SkuStockEntity> updated, Collection<String> evicted) {
+        if (!enabled || (updated.isEmpty() && evicted.isEmpty())) {
+            return;
+        }
+        List<SkuStockEntity> updatedStocks = List.copyOf(updated);
+        Set<String> evictedSkuIds = new LinkedHashSet<>(evicted);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refresh(updatedStocks, evictedSkuIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // Entities are read here, after flush, so they carry the committed version.
+                refresh(updatedStocks, evictedSkuIds);
+            }
+        });
+    }
+
+    private void refresh(List<SkuStockEntity> updated, Set<String> evicted) {
+        Set<String> toEvict = new LinkedHashSet<>(evicted);
+        Set<String> written = new LinkedHashSet<>();
+        for (SkuStockEntity stock : updated) {
+            if (writeMode == StockCacheWriteMode.WRITE_THROUGH && stock.getVersion() != null) {
+                put(stock);
+                written.add(stock.getSkuId());
+            } else {
+                toEvict.add(stock.getSkuId());
+            }
+        }
+        toEvict.removeAll(written);
+        if (!toEvict.isEmpty()) {
+            evictEverywhere(toEvict);
+        }
+        if (!written.isEmpty()) {
+            publishInvalidation(written);
         }
     }
 
+    public void evict(String skuId) {
+        if (!enabled || skuId == null || skuId.isBlank()) {
+            return;
+        }
+        evictEverywhere(List.of(skuId));
+    }
+
     public void evictAll(Collection<String> skuIds) {
-        if (skuIds == null || skuIds.isEmpty()) {
+        if (!enabled || skuIds == null || skuIds.isEmpty()) {
+            return;
+        }
+        evictEverywhere(skuIds);
+    }
+
+    /**
+     * Drops SKUs from this instance's near cache only.
+     */
+    public void invalidateLocal(Collection<String> skuIds) {
+        if (nearCache == null) {
+            return;
+        }
+        skuIds.forEach(nearCache::invalidate);
+        if (missingNearCache != null) {
+            skuIds.forEach(missingNearCache::invalidate);
+        }
+        nearInvalidationCounter.increment(skuIds.size());
+    }
+
+    /**
+     * Handles a message from the invalidation channel: the publishing instance id on the first line, then one
+     * SKU id per line. Messages this instance published are ignored; its near cache is already current.
+     */
+    public void onInvalidationMessage(String message) {
+        List<String> lines = Arrays.asList(message.split("\n"));
+        if (lines.size() < 2 || instanceId.equals(lines.get(0))) {
             return;
         }
-        skuIds.forEach(this::evict);
+        invalidateLocal(lines.subList(1, lines.size()));
+    }
+
+    private void evictEverywhere(Collection<String> skuIds) {
+        if (skuIds.isEmpty()) {
+            return;
+        }
+        invalidateLocal(skuIds);
+        if (skuIds.size() == 1) {
+            String skuId = skuIds.iterator().next();
+            try {
+                redisTemplate.delete(key(skuId));
+                cacheEvictCounter.increment();
+            } catch (RuntimeException exception) {
+                cacheFallbackCounter.increment();
+                log.warn("Inventory stock cache evict failed for sku={}: {}", skuId, exception.getMessage());
+            }
+        } else {
+            try {
+                // One round trip; separate DELs rather than one multi-key DEL so keys may live on different slots.
+                redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    for (String skuId : skuIds) {
+                        connection.keyCommands().del(bytes(key(skuId)));
+                    }
+                    return null;
+                });
+                cacheEvictCounter.increment(skuIds.size());
+            } catch (RuntimeException exception) {
+                cacheFallbackCounter.increment();
+                log.warn("Inventory stock cache evict failed for {} skus: {}", skuIds.size(), exception.getMessage());
+            }
+        }
+        publishInvalidation(skuIds);
+    }
+
+    private void publishInvalidation(Collection<String> skuIds) {
+        if (nearCache == null) {
+            return;
+        }
+        try {
+            // One message per mutation; other instances drop the SKUs from their near caches.
+            redisTemplate.convertAndSend(invalidationChannel, instanceId + "\n" + String.join("\n", skuIds));
+        } catch (RuntimeException exception) {
+            cacheFallbackCounter.increment();
+            log.warn("Inventory stock near-cache invalidation publish failed: {}", exception.getMessage());
+        }
+    }
+
+    private CachedStock decode(String skuId, String payload) throws JsonProcessingException {
+        if (StockCacheCodec.isLegacyJson(payload)) {
+            cacheLegacyReadCounter.increment();
+            return objectMapper.readValue(payload, CachedStock.class);
+        }
+        return StockCacheCodec.decode(skuId, payload);
+    }
+
+    private String encode(CachedStock cached) throws JsonProcessingException {
+        return encoding == StockCacheEncoding.JSON ? objectMapper.writeValueAsString(cached) : StockCacheCodec.encode(cached);
+    }
+
+    private boolean refreshEarly(CachedStock cached) {
+        if (!shouldRefreshEarly(cached, System.currentTimeMillis(), ThreadLocalRandom.current().nextDouble())) {
+            return false;
+        }
+        // This caller reloads ahead of expiry while everyone else keeps being served from the cache.
+        cacheEarlyRefreshCounter.increment();
+        return true;
+    }
+
+    /**
+     * XFetch ("optimal probabilistic cache stampede prevention"): refresh when
+     * {@code now - loadMillis * beta * ln(random) >= expiresAt}. The chance grows as expiry approaches and with the
+     * cost of a reload, so a single caller usually refreshes a hot key before it expires for everyone.
+     */
+    boolean shouldRefreshEarly(CachedStock cached, long nowMillis, double random) {
+        if (earlyRefreshBeta <= 0 || cached.expiresAt() == null || cached.loadMillis() == null) {
+            return false;
+        }
+        double gap = cached.loadMillis() * earlyRefreshBeta * -Math.log(Math.max(random, Double.MIN_VALUE));
+        return nowMillis + gap >= cached.expiresAt();
+    }
+
+    private void putNear(CachedStock cached) {
+        if (missingNearCache != null) {
+            missingNearCache.invalidate(cached.skuId());
+        }
+        if (nearCache != null) {
+            nearCache.putIfNewer(cached.skuId(), cached, cached.version() == null ? -1L : cached.version());
+        }
+    }
+
+    private void putMissingNear(String skuId) {
+        if (missingNearCache != null && nearCache.get(skuId).isEmpty()) {
+            missingNearCache.put(skuId, Boolean.TRUE);
+        }
+    }
+
+    private boolean isMissingLocally(String skuId) {
+        if (missingNearCache == null || missingNearCache.get(skuId).isEmpty()) {
+            return false;
+        }
+        negativeNearHitCounter.increment();
+        return true;
     }
 
     private String key(String skuId) {
         return keyPrefix + skuId;
     }
 
-    private record CachedStock(String skuId, Integer availableQty, Integer reservedQty, Instant updatedAt) {
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    record CachedStock(String skuId,
+                       Integer availableQty,
+                       Integer reservedQty,
+                       Instant updatedAt,
+                       Long version,
+                       Long expiresAt,
+                       Long loadMillis) {
+
+        private static CachedStock of(SkuStockEntity stock, long expiresAt, long loadMillis) {
+            return new CachedStock(
+                    stock.getSkuId(),
+                    stock.getAvailableQty(),
+                    stock.getReservedQty(),
+                    stock.getUpdatedAt(),
+                    stock.getVersion(),
+                    expiresAt,
+                    Math.max(loadMillis, 0L)
+            );
+        }
+
+        private SkuStockEntity toEntity() {
+            return new SkuStockEntity(skuId, availableQty, reservedQty, updatedAt);
+        }
     }
 }
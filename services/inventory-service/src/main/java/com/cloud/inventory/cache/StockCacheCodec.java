@@ -0,0 +1,92 @@
+package com.cloud.inventory.cache;
+
+import java.time.Instant;
+
+/**
+ * Compact encoding for cached stock values: a format tag followed by {@code |}-separated decimal fields,
+ * {@code 1|available|reserved|updatedAtMicros|version|expiresAtMillis|loadMillis}, with empty fields for absent
+ * values. The SKU id is the key and is not repeated. Decoding is a single pass over the string with no reflection,
+ * and the version sits at a fixed field position so the compare-and-set script can read it without a JSON parser.
+ */
+final class StockCacheCodec {
+
+    static final char FORMAT_V1 = '1';
+    private static final char SEPARATOR = '|';
+    private static final int FIELDS = 6;
+
+    private StockCacheCodec() {
+    }
+
+    static boolean isLegacyJson(String payload) {
+        return !payload.isEmpty() && payload.charAt(0) == '{';
+    }
+
+    static String encode(InventoryStockCacheService.CachedStock stock) {
+        StringBuilder out = new StringBuilder(64).append(FORMAT_V1);
+        append(out, stock.availableQty() == null ? null : stock.availableQty().longValue());
+        append(out, stock.reservedQty() == null ? null : stock.reservedQty().longValue());
+        append(out, stock.updatedAt() == null ? null : toMicros(stock.updatedAt()));
+        append(out, stock.version());
+        append(out, stock.expiresAt());
+        append(out, stock.loadMillis());
+        return out.toString();
+    }
+
+    /**
+     * Decodes a {@link #encode(InventoryStockCacheService.CachedStock) compact} payload.
+     *
+     * @throws IllegalArgumentException if the payload is not a well-formed v1 record
+     */
+    static InventoryStockCacheService.CachedStock decode(String skuId, String payload) {
+        if (payload.length() < 2 || payload.charAt(0) != FORMAT_V1 || payload.charAt(1) != SEPARATOR) {
+            throw new IllegalArgumentException("Unknown stock cache format");
+        }
+        Long[] fields = new Long[FIELDS];
+        int field = 0;
+        int start = 2;
+        for (int i = 2; i <= payload.length(); i++) {
+            if (i == payload.length() || payload.charAt(i) == SEPARATOR) {
+                if (field == FIELDS) {
+                    throw new IllegalArgumentException("Too many stock cache fields");
+                }
+                fields[field++] = start == i ? null : parseLong(payload, start, i);
+                start = i + 1;
+            }
+        }
+        if (field != FIELDS) {
+            throw new IllegalArgumentException("Expected " + FIELDS + " stock cache fields, got " + field);
+        }
+        return new InventoryStockCacheService.CachedStock(
+                skuId,
+                fields[0] == null ? null : Math.toIntExact(fields[0]),
+                fields[1] == null ? null : Math.toIntExact(fields[1]),
+                fields[2] == null ? null : fromMicros(fields[2]),
+                fields[3],
+                fields[4],
+                fields[5]
+        );
+    }
+
+    private static void append(StringBuilder out, Long value) {
+        out.append(SEPARATOR);
+        if (value != null) {
+            out.append(value.longValue());
+        }
+    }
+
+    private static long parseLong(String payload, int start, int end) {
+        try {
+            return Long.parseLong(payload, start, end, 10);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Malformed stock cache field", ex);
+        }
+    }
+
+    private static long toMicros(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000L);
+    }
+
+    private static Instant fromMicros(long micros) {
+        return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000L);
+    }
+}
@@ -0,0 +1,11 @@
+package com.cloud.inventory.cache;
+
+/**
+ * How stock values are written to Redis. Reads accept both encodings.
+ */
+public enum StockCacheEncoding {
+    /** Tagged {@code |}-separated record, see {@link StockCacheCodec}. */
+    COMPACT,
+    /** Jackson JSON, the format written before the compact encoding. */
+    JSON
+}
@@ -0,0 +1,11 @@
+package com.cloud.inventory.cache;
+
+/**
+ * How the stock cache follows reservations, releases and upserts.
+ */
+public enum StockCacheWriteMode {
+    /** Write the committed stock row to the cache, guarded by its version. */
+    WRITE_THROUGH,
+    /** Delete the cached entry and let the next read reload it. */
+    EVICT
+}
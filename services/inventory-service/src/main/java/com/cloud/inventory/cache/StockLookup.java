@@ -0,0 +1,30 @@
+package com.cloud.inventory.cache;
+
+import com.cloud.inventory.domain.SkuStockEntity;
+
+import java.util.Optional;
+
+/**
+ * Result of a stock cache read: a cached value, a cached "no such SKU" marker, or nothing cached.
+ */
+public record StockLookup(Optional<SkuStockEntity> stock, boolean knownMissing) {
+
+    private static final StockLookup MISS = new StockLookup(Optional.empty(), false);
+    private static final StockLookup KNOWN_MISSING = new StockLookup(Optional.empty(), true);
+
+    public static StockLookup hit(SkuStockEntity stock) {
+        return new StockLookup(Optional.of(stock), false);
+    }
+
+    public static StockLookup miss() {
+        return MISS;
+    }
+
+    public static StockLookup missing() {
+        return KNOWN_MISSING;
+    }
+
+    public boolean isHit() {
+        return stock.isPresent();
+    }
+}
@@ -0,0 +1,90 @@
+package com.cloud.inventory.cache;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded in-process stock cache (L1) in front of Redis.
+ * <p>
+ * Entries expire after a short TTL so a missed cross-instance invalidation is bounded in time. When the cap is
+ * exceeded, expired entries are swept first and then arbitrary entries are dropped; exact LRU order is not worth
+ * a lock on the read path for a cache whose entries live for about a second.
+ */
+public class StockNearCache<V> {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final Map<String, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    public StockNearCache(int maxEntries, long ttlMillis) {
+        this(maxEntries, ttlMillis, System::nanoTime);
+    }
+
+    StockNearCache(int maxEntries, long ttlMillis, LongSupplier nanoClock) {
+        this.maxEntries = Math.max(maxEntries, 1);
+        this.ttlNanos = Math.max(ttlMillis, 1) * 1_000_000L;
+        this.nanoClock = nanoClock;
+    }
+
+    public Optional<V> get(String key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (nanoClock.getAsLong() - entry.expiresAtNanos() > 0) {
+            entries.remove(key, entry);
+            return Optional.empty();
+        }
+        return Optional.of(entry.value());
+    }
+
+    public void put(String key, V value) {
+        putIfNewer(key, value, -1L);
+    }
+
+    /**
+     * Stores {@code value} unless a live entry with a higher version is present. Version {@code -1} means
+     * unversioned and always wins.
+     */
+    public void putIfNewer(String key, V value, long version) {
+        long now = nanoClock.getAsLong();
+        entries.compute(key, (ignored, current) -> current != null
+                && version >= 0
+                && current.version() > version
+                && current.expiresAtNanos() - now > 0
+                ? current
+                : new Entry<>(value, version, now + ttlNanos));
+        if (entries.size() > maxEntries) {
+            trim();
+        }
+    }
+
+    public void invalidate(String key) {
+        entries.remove(key);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void trim() {
+        long now = nanoClock.getAsLong();
+        entries.entrySet().removeIf(entry -> now - entry.getValue().expiresAtNanos() > 0);
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() > maxEntries && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private record Entry<V>(V value, long version, long expiresAtNanos) {
+    }
+}
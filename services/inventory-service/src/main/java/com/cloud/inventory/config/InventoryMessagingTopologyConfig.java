@@ -87,6 +87,35 @@ public class InventoryMessagingTopologyConfig {
         return QueueBuilder.durable(queueName).build();
     }
 
+    @Bean
+    public Queue paymentSucceededQueue(
+            @Value("${app.messaging.queues.payment-succeeded:q.inventory.payment-succeeded}") String queueName,
+            @Value("${app.messaging.retry-exchange:inventory.retry.exchange}") String retryExchange,
+            @Value("${app.messaging.routing-keys.payment-succeeded-retry:q.inventory.payment-succeeded.retry}") String retryRoutingKey) {
+        return QueueBuilder.durable(queueName)
+                .withArgument("x-dead-letter-exchange", retryExchange)
+                .withArgument("x-dead-letter-routing-key", retryRoutingKey)
+                .build();
+    }
+
+    @Bean
+    public Queue paymentSucceededRetryQueue(
+            @Value("${app.messaging.queues.payment-succeeded-retry:q.inventory.payment-succeeded.retry}") String queueName,
+            @Value("${app.messaging.retry-ttl-ms:10000}") long ttl,
+            @Value("${app.messaging.exchange:ecom.events}") String eventsExchange,
+            @Value("${app.messaging.routing-keys.payment-succeeded:payment.succeeded}") String paymentSucceededRoutingKey) {
+        return QueueBuilder.durable(queueName)
+                .withArgument("x-message-ttl", ttl)
+                .withArgument("x-dead-letter-exchange", eventsExchange)
+                .withArgument("x-dead-letter-routing-key", paymentSucceededRoutingKey)
+                .build();
+    }
+
+    @Bean
+    public Queue paymentSucceededDlqQueue(@Value("${app.messaging.queues.payment-succeeded-dlq:q.inventory.payment-succeeded.dlq}") String queueName) {
+        return QueueBuilder.durable(queueName).build();
+    }
+
     @Bean
     public Binding orderCreatedBinding(
             @Qualifier("orderCreatedQueue") Queue orderCreatedQueue,
@@ -134,4 +163,28 @@ public class InventoryMessagingTopologyConfig {
             @Value("${app.messaging.routing-keys.release-requested-dlq:q.inventory.release-requested.dlq}") String dlqRoutingKey) {
         return BindingBuilder.bind(releaseRequestedDlqQueue).to(dlqExchange).with(dlqRoutingKey);
     }
+
+    @Bean
+    public Binding paymentSucceededBinding(
+            @Qualifier("paymentSucceededQueue") Queue paymentSucceededQueue,
+            TopicExchange eventsExchange,
+            @Value("${app.messaging.routing-keys.payment-succeeded:payment.succeeded}") String paymentSucceededRoutingKey) {
+        return BindingBuilder.bind(paymentSucceededQueue).to(eventsExchange).with(paymentSucceededRoutingKey);
+    }
+
+    @Bean
+    public Binding paymentSucceededRetryBinding(
+            @Qualifier("paymentSucceededRetryQueue") Queue paymentSucceededRetryQueue,
+            @Qualifier("retryExchange") DirectExchange retryExchange,
+            @Value("${app.messaging.routing-keys.payment-succeeded-retry:q.inventory.payment-succeeded.retry}") String retryRoutingKey) {
+        return BindingBuilder.bind(paymentSucceededRetryQueue).to(retryExchange).with(retryRoutingKey);
+    }
+
+    @Bean
+    public Binding paymentSucceededDlqBinding(
+            @Qualifier("paymentSucceededDlqQueue") Queue paymentSucceededDlqQueue,
+            @Qualifier("dlqExchange") DirectExchange dlqExchange,
+            @Value("${app.messaging.routing-keys.payment-succeeded-dlq:q.inventory.payment-succeeded.dlq}") String dlqRoutingKey) {
+        return BindingBuilder.bind(paymentSucceededDlqQueue).to(dlqExchange).with(dlqRoutingKey);
+    }
 }
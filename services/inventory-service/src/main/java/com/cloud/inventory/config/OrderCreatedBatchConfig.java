@@ -0,0 +1,34 @@
+package com.cloud.inventory.config;
+
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Listener container for the group-commit {@code order.created} consumer. The consumer is delivered up to
+ * {@code size} messages at once, or fewer once no message arrives within {@code receive-timeout-ms}, so a quiet
+ * queue does not hold orders back.
+ */
+@Configuration
+public class OrderCreatedBatchConfig {
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory orderCreatedBatchContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${app.messaging.order-created-batch.size:50}") int batchSize,
+            @Value("${app.messaging.order-created-batch.receive-timeout-ms:20}") long receiveTimeoutMillis) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        int size = Math.max(batchSize, 1);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(size);
+        factory.setPrefetchCount(Math.max(size * 2, 250));
+        factory.setReceiveTimeout(Math.max(receiveTimeoutMillis, 1));
+        return factory;
+    }
+}
@@ -0,0 +1,33 @@
+package com.cloud.inventory.config;
+
+import com.cloud.inventory.cache.InventoryStockCacheService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Subscribes to stock cache invalidations so every instance drops mutated SKUs from its near cache.
+ */
+@Configuration
+@ConditionalOnProperty(name = {"app.cache.stock.enabled", "app.cache.stock.near.enabled"}, havingValue = "true", matchIfMissing = true)
+public class StockCacheInvalidationConfig {
+
+    @Bean
+    public RedisMessageListenerContainer stockCacheInvalidationContainer(
+            RedisConnectionFactory connectionFactory,
+            InventoryStockCacheService stockCacheService,
+            @Value("${app.cache.stock.near.invalidation-channel:inventory:stock:invalidate}") String channel) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> stockCacheService.onInvalidationMessage(
+                new String(message.getBody(), StandardCharsets.UTF_8)
+        ), new ChannelTopic(channel));
+        return container;
+    }
+}
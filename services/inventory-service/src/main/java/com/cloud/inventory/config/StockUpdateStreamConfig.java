@@ -0,0 +1,33 @@
+package com.cloud.inventory.config;
+
+import com.cloud.inventory.service.StockUpdateStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Subscribes to stock change announcements so subscribers on every instance see changes committed on any of them.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.stock-stream.enabled", havingValue = "true", matchIfMissing = true)
+public class StockUpdateStreamConfig {
+
+    @Bean
+    public RedisMessageListenerContainer stockUpdateStreamContainer(
+            RedisConnectionFactory connectionFactory,
+            StockUpdateStream stockUpdateStream,
+            @Value("${app.stock-stream.channel:inventory:stock:changes}") String channel) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> stockUpdateStream.onChangeMessage(
+                new String(message.getBody(), StandardCharsets.UTF_8)
+        ), new ChannelTopic(channel));
+        return container;
+    }
+}
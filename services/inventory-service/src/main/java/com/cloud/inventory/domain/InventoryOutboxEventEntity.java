@@ -0,0 +1,128 @@
+package com.cloud.inventory.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An event written in the business transaction and published by the outbox relay after commit. The id is the
+ * event id and becomes the AMQP message id. {@link Persistable} lets {@code save} insert without a select first.
+ */
+@Entity
+@Table(name = "inventory_outbox_events")
+public class InventoryOutboxEventEntity implements Persistable<UUID> {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "event_type", nullable = false, length = 80)
+    private String eventType;
+
+    @Column(name = "routing_key", nullable = false, length = 120)
+    private String routingKey;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "trace_id")
+    private UUID traceId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OutboxStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "sent_at")
+    private Instant sentAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Transient
+    private boolean isNew = true;
+
+    protected InventoryOutboxEventEntity() {
+    }
+
+    public InventoryOutboxEventEntity(UUID id,
+                                      String eventType,
+                                      String routingKey,
+                                      String payload,
+                                      UUID traceId,
+                                      Instant createdAt) {
+        this.id = id;
+        this.eventType = eventType;
+        this.routingKey = routingKey;
+        this.payload = payload;
+        this.traceId = traceId;
+        this.status = OutboxStatus.PENDING;
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public UUID getId() {
+        return id;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public String getRoutingKey() {
+        return routingKey;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public UUID getTraceId() {
+        return traceId;
+    }
+
+    public OutboxStatus getStatus() {
+        return status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getSentAt() {
+        return sentAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+}
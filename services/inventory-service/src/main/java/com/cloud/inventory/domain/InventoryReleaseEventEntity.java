@@ -1,11 +1,15 @@
 package com.cloud.inventory.domain;
 
+import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 @Entity
@@ -27,6 +31,9 @@ public class InventoryReleaseEventEntity {
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
+    @OneToMany(mappedBy = "releaseEvent", cascade = CascadeType.ALL, orphanRemoval = true)
+    private List<InventoryReleaseEventItemEntity> items = new ArrayList<>();
+
     protected InventoryReleaseEventEntity() {
     }
 
@@ -38,6 +45,11 @@ public class InventoryReleaseEventEntity {
         this.createdAt = createdAt;
     }
 
+    public void addItem(InventoryReleaseEventItemEntity item) {
+        item.setReleaseEvent(this);
+        this.items.add(item);
+    }
+
     public UUID getId() {
         return id;
     }
@@ -57,4 +69,8 @@ public class InventoryReleaseEventEntity {
     public Instant getCreatedAt() {
         return createdAt;
     }
+
+    public List<InventoryReleaseEventItemEntity> getItems() {
+        return items;
+    }
 }
@@ -0,0 +1,67 @@
+package com.cloud.inventory.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "inventory_release_event_items")
+public class InventoryReleaseEventItemEntity {
+
+    @Id
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "release_event_id", nullable = false)
+    private InventoryReleaseEventEntity releaseEvent;
+
+    @Column(name = "sku_id", nullable = false, length = 64)
+    private String skuId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    protected InventoryReleaseEventItemEntity() {
+    }
+
+    public InventoryReleaseEventItemEntity(UUID id, String skuId, Integer quantity) {
+        this.id = id;
+        this.skuId = skuId;
+        this.quantity = quantity;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public InventoryReleaseEventEntity getReleaseEvent() {
+        return releaseEvent;
+    }
+
+    public void setReleaseEvent(InventoryReleaseEventEntity releaseEvent) {
+        this.releaseEvent = releaseEvent;
+        this.createdAt = releaseEvent.getCreatedAt();
+    }
+
+    public String getSkuId() {
+        return skuId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
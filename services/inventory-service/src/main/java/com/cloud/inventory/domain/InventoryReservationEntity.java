@@ -34,6 +34,9 @@ public class InventoryReservationEntity {
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
+    @Column(name = "expires_at")
+    private Instant expiresAt;
+
     @OneToMany(mappedBy = "reservation", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<InventoryReservationItemEntity> items = new ArrayList<>();
 
@@ -58,6 +61,14 @@ public class InventoryReservationEntity {
         this.reason = reason;
     }
 
+    /**
+     * Payment went through: the hold becomes permanent and is no longer a candidate for expiry.
+     */
+    public void markConfirmed() {
+        this.status = ReservationStatus.CONFIRMED;
+        this.expiresAt = null;
+    }
+
     public UUID getId() {
         return id;
     }
@@ -78,6 +89,14 @@ public class InventoryReservationEntity {
         return createdAt;
     }
 
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
     public List<InventoryReservationItemEntity> getItems() {
         return items;
     }
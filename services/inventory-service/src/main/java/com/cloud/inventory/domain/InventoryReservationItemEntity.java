@@ -27,6 +27,12 @@ public class InventoryReservationItemEntity {
     @Column(nullable = false)
     private Integer quantity;
 
+    @Column(name = "lease_id")
+    private UUID leaseId;
+
+    @Column(name = "bucket_no")
+    private Integer bucketNo;
+
     protected InventoryReservationItemEntity() {
     }
 
@@ -36,6 +42,16 @@ public class InventoryReservationItemEntity {
         this.quantity = quantity;
     }
 
+    public InventoryReservationItemEntity(UUID id, String skuId, Integer quantity, UUID leaseId) {
+        this(id, skuId, quantity);
+        this.leaseId = leaseId;
+    }
+
+    public InventoryReservationItemEntity(UUID id, String skuId, Integer quantity, UUID leaseId, Integer bucketNo) {
+        this(id, skuId, quantity, leaseId);
+        this.bucketNo = bucketNo;
+    }
+
     public UUID getId() {
         return id;
     }
@@ -55,4 +71,12 @@ public class InventoryReservationItemEntity {
     public Integer getQuantity() {
         return quantity;
     }
+
+    public UUID getLeaseId() {
+        return leaseId;
+    }
+
+    public Integer getBucketNo() {
+        return bucketNo;
+    }
 }
@@ -0,0 +1,7 @@
+package com.cloud.inventory.domain;
+
+public enum OutboxStatus {
+    PENDING,
+    SENT,
+    PARKED
+}
@@ -0,0 +1,175 @@
+package com.cloud.inventory.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "release_export_jobs")
+public class ReleaseExportJobEntity {
+
+    @Id
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReleaseExportJobStatus status;
+
+    @Column(name = "order_id")
+    private UUID orderId;
+
+    @Column(name = "from_ts")
+    private Instant from;
+
+    @Column(name = "to_ts")
+    private Instant to;
+
+    @Column(name = "total_rows")
+    private Long totalRows;
+
+    @Column(name = "rows_written", nullable = false)
+    private long rowsWritten;
+
+    @Column(name = "bytes_written", nullable = false)
+    private long bytesWritten;
+
+    @Column(name = "cursor_created_at")
+    private Instant cursorCreatedAt;
+
+    @Column(name = "cursor_id")
+    private UUID cursorId;
+
+    @Column(name = "owner_id", length = 128)
+    private String ownerId;
+
+    @Column(name = "heartbeat_at")
+    private Instant heartbeatAt;
+
+    @Column(length = 500)
+    private String error;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "completed_at")
+    private Instant completedAt;
+
+    protected ReleaseExportJobEntity() {
+    }
+
+    public ReleaseExportJobEntity(UUID id, UUID orderId, Instant from, Instant to, Instant createdAt) {
+        this.id = id;
+        this.status = ReleaseExportJobStatus.QUEUED;
+        this.orderId = orderId;
+        this.from = from;
+        this.to = to;
+        this.createdAt = createdAt;
+    }
+
+    public void markRunning(String ownerId, Instant now) {
+        this.status = ReleaseExportJobStatus.RUNNING;
+        this.ownerId = ownerId;
+        this.heartbeatAt = now;
+        if (this.startedAt == null) {
+            this.startedAt = now;
+        }
+    }
+
+    public void checkpoint(long rowsWritten, long bytesWritten, Instant cursorCreatedAt, UUID cursorId, Instant now) {
+        this.rowsWritten = rowsWritten;
+        this.bytesWritten = bytesWritten;
+        this.cursorCreatedAt = cursorCreatedAt;
+        this.cursorId = cursorId;
+        this.heartbeatAt = now;
+    }
+
+    public void markCompleted(Instant now) {
+        this.status = ReleaseExportJobStatus.COMPLETED;
+        this.heartbeatAt = now;
+        this.completedAt = now;
+    }
+
+    public void markFailed(String error, Instant now) {
+        this.status = ReleaseExportJobStatus.FAILED;
+        this.error = error;
+        this.heartbeatAt = now;
+        this.completedAt = now;
+    }
+
+    public void setTotalRows(Long totalRows) {
+        this.totalRows = totalRows;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public ReleaseExportJobStatus getStatus() {
+        return status;
+    }
+
+    public UUID getOrderId() {
+        return orderId;
+    }
+
+    public Instant getFrom() {
+        return from;
+    }
+
+    public Instant getTo() {
+        return to;
+    }
+
+    public Long getTotalRows() {
+        return totalRows;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public Instant getCursorCreatedAt() {
+        return cursorCreatedAt;
+    }
+
+    public UUID getCursorId() {
+        return cursorId;
+    }
+
+    public String getOwnerId() {
+        return ownerId;
+    }
+
+    public Instant getHeartbeatAt() {
+        return heartbeatAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+}
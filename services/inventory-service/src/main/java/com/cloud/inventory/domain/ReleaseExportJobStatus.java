@@ -0,0 +1,9 @@
+package com.cloud.inventory.domain;
+
+public enum ReleaseExportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    EXPIRED
+}
@@ -2,6 +2,7 @@ package com.cloud.inventory.domain;
 
 public enum ReservationStatus {
     RESERVED,
+    CONFIRMED,
     FAILED,
     RELEASED
 }
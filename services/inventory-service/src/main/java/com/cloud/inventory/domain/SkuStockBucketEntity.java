@@ -0,0 +1,95 @@
+package com.cloud.inventory.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "sku_stock_buckets")
+@IdClass(SkuStockBucketId.class)
+public class SkuStockBucketEntity {
+
+    @Id
+    @Column(name = "sku_id", length = 64)
+    private String skuId;
+
+    @Id
+    @Column(name = "bucket_no")
+    private Integer bucketNo;
+
+    @Column(name = "available_qty", nullable = false)
+    private Integer availableQty;
+
+    @Column(name = "reserved_qty", nullable = false)
+    private Integer reservedQty;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    protected SkuStockBucketEntity() {
+    }
+
+    public SkuStockBucketEntity(String skuId, Integer bucketNo, Integer availableQty, Integer reservedQty, Instant updatedAt) {
+        this.skuId = skuId;
+        this.bucketNo = bucketNo;
+        this.availableQty = availableQty;
+        this.reservedQty = reservedQty;
+        this.updatedAt = updatedAt;
+    }
+
+    public String getSkuId() {
+        return skuId;
+    }
+
+    public Integer getBucketNo() {
+        return bucketNo;
+    }
+
+    public Integer getAvailableQty() {
+        return availableQty;
+    }
+
+    public Integer getReservedQty() {
+        return reservedQty;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setAvailableQty(Integer availableQty) {
+        this.availableQty = availableQty;
+        this.updatedAt = Instant.now();
+    }
+
+    public void replaceQuantities(int availableQty, int reservedQty) {
+        this.availableQty = availableQty;
+        this.reservedQty = reservedQty;
+        this.updatedAt = Instant.now();
+    }
+
+    public void reserve(int qty) {
+        if (this.availableQty < qty) {
+            throw new IllegalStateException("Cannot reserve more than available in bucket " + bucketNo + " for sku: " + skuId);
+        }
+        this.availableQty = this.availableQty - qty;
+        this.reservedQty = this.reservedQty + qty;
+        this.updatedAt = Instant.now();
+    }
+
+    public void release(int qty) {
+        if (qty < 0) {
+            throw new IllegalArgumentException("Release quantity must be non-negative");
+        }
+        if (this.reservedQty < qty) {
+            throw new IllegalStateException("Cannot release more than reserved in bucket " + bucketNo + " for sku: " + skuId);
+        }
+        this.availableQty = this.availableQty + qty;
+        this.reservedQty = this.reservedQty - qty;
+        this.updatedAt = Instant.now();
+    }
+}
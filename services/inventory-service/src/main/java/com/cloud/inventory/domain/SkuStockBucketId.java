@@ -0,0 +1,42 @@
+package com.cloud.inventory.domain;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+public class SkuStockBucketId implements Serializable {
+
+    private String skuId;
+    private Integer bucketNo;
+
+    protected SkuStockBucketId() {
+    }
+
+    public SkuStockBucketId(String skuId, Integer bucketNo) {
+        this.skuId = skuId;
+        this.bucketNo = bucketNo;
+    }
+
+    public String getSkuId() {
+        return skuId;
+    }
+
+    public Integer getBucketNo() {
+        return bucketNo;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof SkuStockBucketId that)) {
+            return false;
+        }
+        return Objects.equals(skuId, that.skuId) && Objects.equals(bucketNo, that.bucketNo);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(skuId, bucketNo);
+    }
+}
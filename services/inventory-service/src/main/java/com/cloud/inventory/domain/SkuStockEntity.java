@@ -4,6 +4,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 import java.time.Instant;
 
@@ -24,6 +25,17 @@ public class SkuStockEntity {
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt;
 
+    @Column(name = "bucket_count", nullable = false)
+    private Integer bucketCount = 0;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    // Written only by the reservation engine's write-behind journal (see SkuStockRepository#applyEngineSnapshot).
+    @Column(name = "engine_version", nullable = false, insertable = false, updatable = false)
+    private Long engineVersion = 0L;
+
     protected SkuStockEntity() {
     }
 
@@ -34,6 +46,11 @@ public class SkuStockEntity {
         this.updatedAt = updatedAt;
     }
 
+    public SkuStockEntity(String skuId, Integer availableQty, Integer reservedQty, Instant updatedAt, Integer bucketCount) {
+        this(skuId, availableQty, reservedQty, updatedAt);
+        this.bucketCount = bucketCount;
+    }
+
     public String getSkuId() {
         return skuId;
     }
@@ -50,6 +67,29 @@ public class SkuStockEntity {
         return updatedAt;
     }
 
+    public Integer getBucketCount() {
+        return bucketCount;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Long getEngineVersion() {
+        return engineVersion;
+    }
+
+    public void setBucketCount(Integer bucketCount) {
+        this.bucketCount = bucketCount;
+        this.updatedAt = Instant.now();
+    }
+
+    public void replaceQuantities(int availableQty, int reservedQty) {
+        this.availableQty = availableQty;
+        this.reservedQty = reservedQty;
+        this.updatedAt = Instant.now();
+    }
+
     public void setAvailableQty(Integer availableQty) {
         this.availableQty = availableQty;
         this.updatedAt = Instant.now();
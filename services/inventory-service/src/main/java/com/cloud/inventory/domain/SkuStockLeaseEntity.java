@@ -0,0 +1,99 @@
+package com.cloud.inventory.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "sku_stock_leases")
+public class SkuStockLeaseEntity {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "sku_id", nullable = false, length = 64)
+    private String skuId;
+
+    @Column(name = "holder_id", nullable = false, length = 128)
+    private String holderId;
+
+    @Column(name = "granted_qty", nullable = false)
+    private Integer grantedQty;
+
+    @Column(name = "consumed_qty")
+    private Integer consumedQty;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private SkuStockLeaseStatus status;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "renewed_at", nullable = false)
+    private Instant renewedAt;
+
+    @Column(name = "closed_at")
+    private Instant closedAt;
+
+    protected SkuStockLeaseEntity() {
+    }
+
+    public SkuStockLeaseEntity(UUID id, String skuId, String holderId, Integer grantedQty, Instant createdAt) {
+        this.id = id;
+        this.skuId = skuId;
+        this.holderId = holderId;
+        this.grantedQty = grantedQty;
+        this.status = SkuStockLeaseStatus.ACTIVE;
+        this.createdAt = createdAt;
+        this.renewedAt = createdAt;
+    }
+
+    public void close(int consumedQty, Instant closedAt) {
+        this.consumedQty = consumedQty;
+        this.status = SkuStockLeaseStatus.CLOSED;
+        this.closedAt = closedAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getSkuId() {
+        return skuId;
+    }
+
+    public String getHolderId() {
+        return holderId;
+    }
+
+    public Integer getGrantedQty() {
+        return grantedQty;
+    }
+
+    public Integer getConsumedQty() {
+        return consumedQty;
+    }
+
+    public SkuStockLeaseStatus getStatus() {
+        return status;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getRenewedAt() {
+        return renewedAt;
+    }
+
+    public Instant getClosedAt() {
+        return closedAt;
+    }
+}
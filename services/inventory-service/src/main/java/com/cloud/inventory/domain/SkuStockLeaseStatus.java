@@ -0,0 +1,6 @@
+package com.cloud.inventory.domain;
+
+public enum SkuStockLeaseStatus {
+    ACTIVE,
+    CLOSED
+}
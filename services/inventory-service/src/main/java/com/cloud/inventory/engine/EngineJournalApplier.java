@@ -0,0 +1,128 @@
+package com.cloud.inventory.engine;
+
+import com.cloud.inventory.domain.InventoryReleaseEventEntity;
+import com.cloud.inventory.domain.InventoryReleaseEventItemEntity;
+import com.cloud.inventory.domain.InventoryReservationEntity;
+import com.cloud.inventory.domain.InventoryReservationItemEntity;
+import com.cloud.inventory.domain.ReservationStatus;
+import com.cloud.inventory.hotsku.SkuVolumeTracker;
+import com.cloud.inventory.repo.InventoryReleaseEventRepository;
+import com.cloud.inventory.repo.InventoryReservationRepository;
+import com.cloud.inventory.repo.SkuStockRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Persists a batch of reservation engine journal entries in one transaction. Every step is idempotent: order rows
+ * are inserted only if missing and stock rows only move to a newer engine version, so a batch that is redelivered
+ * after a crash, or applied by two instances out of order, converges on the Redis state.
+ */
+@Component
+public class EngineJournalApplier {
+
+    private final SkuStockRepository skuStockRepository;
+    private final InventoryReservationRepository reservationRepository;
+    private final InventoryReleaseEventRepository releaseEventRepository;
+    private final SkuVolumeTracker skuVolumeTracker;
+
+    public EngineJournalApplier(SkuStockRepository skuStockRepository,
+                                InventoryReservationRepository reservationRepository,
+                                InventoryReleaseEventRepository releaseEventRepository,
+                                SkuVolumeTracker skuVolumeTracker) {
+        this.skuStockRepository = skuStockRepository;
+        this.reservationRepository = reservationRepository;
+        this.releaseEventRepository = releaseEventRepository;
+        this.skuVolumeTracker = skuVolumeTracker;
+    }
+
+    @Transactional
+    public void apply(List<EngineJournalEntry> entries) {
+        for (EngineJournalEntry entry : entries) {
+            switch (entry.type()) {
+                case EngineJournalEntry.RESERVED -> insertIfMissing(entry.order(), ReservationStatus.RESERVED);
+                case EngineJournalEntry.FAILED -> insertIfMissing(entry.order(), ReservationStatus.FAILED);
+                case EngineJournalEntry.RELEASED -> applyRelease(entry.order());
+                case EngineJournalEntry.UPSERT -> {
+                    // Stock-only change, handled below.
+                }
+                default -> throw new IllegalArgumentException("Unknown journal entry type: " + entry.type());
+            }
+            applySnapshots(entry.stocks());
+        }
+    }
+
+    private InventoryReservationEntity insertIfMissing(EngineOrderRecord order, ReservationStatus status) {
+        UUID orderId = UUID.fromString(order.orderId());
+        return reservationRepository.findByOrderId(orderId).orElseGet(() -> {
+            InventoryReservationEntity reservation = new InventoryReservationEntity(
+                    UUID.fromString(order.reservationId()),
+                    orderId,
+                    status,
+                    status == ReservationStatus.FAILED ? order.reason() : null,
+                    Instant.ofEpochMilli(order.createdAt())
+            );
+            for (EngineOrderRecord.Item item : order.items()) {
+                reservation.addItem(new InventoryReservationItemEntity(UUID.randomUUID(), item.skuId(), item.quantity()));
+            }
+            if (status == ReservationStatus.RESERVED) {
+                skuVolumeTracker.recordAfterCommit(SkuVolumeTracker.Kind.RESERVED, quantityBySku(order));
+            }
+            return reservationRepository.save(reservation);
+        });
+    }
+
+    private void applyRelease(EngineOrderRecord order) {
+        // Another instance may not have persisted the RESERVED entry yet; create the row from the release record.
+        InventoryReservationEntity reservation = insertIfMissing(order, ReservationStatus.RESERVED);
+        if (reservation.getStatus() == ReservationStatus.RESERVED) {
+            reservation.markReleased(order.reason());
+        }
+        UUID orderId = reservation.getOrderId();
+        if (!releaseEventRepository.existsByOrderId(orderId)) {
+            // Stamped when persisted, not with the engine's releasedAt: the entry may reach Postgres seconds later
+            // (up to claim-idle-seconds after a crash), and the release tail only stays ordered if created_at trails
+            // the commit by no more than one transaction.
+            InventoryReleaseEventEntity event = new InventoryReleaseEventEntity(
+                    UUID.fromString(order.releaseEventId()),
+                    orderId,
+                    reservation.getId(),
+                    order.reason(),
+                    Instant.now()
+            );
+            Map<String, Integer> releasedBySku = quantityBySku(order);
+            releasedBySku.forEach((skuId, quantity) ->
+                    event.addItem(new InventoryReleaseEventItemEntity(UUID.randomUUID(), skuId, quantity)));
+            InventoryReleaseEventEntity releaseEvent = releaseEventRepository.save(event);
+            releaseEventRepository.recordStats(releaseEvent);
+            skuVolumeTracker.recordAfterCommit(SkuVolumeTracker.Kind.RELEASED, releasedBySku);
+        }
+    }
+
+    private static Map<String, Integer> quantityBySku(EngineOrderRecord order) {
+        Map<String, Integer> quantityBySku = new LinkedHashMap<>();
+        order.items().forEach(item -> quantityBySku.merge(item.skuId(), item.quantity(), Integer::sum));
+        return quantityBySku;
+    }
+
+    private void applySnapshots(List<EngineJournalEntry.StockSnapshot> stocks) {
+        if (stocks == null) {
+            return;
+        }
+        Instant now = Instant.now();
+        for (EngineJournalEntry.StockSnapshot stock : stocks) {
+            skuStockRepository.applyEngineSnapshot(
+                    stock.skuId(),
+                    stock.availableQty(),
+                    stock.reservedQty(),
+                    stock.version(),
+                    now
+            );
+        }
+    }
+}
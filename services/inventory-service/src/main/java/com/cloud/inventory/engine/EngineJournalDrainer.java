@@ -0,0 +1,228 @@
+package com.cloud.inventory.engine;
+
+import com.cloud.inventory.domain.InventoryReservationEntity;
+import com.cloud.inventory.domain.SkuStockEntity;
+import com.cloud.inventory.repo.InventoryReservationRepository;
+import com.cloud.inventory.repo.SkuStockRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind side of {@link RedisReservationEngine}: reads the journal stream through a consumer group, applies
+ * batches with {@link EngineJournalApplier} and acknowledges (then deletes) entries only after the batch commits.
+ * <p>
+ * Entries left pending by a crash are redelivered to the same consumer, and entries pending on a consumer that
+ * stopped (another instance, or this host before a restart) are claimed once idle. On startup the journal is
+ * drained before Redis is reconciled from Postgres: stock hashes and RESERVED order records missing from Redis
+ * (e.g. after losing an un-persisted Redis) are recreated, while anything Redis still holds is left as is.
+ */
+@Component
+public class EngineJournalDrainer {
+
+    private static final Logger log = LoggerFactory.getLogger(EngineJournalDrainer.class);
+    private static final String PAYLOAD_FIELD = "payload";
+    private static final int MAX_RECOVERY_BATCHES = 10_000;
+
+    private final RedisReservationEngine engine;
+    private final EngineJournalApplier applier;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final SkuStockRepository skuStockRepository;
+    private final InventoryReservationRepository reservationRepository;
+    private final MeterRegistry meterRegistry;
+    private final String group;
+    private final String consumerName;
+    private final int batchSize;
+    private final Duration claimIdle;
+    private final AtomicLong backlog = new AtomicLong();
+    private volatile boolean recovered;
+
+    public EngineJournalDrainer(
+            RedisReservationEngine engine,
+            EngineJournalApplier applier,
+            StringRedisTemplate redisTemplate,
+            ObjectMapper objectMapper,
+            SkuStockRepository skuStockRepository,
+            InventoryReservationRepository reservationRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.reservation-engine.journal.group:inventory-write-behind}") String group,
+            @Value("${app.reservation-engine.journal.consumer:inventory-service}") String consumer,
+            @Value("${app.reservation-engine.journal.batch-size:200}") int batchSize,
+            @Value("${app.reservation-engine.journal.claim-idle-seconds:30}") long claimIdleSeconds
+    ) {
+        this.engine = engine;
+        this.applier = applier;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.skuStockRepository = skuStockRepository;
+        this.reservationRepository = reservationRepository;
+        this.meterRegistry = meterRegistry;
+        this.group = group;
+        // A stable consumer name lets a restarted instance pick up its own pending entries directly.
+        this.consumerName = consumer;
+        this.batchSize = Math.max(batchSize, 1);
+        this.claimIdle = Duration.ofSeconds(Math.max(claimIdleSeconds, 1));
+
+        Gauge.builder("inventory_engine_journal_backlog", backlog, AtomicLong::get)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        if (!engine.isEnabled()) {
+            return;
+        }
+        ensureGroup();
+        int batches = 0;
+        while (batches++ < MAX_RECOVERY_BATCHES && drainOnce() > 0) {
+            // Keep going until the journal is empty so Postgres is current before reconciling Redis from it.
+        }
+        if (backlog.get() > 0) {
+            log.warn("Reservation engine journal still has {} entries after recovery drain; skipping reseed", backlog.get());
+            return;
+        }
+        reseedFromPostgres();
+        recovered = true;
+    }
+
+    @Scheduled(fixedDelayString = "${app.reservation-engine.journal.drain-interval-ms:200}")
+    public void drain() {
+        if (!engine.isEnabled() || !recovered) {
+            return;
+        }
+        try {
+            while (drainOnce() == batchSize) {
+                // Full batch: more entries are likely waiting.
+            }
+        } catch (RuntimeException ex) {
+            // Entries stay pending and are retried on the next tick.
+            log.warn("Reservation engine journal drain failed: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Applies at most one batch: this consumer's pending entries first, otherwise new ones. Returns the number of
+     * entries acknowledged.
+     */
+    synchronized int drainOnce() {
+        StreamOperations<String, Object, Object> stream = redisTemplate.opsForStream();
+        String journalKey = engine.journalKey();
+        claimAbandoned(stream, journalKey);
+
+        Consumer consumer = Consumer.from(group, consumerName);
+        StreamReadOptions options = StreamReadOptions.empty().count(batchSize);
+        List<MapRecord<String, Object, Object>> records = stream.read(consumer, options,
+                StreamOffset.create(journalKey, ReadOffset.from("0")));
+        if (records == null || records.isEmpty()) {
+            records = stream.read(consumer, options, StreamOffset.create(journalKey, ReadOffset.lastConsumed()));
+        }
+        if (records == null || records.isEmpty()) {
+            updateBacklog(stream, journalKey);
+            return 0;
+        }
+
+        List<EngineJournalEntry> entries = new ArrayList<>(records.size());
+        List<RecordId> ids = new ArrayList<>(records.size());
+        for (MapRecord<String, Object, Object> record : records) {
+            ids.add(record.getId());
+            EngineJournalEntry entry = parse(record);
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+
+        applier.apply(entries);
+        RecordId[] acked = ids.toArray(RecordId[]::new);
+        stream.acknowledge(journalKey, group, acked);
+        stream.delete(journalKey, acked);
+        meterRegistry.counter("inventory_engine_journal_applied").increment(entries.size());
+        updateBacklog(stream, journalKey);
+        return ids.size();
+    }
+
+    private void claimAbandoned(StreamOperations<String, Object, Object> stream, String journalKey) {
+        List<RecordId> abandoned = new ArrayList<>();
+        for (PendingMessage pending : stream.pending(journalKey, group, Range.unbounded(), batchSize)) {
+            if (!consumerName.equals(pending.getConsumerName())
+                    && pending.getElapsedTimeSinceLastDelivery().compareTo(claimIdle) >= 0) {
+                abandoned.add(pending.getId());
+            }
+        }
+        if (!abandoned.isEmpty()) {
+            stream.claim(journalKey, group, consumerName, claimIdle, abandoned.toArray(RecordId[]::new));
+            log.info("Claimed {} reservation engine journal entries from stopped consumers", abandoned.size());
+        }
+    }
+
+    private EngineJournalEntry parse(MapRecord<String, Object, Object> record) {
+        Object payload = record.getValue().get(PAYLOAD_FIELD);
+        try {
+            return objectMapper.readValue(String.valueOf(payload), EngineJournalEntry.class);
+        } catch (JsonProcessingException ex) {
+            // Redelivering an unreadable entry cannot succeed; acknowledge it with the batch and count it.
+            meterRegistry.counter("inventory_engine_journal_poison").increment();
+            log.error("Skipping unreadable reservation engine journal entry {}", record.getId(), ex);
+            return null;
+        }
+    }
+
+    private void ensureGroup() {
+        try {
+            redisTemplate.opsForStream().createGroup(engine.journalKey(), ReadOffset.from("0"), group);
+        } catch (RedisSystemException ex) {
+            if (ex.getMessage() == null || !ex.getMessage().contains("BUSYGROUP")) {
+                throw ex;
+            }
+        }
+    }
+
+    private void reseedFromPostgres() {
+        int seededStocks = 0;
+        for (SkuStockEntity stock : skuStockRepository.findAllById(engine.getEngineSkus())) {
+            if (engine.seedStock(stock.getSkuId(), stock.getAvailableQty(), stock.getReservedQty(), stock.getEngineVersion())) {
+                seededStocks++;
+            }
+        }
+        int seededOrders = 0;
+        for (InventoryReservationEntity reservation : reservationRepository.findReservedContainingSkus(engine.getEngineSkus())) {
+            boolean engineOnly = reservation.getItems().stream().allMatch(item -> engine.isEngineSku(item.getSkuId()));
+            if (engineOnly && engine.seedReservation(reservation)) {
+                seededOrders++;
+            }
+        }
+        if (seededStocks > 0 || seededOrders > 0) {
+            log.warn("Reservation engine reseeded {} stock hashes and {} order records from Postgres",
+                    seededStocks, seededOrders);
+        }
+    }
+
+    private void updateBacklog(StreamOperations<String, Object, Object> stream, String journalKey) {
+        Long size = stream.size(journalKey);
+        backlog.set(size == null ? 0 : size);
+    }
+}
@@ -0,0 +1,25 @@
+package com.cloud.inventory.engine;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+
+/**
+ * One write-behind journal entry. {@code stocks} carries the absolute quantities of every touched SKU after the
+ * change, so replaying an entry twice or out of order cannot move {@code sku_stocks} backwards.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record EngineJournalEntry(
+        String type,
+        EngineOrderRecord order,
+        List<StockSnapshot> stocks
+) {
+    public static final String RESERVED = "RESERVED";
+    public static final String FAILED = "FAILED";
+    public static final String RELEASED = "RELEASED";
+    public static final String UPSERT = "UPSERT";
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record StockSnapshot(String skuId, int availableQty, int reservedQty, long version) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.cloud.inventory.engine;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+
+/**
+ * Per-order record kept in Redis by the reservation engine; doubles as the order's idempotency key.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record EngineOrderRecord(
+        String orderId,
+        String reservationId,
+        long createdAt,
+        String status,
+        String reason,
+        List<Item> items,
+        Long releasedAt,
+        String releaseEventId
+) {
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Item(String skuId, int quantity) {
+    }
+}
@@ -0,0 +1,291 @@
+package com.cloud.inventory.engine;
+
+import com.cloud.inventory.domain.InventoryReservationEntity;
+import com.cloud.inventory.domain.ReservationStatus;
+import com.cloud.inventory.domain.SkuStockEntity;
+import com.cloud.inventory.service.InventoryReleaseOutcome;
+import com.cloud.inventory.service.ReservationOutcome;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Opt-in reservation engine that keeps {@code available}/{@code reserved} for enabled SKUs authoritatively in
+ * Redis.
+ * <p>
+ * Each reserve or release runs as one Lua script that checks every SKU, applies all-or-nothing, stores the order
+ * record used for idempotency and appends the change to a journal stream in the same atomic step.
+ * {@link EngineJournalDrainer} persists that journal to {@code sku_stocks} and {@code inventory_reservations} in
+ * batches. All keys share one hash tag so multi-key scripts stay valid on Redis Cluster.
+ */
+@Component
+public class RedisReservationEngine {
+
+    private static final RedisScript<String> RESERVE_SCRIPT = script("engine/reserve.lua");
+    private static final RedisScript<String> RELEASE_SCRIPT = script("engine/release.lua");
+    private static final RedisScript<String> UPSERT_SCRIPT = script("engine/upsert.lua");
+    private static final RedisScript<Long> SEED_SCRIPT = RedisScript.of(new ClassPathResource("engine/seed.lua"), Long.class);
+    private static final int MAX_RELEASE_ATTEMPTS = 3;
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Set<String> engineSkus;
+    private final String keyPrefix;
+    private final Duration terminalRecordTtl;
+
+    public RedisReservationEngine(
+            StringRedisTemplate redisTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.reservation-engine.enabled:false}") boolean enabled,
+            @Value("${app.reservation-engine.skus:}") String engineSkus,
+            @Value("${app.reservation-engine.key-prefix:{inventory-engine}:}") String keyPrefix,
+            @Value("${app.reservation-engine.terminal-record-ttl-hours:168}") long terminalRecordTtlHours
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.engineSkus = Arrays.stream(engineSkus.split(","))
+                .map(String::trim)
+                .filter(sku -> !sku.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.keyPrefix = keyPrefix;
+        this.terminalRecordTtl = Duration.ofHours(Math.max(terminalRecordTtlHours, 1));
+    }
+
+    public boolean isEnabled() {
+        return enabled && !engineSkus.isEmpty();
+    }
+
+    public boolean isEngineSku(String skuId) {
+        return enabled && engineSkus.contains(skuId);
+    }
+
+    public Set<String> getEngineSkus() {
+        return enabled ? engineSkus : Set.of();
+    }
+
+    /**
+     * Reserves every SKU of the order atomically. A repeated call for the same order returns the stored outcome.
+     */
+    public ReservationOutcome reserve(UUID orderId, Map<String, Integer> requestedBySku) {
+        List<String> keys = new ArrayList<>();
+        keys.add(orderKey(orderId));
+        keys.add(journalKey());
+        List<String> args = new ArrayList<>(List.of(
+                orderId.toString(),
+                UUID.randomUUID().toString(),
+                String.valueOf(Instant.now().toEpochMilli()),
+                String.valueOf(terminalRecordTtl.toSeconds())
+        ));
+        requestedBySku.forEach((skuId, qty) -> {
+            keys.add(stockKey(skuId));
+            args.add(skuId);
+            args.add(String.valueOf(qty));
+        });
+
+        ScriptResult result = execute(RESERVE_SCRIPT, keys, args.toArray());
+        meterRegistry.counter("inventory_engine_reservations", "result", result.result().toLowerCase()).increment();
+        return toReservationOutcome(result.order());
+    }
+
+    /**
+     * Releases a reservation held by the engine. The result is unhandled when Redis has no record for the order,
+     * in which case the reservation (if any) lives in Postgres.
+     */
+    public ReleaseResult release(UUID orderId, String reason) {
+        if (!isEnabled()) {
+            return ReleaseResult.unhandled();
+        }
+        String orderKey = orderKey(orderId);
+        for (int attempt = 0; attempt < MAX_RELEASE_ATTEMPTS; attempt++) {
+            String stored = redisTemplate.opsForValue().get(orderKey);
+            if (stored == null) {
+                return ReleaseResult.unhandled();
+            }
+            EngineOrderRecord record = read(stored, EngineOrderRecord.class);
+            if (!ReservationStatus.RESERVED.name().equals(record.status())) {
+                return ReleaseResult.handled(Optional.empty());
+            }
+
+            List<String> keys = new ArrayList<>();
+            keys.add(orderKey);
+            keys.add(journalKey());
+            record.items().forEach(item -> keys.add(stockKey(item.skuId())));
+            ScriptResult result = execute(RELEASE_SCRIPT, keys,
+                    reason,
+                    String.valueOf(Instant.now().toEpochMilli()),
+                    UUID.randomUUID().toString(),
+                    String.valueOf(terminalRecordTtl.toSeconds()),
+                    stockKeyPrefix());
+
+            switch (result.result()) {
+                case "RELEASED" -> {
+                    meterRegistry.counter("inventory_engine_releases", "result", "released").increment();
+                    return ReleaseResult.handled(Optional.of(toReleaseOutcome(result.order())));
+                }
+                case "NOOP" -> {
+                    return ReleaseResult.handled(Optional.empty());
+                }
+                case "NOT_FOUND" -> {
+                    return ReleaseResult.unhandled();
+                }
+                default -> {
+                    // The record changed between GET and the script; read it again.
+                }
+            }
+        }
+        throw new IllegalStateException("Engine release kept racing for order: " + orderId);
+    }
+
+    public SkuStockEntity upsert(String skuId, int availableQty) {
+        String payload = redisTemplate.execute(UPSERT_SCRIPT, List.of(stockKey(skuId), journalKey()),
+                skuId, String.valueOf(availableQty));
+        EngineJournalEntry.StockSnapshot snapshot = read(payload, EngineJournalEntry.StockSnapshot.class);
+        return new SkuStockEntity(skuId, snapshot.availableQty(), snapshot.reservedQty(), Instant.now());
+    }
+
+    public Optional<SkuStockEntity> getStock(String skuId) {
+        List<Object> values = redisTemplate.opsForHash().multiGet(stockKey(skuId), List.<Object>of("available", "reserved"));
+        if (values.get(0) == null) {
+            return Optional.empty();
+        }
+        int reserved = values.get(1) == null ? 0 : Integer.parseInt(values.get(1).toString());
+        return Optional.of(new SkuStockEntity(skuId, Integer.parseInt(values.get(0).toString()), reserved, Instant.now()));
+    }
+
+    /**
+     * Recreates a SKU's hash from Postgres if Redis lost it. Returns false when the hash already exists.
+     */
+    public boolean seedStock(String skuId, int availableQty, int reservedQty, long version) {
+        Long created = redisTemplate.execute(SEED_SCRIPT, List.of(stockKey(skuId)),
+                String.valueOf(availableQty), String.valueOf(reservedQty), String.valueOf(version));
+        return created != null && created == 1L;
+    }
+
+    /**
+     * Recreates the order record of a reservation that Postgres still holds as RESERVED, so its release keeps
+     * going through the engine. Returns false when a record already exists.
+     */
+    public boolean seedReservation(InventoryReservationEntity reservation) {
+        List<EngineOrderRecord.Item> items = reservation.getItems().stream()
+                .map(item -> new EngineOrderRecord.Item(item.getSkuId(), item.getQuantity()))
+                .toList();
+        EngineOrderRecord record = new EngineOrderRecord(
+                reservation.getOrderId().toString(),
+                reservation.getId().toString(),
+                reservation.getCreatedAt().toEpochMilli(),
+                reservation.getStatus().name(),
+                reservation.getReason(),
+                items,
+                null,
+                null
+        );
+        Boolean created = redisTemplate.opsForValue().setIfAbsent(orderKey(reservation.getOrderId()), write(record));
+        return Boolean.TRUE.equals(created);
+    }
+
+    public String journalKey() {
+        return keyPrefix + "journal";
+    }
+
+    String orderKey(UUID orderId) {
+        return keyPrefix + "order:" + orderId;
+    }
+
+    String stockKey(String skuId) {
+        return stockKeyPrefix() + skuId;
+    }
+
+    private String stockKeyPrefix() {
+        return keyPrefix + "stock:";
+    }
+
+    private ScriptResult execute(RedisScript<String> script, List<String> keys, Object... args) {
+        return read(redisTemplate.execute(script, keys, args), ScriptResult.class);
+    }
+
+    private ReservationOutcome toReservationOutcome(EngineOrderRecord record) {
+        return new ReservationOutcome(
+                UUID.fromString(record.reservationId()),
+                UUID.fromString(record.orderId()),
+                ReservationStatus.valueOf(record.status()),
+                record.reason(),
+                Instant.ofEpochMilli(record.createdAt()),
+                record.items().stream()
+                        .map(item -> new ReservationOutcome.ReservedItem(item.skuId(), item.quantity()))
+                        .toList()
+        );
+    }
+
+    private InventoryReleaseOutcome toReleaseOutcome(EngineOrderRecord record) {
+        return new InventoryReleaseOutcome(
+                UUID.fromString(record.releaseEventId()),
+                UUID.fromString(record.orderId()),
+                UUID.fromString(record.reservationId()),
+                record.reason(),
+                Instant.ofEpochMilli(record.releasedAt()),
+                record.items().stream()
+                        .map(item -> new InventoryReleaseOutcome.ReleasedItem(item.skuId(), item.quantity()))
+                        .toList()
+        );
+    }
+
+    private <T> T read(String payload, Class<T> type) {
+        if (payload == null) {
+            throw new IllegalStateException("Reservation engine script returned no result");
+        }
+        try {
+            return objectMapper.readValue(payload, type);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unreadable reservation engine payload", ex);
+        }
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to serialize reservation engine record", ex);
+        }
+    }
+
+    private static RedisScript<String> script(String location) {
+        return RedisScript.of(new ClassPathResource(location), String.class);
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record ScriptResult(String result, EngineOrderRecord order) {
+    }
+
+    public record ReleaseResult(boolean handled, Optional<InventoryReleaseOutcome> outcome) {
+
+        static ReleaseResult handled(Optional<InventoryReleaseOutcome> outcome) {
+            return new ReleaseResult(true, outcome);
+        }
+
+        static ReleaseResult unhandled() {
+            return new ReleaseResult(false, Optional.empty());
+        }
+    }
+}
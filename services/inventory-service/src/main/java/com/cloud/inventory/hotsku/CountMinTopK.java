@@ -0,0 +1,135 @@
+package com.cloud.inventory.hotsku;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Heavy-hitter tracker in fixed memory: a count-min sketch estimates the weight of every key seen, and a min-heap
+ * keeps the {@code capacity} keys with the largest estimates.
+ * <p>
+ * Estimates never undercount. They overcount by at most {@code e / width} of the total weight with probability
+ * {@code 1 - e^-depth}; with the defaults (2048 x 4) that is about 0.13% of the window's volume, 98% of the time.
+ * A key that enters the heap late keeps its full sketch estimate, so ranking does not depend on arrival order.
+ */
+public final class CountMinTopK {
+
+    private final int width;
+    private final long[][] counts;
+    private final int capacity;
+    private final Map<String, Candidate> candidates = new HashMap<>();
+    private final PriorityQueue<Candidate> heap = new PriorityQueue<>(Comparator.comparingLong(Candidate::estimate));
+    private long total;
+
+    public CountMinTopK(int width, int depth, int capacity) {
+        if (width < 1 || depth < 1 || capacity < 1) {
+            throw new IllegalArgumentException("width, depth and capacity must be positive");
+        }
+        this.width = width;
+        this.counts = new long[depth][width];
+        this.capacity = capacity;
+    }
+
+    public synchronized void add(String key, long weight) {
+        if (weight <= 0) {
+            return;
+        }
+        total += weight;
+        long hash = fnv1a64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < counts.length; row++) {
+            int column = Math.floorMod(h1 + row * h2, width);
+            counts[row][column] += weight;
+            estimate = Math.min(estimate, counts[row][column]);
+        }
+
+        Candidate candidate = candidates.get(key);
+        if (candidate != null) {
+            heap.remove(candidate);
+            candidate.estimate = estimate;
+            heap.add(candidate);
+        } else if (candidates.size() < capacity) {
+            admit(key, estimate);
+        } else if (estimate > heap.peek().estimate) {
+            candidates.remove(heap.poll().key);
+            admit(key, estimate);
+        }
+    }
+
+    public synchronized long estimate(String key) {
+        long hash = fnv1a64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < counts.length; row++) {
+            estimate = Math.min(estimate, counts[row][Math.floorMod(h1 + row * h2, width)]);
+        }
+        return estimate;
+    }
+
+    /**
+     * The heaviest keys, largest estimate first, at most {@code limit} of them.
+     */
+    public synchronized List<Entry> top(int limit) {
+        List<Entry> entries = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates.values()) {
+            entries.add(new Entry(candidate.key, candidate.estimate));
+        }
+        entries.sort(Comparator.comparingLong(Entry::estimate).reversed().thenComparing(Entry::key));
+        return entries.size() <= limit ? entries : List.copyOf(entries.subList(0, limit));
+    }
+
+    public synchronized long total() {
+        return total;
+    }
+
+    /**
+     * Worst-case overcount of any single estimate (holds with probability {@code 1 - e^-depth}).
+     */
+    public synchronized long errorBound() {
+        return (long) Math.ceil(Math.E / width * total);
+    }
+
+    private void admit(String key, long estimate) {
+        Candidate candidate = new Candidate(key, estimate);
+        candidates.put(key, candidate);
+        heap.add(candidate);
+    }
+
+    private static long fnv1a64(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        // FNV leaves the high bits weakly mixed; murmur3's finalizer makes both halves usable as hashes.
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    public record Entry(String key, long estimate) {
+    }
+
+    private static final class Candidate {
+
+        private final String key;
+        private long estimate;
+
+        private Candidate(String key, long estimate) {
+            this.key = key;
+            this.estimate = estimate;
+        }
+
+        private long estimate() {
+            return estimate;
+        }
+    }
+}
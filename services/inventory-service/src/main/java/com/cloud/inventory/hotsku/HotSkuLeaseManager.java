@@ -0,0 +1,452 @@
+package com.cloud.inventory.hotsku;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Reserves designated hot SKUs against per-instance quota leased in chunks from {@code sku_stocks}.
+ * <p>
+ * A lease moves a chunk from {@code available_qty} to {@code reserved_qty} up front; reservations then draw
+ * from an in-memory striped counter and record the lease on their item rows. The lease is closed once it is
+ * retired (exhausted or aged out) and has no in-flight reservations, returning
+ * {@code granted - sum(items with lease_id)} to {@code available_qty}. Leases whose holder stopped renewing
+ * (e.g. a crashed instance) are closed the same way by any instance. Because that holder may only be slow, it stops
+ * drawing from a lease it has not renewed for half of {@code stale-lease-seconds}, and every reservation share-locks
+ * and re-checks its leases ({@link #confirmLeases}) before saving items against them.
+ * <p>
+ * Leases are granted on a dedicated thread, never on the request path: a reservation transaction already holds a
+ * pooled connection, and opening a second one per waiting request starves the pool under exactly the flash-sale
+ * load this mode is for. The reconciler pre-grants a lease for every hot SKU, and a lease running low is refilled
+ * in the background. A SKU whose local lease cannot cover a request falls back to the {@code sku_stocks} row path.
+ */
+@Component
+public class HotSkuLeaseManager {
+
+    private static final Logger log = LoggerFactory.getLogger(HotSkuLeaseManager.class);
+    private static final int STALE_LEASE_BATCH_SIZE = 100;
+
+    private final HotSkuLeaseStore leaseStore;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Set<String> hotSkus;
+    private final int leaseChunkSize;
+    private final int refillBelow;
+    private final int stripes;
+    private final Duration maxLeaseAge;
+    private final Duration staleLeaseAfter;
+    private final Duration renewFence;
+    private final String holderId;
+
+    private final Map<String, LocalLease> activeLeases = new ConcurrentHashMap<>();
+    private final Set<LocalLease> retiredLeases = ConcurrentHashMap.newKeySet();
+    private final Set<String> pendingGrants = ConcurrentHashMap.newKeySet();
+    private final Executor grantExecutor;
+
+    @Autowired
+    public HotSkuLeaseManager(
+            HotSkuLeaseStore leaseStore,
+            MeterRegistry meterRegistry,
+            @Value("${app.hot-sku.enabled:false}") boolean enabled,
+            @Value("${app.hot-sku.skus:}") String hotSkus,
+            @Value("${app.hot-sku.lease-chunk-size:200}") int leaseChunkSize,
+            @Value("${app.hot-sku.refill-below:50}") int refillBelow,
+            @Value("${app.hot-sku.stripes:8}") int stripes,
+            @Value("${app.hot-sku.max-lease-age-seconds:30}") long maxLeaseAgeSeconds,
+            @Value("${app.hot-sku.stale-lease-seconds:60}") long staleLeaseSeconds,
+            @Value("${app.hot-sku.holder-id:inventory-service}") String holderId
+    ) {
+        this(leaseStore, meterRegistry, enabled, hotSkus, leaseChunkSize, refillBelow, stripes, maxLeaseAgeSeconds,
+                staleLeaseSeconds, holderId, newGrantExecutor());
+    }
+
+    HotSkuLeaseManager(HotSkuLeaseStore leaseStore, MeterRegistry meterRegistry, boolean enabled, String hotSkus,
+                       int leaseChunkSize, int refillBelow, int stripes, long maxLeaseAgeSeconds,
+                       long staleLeaseSeconds, String holderId, Executor grantExecutor) {
+        this.leaseStore = leaseStore;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.hotSkus = Arrays.stream(hotSkus.split(","))
+                .map(String::trim)
+                .filter(sku -> !sku.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.leaseChunkSize = Math.max(leaseChunkSize, 1);
+        this.refillBelow = Math.max(Math.min(refillBelow, this.leaseChunkSize - 1), 0);
+        this.stripes = Math.max(stripes, 1);
+        this.maxLeaseAge = Duration.ofSeconds(Math.max(maxLeaseAgeSeconds, 1));
+        this.staleLeaseAfter = Duration.ofSeconds(Math.max(staleLeaseSeconds, 1));
+        // Well inside the window after which another instance may close the lease as stale.
+        this.renewFence = staleLeaseAfter.dividedBy(2);
+        // Suffix keeps holders distinct across restarts of the same host.
+        this.holderId = holderId + ":" + UUID.randomUUID().toString().substring(0, 8);
+        this.grantExecutor = grantExecutor;
+
+        Gauge.builder("inventory_hot_sku_active_leases", activeLeases, Map::size)
+                .register(meterRegistry);
+        Gauge.builder("inventory_hot_sku_local_quota", this, HotSkuLeaseManager::localQuota)
+                .register(meterRegistry);
+    }
+
+    public boolean isHot(String skuId) {
+        return enabled && hotSkus.contains(skuId);
+    }
+
+    /**
+     * Allocates each requested SKU from its local lease where the lease covers the whole quantity; the rest are
+     * returned in {@link AllocationResult#fallbackBySku()} for the row path, and a lease is requested for them in the
+     * background. Never touches the database. Allocations are handed back to the local quota if the caller's
+     * transaction rolls back or the result is {@linkplain AllocationResult#abandon() abandoned}; a lease is never
+     * closed while a transaction that drew from it is still open.
+     */
+    public AllocationResult allocate(Map<String, Integer> requestedBySku) {
+        List<Allocation> allocations = new ArrayList<>();
+        Map<String, Integer> fallbackBySku = new LinkedHashMap<>();
+        Instant fencedBefore = Instant.now().minus(renewFence);
+        for (Map.Entry<String, Integer> entry : requestedBySku.entrySet()) {
+            String skuId = entry.getKey();
+            int quantity = entry.getValue();
+            LocalLease lease = activeLeases.get(skuId);
+            if (lease != null && lease.renewedAt().isBefore(fencedBefore)) {
+                meterRegistry.counter("inventory_hot_sku_allocations", "result", "fenced").increment();
+                lease = null;
+            }
+            if (lease != null && lease.tryTake(quantity)) {
+                allocations.add(new Allocation(skuId, quantity, lease));
+                meterRegistry.counter("inventory_hot_sku_allocations", "result", "local").increment();
+                if (lease.quota().remaining() < refillBelow) {
+                    requestGrant(skuId, 1);
+                }
+                continue;
+            }
+            fallbackBySku.put(skuId, quantity);
+            meterRegistry.counter("inventory_hot_sku_allocations", "result", "fallback").increment();
+            requestGrant(skuId, quantity);
+        }
+        AllocationResult result = new AllocationResult(List.copyOf(allocations), fallbackBySku, new AtomicBoolean());
+        registerCompletion(result);
+        return result;
+    }
+
+    /**
+     * Runs in the reservation transaction before items naming the allocated leases are saved. Share-locks the leases
+     * and checks they are still active, so none can be closed, and its unused quantity handed back, before those
+     * items commit. Allocations from a lease another instance already closed move to {@code fallbackBySku} and the
+     * lease is dropped locally. Their SKUs' rows are locked only after the share locks, which is safe because the
+     * closed leases' rows are not share-locked and {@code closeLease} locks one SKU's stock row and then its lease.
+     */
+    public AllocationResult confirmLeases(AllocationResult result) {
+        if (result.allocations().isEmpty()) {
+            return result;
+        }
+        Set<UUID> leaseIds = new TreeSet<>();
+        result.allocations().forEach(allocation -> leaseIds.add(allocation.leaseId()));
+        Set<UUID> active = leaseStore.lockActiveLeases(leaseIds);
+        if (active.containsAll(leaseIds)) {
+            return result;
+        }
+        List<Allocation> confirmed = new ArrayList<>();
+        Map<String, Integer> fallbackBySku = new LinkedHashMap<>(result.fallbackBySku());
+        for (Allocation allocation : result.allocations()) {
+            if (active.contains(allocation.leaseId())) {
+                confirmed.add(allocation);
+            } else {
+                fallbackBySku.put(allocation.skuId(), allocation.quantity());
+                drop(allocation.lease());
+            }
+        }
+        // Shares the abandoned flag the completion callback reads.
+        return new AllocationResult(List.copyOf(confirmed), fallbackBySku, result.abandoned());
+    }
+
+    @Scheduled(fixedDelayString = "${app.hot-sku.reconcile-interval-ms:2000}")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        Instant now = Instant.now();
+
+        for (String skuId : hotSkus) {
+            if (!activeLeases.containsKey(skuId)) {
+                requestGrant(skuId, 1);
+            }
+        }
+
+        for (LocalLease lease : activeLeases.values()) {
+            if (now.isAfter(lease.grantedAt().plus(maxLeaseAge))) {
+                retire(lease);
+            } else {
+                renewOrDrop(lease);
+            }
+        }
+
+        for (LocalLease lease : retiredLeases) {
+            if (lease.inFlight().get() > 0) {
+                renewOrDrop(lease);
+                continue;
+            }
+            closeLease(lease.id(), "retired");
+            retiredLeases.remove(lease);
+        }
+
+        try {
+            for (UUID leaseId : leaseStore.findStaleLeaseIds(now.minus(staleLeaseAfter), STALE_LEASE_BATCH_SIZE)) {
+                if (!isLocal(leaseId)) {
+                    closeLease(leaseId, "stale");
+                }
+            }
+        } catch (RuntimeException exception) {
+            log.warn("Failed to scan stale hot-SKU leases", exception);
+        }
+    }
+
+    @PreDestroy
+    public void retireAll() {
+        if (grantExecutor instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+        if (!enabled) {
+            return;
+        }
+        activeLeases.values().forEach(this::retire);
+        for (LocalLease lease : retiredLeases) {
+            if (lease.inFlight().get() == 0) {
+                closeLease(lease.id(), "shutdown");
+                retiredLeases.remove(lease);
+            }
+        }
+    }
+
+    private static ExecutorService newGrantExecutor() {
+        return Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hot-sku-lease-grant");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    int localQuota() {
+        return activeLeases.values().stream().mapToInt(lease -> lease.quota().remaining()).sum();
+    }
+
+    private void requestGrant(String skuId, int minQty) {
+        if (!pendingGrants.add(skuId)) {
+            return;
+        }
+        try {
+            grantExecutor.execute(() -> {
+                try {
+                    grant(skuId, minQty);
+                } finally {
+                    pendingGrants.remove(skuId);
+                }
+            });
+        } catch (RejectedExecutionException exception) {
+            pendingGrants.remove(skuId);
+        }
+    }
+
+    /**
+     * Runs on the grant thread, outside any caller transaction. The new lease replaces the active one, which is
+     * retired and closed by the reconciler once its in-flight reservations finish.
+     */
+    private void grant(String skuId, int minQty) {
+        try {
+            HotSkuLeaseStore.LeaseGrant grant = leaseStore.grantLease(skuId, holderId, Math.max(leaseChunkSize, minQty), minQty);
+            if (!grant.isGranted()) {
+                log.debug("Hot-SKU lease not granted sku={} found={} available={}", skuId, grant.skuFound(), grant.availableQty());
+                return;
+            }
+            LocalLease granted = new LocalLease(grant.leaseId(), skuId, new StripedQuota(grant.grantedQty(), stripes), Instant.now());
+            LocalLease previous = activeLeases.put(skuId, granted);
+            if (previous != null) {
+                retire(previous);
+            }
+            meterRegistry.counter("inventory_hot_sku_lease_grants").increment();
+            log.debug("Granted hot-SKU lease id={} sku={} qty={} holder={}", grant.leaseId(), skuId, grant.grantedQty(), holderId);
+        } catch (RuntimeException exception) {
+            log.warn("Failed to grant hot-SKU lease sku={}", skuId, exception);
+        }
+    }
+
+    private void registerCompletion(AllocationResult result) {
+        if (result.allocations().isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            result.allocations().forEach(allocation -> allocation.lease().complete(allocation.quantity(), false));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                boolean giveBack = status != STATUS_COMMITTED || result.abandoned().get();
+                result.allocations().forEach(allocation -> allocation.lease().complete(allocation.quantity(), giveBack));
+            }
+        });
+    }
+
+    private void retire(LocalLease lease) {
+        lease.retire();
+        activeLeases.remove(lease.skuId(), lease);
+        retiredLeases.add(lease);
+    }
+
+    private void renewOrDrop(LocalLease lease) {
+        try {
+            if (leaseStore.renewLease(lease.id())) {
+                lease.renewed(Instant.now());
+            } else {
+                drop(lease);
+            }
+        } catch (RuntimeException exception) {
+            log.warn("Failed to renew hot-SKU lease id={} sku={}", lease.id(), lease.skuId(), exception);
+        }
+    }
+
+    /**
+     * The lease was closed by another instance as stale; stop drawing from it.
+     */
+    private void drop(LocalLease lease) {
+        lease.retire();
+        boolean wasLocal = activeLeases.remove(lease.skuId(), lease) | retiredLeases.remove(lease);
+        if (wasLocal) {
+            meterRegistry.counter("inventory_hot_sku_lease_lost").increment();
+            log.warn("Hot-SKU lease id={} sku={} was closed elsewhere", lease.id(), lease.skuId());
+        }
+    }
+
+    private void closeLease(UUID leaseId, String reason) {
+        try {
+            OptionalInt returned = leaseStore.closeLease(leaseId);
+            if (returned.isPresent()) {
+                meterRegistry.counter("inventory_hot_sku_lease_closes", "reason", reason).increment();
+                log.debug("Closed hot-SKU lease id={} reason={} returnedQty={}", leaseId, reason, returned.getAsInt());
+            }
+        } catch (RuntimeException exception) {
+            log.warn("Failed to close hot-SKU lease id={} reason={}", leaseId, reason, exception);
+        }
+    }
+
+    private boolean isLocal(UUID leaseId) {
+        return activeLeases.values().stream().anyMatch(lease -> lease.id().equals(leaseId))
+                || retiredLeases.stream().anyMatch(lease -> lease.id().equals(leaseId));
+    }
+
+    public record Allocation(String skuId, int quantity, LocalLease lease) {
+
+        public UUID leaseId() {
+            return lease.id();
+        }
+    }
+
+    /**
+     * {@code allocations} were drawn from local leases; {@code fallbackBySku} must be reserved on the row path.
+     */
+    public record AllocationResult(List<Allocation> allocations, Map<String, Integer> fallbackBySku,
+                                   AtomicBoolean abandoned) {
+
+        /**
+         * Hands the allocations back to the local quota when the transaction ends, even if it commits: the
+         * reservation failed for another reason and none of its items were saved.
+         */
+        public void abandon() {
+            abandoned.set(true);
+        }
+    }
+
+    static final class LocalLease {
+
+        private final UUID id;
+        private final String skuId;
+        private final StripedQuota quota;
+        private final Instant grantedAt;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile boolean retired;
+        private volatile Instant renewedAt;
+
+        LocalLease(UUID id, String skuId, StripedQuota quota, Instant grantedAt) {
+            this.id = id;
+            this.skuId = skuId;
+            this.quota = quota;
+            this.grantedAt = grantedAt;
+            this.renewedAt = grantedAt;
+        }
+
+        boolean tryTake(int quantity) {
+            // In-flight is raised before checking retired so the reconciler never closes a lease mid-take.
+            inFlight.incrementAndGet();
+            if (retired || !quota.tryTake(quantity)) {
+                inFlight.decrementAndGet();
+                return false;
+            }
+            return true;
+        }
+
+        void complete(int quantity, boolean giveBack) {
+            if (giveBack) {
+                quota.giveBack(quantity);
+            }
+            inFlight.decrementAndGet();
+        }
+
+        void retire() {
+            retired = true;
+        }
+
+        void renewed(Instant at) {
+            renewedAt = at;
+        }
+
+        Instant renewedAt() {
+            return renewedAt;
+        }
+
+        UUID id() {
+            return id;
+        }
+
+        String skuId() {
+            return skuId;
+        }
+
+        StripedQuota quota() {
+            return quota;
+        }
+
+        Instant grantedAt() {
+            return grantedAt;
+        }
+
+        AtomicInteger inFlight() {
+            return inFlight;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.cloud.inventory.hotsku;
+
+import com.cloud.inventory.cache.InventoryStockCacheService;
+import com.cloud.inventory.domain.SkuStockEntity;
+import com.cloud.inventory.domain.SkuStockLeaseEntity;
+import com.cloud.inventory.domain.SkuStockLeaseStatus;
+import com.cloud.inventory.repo.SkuStockLeaseRepository;
+import com.cloud.inventory.repo.SkuStockRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Database side of hot-SKU leases. Each call runs in its own transaction so a lease is durable before any
+ * reservation draws from it. Only {@link HotSkuLeaseManager}'s grant thread and reconciler call these, never a
+ * thread that already holds a reservation transaction; {@link #lockActiveLeases} is the exception and joins the
+ * reservation transaction instead of opening one.
+ */
+@Service
+public class HotSkuLeaseStore {
+
+    private final SkuStockRepository skuStockRepository;
+    private final SkuStockLeaseRepository leaseRepository;
+    private final InventoryStockCacheService stockCacheService;
+
+    public HotSkuLeaseStore(SkuStockRepository skuStockRepository,
+                            SkuStockLeaseRepository leaseRepository,
+                            InventoryStockCacheService stockCacheService) {
+        this.skuStockRepository = skuStockRepository;
+        this.leaseRepository = leaseRepository;
+        this.stockCacheService = stockCacheService;
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public LeaseGrant grantLease(String skuId, String holderId, int desiredQty, int minQty) {
+        List<SkuStockEntity> locked = skuStockRepository.findAllBySkuIdInForUpdate(Set.of(skuId));
+        if (locked.isEmpty()) {
+            return LeaseGrant.notFound();
+        }
+        SkuStockEntity stock = locked.get(0);
+        if (stock.getAvailableQty() < minQty) {
+            return LeaseGrant.insufficient(stock.getAvailableQty());
+        }
+
+        int grantedQty = Math.min(desiredQty, stock.getAvailableQty());
+        stock.reserve(grantedQty);
+        SkuStockLeaseEntity lease = leaseRepository.save(new SkuStockLeaseEntity(
+                UUID.randomUUID(),
+                skuId,
+                holderId,
+                grantedQty,
+                Instant.now()
+        ));
+        stockCacheService.evict(skuId);
+        return LeaseGrant.granted(lease.getId(), grantedQty, stock.getAvailableQty());
+    }
+
+    /**
+     * Share-locks the leases in the caller's transaction and returns the ids of those still active. Until that
+     * transaction ends {@link #closeLease} cannot sum the leases' consumed items, so items saved with these ids are
+     * counted when the lease closes.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Set<UUID> lockActiveLeases(Collection<UUID> leaseIds) {
+        return new HashSet<>(leaseRepository.lockActiveForShare(leaseIds));
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean renewLease(UUID leaseId) {
+        return leaseRepository.renewIfActive(leaseId, Instant.now()) > 0;
+    }
+
+    /**
+     * Closes an active lease and returns whatever was not consumed by committed reservation items to
+     * {@code available_qty}. Returns the returned quantity, or empty if the lease was already closed.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public OptionalInt closeLease(UUID leaseId) {
+        SkuStockLeaseEntity lease = leaseRepository.findById(leaseId).orElse(null);
+        if (lease == null || lease.getStatus() != SkuStockLeaseStatus.ACTIVE) {
+            return OptionalInt.empty();
+        }
+        // Same lock order as reservations and grants: stock row first, then the lease row.
+        List<SkuStockEntity> locked = skuStockRepository.findAllBySkuIdInForUpdate(Set.of(lease.getSkuId()));
+        lease = leaseRepository.findByIdForUpdate(leaseId).orElse(null);
+        if (lease == null || lease.getStatus() != SkuStockLeaseStatus.ACTIVE || locked.isEmpty()) {
+            return OptionalInt.empty();
+        }
+
+        int consumedQty = leaseRepository.sumConsumedQty(leaseId);
+        int unusedQty = Math.max(lease.getGrantedQty() - consumedQty, 0);
+        if (unusedQty > 0) {
+            locked.get(0).release(unusedQty);
+        }
+        lease.close(consumedQty, Instant.now());
+        stockCacheService.evict(lease.getSkuId());
+        return OptionalInt.of(unusedQty);
+    }
+
+    @Transactional(readOnly = true)
+    public List<UUID> findStaleLeaseIds(Instant renewedBefore, int limit) {
+        return leaseRepository.findStaleActiveLeaseIds(renewedBefore, limit);
+    }
+
+    public record LeaseGrant(UUID leaseId, int grantedQty, boolean skuFound, int availableQty) {
+
+        static LeaseGrant granted(UUID leaseId, int grantedQty, int remainingAvailableQty) {
+            return new LeaseGrant(leaseId, grantedQty, true, remainingAvailableQty);
+        }
+
+        static LeaseGrant notFound() {
+            return new LeaseGrant(null, 0, false, 0);
+        }
+
+        static LeaseGrant insufficient(int availableQty) {
+            return new LeaseGrant(null, 0, true, availableQty);
+        }
+
+        public boolean isGranted() {
+            return leaseId != null;
+        }
+    }
+}
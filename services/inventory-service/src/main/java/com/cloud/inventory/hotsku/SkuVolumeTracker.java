@@ -0,0 +1,192 @@
+package com.cloud.inventory.hotsku;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reserved and released quantity per SKU on this instance, in tumbling windows of {@code window-minutes}, with
+ * the heaviest SKUs of each kind kept by a {@link CountMinTopK}. Quantities are recorded after the transaction that
+ * reserved or released them commits, so lock retries and rollbacks are not counted.
+ * <p>
+ * The current window's top {@code metrics-top-n} SKUs per kind are published as
+ * {@code inventory_sku_volume_top{kind,sku}}; SKUs that drop out of the top are removed from the gauge.
+ */
+@Component
+public class SkuVolumeTracker {
+
+    public enum Kind {
+        RESERVED,
+        RELEASED
+    }
+
+    public enum Period {
+        CURRENT,
+        PREVIOUS
+    }
+
+    private final int width;
+    private final int depth;
+    private final int capacity;
+    private final Duration window;
+    private final int metricsTopN;
+    private final Clock clock;
+    private final MultiGauge topGauge;
+    private volatile Window current;
+    private volatile Window previous;
+
+    @Autowired
+    public SkuVolumeTracker(
+            MeterRegistry meterRegistry,
+            @Value("${app.hot-sku.volume.sketch-width:2048}") int width,
+            @Value("${app.hot-sku.volume.sketch-depth:4}") int depth,
+            @Value("${app.hot-sku.volume.top-capacity:100}") int capacity,
+            @Value("${app.hot-sku.volume.window-minutes:60}") long windowMinutes,
+            @Value("${app.hot-sku.volume.metrics-top-n:10}") int metricsTopN
+    ) {
+        this(meterRegistry, width, depth, capacity, Duration.ofMinutes(Math.max(windowMinutes, 1)), metricsTopN, Clock.systemUTC());
+    }
+
+    SkuVolumeTracker(MeterRegistry meterRegistry, int width, int depth, int capacity, Duration window, int metricsTopN,
+                     Clock clock) {
+        this.width = width;
+        this.depth = depth;
+        this.capacity = Math.max(capacity, 1);
+        this.window = window;
+        this.metricsTopN = Math.max(metricsTopN, 0);
+        this.clock = clock;
+        this.topGauge = MultiGauge.builder("inventory_sku_volume_top")
+                .description("Estimated quantity of the heaviest SKUs in the current window")
+                .register(meterRegistry);
+        this.current = newWindow(windowStart(clock.instant()));
+    }
+
+    /**
+     * Records {@code quantityBySku} once the surrounding transaction commits, or immediately outside one.
+     */
+    public void recordAfterCommit(Kind kind, Map<String, Integer> quantityBySku) {
+        if (quantityBySku.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(kind, quantityBySku);
+            return;
+        }
+        Map<String, Integer> snapshot = Map.copyOf(quantityBySku);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(kind, snapshot);
+            }
+        });
+    }
+
+    void record(Kind kind, Map<String, Integer> quantityBySku) {
+        CountMinTopK sketch = currentWindow().sketch(kind);
+        quantityBySku.forEach((skuId, quantity) -> sketch.add(skuId, quantity));
+    }
+
+    /**
+     * Top {@code limit} SKUs by {@code rankBy} in the current (still filling) or the previous complete window, each
+     * with both its reserved and released estimate. Estimates may overcount by up to {@code errorBound}.
+     */
+    public Report report(Kind rankBy, int limit, Period period) {
+        Window source = period == Period.PREVIOUS ? previousWindow() : currentWindow();
+        List<SkuVolume> items = new ArrayList<>();
+        for (CountMinTopK.Entry entry : source.sketch(rankBy).top(limit)) {
+            items.add(new SkuVolume(entry.key(), source.reserved().estimate(entry.key()), source.released().estimate(entry.key())));
+        }
+        return new Report(
+                rankBy,
+                period,
+                source.start(),
+                source.start().plus(window),
+                source.reserved().total(),
+                source.released().total(),
+                Math.max(source.reserved().errorBound(), source.released().errorBound()),
+                List.copyOf(items)
+        );
+    }
+
+    @Scheduled(fixedDelayString = "${app.hot-sku.volume.metrics-interval-ms:15000}")
+    public void publishMetrics() {
+        Window source = currentWindow();
+        List<MultiGauge.Row<?>> rows = new ArrayList<>();
+        for (Kind kind : Kind.values()) {
+            for (CountMinTopK.Entry entry : source.sketch(kind).top(metricsTopN)) {
+                rows.add(MultiGauge.Row.of(Tags.of("kind", kind.name().toLowerCase(), "sku", entry.key()), entry.estimate()));
+            }
+        }
+        topGauge.register(rows, true);
+    }
+
+    private Window currentWindow() {
+        Window window = current;
+        Instant now = clock.instant();
+        if (now.isBefore(window.start().plus(this.window))) {
+            return window;
+        }
+        synchronized (this) {
+            window = current;
+            if (!now.isBefore(window.start().plus(this.window))) {
+                Instant start = windowStart(now);
+                // After an idle gap longer than a window the previous window is empty, not the stale one.
+                previous = window.start().plus(this.window).equals(start) ? window : newWindow(start.minus(this.window));
+                current = newWindow(start);
+                window = current;
+            }
+            return window;
+        }
+    }
+
+    private Window previousWindow() {
+        // Rolls the windows first if the current one has ended.
+        Instant currentStart = currentWindow().start();
+        Window window = previous;
+        return window != null ? window : newWindow(currentStart.minus(this.window));
+    }
+
+    private Instant windowStart(Instant now) {
+        long windowMillis = window.toMillis();
+        return Instant.ofEpochMilli(Math.floorDiv(now.toEpochMilli(), windowMillis) * windowMillis);
+    }
+
+    private Window newWindow(Instant start) {
+        return new Window(start, new CountMinTopK(width, depth, capacity), new CountMinTopK(width, depth, capacity));
+    }
+
+    private record Window(Instant start, CountMinTopK reserved, CountMinTopK released) {
+
+        CountMinTopK sketch(Kind kind) {
+            return kind == Kind.RESERVED ? reserved : released;
+        }
+    }
+
+    public record SkuVolume(String skuId, long reservedQty, long releasedQty) {
+    }
+
+    public record Report(
+            Kind rankBy,
+            Period period,
+            Instant windowStart,
+            Instant windowEnd,
+            long totalReserved,
+            long totalReleased,
+            long errorBound,
+            List<SkuVolume> items
+    ) {
+    }
+}
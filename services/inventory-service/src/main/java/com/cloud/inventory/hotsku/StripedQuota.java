@@ -0,0 +1,92 @@
+package com.cloud.inventory.hotsku;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Quota counter split across stripes so concurrent takers mostly CAS different slots.
+ */
+final class StripedQuota {
+
+    // Stripes are spaced out so neighbouring counters do not share a cache line.
+    private static final int PADDING = 16;
+
+    private final AtomicIntegerArray slots;
+    private final int stripeCount;
+
+    StripedQuota(int total, int stripeCount) {
+        if (total < 0) {
+            throw new IllegalArgumentException("total must be non-negative");
+        }
+        this.stripeCount = Math.max(stripeCount, 1);
+        this.slots = new AtomicIntegerArray(this.stripeCount * PADDING);
+        int share = total / this.stripeCount;
+        int remainder = total % this.stripeCount;
+        for (int stripe = 0; stripe < this.stripeCount; stripe++) {
+            slots.set(stripe * PADDING, share + (stripe < remainder ? 1 : 0));
+        }
+    }
+
+    boolean tryTake(int qty) {
+        if (qty <= 0) {
+            throw new IllegalArgumentException("qty must be positive");
+        }
+        int start = ThreadLocalRandom.current().nextInt(stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            if (takeFromStripe((start + i) % stripeCount, qty)) {
+                return true;
+            }
+        }
+        return takeAcrossStripes(start, qty);
+    }
+
+    void giveBack(int qty) {
+        if (qty > 0) {
+            slots.addAndGet(ThreadLocalRandom.current().nextInt(stripeCount) * PADDING, qty);
+        }
+    }
+
+    int remaining() {
+        int sum = 0;
+        for (int stripe = 0; stripe < stripeCount; stripe++) {
+            sum += slots.get(stripe * PADDING);
+        }
+        return sum;
+    }
+
+    private boolean takeFromStripe(int stripe, int qty) {
+        int index = stripe * PADDING;
+        while (true) {
+            int current = slots.get(index);
+            if (current < qty) {
+                return false;
+            }
+            if (slots.compareAndSet(index, current, current - qty)) {
+                return true;
+            }
+        }
+    }
+
+    private boolean takeAcrossStripes(int start, int qty) {
+        int taken = 0;
+        for (int i = 0; i < stripeCount && taken < qty; i++) {
+            int index = ((start + i) % stripeCount) * PADDING;
+            while (true) {
+                int current = slots.get(index);
+                int take = Math.min(current, qty - taken);
+                if (take <= 0) {
+                    break;
+                }
+                if (slots.compareAndSet(index, current, current - take)) {
+                    taken += take;
+                    break;
+                }
+            }
+        }
+        if (taken < qty) {
+            giveBack(taken);
+            return false;
+        }
+        return true;
+    }
+}
@@ -1,6 +1,8 @@
 package com.cloud.inventory.messaging;
 
+import com.cloud.inventory.domain.InventoryOutboxEventEntity;
 import com.cloud.inventory.domain.ReservationStatus;
+import com.cloud.inventory.repo.InventoryOutboxEventRepository;
 import com.cloud.inventory.service.InventoryReleaseOutcome;
 import com.cloud.inventory.service.ReservationOutcome;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -12,11 +14,20 @@ import org.springframework.amqp.core.MessagePostProcessor;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
+/**
+ * Result events go to {@code inventory_outbox_events} in the caller's transaction and are sent by
+ * {@link InventoryOutboxRelay} after commit, so no broker round trip happens while stock rows are locked and no event
+ * is sent for a transaction that rolls back. With {@code app.outbox.enabled=false} they are sent directly, as before.
+ * DLQ copies are always sent directly; they are published outside any transaction.
+ */
 @Component
 public class InventoryEventPublisher {
 
@@ -24,6 +35,9 @@ public class InventoryEventPublisher {
 
     private final RabbitTemplate rabbitTemplate;
     private final ObjectMapper objectMapper;
+    private final InventoryOutboxEventRepository outboxRepository;
+    private final InventoryOutboxRelay outboxRelay;
+    private final boolean outboxEnabled;
 
     @Value("${app.messaging.exchange:ecom.events}")
     private String eventsExchange;
@@ -46,13 +60,23 @@ public class InventoryEventPublisher {
     @Value("${app.messaging.routing-keys.release-requested-dlq:q.inventory.release-requested.dlq}")
     private String releaseRequestedDlqRoutingKey;
 
-    public InventoryEventPublisher(RabbitTemplate rabbitTemplate, ObjectMapper objectMapper) {
+    @Value("${app.messaging.routing-keys.payment-succeeded-dlq:q.inventory.payment-succeeded.dlq}")
+    private String paymentSucceededDlqRoutingKey;
+
+    public InventoryEventPublisher(RabbitTemplate rabbitTemplate,
+                                   ObjectMapper objectMapper,
+                                   InventoryOutboxEventRepository outboxRepository,
+                                   InventoryOutboxRelay outboxRelay,
+                                   @Value("${app.outbox.enabled:true}") boolean outboxEnabled) {
         this.rabbitTemplate = rabbitTemplate;
         this.objectMapper = objectMapper;
+        this.outboxRepository = outboxRepository;
+        this.outboxRelay = outboxRelay;
+        this.outboxEnabled = outboxEnabled;
     }
 
     public void publishReservationResult(ReservationOutcome outcome, UUID traceId, EventIdentity identity) {
-        if (outcome.status() == ReservationStatus.RESERVED) {
+        if (outcome.status() == ReservationStatus.RESERVED || outcome.status() == ReservationStatus.CONFIRMED) {
             publishReserved(outcome, traceId, identity);
             return;
         }
@@ -88,6 +112,10 @@ public class InventoryEventPublisher {
         publishToDlq(originalMessage, releaseRequestedDlqRoutingKey, reason);
     }
 
+    public void publishPaymentSucceededToDlq(Message originalMessage, String reason) {
+        publishToDlq(originalMessage, paymentSucceededDlqRoutingKey, reason);
+    }
+
     private void publishToDlq(Message originalMessage, String routingKey, String reason) {
         rabbitTemplate.convertAndSend(dlqExchange, routingKey, new String(originalMessage.getBody(), StandardCharsets.UTF_8), message -> {
             message.getMessageProperties().setContentType("application/json");
@@ -112,12 +140,33 @@ public class InventoryEventPublisher {
 
     private <T> void publishToEvents(String routingKey, EventEnvelope<T> envelope) {
         String payload = toJson(envelope);
+        if (outboxEnabled) {
+            outboxRepository.save(new InventoryOutboxEventEntity(envelope.eventId(), envelope.eventType(), routingKey,
+                    payload, envelope.traceId(), Instant.now()));
+            requestRelayAfterCommit();
+            log.debug("Queued event type={} routingKey={} eventId={} traceId={}",
+                    envelope.eventType(), routingKey, envelope.eventId(), envelope.traceId());
+            return;
+        }
         rabbitTemplate.convertAndSend(eventsExchange, routingKey, payload,
                 withMessageId(envelope.eventId(), envelope.eventType(), envelope.traceId()));
         log.debug("Published event type={} routingKey={} eventId={} traceId={}",
                 envelope.eventType(), routingKey, envelope.eventId(), envelope.traceId());
     }
 
+    private void requestRelayAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            outboxRelay.requestRelay();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                outboxRelay.requestRelay();
+            }
+        });
+    }
+
     private MessagePostProcessor withMessageId(UUID eventId, String eventType, UUID traceId) {
         return (Message message) -> {
             message.getMessageProperties().setMessageId(eventId.toString());
@@ -0,0 +1,271 @@
+package com.cloud.inventory.messaging;
+
+import com.cloud.inventory.domain.InventoryOutboxEventEntity;
+import com.cloud.inventory.repo.InventoryOutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes {@code inventory_outbox_events} to RabbitMQ. A committed write wakes the relay right away
+ * ({@link #requestRelay()}); the {@code poll-interval-ms} tick picks up anything a wake-up missed, such as rows left
+ * by a crash or a failed publish.
+ * <p>
+ * Each batch locks up to {@code batch-size} pending rows with {@code SKIP LOCKED}, publishes them all, then waits
+ * once for their publisher confirms and marks the acknowledged rows sent. Rows that are nacked or not confirmed in
+ * {@code confirm-timeout-ms} stay pending and are sent again, so delivery is at least once; consumers already
+ * de-duplicate on the message id, which is the outbox row id.
+ * <p>
+ * A batch with unconfirmed rows ends the run, and the relay then pauses for {@code failure-backoff-ms}, ignoring
+ * wake-ups, so a broker that rejects or stalls publishes is not hammered with the same rows. A row that has failed
+ * {@code max-attempts} times is parked and no longer relayed.
+ */
+@Component
+public class InventoryOutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryOutboxRelay.class);
+    private static final int CLEANUP_BATCH_SIZE = 10_000;
+
+    private final InventoryOutboxEventRepository outboxRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration confirmTimeout;
+    private final Duration retention;
+    private final int maxAttempts;
+    private final long failureBackoffNanos;
+    private volatile long pausedUntil;
+    private final ExecutorService worker;
+    private final AtomicBoolean requested = new AtomicBoolean();
+    private final AtomicLong backlog = new AtomicLong();
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Counter parkedCounter;
+    private final Timer confirmTimer;
+
+    @Value("${app.messaging.exchange:ecom.events}")
+    private String eventsExchange;
+
+    public InventoryOutboxRelay(InventoryOutboxEventRepository outboxRepository,
+                                RabbitTemplate rabbitTemplate,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.outbox.enabled:true}") boolean enabled,
+                                @Value("${app.outbox.batch-size:200}") int batchSize,
+                                @Value("${app.outbox.max-batches-per-run:50}") int maxBatchesPerRun,
+                                @Value("${app.outbox.confirm-timeout-ms:5000}") long confirmTimeoutMs,
+                                @Value("${app.outbox.retention-hours:24}") long retentionHours,
+                                @Value("${app.outbox.max-attempts:20}") int maxAttempts,
+                                @Value("${app.outbox.failure-backoff-ms:5000}") long failureBackoffMs) {
+        this.outboxRepository = outboxRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = Math.max(batchSize, 1);
+        this.maxBatchesPerRun = Math.max(maxBatchesPerRun, 1);
+        this.confirmTimeout = Duration.ofMillis(Math.max(confirmTimeoutMs, 1));
+        this.retention = Duration.ofHours(Math.max(retentionHours, 1));
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.failureBackoffNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(failureBackoffMs, 0));
+        this.pausedUntil = System.nanoTime();
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "inventory-outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sentCounter = meterRegistry.counter("inventory_outbox_published", "result", "sent");
+        this.failedCounter = meterRegistry.counter("inventory_outbox_published", "result", "failed");
+        this.parkedCounter = meterRegistry.counter("inventory_outbox_parked");
+        this.confirmTimer = meterRegistry.timer("inventory_outbox_confirm_wait");
+        Gauge.builder("inventory_outbox_backlog", backlog, AtomicLong::get).register(meterRegistry);
+    }
+
+    /**
+     * Runs the relay on its own thread soon. Requests made while a run is queued are folded into it.
+     */
+    public void requestRelay() {
+        if (!enabled || !requested.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            worker.execute(() -> {
+                requested.set(false);
+                relay();
+            });
+        } catch (RejectedExecutionException ex) {
+            requested.set(false);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:1000}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            backlog.set(outboxRepository.countPending());
+        } catch (RuntimeException ex) {
+            log.warn("Outbox backlog count failed: {}", ex.getMessage());
+        }
+        requestRelay();
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.cleanup-interval-ms:600000}")
+    public void cleanup() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Instant cutoff = Instant.now().minus(retention);
+            while (transactionTemplate.execute(status -> outboxRepository.deleteSentBefore(cutoff, CLEANUP_BATCH_SIZE))
+                    == CLEANUP_BATCH_SIZE) {
+                // Full batch: more sent rows are past retention.
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Outbox cleanup failed: {}", ex.getMessage());
+        }
+    }
+
+    void relay() {
+        if (System.nanoTime() - pausedUntil < 0) {
+            return;
+        }
+        try {
+            int batches = 0;
+            int relayed;
+            do {
+                relayed = relayBatch();
+            } while (relayed == batchSize && ++batches < maxBatchesPerRun);
+            if (relayed < 0) {
+                pause();
+            }
+        } catch (RuntimeException ex) {
+            // The batch rolled back; its rows are still pending and go out after the pause.
+            pause();
+            log.warn("Outbox relay failed: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Publishes one batch and returns its size, or {@code -1} if any of its rows were not confirmed. Outbox rows are
+     * the only locks held while waiting for confirms.
+     */
+    int relayBatch() {
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<InventoryOutboxEventEntity> events = outboxRepository.lockPending(batchSize);
+            if (events.isEmpty()) {
+                return 0;
+            }
+            List<CorrelationData> confirms = new ArrayList<>(events.size());
+            for (InventoryOutboxEventEntity event : events) {
+                CorrelationData correlation = new CorrelationData(event.getId().toString());
+                rabbitTemplate.convertAndSend(eventsExchange, event.getRoutingKey(), event.getPayload(),
+                        message -> withHeaders(message, event), correlation);
+                confirms.add(correlation);
+            }
+
+            List<UUID> sent = new ArrayList<>(events.size());
+            List<UUID> failed = new ArrayList<>();
+            String error = null;
+            boolean confirmsEnabled = rabbitTemplate.getConnectionFactory().isPublisherConfirms();
+            long deadline = System.nanoTime() + confirmTimeout.toNanos();
+            long waitStarted = System.nanoTime();
+            for (int i = 0; i < events.size(); i++) {
+                UUID id = events.get(i).getId();
+                if (!confirmsEnabled) {
+                    // Without confirms a send that did not throw is all we can know.
+                    sent.add(id);
+                    continue;
+                }
+                try {
+                    CorrelationData.Confirm confirm = confirms.get(i).getFuture()
+                            .get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+                    if (confirm.isAck()) {
+                        sent.add(id);
+                    } else {
+                        failed.add(id);
+                        error = "nack: " + confirm.getReason();
+                    }
+                } catch (TimeoutException ex) {
+                    failed.add(id);
+                    error = "confirm timeout";
+                } catch (ExecutionException ex) {
+                    failed.add(id);
+                    error = String.valueOf(ex.getCause());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    failed.add(id);
+                    error = "interrupted";
+                }
+            }
+            confirmTimer.record(System.nanoTime() - waitStarted, TimeUnit.NANOSECONDS);
+
+            if (!sent.isEmpty()) {
+                outboxRepository.markSent(sent, Instant.now());
+                sentCounter.increment(sent.size());
+            }
+            if (!failed.isEmpty()) {
+                outboxRepository.recordFailure(failed, error);
+                failedCounter.increment(failed.size());
+                int parked = outboxRepository.parkExhausted(failed, maxAttempts);
+                if (parked > 0) {
+                    parkedCounter.increment(parked);
+                    log.error("Outbox relay: parked {} events after {} failed attempts ({})", parked, maxAttempts, error);
+                }
+                log.warn("Outbox relay: {} of {} events not confirmed ({}); they stay pending",
+                        failed.size() - parked, events.size(), error);
+                return -1;
+            }
+            return events.size();
+        });
+        return relayed == null ? 0 : relayed;
+    }
+
+    private void pause() {
+        pausedUntil = System.nanoTime() + failureBackoffNanos;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        worker.shutdownNow();
+    }
+
+    private static Message withHeaders(Message message, InventoryOutboxEventEntity event) {
+        message.getMessageProperties().setMessageId(event.getId().toString());
+        message.getMessageProperties().setContentType("application/json");
+        message.getMessageProperties().setHeader("x-event-id", event.getId().toString());
+        message.getMessageProperties().setHeader("x-event-type", event.getEventType());
+        if (event.getTraceId() != null) {
+            message.getMessageProperties().setHeader("x-trace-id", event.getTraceId().toString());
+        }
+        return message;
+    }
+}
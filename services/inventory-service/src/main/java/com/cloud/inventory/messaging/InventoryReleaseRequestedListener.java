@@ -3,6 +3,7 @@ package com.cloud.inventory.messaging;
 import com.cloud.inventory.service.ConsumedMessageService;
 import com.cloud.inventory.service.InventoryReleaseOutcome;
 import com.cloud.inventory.service.InventoryReservationService;
+import com.cloud.inventory.service.LockRetryExecutor;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -12,7 +13,6 @@ import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
@@ -28,6 +28,7 @@ public class InventoryReleaseRequestedListener {
     private final InventoryReservationService inventoryReservationService;
     private final ConsumedMessageService consumedMessageService;
     private final InventoryEventPublisher eventPublisher;
+    private final LockRetryExecutor lockRetryExecutor;
 
     @Value("${app.messaging.queues.release-requested:q.inventory.release-requested}")
     private String releaseRequestedQueue;
@@ -38,14 +39,15 @@ public class InventoryReleaseRequestedListener {
     public InventoryReleaseRequestedListener(ObjectMapper objectMapper,
                                              InventoryReservationService inventoryReservationService,
                                              ConsumedMessageService consumedMessageService,
-                                             InventoryEventPublisher eventPublisher) {
+                                             InventoryEventPublisher eventPublisher,
+                                             LockRetryExecutor lockRetryExecutor) {
         this.objectMapper = objectMapper;
         this.inventoryReservationService = inventoryReservationService;
         this.consumedMessageService = consumedMessageService;
         this.eventPublisher = eventPublisher;
+        this.lockRetryExecutor = lockRetryExecutor;
     }
 
-    @Transactional
     @RabbitListener(queues = "${app.messaging.queues.release-requested:q.inventory.release-requested}")
     public void handleReleaseRequested(Message message) {
         long retryCount = extractRetryCount(message);
@@ -55,13 +57,16 @@ public class InventoryReleaseRequestedListener {
             EventEnvelope<InventoryReleaseRequestedData> envelope = parse(raw);
             bindTraceToMdc(envelope.traceId());
             String messageId = resolveMessageId(message, envelope);
-            if (consumedMessageService.isConsumed(messageId, CONSUMER_NAME)) {
-                return;
-            }
 
-            var releaseOutcome = inventoryReservationService.releaseReservationForOrder(envelope.data().orderId(), envelope.data().reason());
-            releaseOutcome.ifPresent(outcome -> eventPublisher.publishReleased(outcome, envelope.traceId(), envelope.identity()));
-            consumedMessageService.markConsumed(messageId, CONSUMER_NAME);
+            // One transaction for the whole message so a deadlock victim is retried in-process from the top.
+            lockRetryExecutor.runInTransaction("release_requested", () -> {
+                if (consumedMessageService.isConsumed(messageId, CONSUMER_NAME)) {
+                    return;
+                }
+                var releaseOutcome = inventoryReservationService.releaseReservationForOrder(envelope.data().orderId(), envelope.data().reason());
+                releaseOutcome.ifPresent(outcome -> eventPublisher.publishReleased(outcome, envelope.traceId(), envelope.identity()));
+                consumedMessageService.markConsumed(messageId, CONSUMER_NAME);
+            });
         } catch (RuntimeException exception) {
             if (retryCount >= maxRetries) {
                 eventPublisher.publishReleaseRequestedToDlq(message, "RETRY_EXHAUSTED:" + shortError(exception));
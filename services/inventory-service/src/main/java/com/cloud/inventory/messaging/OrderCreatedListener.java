@@ -2,32 +2,40 @@ package com.cloud.inventory.messaging;
 
 import com.cloud.inventory.service.ConsumedMessageService;
 import com.cloud.inventory.service.InventoryReservationService;
+import com.cloud.inventory.service.LockRetryExecutor;
+import com.cloud.inventory.service.OrderReservationRequest;
 import com.cloud.inventory.service.ReservationOutcome;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import org.springframework.amqp.AmqpRejectAndDontRequeueException;
 import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Component
 public class OrderCreatedListener {
 
+    private static final Logger log = LoggerFactory.getLogger(OrderCreatedListener.class);
     private static final String CONSUMER_NAME = "inventory.order-created";
 
     private final ObjectMapper objectMapper;
     private final InventoryReservationService reservationService;
     private final ConsumedMessageService consumedMessageService;
     private final InventoryEventPublisher eventPublisher;
+    private final LockRetryExecutor lockRetryExecutor;
 
     @Value("${app.messaging.queues.order-created:q.inventory.order-created}")
     private String orderCreatedQueue;
@@ -38,15 +46,19 @@ public class OrderCreatedListener {
     public OrderCreatedListener(ObjectMapper objectMapper,
                                 InventoryReservationService reservationService,
                                 ConsumedMessageService consumedMessageService,
-                                InventoryEventPublisher eventPublisher) {
+                                InventoryEventPublisher eventPublisher,
+                                LockRetryExecutor lockRetryExecutor) {
         this.objectMapper = objectMapper;
         this.reservationService = reservationService;
         this.consumedMessageService = consumedMessageService;
         this.eventPublisher = eventPublisher;
+        this.lockRetryExecutor = lockRetryExecutor;
     }
 
-    @Transactional
-    @RabbitListener(queues = "${app.messaging.queues.order-created:q.inventory.order-created}")
+    @RabbitListener(
+            queues = "${app.messaging.queues.order-created:q.inventory.order-created}",
+            autoStartup = "#{!${app.messaging.order-created-batch.enabled:false}}"
+    )
     public void handleOrderCreated(Message message) {
         long retryCount = extractRetryCount(message);
         String raw = new String(message.getBody(), StandardCharsets.UTF_8);
@@ -55,17 +67,19 @@ public class OrderCreatedListener {
             EventEnvelope<OrderCreatedData> envelope = parse(raw);
             bindTraceToMdc(envelope.traceId());
             String messageId = resolveMessageId(message, envelope);
-            if (consumedMessageService.isConsumed(messageId, CONSUMER_NAME)) {
-                return;
-            }
-
             List<ReservationOutcome.ReservedItem> items = envelope.data().items().stream()
                     .map(item -> new ReservationOutcome.ReservedItem(item.skuId(), item.quantity()))
                     .toList();
 
-            ReservationOutcome outcome = reservationService.reserveForOrder(envelope.data().orderId(), items);
-            eventPublisher.publishReservationResult(outcome, envelope.traceId(), envelope.identity());
-            consumedMessageService.markConsumed(messageId, CONSUMER_NAME);
+            // One transaction for the whole message so a deadlock victim is retried in-process from the top.
+            lockRetryExecutor.runInTransaction("order_created", () -> {
+                if (consumedMessageService.isConsumed(messageId, CONSUMER_NAME)) {
+                    return;
+                }
+                ReservationOutcome outcome = reservationService.reserveForOrder(envelope.data().orderId(), items);
+                eventPublisher.publishReservationResult(outcome, envelope.traceId(), envelope.identity());
+                consumedMessageService.markConsumed(messageId, CONSUMER_NAME);
+            });
         } catch (RuntimeException exception) {
             if (retryCount >= maxRetries) {
                 eventPublisher.publishOrderCreatedToDlq(message, "RETRY_EXHAUSTED:" + shortError(exception));
@@ -77,6 +91,90 @@ public class OrderCreatedListener {
         }
     }
 
+    /**
+     * Group-commit consumer, used instead of {@link #handleOrderCreated(Message)} when
+     * {@code app.messaging.order-created-batch.enabled} is set. All orders the batch path can decide are reserved,
+     * published and marked consumed in one transaction. Unparseable messages, orders the batch path leaves out and,
+     * if the batch transaction fails, every message go through the single-message path. A retryable failure there
+     * rejects the whole delivery batch to the retry queue; orders already committed are skipped on redelivery.
+     */
+    @RabbitListener(
+            id = "orderCreatedBatch",
+            queues = "${app.messaging.queues.order-created:q.inventory.order-created}",
+            containerFactory = "orderCreatedBatchContainerFactory",
+            autoStartup = "${app.messaging.order-created-batch.enabled:false}"
+    )
+    public void handleOrderCreatedBatch(List<Message> messages) {
+        List<PendingOrder> parsed = new ArrayList<>(messages.size());
+        List<Message> singles = new ArrayList<>();
+        for (Message message : messages) {
+            try {
+                EventEnvelope<OrderCreatedData> envelope = parse(new String(message.getBody(), StandardCharsets.UTF_8));
+                if (envelope.data() == null || envelope.data().orderId() == null || envelope.data().items() == null) {
+                    singles.add(message);
+                    continue;
+                }
+                parsed.add(new PendingOrder(message, envelope, resolveMessageId(message, envelope)));
+            } catch (RuntimeException exception) {
+                singles.add(message);
+            }
+        }
+
+        if (!parsed.isEmpty()) {
+            try {
+                singles.addAll(lockRetryExecutor.inTransaction("order_created_batch", () -> commitBatch(parsed)));
+            } catch (RuntimeException exception) {
+                log.warn("order.created batch of {} failed, falling back to one message at a time: {}",
+                        parsed.size(), shortError(exception));
+                parsed.forEach(order -> singles.add(order.message()));
+            }
+        }
+
+        RuntimeException retry = null;
+        for (Message message : singles) {
+            try {
+                handleOrderCreated(message);
+            } catch (RuntimeException exception) {
+                retry = retry == null ? exception : retry;
+            }
+        }
+        if (retry != null) {
+            throw retry;
+        }
+    }
+
+    /**
+     * Returns the messages left for the single-message path.
+     */
+    private List<Message> commitBatch(List<PendingOrder> parsed) {
+        Set<String> consumed = consumedMessageService.findConsumed(
+                parsed.stream().map(PendingOrder::messageId).toList(), CONSUMER_NAME);
+        Map<String, PendingOrder> pending = new LinkedHashMap<>();
+        for (PendingOrder order : parsed) {
+            if (!consumed.contains(order.messageId())) {
+                pending.putIfAbsent(order.messageId(), order);
+            }
+        }
+
+        Map<UUID, ReservationOutcome> outcomes = reservationService.reserveBatch(pending.values().stream()
+                .map(order -> new OrderReservationRequest(order.envelope().data().orderId(), order.items()))
+                .toList());
+
+        List<Message> leftovers = new ArrayList<>();
+        List<String> committed = new ArrayList<>();
+        for (PendingOrder order : pending.values()) {
+            ReservationOutcome outcome = outcomes.get(order.envelope().data().orderId());
+            if (outcome == null) {
+                leftovers.add(order.message());
+                continue;
+            }
+            eventPublisher.publishReservationResult(outcome, order.envelope().traceId(), order.envelope().identity());
+            committed.add(order.messageId());
+        }
+        consumedMessageService.markAllConsumed(committed, CONSUMER_NAME);
+        return leftovers;
+    }
+
     private void bindTraceToMdc(UUID traceId) {
         if (traceId == null) {
             return;
@@ -135,4 +233,13 @@ public class OrderCreatedListener {
         }
         return message.length() <= 300 ? message : message.substring(0, 300);
     }
+
+    private record PendingOrder(Message message, EventEnvelope<OrderCreatedData> envelope, String messageId) {
+
+        private List<ReservationOutcome.ReservedItem> items() {
+            return envelope.data().items().stream()
+                    .map(item -> new ReservationOutcome.ReservedItem(item.skuId(), item.quantity()))
+                    .toList();
+        }
+    }
 }
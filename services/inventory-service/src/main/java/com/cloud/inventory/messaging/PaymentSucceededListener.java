@@ -0,0 +1,137 @@
+package com.cloud.inventory.messaging;
+
+import com.cloud.inventory.service.ConsumedMessageService;
+import com.cloud.inventory.service.InventoryReservationService;
+import com.cloud.inventory.service.LockRetryExecutor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.MDC;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Component
+public class PaymentSucceededListener {
+
+    private static final String CONSUMER_NAME = "inventory.payment-succeeded";
+
+    private final ObjectMapper objectMapper;
+    private final InventoryReservationService inventoryReservationService;
+    private final ConsumedMessageService consumedMessageService;
+    private final InventoryEventPublisher eventPublisher;
+    private final LockRetryExecutor lockRetryExecutor;
+
+    @Value("${app.messaging.queues.payment-succeeded:q.inventory.payment-succeeded}")
+    private String paymentSucceededQueue;
+
+    @Value("${app.messaging.max-retries:3}")
+    private int maxRetries;
+
+    public PaymentSucceededListener(ObjectMapper objectMapper,
+                                    InventoryReservationService inventoryReservationService,
+                                    ConsumedMessageService consumedMessageService,
+                                    InventoryEventPublisher eventPublisher,
+                                    LockRetryExecutor lockRetryExecutor) {
+        this.objectMapper = objectMapper;
+        this.inventoryReservationService = inventoryReservationService;
+        this.consumedMessageService = consumedMessageService;
+        this.eventPublisher = eventPublisher;
+        this.lockRetryExecutor = lockRetryExecutor;
+    }
+
+    @RabbitListener(queues = "${app.messaging.queues.payment-succeeded:q.inventory.payment-succeeded}")
+    public void handlePaymentSucceeded(Message message) {
+        long retryCount = extractRetryCount(message);
+        String raw = new String(message.getBody(), StandardCharsets.UTF_8);
+
+        try {
+            EventEnvelope<PaymentSucceededData> envelope = parse(raw);
+            bindTraceToMdc(envelope.traceId());
+            String messageId = resolveMessageId(message, envelope);
+
+            // Confirming takes the row lock the expiry sweeper skips, so a payment racing a sweep waits at most one batch.
+            lockRetryExecutor.runInTransaction("payment_succeeded", () -> {
+                if (consumedMessageService.isConsumed(messageId, CONSUMER_NAME)) {
+                    return;
+                }
+                inventoryReservationService.confirmReservationForOrder(envelope.data().orderId());
+                consumedMessageService.markConsumed(messageId, CONSUMER_NAME);
+            });
+        } catch (RuntimeException exception) {
+            if (retryCount >= maxRetries) {
+                eventPublisher.publishPaymentSucceededToDlq(message, "RETRY_EXHAUSTED:" + shortError(exception));
+                return;
+            }
+            throw new AmqpRejectAndDontRequeueException("Transient payment confirmation processing failure", exception);
+        } finally {
+            MDC.remove("trace_id");
+        }
+    }
+
+    private void bindTraceToMdc(UUID traceId) {
+        if (traceId == null) {
+            return;
+        }
+        MDC.put("trace_id", traceId.toString());
+    }
+
+    private EventEnvelope<PaymentSucceededData> parse(String raw) {
+        try {
+            return objectMapper.readValue(raw, new TypeReference<>() {
+            });
+        } catch (JsonProcessingException exception) {
+            throw new IllegalArgumentException("Invalid payment.succeeded payload", exception);
+        }
+    }
+
+    private String resolveMessageId(Message message, EventEnvelope<PaymentSucceededData> envelope) {
+        if (message.getMessageProperties().getMessageId() != null && !message.getMessageProperties().getMessageId().isBlank()) {
+            return message.getMessageProperties().getMessageId();
+        }
+        UUID fallback = envelope.eventId() == null ? UUID.randomUUID() : envelope.eventId();
+        return fallback.toString();
+    }
+
+    private long extractRetryCount(Message message) {
+        List<Map<String, ?>> xDeath = message.getMessageProperties().getXDeathHeader();
+        if (xDeath == null) {
+            return 0;
+        }
+        for (Map<String, ?> entry : xDeath) {
+            String queue = asString(entry.get("queue"));
+            if (paymentSucceededQueue.equals(queue)) {
+                Object count = entry.get("count");
+                if (count instanceof Number number) {
+                    return number.longValue();
+                }
+            }
+        }
+        return 0;
+    }
+
+    private String asString(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        return String.valueOf(value);
+    }
+
+    private String shortError(Throwable throwable) {
+        String message = throwable.getMessage();
+        if (message == null || message.isBlank()) {
+            message = throwable.getClass().getSimpleName();
+        }
+        return message.length() <= 300 ? message : message.substring(0, 300);
+    }
+}
@@ -2,12 +2,19 @@ package com.cloud.inventory.repo;
 
 import com.cloud.inventory.domain.ConsumedMessageEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 public interface ConsumedMessageRepository extends JpaRepository<ConsumedMessageEntity, UUID> {
     boolean existsByMessageIdAndConsumer(String messageId, String consumer);
 
     Optional<ConsumedMessageEntity> findByMessageIdAndConsumer(String messageId, String consumer);
+
+    @Query("select c.messageId from ConsumedMessageEntity c where c.consumer = :consumer and c.messageId in :messageIds")
+    Set<String> findConsumedMessageIds(@Param("messageIds") Collection<String> messageIds, @Param("consumer") String consumer);
 }
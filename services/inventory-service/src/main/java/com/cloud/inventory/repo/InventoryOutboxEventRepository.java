@@ -0,0 +1,59 @@
+package com.cloud.inventory.repo;
+
+import com.cloud.inventory.domain.InventoryOutboxEventEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface InventoryOutboxEventRepository extends JpaRepository<InventoryOutboxEventEntity, UUID> {
+
+    /**
+     * Locks the oldest pending events, skipping rows another relay holds, so instances relay disjoint batches.
+     */
+    @Query(value = """
+            select * from inventory_outbox_events
+            where status = 'PENDING'
+            order by created_at
+            limit :limit
+            for update skip locked
+            """, nativeQuery = true)
+    List<InventoryOutboxEventEntity> lockPending(@Param("limit") int limit);
+
+    @Query(value = "select count(*) from inventory_outbox_events where status = 'PENDING'", nativeQuery = true)
+    long countPending();
+
+    @Modifying
+    @Query("update InventoryOutboxEventEntity e set e.status = com.cloud.inventory.domain.OutboxStatus.SENT, "
+            + "e.sentAt = :sentAt, e.attempts = e.attempts + 1, e.lastError = null where e.id in :ids")
+    int markSent(@Param("ids") Collection<UUID> ids, @Param("sentAt") Instant sentAt);
+
+    @Modifying
+    @Query("update InventoryOutboxEventEntity e set e.attempts = e.attempts + 1, e.lastError = :error "
+            + "where e.id in :ids")
+    int recordFailure(@Param("ids") Collection<UUID> ids, @Param("error") String error);
+
+    /**
+     * Takes events that have failed {@code maxAttempts} times out of the relay; they wait for an operator.
+     */
+    @Modifying
+    @Query("update InventoryOutboxEventEntity e set e.status = com.cloud.inventory.domain.OutboxStatus.PARKED "
+            + "where e.id in :ids and e.attempts >= :maxAttempts")
+    int parkExhausted(@Param("ids") Collection<UUID> ids, @Param("maxAttempts") int maxAttempts);
+
+    @Modifying
+    @Query(value = """
+            delete from inventory_outbox_events
+            where id in (
+                select id from inventory_outbox_events
+                where status = 'SENT' and sent_at < :cutoff
+                limit :limit
+            )
+            """, nativeQuery = true)
+    int deleteSentBefore(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+}
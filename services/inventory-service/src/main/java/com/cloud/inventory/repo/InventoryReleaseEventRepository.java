@@ -3,10 +3,43 @@ package com.cloud.inventory.repo;
 import com.cloud.inventory.domain.InventoryReleaseEventEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 public interface InventoryReleaseEventRepository extends
         JpaRepository<InventoryReleaseEventEntity, UUID>,
         JpaSpecificationExecutor<InventoryReleaseEventEntity>,
         InventoryReleaseEventRepositoryCustom {
+
+    int STATS_SHARDS = 8;
+
+    boolean existsByOrderId(UUID orderId);
+
+    /**
+     * Counts {@code event} in {@code inventory_release_event_stats}; call in the transaction that saves it.
+     */
+    default void recordStats(InventoryReleaseEventEntity event) {
+        incrementHourlyStats(
+                event.getCreatedAt().truncatedTo(ChronoUnit.HOURS),
+                event.getReason(),
+                ThreadLocalRandom.current().nextInt(STATS_SHARDS)
+        );
+    }
+
+    @Modifying
+    @Query(value = """
+            insert into inventory_release_event_stats (bucket_start, reason, shard, event_count)
+            values (:bucketStart, :reason, :shard, 1)
+            on conflict (bucket_start, reason, shard)
+            do update set event_count = inventory_release_event_stats.event_count + 1
+            """, nativeQuery = true)
+    void incrementHourlyStats(@Param("bucketStart") Instant bucketStart,
+                              @Param("reason") String reason,
+                              @Param("shard") int shard);
 }
@@ -13,5 +13,12 @@ public interface InventoryReleaseEventRepositoryCustom {
             Sort sort,
             int limit
     );
+
+    List<InventoryReleaseEventEntity> findOffsetPage(
+            Specification<InventoryReleaseEventEntity> spec,
+            Sort sort,
+            int offset,
+            int limit
+    );
 }
 
@@ -26,6 +26,16 @@ public class InventoryReleaseEventRepositoryImpl implements InventoryReleaseEven
             Specification<InventoryReleaseEventEntity> spec,
             Sort sort,
             int limit
+    ) {
+        return findOffsetPage(spec, sort, 0, limit);
+    }
+
+    @Override
+    public List<InventoryReleaseEventEntity> findOffsetPage(
+            Specification<InventoryReleaseEventEntity> spec,
+            Sort sort,
+            int offset,
+            int limit
     ) {
         CriteriaBuilder cb = entityManager.getCriteriaBuilder();
         CriteriaQuery<InventoryReleaseEventEntity> query = cb.createQuery(InventoryReleaseEventEntity.class);
@@ -50,6 +60,7 @@ public class InventoryReleaseEventRepositoryImpl implements InventoryReleaseEven
         }
 
         TypedQuery<InventoryReleaseEventEntity> typedQuery = entityManager.createQuery(query);
+        typedQuery.setFirstResult(offset);
         typedQuery.setMaxResults(limit);
         return typedQuery.getResultList();
     }
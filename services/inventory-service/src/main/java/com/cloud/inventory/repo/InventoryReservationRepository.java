@@ -1,11 +1,60 @@
 package com.cloud.inventory.repo;
 
 import com.cloud.inventory.domain.InventoryReservationEntity;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 public interface InventoryReservationRepository extends JpaRepository<InventoryReservationEntity, UUID> {
     Optional<InventoryReservationEntity> findByOrderId(UUID orderId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from InventoryReservationEntity r where r.orderId = :orderId")
+    Optional<InventoryReservationEntity> findByOrderIdForUpdate(@Param("orderId") UUID orderId);
+
+    /**
+     * Locks the oldest expired holds, skipping rows other transactions hold. Served by the partial index on
+     * RESERVED rows' {@code expires_at}.
+     */
+    @Query(value = """
+            select id from inventory_reservations
+            where status = 'RESERVED' and expires_at <= :now
+            order by expires_at
+            limit :limit
+            for update skip locked
+            """, nativeQuery = true)
+    List<UUID> lockExpiredReservationIds(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Query("select distinct r from InventoryReservationEntity r join fetch r.items where r.id in :ids")
+    List<InventoryReservationEntity> findAllWithItemsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    List<InventoryReservationEntity> findAllByOrderIdIn(Collection<UUID> orderIds);
+
+    @Query("select i.bucketNo from InventoryReservationItemEntity i where i.id = :itemId")
+    Integer findItemBucketNo(@Param("itemId") UUID itemId);
+
+    /**
+     * Re-points the items of still-held reservations at {@code bucketNo}; settled items keep the bucket they were
+     * reserved from.
+     */
+    @Modifying
+    @Query("update InventoryReservationItemEntity i set i.bucketNo = :bucketNo where i.skuId = :skuId "
+            + "and i.reservation.id in (select r.id from InventoryReservationEntity r "
+            + "where r.status = com.cloud.inventory.domain.ReservationStatus.RESERVED)")
+    int reassignItemBuckets(@Param("skuId") String skuId, @Param("bucketNo") Integer bucketNo);
+
+    @Query("select distinct r from InventoryReservationEntity r join fetch r.items "
+            + "where r.status = com.cloud.inventory.domain.ReservationStatus.RESERVED and r.id in "
+            + "(select i.reservation.id from InventoryReservationItemEntity i where i.skuId in :skuIds)")
+    List<InventoryReservationEntity> findReservedContainingSkus(@Param("skuIds") Set<String> skuIds);
 }
@@ -0,0 +1,48 @@
+package com.cloud.inventory.repo;
+
+import com.cloud.inventory.domain.ReleaseExportJobEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface ReleaseExportJobRepository extends JpaRepository<ReleaseExportJobEntity, UUID> {
+
+    /**
+     * Locks up to {@code limit} jobs to start: queued ones, and running ones whose owner stopped heartbeating
+     * (crashed or restarted instance), oldest first.
+     */
+    @Query(value = """
+            select id from release_export_jobs
+            where status = 'QUEUED'
+               or (status = 'RUNNING' and heartbeat_at < :staleBefore)
+            order by created_at
+            limit :limit
+            for update skip locked
+            """, nativeQuery = true)
+    List<UUID> lockRunnableJobIds(@Param("staleBefore") Instant staleBefore, @Param("limit") int limit);
+
+    /**
+     * Marks finished jobs whose file is past retention EXPIRED; their files are deleted by each instance.
+     */
+    @Modifying
+    @Query("update ReleaseExportJobEntity j set j.status = com.cloud.inventory.domain.ReleaseExportJobStatus.EXPIRED "
+            + "where j.status in (com.cloud.inventory.domain.ReleaseExportJobStatus.COMPLETED, "
+            + "com.cloud.inventory.domain.ReleaseExportJobStatus.FAILED) and j.completedAt < :cutoff")
+    int expireFinishedBefore(@Param("cutoff") Instant cutoff);
+
+    @Modifying
+    @Query(value = """
+            delete from release_export_jobs
+            where id in (
+                select id from release_export_jobs
+                where status = 'EXPIRED' and completed_at < :cutoff
+                limit :limit
+            )
+            """, nativeQuery = true)
+    int deleteExpiredBefore(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+}
@@ -0,0 +1,45 @@
+package com.cloud.inventory.repo;
+
+import com.cloud.inventory.domain.SkuStockBucketEntity;
+import com.cloud.inventory.domain.SkuStockBucketId;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface SkuStockBucketRepository extends JpaRepository<SkuStockBucketEntity, SkuStockBucketId> {
+
+    List<SkuStockBucketEntity> findAllBySkuIdOrderByBucketNo(String skuId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from SkuStockBucketEntity b where b.skuId = :skuId and b.bucketNo = :bucketNo")
+    Optional<SkuStockBucketEntity> findByIdForUpdate(@Param("skuId") String skuId, @Param("bucketNo") int bucketNo);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from SkuStockBucketEntity b where b.skuId = :skuId order by b.bucketNo")
+    List<SkuStockBucketEntity> findAllBySkuIdForUpdate(@Param("skuId") String skuId);
+
+    /**
+     * Locks one random bucket that can cover {@code qty} on its own, skipping buckets other transactions hold.
+     */
+    @Query(value = """
+            select * from sku_stock_buckets
+            where sku_id = :skuId and available_qty >= :qty
+            order by random()
+            limit 1
+            for update skip locked
+            """, nativeQuery = true)
+    Optional<SkuStockBucketEntity> lockAnyWithAvailable(@Param("skuId") String skuId, @Param("qty") int qty);
+
+    @Query(value = """
+            select * from sku_stock_buckets
+            where sku_id = :skuId
+            order by bucket_no
+            for update skip locked
+            """, nativeQuery = true)
+    List<SkuStockBucketEntity> lockUnlockedBySkuId(@Param("skuId") String skuId);
+}
@@ -0,0 +1,50 @@
+package com.cloud.inventory.repo;
+
+import com.cloud.inventory.domain.SkuStockLeaseEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface SkuStockLeaseRepository extends JpaRepository<SkuStockLeaseEntity, UUID> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select l from SkuStockLeaseEntity l where l.id = :id")
+    Optional<SkuStockLeaseEntity> findByIdForUpdate(@Param("id") UUID id);
+
+    /**
+     * Share-locks the still-active leases among {@code ids}. The lock conflicts with {@link #findByIdForUpdate}, so a
+     * lease returned here cannot be closed until the caller's transaction ends.
+     */
+    @Query(value = """
+            select id from sku_stock_leases
+            where id in (:ids) and status = 'ACTIVE'
+            order by id
+            for share
+            """, nativeQuery = true)
+    List<UUID> lockActiveForShare(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("update SkuStockLeaseEntity l set l.renewedAt = :renewedAt "
+            + "where l.id = :id and l.status = com.cloud.inventory.domain.SkuStockLeaseStatus.ACTIVE")
+    int renewIfActive(@Param("id") UUID id, @Param("renewedAt") Instant renewedAt);
+
+    @Query(value = """
+            select id from sku_stock_leases
+            where status = 'ACTIVE' and renewed_at < :cutoff
+            order by renewed_at
+            limit :limit
+            """, nativeQuery = true)
+    List<UUID> findStaleActiveLeaseIds(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+
+    @Query("select coalesce(sum(i.quantity), 0) from InventoryReservationItemEntity i where i.leaseId = :leaseId")
+    int sumConsumedQty(@Param("leaseId") UUID leaseId);
+}
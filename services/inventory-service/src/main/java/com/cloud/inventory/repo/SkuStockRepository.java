@@ -4,15 +4,48 @@ import com.cloud.inventory.domain.SkuStockEntity;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Set;
 
 public interface SkuStockRepository extends JpaRepository<SkuStockEntity, String> {
 
+    /**
+     * Rows are locked in {@code sku_id} order so transactions locking overlapping SKU sets queue up instead of
+     * deadlocking.
+     */
     @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("select s from SkuStockEntity s where s.skuId in :skuIds")
+    @Query("select s from SkuStockEntity s where s.skuId in :skuIds order by s.skuId")
     List<SkuStockEntity> findAllBySkuIdInForUpdate(@Param("skuIds") Set<String> skuIds);
+
+    @Query("select s.skuId from SkuStockEntity s where s.skuId in :skuIds and s.bucketCount > 0")
+    Set<String> findBucketedSkuIds(@Param("skuIds") Set<String> skuIds);
+
+    @Query("select s.skuId from SkuStockEntity s where s.bucketCount > 0")
+    List<String> findAllBucketedSkuIds();
+
+    /**
+     * Writes reservation engine quantities, creating the row if needed. Rows already at the same or a newer
+     * {@code engine_version} are left alone, which makes journal replay idempotent and order-insensitive.
+     */
+    @Modifying
+    @Query(value = """
+            insert into sku_stocks (sku_id, available_qty, reserved_qty, updated_at, engine_version)
+            values (:skuId, :availableQty, :reservedQty, :updatedAt, :version)
+            on conflict (sku_id) do update
+            set available_qty = excluded.available_qty,
+                reserved_qty = excluded.reserved_qty,
+                updated_at = excluded.updated_at,
+                engine_version = excluded.engine_version
+            where sku_stocks.engine_version < excluded.engine_version
+            """, nativeQuery = true)
+    int applyEngineSnapshot(@Param("skuId") String skuId,
+                            @Param("availableQty") int availableQty,
+                            @Param("reservedQty") int reservedQty,
+                            @Param("version") long version,
+                            @Param("updatedAt") Instant updatedAt);
 }
@@ -6,6 +6,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -22,6 +24,26 @@ public class ConsumedMessageService {
         return consumedMessageRepository.existsByMessageIdAndConsumer(messageId, consumer);
     }
 
+    @Transactional(readOnly = true)
+    public Set<String> findConsumed(Collection<String> messageIds, String consumer) {
+        if (messageIds.isEmpty()) {
+            return Set.of();
+        }
+        return consumedMessageRepository.findConsumedMessageIds(messageIds, consumer);
+    }
+
+    /**
+     * Batch form of {@link #markConsumed(String, String)} for ids the caller has already checked with
+     * {@link #findConsumed(Collection, String)} in the same transaction.
+     */
+    @Transactional
+    public void markAllConsumed(Collection<String> messageIds, String consumer) {
+        Instant now = Instant.now();
+        consumedMessageRepository.saveAll(messageIds.stream()
+                .map(messageId -> new ConsumedMessageEntity(UUID.randomUUID(), messageId, consumer, now))
+                .toList());
+    }
+
     @Transactional
     public void markConsumed(String messageId, String consumer) {
         if (consumedMessageRepository.existsByMessageIdAndConsumer(messageId, consumer)) {
@@ -2,56 +2,168 @@ package com.cloud.inventory.service;
 
 import com.cloud.inventory.domain.InventoryReleaseEventEntity;
 import com.cloud.inventory.repo.InventoryReleaseEventRepository;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
 import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class InventoryReleaseAuditService {
 
-    private static final int MAX_EXPORT_LIMIT = 10_000;
+    public static final long MAX_EXPORT_LIMIT = 10_000_000L;
+    public static final int MAX_STATS_BUCKETS = 5000;
+
+    static final int EXPORT_FETCH_SIZE = 1000;
+    private static final Sort RELEASE_EVENT_ORDER = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+    static final String CSV_HEADER = "release_id,order_id,reservation_id,reason,created_at\n";
 
     private final InventoryReleaseEventRepository inventoryReleaseEventRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ReleaseEventCounter releaseEventCounter;
 
-    public InventoryReleaseAuditService(InventoryReleaseEventRepository inventoryReleaseEventRepository) {
+    public InventoryReleaseAuditService(InventoryReleaseEventRepository inventoryReleaseEventRepository,
+                                        JdbcTemplate jdbcTemplate,
+                                        ReleaseEventCounter releaseEventCounter) {
         this.inventoryReleaseEventRepository = inventoryReleaseEventRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.releaseEventCounter = releaseEventCounter;
+    }
+
+    /**
+     * {@code totalElements} is null for {@link ReleaseEventCountMode#NONE}; {@code countMode} is the mode actually
+     * used, which differs from the requested one when an estimate is not available.
+     */
+    public record ReleaseEventsOffsetPage(
+            List<InventoryReleaseEventEntity> items,
+            int page,
+            int size,
+            Long totalElements,
+            boolean hasNext,
+            ReleaseEventCountMode countMode
+    ) {
     }
 
     public record ReleaseEventsCursorPage(
             List<InventoryReleaseEventEntity> items,
             boolean hasMore,
-            String nextCursor
+            String nextCursor,
+            String prevCursor
     ) {
     }
 
     @Transactional(readOnly = true)
-    public Page<InventoryReleaseEventEntity> listReleaseEvents(UUID orderId, Instant from, Instant to, int page, int size) {
+    public ReleaseEventsOffsetPage listReleaseEvents(UUID orderId, Instant from, Instant to, int page, int size,
+                                                     ReleaseEventCountMode countMode) {
         validateTimeRange(from, to);
-        return inventoryReleaseEventRepository.findAll(buildSpec(orderId, from, to), PageRequest.of(page, size));
+        Specification<InventoryReleaseEventEntity> spec = buildSpec(orderId, from, to);
+        if (countMode == ReleaseEventCountMode.EXACT) {
+            Page<InventoryReleaseEventEntity> result = inventoryReleaseEventRepository.findAll(
+                    spec, PageRequest.of(page, size, RELEASE_EVENT_ORDER));
+            return new ReleaseEventsOffsetPage(List.copyOf(result.getContent()), page, size,
+                    result.getTotalElements(), result.hasNext(), ReleaseEventCountMode.EXACT);
+        }
+
+        long offset = (long) page * size;
+        if (offset > Integer.MAX_VALUE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "page is too deep; use the cursor endpoint");
+        }
+        List<InventoryReleaseEventEntity> content = inventoryReleaseEventRepository.findOffsetPage(
+                spec, RELEASE_EVENT_ORDER, (int) offset, size + 1);
+        boolean hasNext = content.size() > size;
+        List<InventoryReleaseEventEntity> items = hasNext ? content.subList(0, size) : content;
+
+        ReleaseEventCountMode used = countMode;
+        Long total = null;
+        if (countMode == ReleaseEventCountMode.ESTIMATE && orderId == null && from == null && to == null) {
+            OptionalLong estimate = releaseEventCounter.estimatedTotal();
+            if (estimate.isPresent()) {
+                total = estimate.getAsLong();
+            }
+        }
+        if (countMode != ReleaseEventCountMode.NONE && total == null) {
+            used = ReleaseEventCountMode.CACHED;
+            total = releaseEventCounter.cachedCount(orderId, from, to, () -> inventoryReleaseEventRepository.count(spec));
+        }
+        if (total != null) {
+            // An approximate total must not contradict the page just read.
+            long seen = offset + items.size();
+            if (!hasNext && (!items.isEmpty() || offset == 0)) {
+                total = seen;
+            } else if (total < seen + (hasNext ? 1 : 0)) {
+                total = seen + (hasNext ? 1 : 0);
+            }
+        }
+        return new ReleaseEventsOffsetPage(List.copyOf(items), page, size, total, hasNext, used);
     }
 
+    /**
+     * Newest-first keyset page. {@code after} pages toward older events and {@code before} toward newer ones; both
+     * are one index range scan of {@code size + 1} rows. {@code prevCursor} is set when newer events may exist.
+     */
     @Transactional(readOnly = true)
-    public ReleaseEventsCursorPage listReleaseEventsCursor(UUID orderId, Instant from, Instant to, int size, String after) {
+    public ReleaseEventsCursorPage listReleaseEventsCursor(UUID orderId, Instant from, Instant to, int size,
+                                                           String after, String before) {
         validateTimeRange(from, to);
+        if (after != null && !after.isBlank() && before != null && !before.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "after and before are mutually exclusive");
+        }
 
         Specification<InventoryReleaseEventEntity> spec = buildSpec(orderId, from, to);
-        if (after != null && !after.isBlank()) {
-            ReleaseEventsCursor.Decoded decoded = ReleaseEventsCursor.decode(after);
+        int filterHash = ReleaseEventsCursor.filterHash(orderId, from, to);
+        if (before != null && !before.isBlank()) {
+            ReleaseEventsCursor.Decoded decoded = ReleaseEventsCursor.decode(before, filterHash);
+            List<InventoryReleaseEventEntity> content = inventoryReleaseEventRepository.findCursorPage(
+                    spec.and(buildNewerSpec(decoded)), RELEASE_EVENT_ORDER.reverse(), size + 1);
+            boolean hasNewer = content.size() > size;
+            List<InventoryReleaseEventEntity> items = new ArrayList<>(hasNewer ? content.subList(0, size) : content);
+            Collections.reverse(items);
+            if (items.isEmpty()) {
+                return new ReleaseEventsCursorPage(List.of(), true, before, null);
+            }
+            return new ReleaseEventsCursorPage(
+                    List.copyOf(items),
+                    true,
+                    encodeCursor(items.get(items.size() - 1), filterHash),
+                    hasNewer ? encodeCursor(items.get(0), filterHash) : null
+            );
+        }
+
+        boolean paged = after != null && !after.isBlank();
+        if (paged) {
+            ReleaseEventsCursor.Decoded decoded = ReleaseEventsCursor.decode(after, filterHash);
             spec = spec.and(buildAfterSpec(decoded));
         }
 
         List<InventoryReleaseEventEntity> content = inventoryReleaseEventRepository.findCursorPage(
                 spec,
-                Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id")),
+                RELEASE_EVENT_ORDER,
                 size + 1
         );
 
@@ -60,15 +172,121 @@ public class InventoryReleaseAuditService {
 
         String nextCursor = null;
         if (hasMore && !items.isEmpty()) {
-            InventoryReleaseEventEntity last = items.get(items.size() - 1);
-            nextCursor = ReleaseEventsCursor.encode(last.getCreatedAt(), last.getId());
+            nextCursor = encodeCursor(items.get(items.size() - 1), filterHash);
         }
+        String prevCursor = paged && !items.isEmpty() ? encodeCursor(items.get(0), filterHash) : null;
 
-        return new ReleaseEventsCursorPage(List.copyOf(items), hasMore, nextCursor);
+        return new ReleaseEventsCursorPage(List.copyOf(items), hasMore, nextCursor, prevCursor);
     }
 
+    /**
+     * Events newer than {@code since}, oldest first, for live tailing; without {@code since}, the newest {@code size}
+     * events. {@code nextCursor} is the position to tail from next (the newest event returned, or {@code since}
+     * when nothing is new) and {@code hasMore} means more new events are waiting beyond this page.
+     * <p>
+     * Only events created before {@code settledBefore} are returned: a release that commits after a newer one would
+     * otherwise land behind a tail cursor that already moved past it.
+     */
     @Transactional(readOnly = true)
-    public String exportReleaseEventsCsv(UUID orderId, Instant from, Instant to, int limit) {
+    public ReleaseEventsCursorPage tailReleaseEvents(UUID orderId, Instant from, Instant to, int size, String since,
+                                                     Instant settledBefore) {
+        validateTimeRange(from, to);
+        Specification<InventoryReleaseEventEntity> spec = buildSpec(orderId, from, to)
+                .and((root, query, cb) -> cb.lessThan(root.get("createdAt"), settledBefore));
+        int filterHash = ReleaseEventsCursor.filterHash(orderId, from, to);
+
+        List<InventoryReleaseEventEntity> items;
+        boolean hasMore = false;
+        if (since == null || since.isBlank()) {
+            items = new ArrayList<>(inventoryReleaseEventRepository.findCursorPage(spec, RELEASE_EVENT_ORDER, size));
+            Collections.reverse(items);
+        } else {
+            ReleaseEventsCursor.Decoded decoded = ReleaseEventsCursor.decode(since, filterHash);
+            List<InventoryReleaseEventEntity> content = inventoryReleaseEventRepository.findCursorPage(
+                    spec.and(buildNewerSpec(decoded)), RELEASE_EVENT_ORDER.reverse(), size + 1);
+            hasMore = content.size() > size;
+            items = hasMore ? content.subList(0, size) : content;
+        }
+
+        String nextCursor = items.isEmpty() ? blankToNull(since) : encodeCursor(items.get(items.size() - 1), filterHash);
+        return new ReleaseEventsCursorPage(List.copyOf(items), hasMore, nextCursor, null);
+    }
+
+    /**
+     * Position of the newest release event under any filter, used to decide whether tail waiters need to re-query.
+     */
+    @Transactional(readOnly = true)
+    public Optional<ReleaseEventsCursor.Decoded> newestPosition() {
+        return inventoryReleaseEventRepository.findCursorPage(Specification.where(null), RELEASE_EVENT_ORDER, 1).stream()
+                .findFirst()
+                .map(event -> new ReleaseEventsCursor.Decoded(event.getCreatedAt(), event.getId()));
+    }
+
+    public record ReleaseStatsBucket(Instant bucketStart, Map<String, Long> countsByReason) {
+
+        public long total() {
+            return countsByReason.values().stream().mapToLong(Long::longValue).sum();
+        }
+    }
+
+    record ReleaseStatsRow(Instant bucketStart, String reason, long events) {
+    }
+
+    /**
+     * Time series of release counts per reason from {@code inventory_release_event_stats}, one bucket per
+     * {@code granularity} from the bucket containing {@code from} through {@code to}, empty buckets included.
+     * Reads at most 24 rows per day per reason and shard, independent of how many raw events there are.
+     */
+    @Transactional(readOnly = true)
+    public List<ReleaseStatsBucket> releaseStats(Instant from, Instant to, ReleaseStatsGranularity granularity, String reason) {
+        if (from == null || to == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from and to are required");
+        }
+        validateTimeRange(from, to);
+        Instant first = from.truncatedTo(granularity.unit());
+        long bucketCount = granularity.unit().between(first, to) + 1;
+        if (bucketCount > MAX_STATS_BUCKETS) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "range spans " + bucketCount + " " + granularity + " buckets; max " + MAX_STATS_BUCKETS
+            );
+        }
+
+        List<Object> args = new ArrayList<>(List.of(Timestamp.from(first), Timestamp.from(to)));
+        String sql = "select date_trunc('" + granularity.sqlField() + "', bucket_start at time zone 'UTC') as bucket,"
+                + " reason, sum(event_count) as events"
+                + " from inventory_release_event_stats"
+                + " where bucket_start >= ? and bucket_start <= ?";
+        if (reason != null && !reason.isBlank()) {
+            sql += " and reason = ?";
+            args.add(reason);
+        }
+        sql += " group by 1, 2";
+        List<ReleaseStatsRow> rows = jdbcTemplate.query(sql, (rs, rowNum) -> new ReleaseStatsRow(
+                rs.getObject("bucket", LocalDateTime.class).toInstant(ZoneOffset.UTC),
+                rs.getString("reason"),
+                rs.getLong("events")
+        ), args.toArray());
+
+        Map<Instant, Map<String, Long>> buckets = new LinkedHashMap<>();
+        for (Instant bucket = first; !bucket.isAfter(to); bucket = bucket.plus(1, granularity.unit())) {
+            buckets.put(bucket, new TreeMap<>());
+        }
+        for (ReleaseStatsRow row : rows) {
+            Map<String, Long> counts = buckets.get(row.bucketStart());
+            if (counts != null) {
+                counts.merge(row.reason(), row.events(), Long::sum);
+            }
+        }
+        return buckets.entrySet().stream()
+                .map(entry -> new ReleaseStatsBucket(entry.getKey(), Collections.unmodifiableMap(entry.getValue())))
+                .toList();
+    }
+
+    /**
+     * Rejects export parameters up front, so a bad request fails with 400 before the streamed response is committed.
+     */
+    public void validateExport(Instant from, Instant to, long limit) {
         validateTimeRange(from, to);
         if (limit < 1 || limit > MAX_EXPORT_LIMIT) {
             throw new ResponseStatusException(
@@ -76,23 +294,63 @@ public class InventoryReleaseAuditService {
                     "limit must be between 1 and " + MAX_EXPORT_LIMIT
             );
         }
+    }
 
-        Page<InventoryReleaseEventEntity> page = inventoryReleaseEventRepository.findAll(
-                buildSpec(orderId, from, to),
-                PageRequest.of(0, limit)
-        );
-        StringBuilder csv = new StringBuilder();
-        csv.append("release_id,order_id,reservation_id,reason,created_at\n");
+    /**
+     * Writes matching release events as CSV, newest first, straight from a forward-only cursor: the driver holds at
+     * most {@value #EXPORT_FETCH_SIZE} rows and nothing is collected in memory, so heap use does not grow with
+     * {@code limit}. Returns the number of rows written.
+     */
+    @Transactional(readOnly = true)
+    public long exportReleaseEventsCsv(UUID orderId, Instant from, Instant to, long limit, Writer out) {
+        validateExport(from, to, limit);
+
+        List<String> conditions = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        if (orderId != null) {
+            conditions.add("order_id = ?");
+            args.add(orderId);
+        }
+        if (from != null) {
+            conditions.add("created_at >= ?");
+            args.add(Timestamp.from(from));
+        }
+        if (to != null) {
+            conditions.add("created_at <= ?");
+            args.add(Timestamp.from(to));
+        }
+        args.add(limit);
+        String sql = "select id, order_id, reservation_id, reason, created_at from inventory_release_events"
+                + (conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions))
+                + " order by created_at desc, id desc limit ?";
 
-        for (InventoryReleaseEventEntity event : page.getContent()) {
-            csv.append(event.getId()).append(',')
-                    .append(event.getOrderId()).append(',')
-                    .append(event.getReservationId()).append(',')
-                    .append(csvEscape(event.getReason())).append(',')
-                    .append(event.getCreatedAt())
-                    .append('\n');
+        write(out, CSV_HEADER);
+        AtomicLong rows = new AtomicLong();
+        // The PostgreSQL driver only honours the fetch size inside a transaction (autocommit off), which the
+        // surrounding read-only transaction provides; otherwise it would buffer the whole result set.
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(EXPORT_FETCH_SIZE);
+            for (int i = 0; i < args.size(); i++) {
+                statement.setObject(i + 1, args.get(i));
+            }
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            write(out, csvLine(
+                    rs.getObject("id", UUID.class),
+                    rs.getObject("order_id", UUID.class),
+                    rs.getObject("reservation_id", UUID.class),
+                    rs.getString("reason"),
+                    rs.getObject("created_at", OffsetDateTime.class).toInstant()
+            ));
+            rows.incrementAndGet();
+        });
+        try {
+            out.flush();
+        } catch (IOException ex) {
+            throw new DataAccessResourceFailureException("Release event export aborted: " + ex.getMessage(), ex);
         }
-        return csv.toString();
+        return rows.get();
     }
 
     private void validateTimeRange(Instant from, Instant to) {
@@ -101,16 +359,42 @@ public class InventoryReleaseAuditService {
         }
     }
 
+    /**
+     * {@code created_at <= :at AND (created_at < :at OR id < :id)}: the plain upper bound lets the planner prune
+     * monthly partitions newer than the cursor and bounds the index range scan; the OR only breaks ties.
+     */
     private Specification<InventoryReleaseEventEntity> buildAfterSpec(ReleaseEventsCursor.Decoded after) {
-        return (root, query, cb) -> cb.or(
-                cb.lessThan(root.get("createdAt"), after.createdAt()),
-                cb.and(
-                        cb.equal(root.get("createdAt"), after.createdAt()),
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("createdAt"), after.createdAt()),
+                cb.or(
+                        cb.lessThan(root.get("createdAt"), after.createdAt()),
                         cb.lessThan(root.get("id"), after.id())
                 )
         );
     }
 
+    /**
+     * Mirror of {@link #buildAfterSpec}, {@code created_at >= :at AND (created_at > :at OR id > :id)}, for pages
+     * toward newer events; scanned in ascending order.
+     */
+    private Specification<InventoryReleaseEventEntity> buildNewerSpec(ReleaseEventsCursor.Decoded position) {
+        return (root, query, cb) -> cb.and(
+                cb.greaterThanOrEqualTo(root.get("createdAt"), position.createdAt()),
+                cb.or(
+                        cb.greaterThan(root.get("createdAt"), position.createdAt()),
+                        cb.greaterThan(root.get("id"), position.id())
+                )
+        );
+    }
+
+    private static String encodeCursor(InventoryReleaseEventEntity event, int filterHash) {
+        return ReleaseEventsCursor.encode(event.getCreatedAt(), event.getId(), filterHash);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
     private Specification<InventoryReleaseEventEntity> buildSpec(UUID orderId, Instant from, Instant to) {
         Specification<InventoryReleaseEventEntity> spec = Specification.where(null);
         if (orderId != null) {
@@ -125,7 +409,20 @@ public class InventoryReleaseAuditService {
         return spec;
     }
 
-    private String csvEscape(String value) {
+    static String csvLine(UUID id, UUID orderId, UUID reservationId, String reason, Instant createdAt) {
+        return id + "," + orderId + "," + reservationId + "," + csvEscape(reason) + "," + createdAt + "\n";
+    }
+
+    private static void write(Writer out, String text) {
+        try {
+            out.write(text);
+        } catch (IOException ex) {
+            // Usually the client went away; ending the query here closes the cursor.
+            throw new DataAccessResourceFailureException("Release event export aborted: " + ex.getMessage(), ex);
+        }
+    }
+
+    private static String csvEscape(String value) {
         if (value == null) {
             return "";
         }
@@ -1,51 +1,116 @@
 package com.cloud.inventory.service;
 
 import com.cloud.inventory.cache.InventoryStockCacheService;
+import com.cloud.inventory.cache.SingleFlight;
+import com.cloud.inventory.cache.StockLookup;
+import com.cloud.inventory.domain.InventoryReleaseEventItemEntity;
 import com.cloud.inventory.domain.InventoryReservationEntity;
 import com.cloud.inventory.domain.InventoryReservationItemEntity;
 import com.cloud.inventory.domain.InventoryReleaseEventEntity;
 import com.cloud.inventory.domain.ReservationStatus;
 import com.cloud.inventory.domain.SkuStockEntity;
+import com.cloud.inventory.engine.RedisReservationEngine;
+import com.cloud.inventory.hotsku.HotSkuLeaseManager;
+import com.cloud.inventory.hotsku.SkuVolumeTracker;
 import com.cloud.inventory.repo.InventoryReleaseEventRepository;
 import com.cloud.inventory.repo.InventoryReservationRepository;
 import com.cloud.inventory.repo.SkuStockRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
 public class InventoryReservationService {
 
+    public static final String EXPIRED_REASON = "EXPIRED";
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryReservationService.class);
+    private static final Comparator<InventoryReservationItemEntity> RELEASE_LOCK_ORDER = Comparator
+            .comparing(InventoryReservationItemEntity::getSkuId)
+            .thenComparing(InventoryReservationItemEntity::getBucketNo, Comparator.nullsFirst(Comparator.naturalOrder()));
+
     private final SkuStockRepository skuStockRepository;
     private final InventoryReservationRepository reservationRepository;
     private final InventoryReleaseEventRepository inventoryReleaseEventRepository;
     private final InventoryStockCacheService stockCacheService;
+    private final HotSkuLeaseManager hotSkuLeaseManager;
+    private final StockBucketService stockBucketService;
+    private final RedisReservationEngine reservationEngine;
+    private final LockRetryExecutor lockRetryExecutor;
+    private final SkuVolumeTracker skuVolumeTracker;
+    private final StockUpdateStream stockUpdateStream;
+    private final MeterRegistry meterRegistry;
+    private final SingleFlight<String, SkuStockEntity> stockLoads;
+    private final Duration holdTtl;
 
     public InventoryReservationService(SkuStockRepository skuStockRepository,
                                        InventoryReservationRepository reservationRepository,
                                        InventoryReleaseEventRepository inventoryReleaseEventRepository,
-                                       InventoryStockCacheService stockCacheService) {
+                                       InventoryStockCacheService stockCacheService,
+                                       HotSkuLeaseManager hotSkuLeaseManager,
+                                       StockBucketService stockBucketService,
+                                       RedisReservationEngine reservationEngine,
+                                       LockRetryExecutor lockRetryExecutor,
+                                       SkuVolumeTracker skuVolumeTracker,
+                                       StockUpdateStream stockUpdateStream,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${app.reservation-expiry.hold-ttl-seconds:900}") long holdTtlSeconds) {
         this.skuStockRepository = skuStockRepository;
         this.reservationRepository = reservationRepository;
         this.inventoryReleaseEventRepository = inventoryReleaseEventRepository;
         this.stockCacheService = stockCacheService;
+        this.hotSkuLeaseManager = hotSkuLeaseManager;
+        this.stockBucketService = stockBucketService;
+        this.reservationEngine = reservationEngine;
+        this.lockRetryExecutor = lockRetryExecutor;
+        this.skuVolumeTracker = skuVolumeTracker;
+        this.stockUpdateStream = stockUpdateStream;
+        this.meterRegistry = meterRegistry;
+        this.stockLoads = new SingleFlight<>(meterRegistry, "inventory_stock_load");
+        // Zero or less keeps holds open until a release request arrives, as before expiry existed.
+        this.holdTtl = holdTtlSeconds > 0 ? Duration.ofSeconds(holdTtlSeconds) : null;
     }
 
     @Transactional
     public SkuStockEntity upsertStock(String skuId, int availableQty) {
         String normalizedSkuId = normalizeSkuId(skuId);
-        SkuStockEntity stock = skuStockRepository.findById(normalizedSkuId)
+        stockUpdateStream.publishAfterCommit(List.of(normalizedSkuId));
+        if (reservationEngine.isEngineSku(normalizedSkuId)) {
+            return reservationEngine.upsert(normalizedSkuId, availableQty);
+        }
+        // Locked like every other stock write, so the row version cannot change underneath the update.
+        Optional<SkuStockEntity> current = lockStocks(Set.of(normalizedSkuId), "upsert").stream().findFirst();
+        if (current.isPresent() && current.get().getBucketCount() > 0) {
+            SkuStockEntity summary = stockBucketService.setAvailable(normalizedSkuId, availableQty);
+            stockCacheService.refreshAfterCommit(List.of(), Set.of(normalizedSkuId));
+            return summary;
+        }
+        SkuStockEntity stock = current
                 .map(existing -> {
                     existing.setAvailableQty(availableQty);
                     return existing;
@@ -56,33 +121,121 @@ public class InventoryReservationService {
                         0,
                         Instant.now()
                 )));
-        stockCacheService.put(stock);
+        stockCacheService.refreshAfterCommit(List.of(stock), Set.of());
         return stock;
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Not transactional: callers coalesced behind a concurrent load of the same SKU must not hold a connection
+     * while they wait.
+     */
     public SkuStockEntity getStock(String skuId) {
         String normalizedSkuId = normalizeSkuId(skuId);
-        Optional<SkuStockEntity> cached = stockCacheService.get(normalizedSkuId);
-        if (cached.isPresent()) {
-            return cached.get();
+        if (reservationEngine.isEngineSku(normalizedSkuId)) {
+            return reservationEngine.getStock(normalizedSkuId)
+                    .orElseThrow(() -> stockNotFound(normalizedSkuId));
+        }
+        StockLookup cached = stockCacheService.lookup(normalizedSkuId);
+        if (cached.isHit()) {
+            return cached.stock().get();
+        }
+        if (cached.knownMissing()) {
+            throw stockNotFound(normalizedSkuId);
+        }
+        return stockLoads.load(normalizedSkuId, () -> loadStock(normalizedSkuId));
+    }
+
+    /**
+     * Looks up many SKUs with one cache round trip, one {@code findAllById} for the misses and one pipelined cache
+     * back-fill. The result follows the request order; unknown SKUs are left out.
+     */
+    public Map<String, SkuStockEntity> lookupStocks(Collection<String> skuIds) {
+        Set<String> normalizedSkuIds = new LinkedHashSet<>();
+        skuIds.forEach(skuId -> normalizedSkuIds.add(normalizeSkuId(skuId)));
+
+        Map<String, SkuStockEntity> found = new HashMap<>();
+        List<String> cacheable = new ArrayList<>();
+        for (String skuId : normalizedSkuIds) {
+            if (reservationEngine.isEngineSku(skuId)) {
+                reservationEngine.getStock(skuId).ifPresent(stock -> found.put(skuId, stock));
+            } else {
+                cacheable.add(skuId);
+            }
+        }
+        Map<String, StockLookup> cached = stockCacheService.lookupAll(cacheable);
+        cached.forEach((skuId, lookup) -> lookup.stock().ifPresent(stock -> found.put(skuId, stock)));
+
+        List<String> misses = cacheable.stream().filter(skuId -> !cached.containsKey(skuId)).toList();
+        if (!misses.isEmpty()) {
+            long startedAt = System.nanoTime();
+            List<SkuStockEntity> loaded = new ArrayList<>(misses.size());
+            for (SkuStockEntity stock : skuStockRepository.findAllById(misses)) {
+                loaded.add(stock.getBucketCount() > 0 ? stockBucketService.summarize(stock) : stock);
+            }
+            stockCacheService.putAll(loaded, (System.nanoTime() - startedAt) / 1_000_000L);
+            loaded.forEach(stock -> found.put(stock.getSkuId(), stock));
+            stockCacheService.putAllMissing(misses.stream().filter(skuId -> !found.containsKey(skuId)).toList());
         }
 
-        SkuStockEntity stock = skuStockRepository.findById(normalizedSkuId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Stock not found for sku: " + normalizedSkuId));
-        stockCacheService.put(stock);
+        Map<String, SkuStockEntity> ordered = new LinkedHashMap<>();
+        for (String skuId : normalizedSkuIds) {
+            SkuStockEntity stock = found.get(skuId);
+            if (stock != null) {
+                ordered.put(skuId, stock);
+            }
+        }
+        return ordered;
+    }
+
+    private SkuStockEntity loadStock(String skuId) {
+        long startedAt = System.nanoTime();
+        Optional<SkuStockEntity> found = skuStockRepository.findById(skuId);
+        if (found.isEmpty()) {
+            stockCacheService.putMissing(skuId);
+            throw stockNotFound(skuId);
+        }
+        SkuStockEntity stock = found.get();
+        if (stock.getBucketCount() > 0) {
+            stock = stockBucketService.summarize(stock);
+        }
+        stockCacheService.put(stock, (System.nanoTime() - startedAt) / 1_000_000L);
         return stock;
     }
 
-    @Transactional
     public ReservationOutcome reserveForOrder(UUID orderId, List<ReservationOutcome.ReservedItem> requestedItems) {
-        return reservationRepository.findByOrderId(orderId)
+        if (reservationEngine.isEnabled() && !requestedItems.isEmpty()) {
+            Map<String, Integer> requestedBySku = aggregateRequestedItems(requestedItems);
+            long engineSkuCount = requestedBySku.keySet().stream().filter(reservationEngine::isEngineSku).count();
+            if (engineSkuCount == requestedBySku.size()) {
+                ReservationOutcome outcome = reservationEngine.reserve(orderId, requestedBySku);
+                if (outcome.status() == ReservationStatus.RESERVED) {
+                    stockUpdateStream.publishAfterCommit(requestedBySku.keySet());
+                }
+                return outcome;
+            }
+            if (engineSkuCount > 0) {
+                // Redis and Postgres cannot be changed atomically together, so a cart has to live on one side.
+                return lockRetryExecutor.inTransaction("reserve", () -> reservationRepository.findByOrderId(orderId)
+                        .map(this::toOutcome)
+                        .orElseGet(() -> saveFailedReservation(orderId, "MIXED_ENGINE_CART", requestedBySku)));
+            }
+        }
+        return lockRetryExecutor.inTransaction("reserve", () -> reservationRepository.findByOrderId(orderId)
                 .map(this::toOutcome)
-                .orElseGet(() -> reserveFresh(orderId, requestedItems));
+                .orElseGet(() -> reserveFresh(orderId, requestedItems)));
     }
 
-    @Transactional
     public Optional<InventoryReleaseOutcome> releaseReservationForOrder(UUID orderId, String reason) {
+        RedisReservationEngine.ReleaseResult engineRelease = reservationEngine.release(orderId, reason);
+        if (engineRelease.handled()) {
+            engineRelease.outcome().ifPresent(outcome -> stockUpdateStream.publishAfterCommit(
+                    outcome.items().stream().map(InventoryReleaseOutcome.ReleasedItem::skuId).toList()));
+            return engineRelease.outcome();
+        }
+        return lockRetryExecutor.inTransaction("release", () -> releaseReservation(orderId, reason));
+    }
+
+    private Optional<InventoryReleaseOutcome> releaseReservation(UUID orderId, String reason) {
         InventoryReservationEntity reservation = reservationRepository.findByOrderId(orderId).orElse(null);
         if (reservation == null) {
             return Optional.empty();
@@ -93,45 +246,248 @@ public class InventoryReservationService {
         if (reservation.getStatus() != ReservationStatus.RESERVED) {
             throw new IllegalStateException("Unsupported reservation status for release: " + reservation.getStatus());
         }
+        return Optional.of(release(reservation, reason, false));
+    }
+
+    /**
+     * Releases up to {@code limit} RESERVED holds whose {@code expires_at} has passed, oldest first, in the caller's
+     * transaction. Holds locked by a concurrent release or payment confirmation are skipped and picked up by a
+     * later call. Reservation-engine holds carry no expiry and are never returned here.
+     */
+    @Transactional
+    public List<InventoryReleaseOutcome> expireReservations(Instant now, int limit) {
+        List<UUID> expiredIds = reservationRepository.lockExpiredReservationIds(now, limit);
+        if (expiredIds.isEmpty()) {
+            return List.of();
+        }
+        List<InventoryReservationEntity> expired = reservationRepository.findAllWithItemsByIdIn(expiredIds);
+        // Stock rows for the whole batch are locked up front, in SKU order, like a single release does for its own
+        // SKUs. Bucket rows are locked as their items are released, so the batch's bucket items are released next,
+        // all together in (skuId, bucketNo) order; releasing them reservation by reservation would lock buckets
+        // out of order across the batch and could deadlock with another sweep or a single release.
+        lockStocks(expired.stream()
+                .flatMap(reservation -> reservation.getItems().stream())
+                .filter(item -> item.getBucketNo() == null)
+                .map(InventoryReservationItemEntity::getSkuId)
+                .collect(Collectors.toCollection(TreeSet::new)), "expire");
+        expired.stream()
+                .flatMap(reservation -> reservation.getItems().stream())
+                .filter(item -> item.getBucketNo() != null)
+                .sorted(RELEASE_LOCK_ORDER)
+                .forEach(stockBucketService::release);
+
+        List<InventoryReleaseOutcome> outcomes = new ArrayList<>(expired.size());
+        for (InventoryReservationEntity reservation : expired) {
+            outcomes.add(release(reservation, EXPIRED_REASON, true));
+        }
+        return outcomes;
+    }
+
+    /**
+     * Payment succeeded: turns the order's hold into a confirmed reservation so it no longer expires. Reservations
+     * touching reservation-engine SKUs are left to the engine, which does not expire holds.
+     */
+    @Transactional
+    public void confirmReservationForOrder(UUID orderId) {
+        InventoryReservationEntity reservation = reservationRepository.findByOrderIdForUpdate(orderId).orElse(null);
+        String result;
+        if (reservation == null) {
+            result = "not_found";
+        } else if (reservation.getItems().stream().anyMatch(item -> reservationEngine.isEngineSku(item.getSkuId()))) {
+            result = "engine";
+        } else if (reservation.getStatus() == ReservationStatus.RESERVED) {
+            reservation.markConfirmed();
+            result = "confirmed";
+        } else if (reservation.getStatus() == ReservationStatus.RELEASED && EXPIRED_REASON.equals(reservation.getReason())) {
+            // The hold expired before the payment result arrived and the stock is back on sale. Order-service saw
+            // the EXPIRED release too, so it keeps the order failed and requests a refund.
+            log.warn("Payment succeeded for order {} after its reservation expired; order-service refunds it", orderId);
+            result = "after_expiry";
+        } else {
+            result = "noop";
+        }
+        meterRegistry.counter("inventory_reservation_confirmations", "result", result).increment();
+    }
 
-        List<InventoryReleaseOutcome.ReleasedItem> releasedItems = reservation.getItems().stream()
-                .map(item -> new InventoryReleaseOutcome.ReleasedItem(item.getSkuId(), item.getQuantity()))
+    /**
+     * Returns the reservation's stock and records its release event. With {@code bucketItemsReleased} the caller has
+     * already released the items that were drawn from buckets.
+     */
+    private InventoryReleaseOutcome release(InventoryReservationEntity reservation, String reason,
+                                            boolean bucketItemsReleased) {
+        UUID orderId = reservation.getOrderId();
+        Map<String, Integer> releasedBySku = new LinkedHashMap<>();
+        reservation.getItems().forEach(item -> releasedBySku.merge(item.getSkuId(), item.getQuantity(), Integer::sum));
+        List<InventoryReleaseOutcome.ReleasedItem> releasedItems = releasedBySku.entrySet().stream()
+                .map(entry -> new InventoryReleaseOutcome.ReleasedItem(entry.getKey(), entry.getValue()))
                 .toList();
 
         Set<String> skuIds = reservation.getItems().stream()
                 .map(InventoryReservationItemEntity::getSkuId)
                 .collect(Collectors.toSet());
-        List<SkuStockEntity> lockedStocks = skuStockRepository.findAllBySkuIdInForUpdate(skuIds);
+        Set<String> rowSkuIds = reservation.getItems().stream()
+                .filter(item -> item.getBucketNo() == null)
+                .map(InventoryReservationItemEntity::getSkuId)
+                .collect(Collectors.toSet());
+        List<SkuStockEntity> lockedStocks = lockStocks(rowSkuIds, "release");
         Map<String, SkuStockEntity> stockBySku = toStockBySku(lockedStocks);
 
-        for (InventoryReservationItemEntity item : reservation.getItems()) {
+        List<InventoryReservationItemEntity> itemsInLockOrder = reservation.getItems().stream()
+                .sorted(RELEASE_LOCK_ORDER)
+                .toList();
+        Map<String, SkuStockEntity> releasedRows = new LinkedHashMap<>();
+        for (InventoryReservationItemEntity item : itemsInLockOrder) {
+            if (item.getBucketNo() != null) {
+                if (!bucketItemsReleased) {
+                    stockBucketService.release(item);
+                }
+                continue;
+            }
             SkuStockEntity stock = stockBySku.get(item.getSkuId());
             if (stock == null) {
                 throw new IllegalStateException("Stock row missing for sku: " + item.getSkuId());
             }
-            stock.release(item.getQuantity());
+            if (stock.getBucketCount() > 0) {
+                // The SKU was bucketed after this reservation was loaded; follow the item to its bucket.
+                stockBucketService.release(item);
+            } else {
+                stock.release(item.getQuantity());
+                releasedRows.put(stock.getSkuId(), stock);
+            }
         }
-        stockCacheService.evictAll(skuIds);
+        Set<String> evictedSkuIds = new LinkedHashSet<>(skuIds);
+        evictedSkuIds.removeAll(releasedRows.keySet());
+        stockCacheService.refreshAfterCommit(releasedRows.values(), evictedSkuIds);
 
         Instant releasedAt = Instant.now();
         reservation.markReleased(reason);
 
-        InventoryReleaseEventEntity releaseEvent = inventoryReleaseEventRepository.save(new InventoryReleaseEventEntity(
+        InventoryReleaseEventEntity event = new InventoryReleaseEventEntity(
                 UUID.randomUUID(),
                 orderId,
                 reservation.getId(),
                 reason,
                 releasedAt
-        ));
+        );
+        releasedBySku.forEach((skuId, quantity) ->
+                event.addItem(new InventoryReleaseEventItemEntity(UUID.randomUUID(), skuId, quantity)));
+        InventoryReleaseEventEntity releaseEvent = inventoryReleaseEventRepository.save(event);
+        inventoryReleaseEventRepository.recordStats(releaseEvent);
+        skuVolumeTracker.recordAfterCommit(SkuVolumeTracker.Kind.RELEASED, releasedBySku);
+        stockUpdateStream.publishAfterCommit(releasedBySku.keySet());
 
-        return Optional.of(new InventoryReleaseOutcome(
+        return new InventoryReleaseOutcome(
                 releaseEvent.getId(),
                 orderId,
                 reservation.getId(),
                 reason,
                 releasedAt,
                 releasedItems
-        ));
+        );
+    }
+
+    /**
+     * Group-commit form of {@link #reserveForOrder}: runs in the caller's transaction, locks the union of the
+     * orders' SKUs once (in SKU order, like the single-order path) and decides each order in list order against the
+     * locked rows in memory. Orders that are invalid or touch hot, bucketed or reservation-engine SKUs are left out
+     * of the result; the caller processes those one at a time.
+     */
+    @Transactional
+    public Map<UUID, ReservationOutcome> reserveBatch(List<OrderReservationRequest> requests) {
+        Map<UUID, ReservationOutcome> outcomes = new LinkedHashMap<>();
+        Map<UUID, Map<String, Integer>> pending = new LinkedHashMap<>();
+        for (OrderReservationRequest request : requests) {
+            if (pending.containsKey(request.orderId()) || request.items().isEmpty()) {
+                continue;
+            }
+            Map<String, Integer> requestedBySku;
+            try {
+                requestedBySku = aggregateRequestedItems(request.items());
+            } catch (ResponseStatusException ex) {
+                continue;
+            }
+            boolean special = requestedBySku.keySet().stream()
+                    .anyMatch(skuId -> hotSkuLeaseManager.isHot(skuId) || reservationEngine.isEngineSku(skuId));
+            if (!special) {
+                pending.put(request.orderId(), requestedBySku);
+            }
+        }
+        if (pending.isEmpty()) {
+            return outcomes;
+        }
+        meterRegistry.summary("inventory_reservation_batch_size").record(pending.size());
+
+        for (InventoryReservationEntity existing : reservationRepository.findAllByOrderIdIn(pending.keySet())) {
+            outcomes.put(existing.getOrderId(), toOutcome(existing));
+            pending.remove(existing.getOrderId());
+        }
+        Set<String> pendingSkuIds = skuUnion(pending.values());
+        Set<String> bucketedSkuIds = pendingSkuIds.isEmpty() ? Set.of() : skuStockRepository.findBucketedSkuIds(pendingSkuIds);
+        pending.values().removeIf(requested -> requested.keySet().stream().anyMatch(bucketedSkuIds::contains));
+
+        Map<String, SkuStockEntity> lockedBySku = new HashMap<>();
+        lockStocks(skuUnion(pending.values()), "reserve_batch").forEach(stock -> lockedBySku.put(stock.getSkuId(), stock));
+
+        List<InventoryReservationEntity> decided = new ArrayList<>(pending.size());
+        Map<String, SkuStockEntity> reservedRows = new LinkedHashMap<>();
+        Set<String> missingSkuIds = new LinkedHashSet<>();
+        for (Map.Entry<UUID, Map<String, Integer>> entry : pending.entrySet()) {
+            UUID orderId = entry.getKey();
+            Map<String, Integer> requestedBySku = entry.getValue();
+            List<String> missing = requestedBySku.keySet().stream().filter(skuId -> !lockedBySku.containsKey(skuId)).toList();
+            if (!missing.isEmpty()) {
+                missingSkuIds.addAll(missing);
+                decided.add(newFailedReservation(orderId, "SKU_NOT_FOUND:" + missing.get(0), requestedBySku));
+                continue;
+            }
+            List<SkuStockEntity> stocks = requestedBySku.keySet().stream().sorted().map(lockedBySku::get).toList();
+            if (stocks.stream().anyMatch(stock -> stock.getBucketCount() > 0)) {
+                // Bucketed between the lookup above and taking the row locks.
+                continue;
+            }
+            String insufficient = null;
+            for (SkuStockEntity stock : stocks) {
+                int requestedQty = requestedBySku.get(stock.getSkuId());
+                if (stock.getAvailableQty() < requestedQty) {
+                    insufficient = "INSUFFICIENT_STOCK:" + stock.getSkuId()
+                            + " available=" + stock.getAvailableQty()
+                            + " requested=" + requestedQty;
+                    break;
+                }
+            }
+            if (insufficient != null) {
+                decided.add(newFailedReservation(orderId, insufficient, requestedBySku));
+                continue;
+            }
+
+            InventoryReservationEntity reservation = newHeldReservation(orderId);
+            for (SkuStockEntity stock : stocks) {
+                int requestedQty = requestedBySku.get(stock.getSkuId());
+                stock.reserve(requestedQty);
+                reservedRows.put(stock.getSkuId(), stock);
+                reservation.addItem(new InventoryReservationItemEntity(UUID.randomUUID(), stock.getSkuId(), requestedQty));
+            }
+            decided.add(reservation);
+        }
+
+        Map<String, Integer> reservedBySku = new HashMap<>();
+        for (InventoryReservationEntity saved : reservationRepository.saveAll(decided)) {
+            outcomes.put(saved.getOrderId(), toOutcome(saved));
+            if (saved.getStatus() == ReservationStatus.RESERVED) {
+                saved.getItems().forEach(item -> reservedBySku.merge(item.getSkuId(), item.getQuantity(), Integer::sum));
+            }
+        }
+        skuVolumeTracker.recordAfterCommit(SkuVolumeTracker.Kind.RESERVED, reservedBySku);
+        stockUpdateStream.publishAfterCommit(reservedBySku.keySet());
+        stockCacheService.putAllMissing(missingSkuIds);
+        stockCacheService.refreshAfterCommit(reservedRows.values(), Set.of());
+        return outcomes;
+    }
+
+    private static Set<String> skuUnion(Collection<Map<String, Integer>> requests) {
+        Set<String> skuIds = new TreeSet<>();
+        requests.forEach(requested -> skuIds.addAll(requested.keySet()));
+        return skuIds;
     }
 
     private ReservationOutcome reserveFresh(UUID orderId, List<ReservationOutcome.ReservedItem> requestedItems) {
@@ -140,17 +496,61 @@ public class InventoryReservationService {
         }
 
         Map<String, Integer> requestedBySku = aggregateRequestedItems(requestedItems);
-        Set<String> skuIds = requestedBySku.keySet();
-        List<SkuStockEntity> lockedStocks = skuStockRepository.findAllBySkuIdInForUpdate(skuIds);
+        Map<String, Integer> hotRequestedBySku = new LinkedHashMap<>();
+        Map<String, Integer> lockedRequestedBySku = new LinkedHashMap<>();
+        requestedBySku.forEach((skuId, qty) -> (hotSkuLeaseManager.isHot(skuId) ? hotRequestedBySku : lockedRequestedBySku)
+                .put(skuId, qty));
+
+        // Hot SKUs draw from locally leased quota instead of the sku_stocks row lock; whatever the local lease
+        // cannot cover is reserved on the row like any other SKU.
+        HotSkuLeaseManager.AllocationResult hotAllocation = null;
+        if (!hotRequestedBySku.isEmpty()) {
+            // Leases closed elsewhere since the allocation have handed their stock back; those SKUs use the row too.
+            hotAllocation = hotSkuLeaseManager.confirmLeases(hotSkuLeaseManager.allocate(hotRequestedBySku));
+            lockedRequestedBySku.putAll(hotAllocation.fallbackBySku());
+        }
+        ReservationOutcome outcome = reserveFresh(orderId, requestedBySku, lockedRequestedBySku, hotAllocation);
+        if (hotAllocation != null && outcome.status() == ReservationStatus.FAILED) {
+            hotAllocation.abandon();
+        }
+        return outcome;
+    }
+
+    private ReservationOutcome reserveFresh(UUID orderId,
+                                            Map<String, Integer> requestedBySku,
+                                            Map<String, Integer> lockedRequestedBySku,
+                                            HotSkuLeaseManager.AllocationResult hotAllocation) {
+        // SKUs recently seen not to exist fail without a query; bots ordering unknown SKUs cannot load the database.
+        Set<String> knownMissing = stockCacheService.findKnownMissing(lockedRequestedBySku.keySet());
+        if (!knownMissing.isEmpty()) {
+            return saveFailedReservation(orderId, "SKU_NOT_FOUND:" + knownMissing.iterator().next(), requestedBySku);
+        }
+
+        Set<String> bucketedSkuIds = lockedRequestedBySku.isEmpty()
+                ? Set.of()
+                : skuStockRepository.findBucketedSkuIds(lockedRequestedBySku.keySet());
+        // Sorted so bucket locks across SKUs are always taken in the same order.
+        Map<String, Integer> bucketRequestedBySku = new TreeMap<>();
+        bucketedSkuIds.forEach(skuId -> bucketRequestedBySku.put(skuId, lockedRequestedBySku.remove(skuId)));
+
+        Set<String> skuIds = lockedRequestedBySku.keySet();
+        List<SkuStockEntity> lockedStocks = lockStocks(skuIds, "reserve");
 
         if (lockedStocks.size() != skuIds.size()) {
             Set<String> found = lockedStocks.stream().map(SkuStockEntity::getSkuId).collect(Collectors.toSet());
-            String missingSku = skuIds.stream().filter(sku -> !found.contains(sku)).findFirst().orElse("unknown");
+            List<String> missingSkus = skuIds.stream().filter(sku -> !found.contains(sku)).toList();
+            stockCacheService.putAllMissing(missingSkus);
+            String missingSku = missingSkus.isEmpty() ? "unknown" : missingSkus.get(0);
             return saveFailedReservation(orderId, "SKU_NOT_FOUND:" + missingSku, requestedBySku);
         }
 
         for (SkuStockEntity stock : lockedStocks) {
-            int requestedQty = requestedBySku.getOrDefault(stock.getSkuId(), 0);
+            int requestedQty = lockedRequestedBySku.getOrDefault(stock.getSkuId(), 0);
+            if (stock.getBucketCount() > 0) {
+                // Bucketed between the lookup above and taking the row lock.
+                bucketRequestedBySku.put(stock.getSkuId(), requestedQty);
+                continue;
+            }
             if (stock.getAvailableQty() < requestedQty) {
                 String reason = "INSUFFICIENT_STOCK:" + stock.getSkuId()
                         + " available=" + stock.getAvailableQty()
@@ -159,30 +559,118 @@ public class InventoryReservationService {
             }
         }
 
-        InventoryReservationEntity reservation = new InventoryReservationEntity(
-                UUID.randomUUID(),
-                orderId,
-                ReservationStatus.RESERVED,
-                null,
-                Instant.now()
-        );
+        List<StockBucketService.Draw> bucketDraws = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : bucketRequestedBySku.entrySet()) {
+            StockBucketService.BucketReservation drawn = stockBucketService.reserve(entry.getKey(), entry.getValue());
+            if (!drawn.isDrawn()) {
+                stockBucketService.undo(bucketDraws);
+                String reason = drawn.skuFound()
+                        ? "INSUFFICIENT_STOCK:" + entry.getKey() + " available=" + drawn.availableQty() + " requested=" + entry.getValue()
+                        : "SKU_NOT_FOUND:" + entry.getKey();
+                return saveFailedReservation(orderId, reason, requestedBySku);
+            }
+            bucketDraws.addAll(drawn.draws());
+        }
+
+        InventoryReservationEntity reservation = newHeldReservation(orderId);
 
+        List<SkuStockEntity> reservedRows = new ArrayList<>();
         for (SkuStockEntity stock : lockedStocks) {
-            int requestedQty = requestedBySku.get(stock.getSkuId());
+            if (stock.getBucketCount() > 0) {
+                continue;
+            }
+            int requestedQty = lockedRequestedBySku.get(stock.getSkuId());
             stock.reserve(requestedQty);
+            reservedRows.add(stock);
             reservation.addItem(new InventoryReservationItemEntity(
                     UUID.randomUUID(),
                     stock.getSkuId(),
                     requestedQty
             ));
         }
+        List<HotSkuLeaseManager.Allocation> hotAllocations = hotAllocation == null ? List.of() : hotAllocation.allocations();
+        for (HotSkuLeaseManager.Allocation allocation : hotAllocations) {
+            reservation.addItem(new InventoryReservationItemEntity(
+                    UUID.randomUUID(),
+                    allocation.skuId(),
+                    allocation.quantity(),
+                    allocation.leaseId()
+            ));
+        }
+        for (StockBucketService.Draw draw : bucketDraws) {
+            reservation.addItem(new InventoryReservationItemEntity(
+                    UUID.randomUUID(),
+                    draw.skuId(),
+                    draw.quantity(),
+                    null,
+                    draw.bucketNo()
+            ));
+        }
 
         InventoryReservationEntity saved = reservationRepository.save(reservation);
-        stockCacheService.evictAll(skuIds);
+        skuVolumeTracker.recordAfterCommit(SkuVolumeTracker.Kind.RESERVED, requestedBySku);
+        stockUpdateStream.publishAfterCommit(requestedBySku.keySet());
+        // Hot and bucketed SKUs have no single committed row to write through; those are evicted.
+        Set<String> evictedSkuIds = new LinkedHashSet<>(requestedBySku.keySet());
+        reservedRows.forEach(stock -> evictedSkuIds.remove(stock.getSkuId()));
+        stockCacheService.refreshAfterCommit(reservedRows, evictedSkuIds);
         return toOutcome(saved);
     }
 
+    /**
+     * Locks stock rows in {@code sku_id} order (see {@link SkuStockRepository#findAllBySkuIdInForUpdate}) so
+     * concurrent multi-SKU orders cannot deadlock on each other, and records how long the lock wait took and, once
+     * the transaction ends, how long the locks were held.
+     */
+    private List<SkuStockEntity> lockStocks(Set<String> skuIds, String operation) {
+        if (skuIds.isEmpty()) {
+            return List.of();
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<SkuStockEntity> locked;
+        try {
+            locked = skuStockRepository.findAllBySkuIdInForUpdate(skuIds);
+        } finally {
+            sample.stop(meterRegistry.timer("inventory_stock_lock_wait", "operation", operation));
+        }
+        recordLockHold(operation);
+        return locked;
+    }
+
+    private void recordLockHold(String operation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Timer.Sample held = Timer.start(meterRegistry);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                String outcome = status == STATUS_COMMITTED ? "committed" : "rolled_back";
+                held.stop(meterRegistry.timer("inventory_stock_lock_hold", "operation", operation, "outcome", outcome));
+            }
+        });
+    }
+
+    private InventoryReservationEntity newHeldReservation(UUID orderId) {
+        Instant now = Instant.now();
+        InventoryReservationEntity reservation = new InventoryReservationEntity(
+                UUID.randomUUID(),
+                orderId,
+                ReservationStatus.RESERVED,
+                null,
+                now
+        );
+        if (holdTtl != null) {
+            reservation.setExpiresAt(now.plus(holdTtl));
+        }
+        return reservation;
+    }
+
     private ReservationOutcome saveFailedReservation(UUID orderId, String reason, Map<String, Integer> requestedBySku) {
+        return toOutcome(reservationRepository.save(newFailedReservation(orderId, reason, requestedBySku)));
+    }
+
+    private InventoryReservationEntity newFailedReservation(UUID orderId, String reason, Map<String, Integer> requestedBySku) {
         InventoryReservationEntity failed = new InventoryReservationEntity(
                 UUID.randomUUID(),
                 orderId,
@@ -197,7 +685,7 @@ public class InventoryReservationService {
                     entry.getValue()
             ));
         }
-        return toOutcome(reservationRepository.save(failed));
+        return failed;
     }
 
     private Map<String, Integer> aggregateRequestedItems(List<ReservationOutcome.ReservedItem> items) {
@@ -220,6 +708,10 @@ public class InventoryReservationService {
         return stockBySku;
     }
 
+    private static ResponseStatusException stockNotFound(String skuId) {
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, "Stock not found for sku: " + skuId);
+    }
+
     private String normalizeSkuId(String skuId) {
         if (skuId == null || skuId.isBlank()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "skuId is required");
@@ -228,10 +720,13 @@ public class InventoryReservationService {
     }
 
     public ReservationOutcome toOutcome(InventoryReservationEntity entity) {
-        List<ReservationOutcome.ReservedItem> items = new ArrayList<>();
+        // A bucketed SKU can be drawn from several buckets; report one item per SKU.
+        Map<String, Integer> quantityBySku = new LinkedHashMap<>();
         for (InventoryReservationItemEntity item : entity.getItems()) {
-            items.add(new ReservationOutcome.ReservedItem(item.getSkuId(), item.getQuantity()));
+            quantityBySku.merge(item.getSkuId(), item.getQuantity(), Integer::sum);
         }
+        List<ReservationOutcome.ReservedItem> items = new ArrayList<>();
+        quantityBySku.forEach((skuId, quantity) -> items.add(new ReservationOutcome.ReservedItem(skuId, quantity)));
         return new ReservationOutcome(
                 entity.getId(),
                 entity.getOrderId(),
@@ -0,0 +1,112 @@
+package com.cloud.inventory.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs work in a transaction and re-runs it in-process when Postgres aborts it as a deadlock victim or
+ * serialization failure, instead of bouncing the message through the retry queue.
+ * <p>
+ * Only the outermost boundary can retry: when a transaction is already active the work simply joins it and
+ * any failure propagates to whoever owns that transaction.
+ */
+@Component
+public class LockRetryExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(LockRetryExecutor.class);
+
+    // 40P01 = deadlock_detected, 40001 = serialization_failure
+    private static final Set<String> RETRYABLE_SQL_STATES = Set.of("40P01", "40001");
+
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    public LockRetryExecutor(PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.locking.max-attempts:3}") int maxAttempts,
+                             @Value("${app.locking.retry-backoff-ms:10}") long backoffMillis) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.backoffMillis = Math.max(backoffMillis, 0);
+    }
+
+    public <T> T inTransaction(String operation, Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (RuntimeException exception) {
+                if (attempt >= maxAttempts || !isRetryable(exception)) {
+                    if (attempt > 1 && isRetryable(exception)) {
+                        meterRegistry.counter("inventory_lock_retries_exhausted", "operation", operation).increment();
+                    }
+                    throw exception;
+                }
+                meterRegistry.counter("inventory_lock_retries", "operation", operation).increment();
+                log.info("Retrying {} after lock conflict attempt={} cause={}", operation, attempt, rootMessage(exception));
+                backoff(attempt);
+            }
+        }
+    }
+
+    public void runInTransaction(String operation, Runnable work) {
+        inTransaction(operation, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    static boolean isRetryable(Throwable throwable) {
+        for (Throwable current = throwable; current != null; current = current.getCause()) {
+            if (current instanceof SQLException sqlException) {
+                for (SQLException next = sqlException; next != null; next = next.getNextException()) {
+                    if (next.getSQLState() != null && RETRYABLE_SQL_STATES.contains(next.getSQLState())) {
+                        return true;
+                    }
+                }
+            }
+            if (current.getCause() == current) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private void backoff(int attempt) {
+        if (backoffMillis == 0) {
+            return;
+        }
+        long delay = backoffMillis * attempt + ThreadLocalRandom.current().nextLong(backoffMillis + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while backing off lock retry", exception);
+        }
+    }
+
+    private String rootMessage(Throwable throwable) {
+        Throwable root = throwable;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+}
@@ -0,0 +1,7 @@
+package com.cloud.inventory.service;
+
+import java.util.List;
+import java.util.UUID;
+
+public record OrderReservationRequest(UUID orderId, List<ReservationOutcome.ReservedItem> items) {
+}
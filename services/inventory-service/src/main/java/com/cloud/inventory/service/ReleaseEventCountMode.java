@@ -0,0 +1,15 @@
+package com.cloud.inventory.service;
+
+/**
+ * How the offset-paginated release-event query fills in its total.
+ */
+public enum ReleaseEventCountMode {
+    /** {@code COUNT(*)} on every request. */
+    EXACT,
+    /** Exact count, reused per filter for {@code app.release-events.count-cache.ttl-ms}. */
+    CACHED,
+    /** Planner row estimate for unfiltered queries; filtered queries fall back to {@link #CACHED}. */
+    ESTIMATE,
+    /** No total; {@code hasNext} comes from fetching one extra row. */
+    NONE
+}
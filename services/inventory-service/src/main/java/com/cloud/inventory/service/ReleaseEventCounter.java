@@ -0,0 +1,65 @@
+package com.cloud.inventory.service;
+
+import com.cloud.inventory.cache.StockNearCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+/**
+ * Cheaper totals for offset-paginated release events: exact counts cached per filter for a short TTL, and the
+ * planner's row estimate for the whole table.
+ */
+@Component
+public class ReleaseEventCounter {
+
+    // The partitioned parent has no statistics of its own; sum the partitions that have been analyzed.
+    private static final String ESTIMATE_SQL = """
+            select sum(c.reltuples)::bigint
+            from pg_inherits i
+            join pg_class c on c.oid = i.inhrelid
+            where i.inhparent = 'inventory_release_events'::regclass
+              and c.reltuples >= 0
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final StockNearCache<Long> counts;
+
+    public ReleaseEventCounter(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.release-events.count-cache.ttl-ms:30000}") long ttlMillis,
+            @Value("${app.release-events.count-cache.max-entries:1000}") int maxEntries
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.counts = new StockNearCache<>(maxEntries, ttlMillis);
+    }
+
+    public long cachedCount(UUID orderId, Instant from, Instant to, LongSupplier exactCount) {
+        String key = orderId + "|" + from + "|" + to;
+        Long cached = counts.get(key).orElse(null);
+        if (cached != null) {
+            meterRegistry.counter("inventory_release_event_count_cache", "result", "hit").increment();
+            return cached;
+        }
+        meterRegistry.counter("inventory_release_event_count_cache", "result", "miss").increment();
+        long count = exactCount.getAsLong();
+        counts.put(key, count);
+        return count;
+    }
+
+    /**
+     * Row estimate from the last ANALYZE/autovacuum of each partition, or empty while none has been analyzed.
+     */
+    public OptionalLong estimatedTotal() {
+        Long estimate = jdbcTemplate.queryForObject(ESTIMATE_SQL, Long.class);
+        return estimate == null || estimate < 0 ? OptionalLong.empty() : OptionalLong.of(estimate);
+    }
+}
@@ -0,0 +1,115 @@
+package com.cloud.inventory.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the monthly partitions of {@code inventory_release_events} ahead of the clock and, when
+ * {@code retention-months} is set, drops whole months that fell out of retention.
+ * <p>
+ * There is no default partition, so an insert for a month without a partition fails: {@code premake-months}
+ * future months are created on every run. Old months are detached with {@code DETACH PARTITION CONCURRENTLY}
+ * (no long lock on the parent) and then dropped; a detach interrupted by a crash is finalized on the next run.
+ * The order guard rows and release items of dropped months are deleted with them.
+ */
+@Component
+public class ReleaseEventPartitionMaintainer {
+
+    private static final Logger log = LoggerFactory.getLogger(ReleaseEventPartitionMaintainer.class);
+    private static final Pattern PARTITION_NAME = Pattern.compile("inventory_release_events_p(\\d{6})");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final String LIST_PARTITIONS_SQL = """
+            select c.relname as name, i.inhdetachpending as detach_pending
+            from pg_class c
+            left join pg_inherits i on i.inhrelid = c.oid
+            where c.relkind = 'r'
+              and c.relnamespace = current_schema()::regnamespace
+              and c.relname ~ '^inventory_release_events_p[0-9]{6}$'
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int premakeMonths;
+    private final int retentionMonths;
+
+    public ReleaseEventPartitionMaintainer(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.release-events.partitions.maintain-enabled:true}") boolean enabled,
+            @Value("${app.release-events.partitions.premake-months:3}") int premakeMonths,
+            @Value("${app.release-events.partitions.retention-months:0}") int retentionMonths
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.premakeMonths = Math.max(premakeMonths, 1);
+        this.retentionMonths = Math.max(retentionMonths, 0);
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.release-events.partitions.initial-delay-ms:10000}",
+            fixedDelayString = "${app.release-events.partitions.maintain-interval-ms:3600000}"
+    )
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            maintain(YearMonth.now(ZoneOffset.UTC));
+        } catch (RuntimeException ex) {
+            log.warn("Release event partition maintenance failed: {}", ex.getMessage());
+        }
+    }
+
+    void maintain(YearMonth currentMonth) {
+        for (int i = 0; i <= premakeMonths; i++) {
+            YearMonth month = currentMonth.plusMonths(i);
+            Boolean created = jdbcTemplate.queryForObject(
+                    "select inventory_release_events_ensure_partition(?)", Boolean.class, month.atDay(1));
+            if (Boolean.TRUE.equals(created)) {
+                meterRegistry.counter("inventory_release_event_partitions", "action", "created").increment();
+                log.info("Created release event partition for {}", month);
+            }
+        }
+        if (retentionMonths > 0) {
+            dropExpired(currentMonth.minusMonths(retentionMonths));
+        }
+    }
+
+    private void dropExpired(YearMonth oldestKept) {
+        List<Map<String, Object>> partitions = jdbcTemplate.queryForList(LIST_PARTITIONS_SQL);
+        for (Map<String, Object> partition : partitions) {
+            String name = (String) partition.get("name");
+            Matcher matcher = PARTITION_NAME.matcher(name);
+            if (!matcher.matches() || !YearMonth.parse(matcher.group(1), PARTITION_SUFFIX).isBefore(oldestKept)) {
+                continue;
+            }
+            Boolean detachPending = (Boolean) partition.get("detach_pending");
+            if (detachPending != null) {
+                jdbcTemplate.execute("alter table inventory_release_events detach partition " + name
+                        + (detachPending ? " finalize" : " concurrently"));
+            }
+            jdbcTemplate.execute("drop table if exists " + name);
+            meterRegistry.counter("inventory_release_event_partitions", "action", "dropped").increment();
+            log.info("Dropped release event partition {} (retention {} months)", name, retentionMonths);
+        }
+        Timestamp cutoff = Timestamp.from(oldestKept.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+        jdbcTemplate.update("delete from inventory_release_event_orders where created_at < ?", cutoff);
+        jdbcTemplate.update("delete from inventory_release_event_items where created_at < ?", cutoff);
+    }
+}
@@ -0,0 +1,149 @@
+package com.cloud.inventory.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Parks long-poll tail requests without holding a servlet thread or a connection. Every {@code poll-interval-ms}
+ * one query reads the newest release event position; only waiters whose cursor is behind it re-run their own tail
+ * query, on a small pool, so an idle table costs one indexed {@code LIMIT 1} per tick however many clients wait.
+ * Polling the table rather than listening for local commits also picks up releases written by other instances.
+ * <p>
+ * Tail queries only return events older than {@code settle-ms}. Every writer stamps {@code created_at} inside the
+ * transaction that inserts the event (engine journal releases too, rather than with the Redis release time), so an
+ * event commits at most one transaction after its {@code created_at}; {@code settle-ms} must exceed the longest
+ * such transaction, including a full journal apply batch.
+ */
+@Component
+public class ReleaseEventTailWatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(ReleaseEventTailWatcher.class);
+
+    private final InventoryReleaseAuditService releaseAuditService;
+    private final int maxWaiters;
+    private final Duration settle;
+    private final Set<Waiter<?>> waiters = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor;
+
+    public ReleaseEventTailWatcher(
+            InventoryReleaseAuditService releaseAuditService,
+            MeterRegistry meterRegistry,
+            @Value("${app.release-events.tail.max-waiters:1000}") int maxWaiters,
+            @Value("${app.release-events.tail.poll-threads:4}") int pollThreads,
+            @Value("${app.release-events.tail.settle-ms:1000}") long settleMs
+    ) {
+        this.releaseAuditService = releaseAuditService;
+        this.maxWaiters = Math.max(maxWaiters, 1);
+        this.settle = Duration.ofMillis(Math.max(settleMs, 0));
+        AtomicInteger threadNo = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(pollThreads, 1), runnable -> {
+            Thread thread = new Thread(runnable, "release-tail-" + threadNo.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("inventory_release_event_tail_waiters", waiters, Set::size).register(meterRegistry);
+    }
+
+    /**
+     * Completes with the first non-empty result of {@code poll}, or with {@code onTimeout} after {@code wait}.
+     * {@code since} is the waiter's tail position; {@code null} waits for any event.
+     */
+    public <T> DeferredResult<T> await(ReleaseEventsCursor.Decoded since, Supplier<Optional<T>> poll, T onTimeout,
+                                       Duration wait) {
+        if (waiters.size() >= maxWaiters) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "too many tail requests waiting");
+        }
+        DeferredResult<T> result = new DeferredResult<>(wait.toMillis(), onTimeout);
+        Waiter<T> waiter = new Waiter<>(since, poll, result);
+        result.onCompletion(() -> waiters.remove(waiter));
+        waiters.add(waiter);
+        return result;
+    }
+
+    /**
+     * Upper bound for tail queries run now.
+     */
+    public Instant settledBefore() {
+        return Instant.now().minus(settle);
+    }
+
+    @Scheduled(fixedDelayString = "${app.release-events.tail.poll-interval-ms:500}")
+    public void poll() {
+        if (waiters.isEmpty()) {
+            return;
+        }
+        try {
+            Optional<ReleaseEventsCursor.Decoded> head = releaseAuditService.newestPosition();
+            if (head.isEmpty()) {
+                return;
+            }
+            for (Waiter<?> waiter : waiters) {
+                if (waiter.isBehind(head.get()) && waiter.polling.compareAndSet(false, true)) {
+                    executor.execute(waiter::poll);
+                }
+            }
+        } catch (RejectedExecutionException ex) {
+            // Shutting down; pending requests time out with their empty result.
+        } catch (RuntimeException ex) {
+            log.warn("Release event tail poll failed: {}", ex.getMessage());
+        }
+    }
+
+    int waiting() {
+        return waiters.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static final class Waiter<T> {
+
+        private final ReleaseEventsCursor.Decoded since;
+        private final Supplier<Optional<T>> query;
+        private final DeferredResult<T> result;
+        private final AtomicBoolean polling = new AtomicBoolean();
+
+        private Waiter(ReleaseEventsCursor.Decoded since, Supplier<Optional<T>> query, DeferredResult<T> result) {
+            this.since = since;
+            this.query = query;
+            this.result = result;
+        }
+
+        private boolean isBehind(ReleaseEventsCursor.Decoded head) {
+            return !result.isSetOrExpired() && (since == null || head.isNewerThan(since));
+        }
+
+        private void poll() {
+            try {
+                query.get().ifPresent(result::setResult);
+            } catch (RuntimeException ex) {
+                log.warn("Release event tail query failed: {}", ex.getMessage());
+            } finally {
+                polling.set(false);
+            }
+        }
+    }
+}
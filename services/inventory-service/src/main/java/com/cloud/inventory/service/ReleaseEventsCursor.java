@@ -3,37 +3,90 @@ package com.cloud.inventory.service;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.Base64;
 import java.util.UUID;
+import java.util.zip.CRC32C;
 
+/**
+ * Opaque keyset cursor for release events: base64url of a version byte, {@code created_at} in epoch microseconds
+ * (the precision Postgres stores), the 16 id bytes and a CRC32C of the filters it was issued for, 39 characters
+ * in all. Microseconds keep the cursor exact, so rows that share a millisecond are neither skipped nor repeated; the
+ * filter hash rejects a cursor replayed against a different {@code orderId}/{@code from}/{@code to}.
+ * <p>
+ * Legacy text cursors ({@code "<millis>:<uuid>"}) are still accepted, without the filter check, so pages open
+ * across a deploy keep working.
+ */
 public final class ReleaseEventsCursor {
 
+    private static final byte VERSION = 2;
+    private static final int ENCODED_BYTES = 1 + Long.BYTES + 2 * Long.BYTES + Integer.BYTES;
+
     private ReleaseEventsCursor() {
     }
 
-    public static String encode(Instant createdAt, UUID id) {
+    public static String encode(Instant createdAt, UUID id, int filterHash) {
         if (createdAt == null || id == null) {
             throw new IllegalArgumentException("createdAt and id are required");
         }
-        String payload = createdAt.toEpochMilli() + ":" + id;
-        return Base64.getUrlEncoder().withoutPadding()
-                .encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        ByteBuffer buffer = ByteBuffer.allocate(ENCODED_BYTES)
+                .put(VERSION)
+                .putLong(toEpochMicros(createdAt))
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .putInt(filterHash);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
     }
 
-    public static Decoded decode(String after) {
-        if (after == null || after.isBlank()) {
-            throw badRequest("after must be provided");
+    public static Decoded decode(String cursor, int expectedFilterHash) {
+        if (cursor == null || cursor.isBlank()) {
+            throw badRequest("cursor must be provided");
         }
 
-        String payload;
+        byte[] bytes;
         try {
-            payload = new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8);
+            bytes = Base64.getUrlDecoder().decode(cursor);
         } catch (IllegalArgumentException e) {
             throw badRequest("invalid cursor");
         }
 
+        if (bytes.length == ENCODED_BYTES && bytes[0] == VERSION) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, ENCODED_BYTES - 1);
+            long micros = buffer.getLong();
+            UUID id = new UUID(buffer.getLong(), buffer.getLong());
+            if (buffer.getInt() != expectedFilterHash) {
+                throw badRequest("cursor was issued for different filters");
+            }
+            return new Decoded(Instant.EPOCH.plusNanos(Math.multiplyExact(micros, 1_000L)), id);
+        }
+        return decodeLegacy(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Hash of the filters a cursor is bound to; {@code null} filters hash differently from any value.
+     */
+    public static int filterHash(UUID orderId, Instant from, Instant to) {
+        ByteBuffer buffer = ByteBuffer.allocate(3 + 2 * Long.BYTES + 2 * Long.BYTES);
+        if (orderId == null) {
+            buffer.put((byte) 0);
+        } else {
+            buffer.put((byte) 1).putLong(orderId.getMostSignificantBits()).putLong(orderId.getLeastSignificantBits());
+        }
+        for (Instant bound : new Instant[]{from, to}) {
+            if (bound == null) {
+                buffer.put((byte) 0);
+            } else {
+                buffer.put((byte) 1).putLong(toEpochMicros(bound));
+            }
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 0, buffer.position());
+        return (int) crc.getValue();
+    }
+
+    private static Decoded decodeLegacy(String payload) {
         String[] parts = payload.split(":", -1);
         if (parts.length != 2 || parts[0].isBlank() || parts[1].isBlank()) {
             throw badRequest("invalid cursor");
@@ -51,11 +104,30 @@ public final class ReleaseEventsCursor {
         return new Decoded(Instant.ofEpochMilli(millis), id);
     }
 
+    private static long toEpochMicros(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000);
+    }
+
     private static ResponseStatusException badRequest(String message) {
         return new ResponseStatusException(HttpStatus.BAD_REQUEST, message);
     }
 
     public record Decoded(Instant createdAt, UUID id) {
+
+        /**
+         * Whether this position sorts after {@code other} in {@code (created_at, id)} order; ids compare as unsigned
+         * bytes, like Postgres uuids.
+         */
+        public boolean isNewerThan(Decoded other) {
+            int byTime = createdAt.compareTo(other.createdAt());
+            if (byTime != 0) {
+                return byTime > 0;
+            }
+            int high = Long.compareUnsigned(id.getMostSignificantBits(), other.id().getMostSignificantBits());
+            if (high != 0) {
+                return high > 0;
+            }
+            return Long.compareUnsigned(id.getLeastSignificantBits(), other.id().getLeastSignificantBits()) > 0;
+        }
     }
 }
-
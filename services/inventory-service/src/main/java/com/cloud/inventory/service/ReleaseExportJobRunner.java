@@ -0,0 +1,309 @@
+package com.cloud.inventory.service;
+
+import com.cloud.inventory.domain.InventoryReleaseEventEntity;
+import com.cloud.inventory.domain.ReleaseExportJobEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Runs release-event export jobs on a fixed pool of {@code max-concurrent-jobs} threads.
+ * <p>
+ * Each chunk of {@code chunk-size} rows is appended to the job's file as its own gzip member (concatenated members
+ * are one valid gzip stream), synced to disk, and only then checkpointed with the file length and the keyset
+ * position of its last row. A job resumed after a crash or restart truncates the file back to the checkpointed
+ * length and continues from that position, so every row is written exactly once.
+ * <p>
+ * Finished jobs are kept for {@code retention-hours}: then they turn EXPIRED (downloads answer 410), every instance
+ * deletes its own files older than that, and the expired rows are deleted {@code expired-job-retention-hours} later.
+ */
+@Component
+public class ReleaseExportJobRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ReleaseExportJobRunner.class);
+    private static final int GZIP_BUFFER_BYTES = 64 * 1024;
+    private static final int CLEANUP_BATCH_SIZE = 10_000;
+    private static final String FILE_SUFFIX = ".csv.gz";
+
+    private final ReleaseExportJobService jobService;
+    private final MeterRegistry meterRegistry;
+    private final String ownerId;
+    private final int maxConcurrentJobs;
+    private final int chunkSize;
+    private final Duration staleAfter;
+    private final Duration retention;
+    private final Duration expiredJobRetention;
+    private final ExecutorService executor;
+    private final AtomicInteger activeJobs = new AtomicInteger();
+    private final Set<UUID> localJobs = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, AtomicLong> rowsRemaining = new ConcurrentHashMap<>();
+    private final Counter rowsCounter;
+    private final Timer chunkTimer;
+    private final Counter expiredJobsCounter;
+    private final Counter filesDeletedCounter;
+    private volatile boolean stopping;
+
+    public ReleaseExportJobRunner(
+            ReleaseExportJobService jobService,
+            MeterRegistry meterRegistry,
+            @Value("${app.release-export.owner-id:${HOSTNAME:inventory-service}}") String ownerId,
+            @Value("${app.release-export.max-concurrent-jobs:2}") int maxConcurrentJobs,
+            @Value("${app.release-export.chunk-size:10000}") int chunkSize,
+            @Value("${app.release-export.stale-after-seconds:300}") long staleAfterSeconds,
+            @Value("${app.release-export.retention-hours:24}") long retentionHours,
+            @Value("${app.release-export.expired-job-retention-hours:168}") long expiredJobRetentionHours
+    ) {
+        this.jobService = jobService;
+        this.meterRegistry = meterRegistry;
+        this.ownerId = ownerId;
+        this.maxConcurrentJobs = Math.max(maxConcurrentJobs, 1);
+        this.chunkSize = Math.max(chunkSize, 1);
+        this.staleAfter = Duration.ofSeconds(Math.max(staleAfterSeconds, 1));
+        this.retention = Duration.ofHours(Math.max(retentionHours, 1));
+        this.expiredJobRetention = Duration.ofHours(Math.max(expiredJobRetentionHours, 0));
+        AtomicInteger threadNo = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(this.maxConcurrentJobs, runnable -> {
+            Thread thread = new Thread(runnable, "release-export-" + threadNo.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.rowsCounter = meterRegistry.counter("inventory_release_export_rows");
+        this.chunkTimer = meterRegistry.timer("inventory_release_export_chunk");
+        this.expiredJobsCounter = meterRegistry.counter("inventory_release_export_jobs", "result", "expired");
+        this.filesDeletedCounter = meterRegistry.counter("inventory_release_export_files_deleted");
+        Gauge.builder("inventory_release_export_running_jobs", activeJobs, AtomicInteger::get)
+                .register(meterRegistry);
+        Gauge.builder("inventory_release_export_rows_remaining", rowsRemaining,
+                        remaining -> remaining.values().stream().mapToLong(AtomicLong::get).sum())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Claims queued jobs (and jobs abandoned by a stopped instance) up to the free pool capacity.
+     */
+    @Scheduled(fixedDelayString = "${app.release-export.poll-interval-ms:2000}")
+    public void dispatch() {
+        int free = maxConcurrentJobs - activeJobs.get();
+        if (stopping || free <= 0) {
+            return;
+        }
+        try {
+            for (ReleaseExportJobEntity job : jobService.claimRunnable(ownerId, Instant.now(), staleAfter, free)) {
+                activeJobs.incrementAndGet();
+                executor.execute(() -> {
+                    try {
+                        run(job);
+                    } finally {
+                        activeJobs.decrementAndGet();
+                    }
+                });
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Release export dispatch failed: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Expires finished jobs past retention, deletes their files from this instance's directory and deletes job
+     * rows that have been expired for {@code expired-job-retention-hours}.
+     */
+    @Scheduled(fixedDelayString = "${app.release-export.cleanup-interval-ms:600000}")
+    public void purgeExpired() {
+        Instant cutoff = Instant.now().minus(retention);
+        try {
+            expiredJobsCounter.increment(jobService.expireFinished(cutoff));
+            Instant deleteBefore = cutoff.minus(expiredJobRetention);
+            while (jobService.deleteExpired(deleteBefore, CLEANUP_BATCH_SIZE) == CLEANUP_BATCH_SIZE) {
+                // Full batch: more expired rows are past retention.
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Release export job cleanup failed: {}", ex.getMessage());
+        }
+        deleteFilesBefore(cutoff);
+    }
+
+    void run(ReleaseExportJobEntity job) {
+        UUID jobId = job.getId();
+        Path file = jobService.exportFile(jobId);
+        localJobs.add(jobId);
+        try {
+            long bytes = prepareFile(file, job.getBytesWritten());
+            long rows = bytes == 0 ? 0 : job.getRowsWritten();
+            Instant cursorCreatedAt = bytes == 0 ? null : job.getCursorCreatedAt();
+            UUID cursorId = bytes == 0 ? null : job.getCursorId();
+            if (bytes > 0) {
+                log.info("Resuming release export {} at row {}", jobId, rows);
+            }
+
+            long totalRows;
+            if (job.getTotalRows() != null) {
+                totalRows = job.getTotalRows();
+            } else {
+                totalRows = jobService.countRows(job);
+                jobService.recordTotalRows(jobId, totalRows);
+            }
+            AtomicLong remaining = rowsRemaining.computeIfAbsent(jobId, ignored -> new AtomicLong());
+            remaining.set(Math.max(totalRows - rows, 0));
+
+            while (!stopping) {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                List<InventoryReleaseEventEntity> chunk = jobService.readChunk(job, cursorCreatedAt, cursorId, chunkSize);
+                if (chunk.isEmpty() && bytes > 0) {
+                    break;
+                }
+                bytes = appendChunk(file, bytes == 0, chunk);
+                if (!chunk.isEmpty()) {
+                    InventoryReleaseEventEntity last = chunk.get(chunk.size() - 1);
+                    cursorCreatedAt = last.getCreatedAt();
+                    cursorId = last.getId();
+                }
+                rows += chunk.size();
+                if (!jobService.checkpoint(jobId, ownerId, rows, bytes, cursorCreatedAt, cursorId)) {
+                    log.warn("Release export {} was taken over by another instance; stopping", jobId);
+                    return;
+                }
+                rowsCounter.increment(chunk.size());
+                remaining.set(Math.max(totalRows - rows, 0));
+                sample.stop(chunkTimer);
+                if (chunk.size() < chunkSize) {
+                    break;
+                }
+            }
+            if (stopping) {
+                // Left RUNNING: the job is resumed from its checkpoint once its heartbeat goes stale.
+                return;
+            }
+            jobService.complete(jobId, ownerId);
+            meterRegistry.counter("inventory_release_export_jobs", "result", "completed").increment();
+            log.info("Release export {} completed: {} rows, {} bytes", jobId, rows, bytes);
+        } catch (IOException | RuntimeException ex) {
+            if (stopping) {
+                return;
+            }
+            log.error("Release export {} failed", jobId, ex);
+            jobService.fail(jobId, ownerId, shortError(ex));
+            meterRegistry.counter("inventory_release_export_jobs", "result", "failed").increment();
+        } finally {
+            rowsRemaining.remove(jobId);
+            localJobs.remove(jobId);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stopping = true;
+        executor.shutdownNow();
+    }
+
+    /**
+     * Deletes export files last written before {@code cutoff}, except those of jobs running here: a job resumed
+     * after a long outage keeps appending to its old file. Files are matched by name, so nothing else in the
+     * directory is touched.
+     */
+    private void deleteFilesBefore(Instant cutoff) {
+        Path directory = jobService.directory();
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                UUID jobId = jobId(file);
+                if (jobId == null || localJobs.contains(jobId)
+                        || !Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+                    continue;
+                }
+                if (Files.deleteIfExists(file)) {
+                    filesDeletedCounter.increment();
+                }
+            }
+        } catch (IOException ex) {
+            log.warn("Release export file cleanup failed: {}", ex.getMessage());
+        }
+    }
+
+    private static UUID jobId(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return UUID.fromString(name.substring(0, name.length() - FILE_SUFFIX.length()));
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Drops anything written after the last checkpoint. Returns the length to continue from; 0 means start over,
+     * including when the file is shorter than the checkpoint (lost or replaced).
+     */
+    private static long prepareFile(Path file, long committedBytes) throws IOException {
+        Files.createDirectories(file.getParent());
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        long size = Files.size(file);
+        long keep = size < committedBytes ? 0 : committedBytes;
+        if (size > keep) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(keep);
+            }
+        }
+        return keep;
+    }
+
+    private static long appendChunk(Path file, boolean withHeader, List<InventoryReleaseEventEntity> chunk) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            GZIPOutputStream gzip = new GZIPOutputStream(Channels.newOutputStream(channel), GZIP_BUFFER_BYTES);
+            Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8));
+            if (withHeader) {
+                writer.write(InventoryReleaseAuditService.CSV_HEADER);
+            }
+            for (InventoryReleaseEventEntity event : chunk) {
+                writer.write(InventoryReleaseAuditService.csvLine(
+                        event.getId(), event.getOrderId(), event.getReservationId(), event.getReason(), event.getCreatedAt()));
+            }
+            writer.flush();
+            gzip.finish();
+            channel.force(false);
+            return channel.size();
+        }
+    }
+
+    private static String shortError(Throwable throwable) {
+        String message = throwable.getMessage();
+        if (message == null || message.isBlank()) {
+            message = throwable.getClass().getSimpleName();
+        }
+        return message.length() <= 500 ? message : message.substring(0, 500);
+    }
+}
@@ -0,0 +1,204 @@
+package com.cloud.inventory.service;
+
+import com.cloud.inventory.domain.InventoryReleaseEventEntity;
+import com.cloud.inventory.domain.ReleaseExportJobEntity;
+import com.cloud.inventory.domain.ReleaseExportJobStatus;
+import com.cloud.inventory.repo.ReleaseExportJobRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Persistent state of asynchronous release-event exports: job records in {@code release_export_jobs} and the
+ * keyset reads that feed {@link ReleaseExportJobRunner}. Export files live under
+ * {@code app.release-export.directory} as {@code <jobId>.csv.gz}.
+ */
+@Service
+public class ReleaseExportJobService {
+
+    private final ReleaseExportJobRepository jobRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Path directory;
+
+    public ReleaseExportJobService(ReleaseExportJobRepository jobRepository,
+                                   JdbcTemplate jdbcTemplate,
+                                   @Value("${app.release-export.directory:${java.io.tmpdir}/inventory-release-exports}") String directory) {
+        this.jobRepository = jobRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.directory = Path.of(directory);
+    }
+
+    @Transactional
+    public ReleaseExportJobEntity submit(UUID orderId, Instant from, Instant to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must be <= to");
+        }
+        return jobRepository.save(new ReleaseExportJobEntity(UUID.randomUUID(), orderId, from, to, Instant.now()));
+    }
+
+    @Transactional(readOnly = true)
+    public ReleaseExportJobEntity getJob(UUID jobId) {
+        return jobRepository.findById(jobId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Export job not found: " + jobId));
+    }
+
+    /**
+     * Returns the finished export file, or fails with 410 once the job has EXPIRED, 409 while it is not COMPLETED
+     * and 404 when the file is not on this instance's disk.
+     */
+    @Transactional(readOnly = true)
+    public Path completedExportFile(UUID jobId) {
+        ReleaseExportJobEntity job = getJob(jobId);
+        if (job.getStatus() == ReleaseExportJobStatus.EXPIRED) {
+            throw new ResponseStatusException(HttpStatus.GONE, "Export job expired: " + jobId);
+        }
+        if (job.getStatus() != ReleaseExportJobStatus.COMPLETED) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Export job is " + job.getStatus());
+        }
+        Path file = exportFile(jobId);
+        if (!Files.isRegularFile(file)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Export file not found: " + file.getFileName());
+        }
+        return file;
+    }
+
+    public Path exportFile(UUID jobId) {
+        return directory.resolve(jobId + ".csv.gz");
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    @Transactional
+    public List<ReleaseExportJobEntity> claimRunnable(String ownerId, Instant now, Duration staleAfter, int limit) {
+        List<UUID> ids = jobRepository.lockRunnableJobIds(now.minus(staleAfter), limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<ReleaseExportJobEntity> jobs = jobRepository.findAllById(ids);
+        jobs.forEach(job -> job.markRunning(ownerId, now));
+        return jobs;
+    }
+
+    /**
+     * Records a durable position for the job. Returns false when the job no longer belongs to {@code ownerId}
+     * (another instance took it over), in which case the caller must stop writing.
+     */
+    @Transactional
+    public boolean checkpoint(UUID jobId, String ownerId, long rowsWritten, long bytesWritten,
+                              Instant cursorCreatedAt, UUID cursorId) {
+        ReleaseExportJobEntity job = ownedRunningJob(jobId, ownerId);
+        if (job == null) {
+            return false;
+        }
+        job.checkpoint(rowsWritten, bytesWritten, cursorCreatedAt, cursorId, Instant.now());
+        return true;
+    }
+
+    @Transactional
+    public void recordTotalRows(UUID jobId, long totalRows) {
+        jobRepository.findById(jobId).ifPresent(job -> job.setTotalRows(totalRows));
+    }
+
+    @Transactional
+    public void complete(UUID jobId, String ownerId) {
+        ReleaseExportJobEntity job = ownedRunningJob(jobId, ownerId);
+        if (job != null) {
+            job.markCompleted(Instant.now());
+        }
+    }
+
+    @Transactional
+    public void fail(UUID jobId, String ownerId, String error) {
+        ReleaseExportJobEntity job = ownedRunningJob(jobId, ownerId);
+        if (job != null) {
+            job.markFailed(error, Instant.now());
+        }
+    }
+
+    @Transactional
+    public int expireFinished(Instant cutoff) {
+        return jobRepository.expireFinishedBefore(cutoff);
+    }
+
+    @Transactional
+    public int deleteExpired(Instant cutoff, int limit) {
+        return jobRepository.deleteExpiredBefore(cutoff, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public long countRows(ReleaseExportJobEntity job) {
+        List<Object> args = new ArrayList<>();
+        String where = whereClause(job, null, null, args);
+        Long count = jdbcTemplate.queryForObject("select count(*) from inventory_release_events" + where, Long.class, args.toArray());
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Reads the next chunk after the keyset position ({@code null} for the first chunk), newest first. The row
+     * comparison walks {@code idx_inventory_release_events_created_at_id_desc}, so each chunk costs the same however
+     * deep into the export it is.
+     */
+    @Transactional(readOnly = true)
+    public List<InventoryReleaseEventEntity> readChunk(ReleaseExportJobEntity job, Instant afterCreatedAt, UUID afterId, int limit) {
+        List<Object> args = new ArrayList<>();
+        String where = whereClause(job, afterCreatedAt, afterId, args);
+        args.add(limit);
+        return jdbcTemplate.query(
+                "select id, order_id, reservation_id, reason, created_at from inventory_release_events" + where
+                        + " order by created_at desc, id desc limit ?",
+                (rs, rowNum) -> new InventoryReleaseEventEntity(
+                        rs.getObject("id", UUID.class),
+                        rs.getObject("order_id", UUID.class),
+                        rs.getObject("reservation_id", UUID.class),
+                        rs.getString("reason"),
+                        rs.getObject("created_at", OffsetDateTime.class).toInstant()
+                ),
+                args.toArray());
+    }
+
+    private ReleaseExportJobEntity ownedRunningJob(UUID jobId, String ownerId) {
+        return jobRepository.findById(jobId)
+                .filter(job -> job.getStatus() == ReleaseExportJobStatus.RUNNING && ownerId.equals(job.getOwnerId()))
+                .orElse(null);
+    }
+
+    private static String whereClause(ReleaseExportJobEntity job, Instant afterCreatedAt, UUID afterId, List<Object> args) {
+        List<String> conditions = new ArrayList<>();
+        if (job.getOrderId() != null) {
+            conditions.add("order_id = ?");
+            args.add(job.getOrderId());
+        }
+        if (job.getFrom() != null) {
+            conditions.add("created_at >= ?");
+            args.add(Timestamp.from(job.getFrom()));
+        }
+        if (job.getTo() != null) {
+            conditions.add("created_at <= ?");
+            args.add(Timestamp.from(job.getTo()));
+        }
+        if (afterCreatedAt != null && afterId != null) {
+            // Partition pruning ignores row comparisons; the plain bound prunes months newer than the position.
+            conditions.add("created_at <= ?");
+            args.add(Timestamp.from(afterCreatedAt));
+            conditions.add("(created_at, id) < (?, ?)");
+            args.add(Timestamp.from(afterCreatedAt));
+            args.add(afterId);
+        }
+        return conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions);
+    }
+}
@@ -0,0 +1,27 @@
+package com.cloud.inventory.service;
+
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Bucket width of the release statistics time series; buckets start on UTC hour/day boundaries.
+ */
+public enum ReleaseStatsGranularity {
+    HOUR(ChronoUnit.HOURS, "hour"),
+    DAY(ChronoUnit.DAYS, "day");
+
+    private final ChronoUnit unit;
+    private final String sqlField;
+
+    ReleaseStatsGranularity(ChronoUnit unit, String sqlField) {
+        this.unit = unit;
+        this.sqlField = sqlField;
+    }
+
+    public ChronoUnit unit() {
+        return unit;
+    }
+
+    String sqlField() {
+        return sqlField;
+    }
+}
@@ -0,0 +1,82 @@
+package com.cloud.inventory.service;
+
+import com.cloud.inventory.messaging.InventoryEventPublisher;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Releases RESERVED holds whose {@code expires_at} has passed, so a stalled saga cannot keep stock locked forever.
+ * <p>
+ * Each batch claims the oldest expired rows with {@code FOR UPDATE SKIP LOCKED} through the partial expiry index,
+ * releases them and publishes {@code InventoryReleased} (reason {@code EXPIRED}) inside the same transaction, like
+ * the release-requested listener. Several instances can sweep at once without blocking each other.
+ */
+@Component
+public class ReservationExpirySweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationExpirySweeper.class);
+
+    private final InventoryReservationService reservationService;
+    private final InventoryEventPublisher eventPublisher;
+    private final LockRetryExecutor lockRetryExecutor;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public ReservationExpirySweeper(
+            InventoryReservationService reservationService,
+            InventoryEventPublisher eventPublisher,
+            LockRetryExecutor lockRetryExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${app.reservation-expiry.sweep-enabled:true}") boolean enabled,
+            @Value("${app.reservation-expiry.batch-size:200}") int batchSize,
+            @Value("${app.reservation-expiry.max-batches-per-run:50}") int maxBatchesPerRun
+    ) {
+        this.reservationService = reservationService;
+        this.eventPublisher = eventPublisher;
+        this.lockRetryExecutor = lockRetryExecutor;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.batchSize = Math.max(batchSize, 1);
+        this.maxBatchesPerRun = Math.max(maxBatchesPerRun, 1);
+    }
+
+    @Scheduled(fixedDelayString = "${app.reservation-expiry.sweep-interval-ms:5000}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int batches = 0;
+            while (batches++ < maxBatchesPerRun && sweepOnce(Instant.now()) == batchSize) {
+                // Full batch: more holds are likely due.
+            }
+        } catch (RuntimeException ex) {
+            // The batch rolled back; its holds are still RESERVED and due on the next tick.
+            log.warn("Reservation expiry sweep failed: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Expires at most one batch of holds due at {@code now}. Returns the number released.
+     */
+    int sweepOnce(Instant now) {
+        int released = lockRetryExecutor.inTransaction("expire", () -> {
+            List<InventoryReleaseOutcome> outcomes = reservationService.expireReservations(now, batchSize);
+            outcomes.forEach(outcome -> eventPublisher.publishReleased(outcome, null, null));
+            return outcomes.size();
+        });
+        if (released > 0) {
+            meterRegistry.counter("inventory_reservation_expired").increment(released);
+        }
+        return released;
+    }
+}
@@ -0,0 +1,41 @@
+package com.cloud.inventory.service;
+
+import com.cloud.inventory.repo.SkuStockRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class StockBucketRebalancer {
+
+    private static final Logger log = LoggerFactory.getLogger(StockBucketRebalancer.class);
+
+    private final SkuStockRepository skuStockRepository;
+    private final StockBucketService stockBucketService;
+
+    @Value("${app.stock-buckets.rebalance-enabled:true}")
+    private boolean enabled;
+
+    public StockBucketRebalancer(SkuStockRepository skuStockRepository, StockBucketService stockBucketService) {
+        this.skuStockRepository = skuStockRepository;
+        this.stockBucketService = stockBucketService;
+    }
+
+    @Scheduled(fixedDelayString = "${app.stock-buckets.rebalance-interval-ms:5000}")
+    public void rebalanceBucketedSkus() {
+        if (!enabled) {
+            return;
+        }
+        for (String skuId : skuStockRepository.findAllBucketedSkuIds()) {
+            try {
+                if (stockBucketService.rebalance(skuId)) {
+                    log.debug("Rebalanced stock buckets sku={}", skuId);
+                }
+            } catch (RuntimeException exception) {
+                log.warn("Failed to rebalance stock buckets sku={}", skuId, exception);
+            }
+        }
+    }
+}
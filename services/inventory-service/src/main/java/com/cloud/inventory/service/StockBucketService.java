@@ -0,0 +1,328 @@
+package com.cloud.inventory.service;
+
+import com.cloud.inventory.cache.InventoryStockCacheService;
+import com.cloud.inventory.domain.InventoryReservationItemEntity;
+import com.cloud.inventory.domain.SkuStockBucketEntity;
+import com.cloud.inventory.domain.SkuStockBucketId;
+import com.cloud.inventory.domain.SkuStockEntity;
+import com.cloud.inventory.engine.RedisReservationEngine;
+import com.cloud.inventory.hotsku.HotSkuLeaseManager;
+import com.cloud.inventory.repo.InventoryReservationRepository;
+import com.cloud.inventory.repo.SkuStockBucketRepository;
+import com.cloud.inventory.repo.SkuStockRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Stock for SKUs whose quantities are split across {@code sku_stock_buckets} rows.
+ * <p>
+ * While a SKU is bucketed its {@code sku_stocks} row only carries {@code bucket_count}; reservations lock a single
+ * bucket with {@code SKIP LOCKED} so concurrent orders for the same SKU proceed in parallel, and fall back to
+ * locking every bucket (in {@code bucket_no} order) only when no single unlocked bucket can cover the request.
+ * Resizing consolidates reserved quantity into bucket 0 and repoints existing reservation items there, so a
+ * release always targets the bucket that holds its quantity.
+ */
+@Service
+public class StockBucketService {
+
+    private static final int MAX_RELEASE_ATTEMPTS = 3;
+
+    private final SkuStockRepository skuStockRepository;
+    private final SkuStockBucketRepository bucketRepository;
+    private final InventoryReservationRepository reservationRepository;
+    private final InventoryStockCacheService stockCacheService;
+    private final HotSkuLeaseManager hotSkuLeaseManager;
+    private final RedisReservationEngine reservationEngine;
+    private final MeterRegistry meterRegistry;
+    private final int maxBucketCount;
+
+    public StockBucketService(SkuStockRepository skuStockRepository,
+                              SkuStockBucketRepository bucketRepository,
+                              InventoryReservationRepository reservationRepository,
+                              InventoryStockCacheService stockCacheService,
+                              HotSkuLeaseManager hotSkuLeaseManager,
+                              RedisReservationEngine reservationEngine,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.stock-buckets.max-bucket-count:64}") int maxBucketCount) {
+        this.skuStockRepository = skuStockRepository;
+        this.bucketRepository = bucketRepository;
+        this.reservationRepository = reservationRepository;
+        this.stockCacheService = stockCacheService;
+        this.hotSkuLeaseManager = hotSkuLeaseManager;
+        this.reservationEngine = reservationEngine;
+        this.meterRegistry = meterRegistry;
+        this.maxBucketCount = maxBucketCount;
+    }
+
+    /**
+     * Reserves {@code qty} of a bucketed SKU. If the SKU stopped being bucketed concurrently, the quantity is
+     * reserved on its {@code sku_stocks} row instead and the draw has no bucket number.
+     */
+    @Transactional
+    public BucketReservation reserve(String skuId, int qty) {
+        SkuStockBucketEntity single = bucketRepository.lockAnyWithAvailable(skuId, qty).orElse(null);
+        if (single != null) {
+            single.reserve(qty);
+            meterRegistry.counter("inventory_stock_bucket_reservations", "path", "skip_locked").increment();
+            return BucketReservation.drawn(List.of(new Draw(skuId, single.getBucketNo(), qty)));
+        }
+
+        Timer.Sample lockWait = Timer.start(meterRegistry);
+        List<SkuStockBucketEntity> buckets = bucketRepository.findAllBySkuIdForUpdate(skuId);
+        lockWait.stop(meterRegistry.timer("inventory_stock_lock_wait", "operation", "bucket_fallback"));
+        if (buckets.isEmpty()) {
+            return reserveUnbucketed(skuId, qty);
+        }
+        int totalAvailable = buckets.stream().mapToInt(SkuStockBucketEntity::getAvailableQty).sum();
+        if (totalAvailable < qty) {
+            return BucketReservation.insufficient(totalAvailable);
+        }
+
+        List<Draw> draws = new ArrayList<>();
+        int remaining = qty;
+        for (SkuStockBucketEntity bucket : buckets) {
+            int take = Math.min(bucket.getAvailableQty(), remaining);
+            if (take > 0) {
+                bucket.reserve(take);
+                draws.add(new Draw(skuId, bucket.getBucketNo(), take));
+                remaining -= take;
+            }
+            if (remaining == 0) {
+                break;
+            }
+        }
+        meterRegistry.counter("inventory_stock_bucket_reservations", "path", "fallback").increment();
+        return BucketReservation.drawn(draws);
+    }
+
+    /**
+     * Reverts draws made earlier in the same transaction, whose rows are still locked by it.
+     */
+    @Transactional
+    public void undo(List<Draw> draws) {
+        for (Draw draw : draws) {
+            if (draw.bucketNo() == null) {
+                skuStockRepository.findById(draw.skuId())
+                        .orElseThrow(() -> new IllegalStateException("Stock row missing for sku: " + draw.skuId()))
+                        .release(draw.quantity());
+            } else {
+                bucketRepository.findById(new SkuStockBucketId(draw.skuId(), draw.bucketNo()))
+                        .orElseThrow(() -> new IllegalStateException("Bucket missing for sku: " + draw.skuId()))
+                        .release(draw.quantity());
+            }
+        }
+    }
+
+    /**
+     * Releases one reservation item. The item's bucket is re-read after taking the row lock so a resize that
+     * committed in between is followed rather than releasing into a stale bucket.
+     */
+    @Transactional
+    public void release(InventoryReservationItemEntity item) {
+        Integer target = item.getBucketNo();
+        for (int attempt = 0; attempt < MAX_RELEASE_ATTEMPTS; attempt++) {
+            if (target == null) {
+                SkuStockEntity stock = skuStockRepository.findAllBySkuIdInForUpdate(Set.of(item.getSkuId())).stream()
+                        .findFirst()
+                        .orElseThrow(() -> new IllegalStateException("Stock row missing for sku: " + item.getSkuId()));
+                Integer current = reservationRepository.findItemBucketNo(item.getId());
+                if (current == null) {
+                    stock.release(item.getQuantity());
+                    return;
+                }
+                target = current;
+                continue;
+            }
+
+            SkuStockBucketEntity bucket = bucketRepository.findByIdForUpdate(item.getSkuId(), target).orElse(null);
+            Integer current = reservationRepository.findItemBucketNo(item.getId());
+            if (Objects.equals(current, target)) {
+                if (bucket == null) {
+                    throw new IllegalStateException("Bucket " + target + " missing for sku: " + item.getSkuId());
+                }
+                bucket.release(item.getQuantity());
+                return;
+            }
+            target = current;
+        }
+        throw new IllegalStateException("Bucket layout kept changing while releasing sku: " + item.getSkuId());
+    }
+
+    @Transactional
+    public SkuStockEntity setAvailable(String skuId, int availableQty) {
+        List<SkuStockBucketEntity> buckets = bucketRepository.findAllBySkuIdForUpdate(skuId);
+        int[] shares = split(availableQty, buckets.size());
+        for (int i = 0; i < buckets.size(); i++) {
+            buckets.get(i).setAvailableQty(shares[i]);
+        }
+        SkuStockEntity stock = skuStockRepository.findById(skuId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Stock not found for sku: " + skuId));
+        return summarize(stock, buckets);
+    }
+
+    /**
+     * Returns a detached view of a bucketed SKU with quantities summed across its buckets.
+     */
+    @Transactional(readOnly = true)
+    public SkuStockEntity summarize(SkuStockEntity stock) {
+        return summarize(stock, bucketRepository.findAllBySkuIdOrderByBucketNo(stock.getSkuId()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<SkuStockBucketEntity> listBuckets(String skuId) {
+        if (!skuStockRepository.existsById(skuId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Stock not found for sku: " + skuId);
+        }
+        return bucketRepository.findAllBySkuIdOrderByBucketNo(skuId);
+    }
+
+    @Transactional
+    public List<SkuStockBucketEntity> resize(String skuId, int bucketCount) {
+        if (bucketCount < 0 || bucketCount > maxBucketCount) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "bucketCount must be between 0 and " + maxBucketCount);
+        }
+        if (bucketCount > 0 && hotSkuLeaseManager.isHot(skuId)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Hot-SKU leased stock cannot be bucketed: " + skuId);
+        }
+        if (bucketCount > 0 && reservationEngine.isEngineSku(skuId)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Reservation engine stock cannot be bucketed: " + skuId);
+        }
+        SkuStockEntity stock = skuStockRepository.findAllBySkuIdInForUpdate(Set.of(skuId)).stream()
+                .findFirst()
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Stock not found for sku: " + skuId));
+        List<SkuStockBucketEntity> existing = bucketRepository.findAllBySkuIdForUpdate(skuId);
+
+        int availableQty = stock.getAvailableQty();
+        int reservedQty = stock.getReservedQty();
+        if (stock.getBucketCount() > 0) {
+            availableQty = existing.stream().mapToInt(SkuStockBucketEntity::getAvailableQty).sum();
+            reservedQty = existing.stream().mapToInt(SkuStockBucketEntity::getReservedQty).sum();
+        }
+
+        if (bucketCount == 0) {
+            bucketRepository.deleteAll(existing);
+            stock.replaceQuantities(availableQty, reservedQty);
+            stock.setBucketCount(0);
+            reservationRepository.reassignItemBuckets(skuId, null);
+            stockCacheService.evict(skuId);
+            return List.of();
+        }
+
+        int[] shares = split(availableQty, bucketCount);
+        Instant now = Instant.now();
+        List<SkuStockBucketEntity> resized = new ArrayList<>();
+        for (int bucketNo = 0; bucketNo < bucketCount; bucketNo++) {
+            int bucketReserved = bucketNo == 0 ? reservedQty : 0;
+            if (bucketNo < existing.size()) {
+                SkuStockBucketEntity bucket = existing.get(bucketNo);
+                bucket.replaceQuantities(shares[bucketNo], bucketReserved);
+                resized.add(bucket);
+            } else {
+                resized.add(bucketRepository.save(new SkuStockBucketEntity(skuId, bucketNo, shares[bucketNo], bucketReserved, now)));
+            }
+        }
+        if (existing.size() > bucketCount) {
+            bucketRepository.deleteAll(existing.subList(bucketCount, existing.size()));
+        }
+        stock.replaceQuantities(0, 0);
+        stock.setBucketCount(bucketCount);
+        reservationRepository.reassignItemBuckets(skuId, 0);
+        stockCacheService.evict(skuId);
+        return resized;
+    }
+
+    /**
+     * Evens out available quantity across the buckets that are not currently locked. Returns whether anything
+     * moved.
+     */
+    @Transactional
+    public boolean rebalance(String skuId) {
+        List<SkuStockBucketEntity> buckets = bucketRepository.lockUnlockedBySkuId(skuId);
+        if (buckets.size() < 2) {
+            return false;
+        }
+        int totalAvailable = buckets.stream().mapToInt(SkuStockBucketEntity::getAvailableQty).sum();
+        int fairShare = totalAvailable / buckets.size();
+        int minAvailable = buckets.stream().mapToInt(SkuStockBucketEntity::getAvailableQty).min().orElse(0);
+        if (fairShare == 0 || minAvailable * 2 >= fairShare) {
+            return false;
+        }
+
+        int[] shares = split(totalAvailable, buckets.size());
+        for (int i = 0; i < buckets.size(); i++) {
+            buckets.get(i).setAvailableQty(shares[i]);
+        }
+        meterRegistry.counter("inventory_stock_bucket_rebalances").increment();
+        return true;
+    }
+
+    private BucketReservation reserveUnbucketed(String skuId, int qty) {
+        SkuStockEntity stock = skuStockRepository.findAllBySkuIdInForUpdate(Set.of(skuId)).stream()
+                .findFirst()
+                .orElse(null);
+        if (stock == null) {
+            return BucketReservation.notFound();
+        }
+        if (stock.getBucketCount() > 0 || stock.getAvailableQty() < qty) {
+            return BucketReservation.insufficient(stock.getBucketCount() > 0 ? 0 : stock.getAvailableQty());
+        }
+        stock.reserve(qty);
+        meterRegistry.counter("inventory_stock_bucket_reservations", "path", "unbucketed").increment();
+        return BucketReservation.drawn(List.of(new Draw(skuId, null, qty)));
+    }
+
+    private SkuStockEntity summarize(SkuStockEntity stock, List<SkuStockBucketEntity> buckets) {
+        int availableQty = 0;
+        int reservedQty = 0;
+        Instant updatedAt = stock.getUpdatedAt();
+        for (SkuStockBucketEntity bucket : buckets) {
+            availableQty += bucket.getAvailableQty();
+            reservedQty += bucket.getReservedQty();
+            if (bucket.getUpdatedAt().isAfter(updatedAt)) {
+                updatedAt = bucket.getUpdatedAt();
+            }
+        }
+        return new SkuStockEntity(stock.getSkuId(), availableQty, reservedQty, updatedAt, stock.getBucketCount());
+    }
+
+    static int[] split(int total, int parts) {
+        int[] shares = new int[parts];
+        for (int i = 0; i < parts; i++) {
+            shares[i] = total / parts + (i < total % parts ? 1 : 0);
+        }
+        return shares;
+    }
+
+    public record Draw(String skuId, Integer bucketNo, int quantity) {
+    }
+
+    public record BucketReservation(List<Draw> draws, boolean skuFound, int availableQty) {
+
+        static BucketReservation drawn(List<Draw> draws) {
+            return new BucketReservation(draws, true, 0);
+        }
+
+        static BucketReservation insufficient(int availableQty) {
+            return new BucketReservation(List.of(), true, availableQty);
+        }
+
+        static BucketReservation notFound() {
+            return new BucketReservation(List.of(), false, 0);
+        }
+
+        public boolean isDrawn() {
+            return !draws.isEmpty();
+        }
+    }
+}
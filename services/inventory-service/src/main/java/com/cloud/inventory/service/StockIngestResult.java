@@ -0,0 +1,12 @@
+package com.cloud.inventory.service;
+
+import java.util.List;
+
+public record StockIngestResult(
+        long received,
+        long upserted,
+        long skipped,
+        long rejected,
+        List<String> errors
+) {
+}
@@ -0,0 +1,242 @@
+package com.cloud.inventory.service;
+
+import com.cloud.inventory.cache.InventoryStockCacheService;
+import com.cloud.inventory.engine.RedisReservationEngine;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Bulk stock upsert for warehouse feeds. The body is read line by line and written in batches, each batch as one
+ * {@code INSERT ... SELECT FROM unnest(..) ON CONFLICT} statement, so memory stays bounded by the batch size
+ * whatever the feed length.
+ * <p>
+ * Like {@code POST /api/stocks}, an upsert sets {@code available_qty} and keeps {@code reserved_qty}. Bucketed SKUs
+ * (left untouched by the statement's {@code WHERE}) and reservation-engine SKUs are skipped; set those one at a
+ * time through the single-SKU endpoint.
+ */
+@Service
+public class StockIngestService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+    // Rows are sorted so concurrent batches and reservations lock sku_stocks rows in the same order.
+    private static final String UPSERT_SQL = """
+            INSERT INTO sku_stocks (sku_id, available_qty, reserved_qty, updated_at)
+            SELECT input.sku_id, input.available_qty, 0, now()
+            FROM unnest(?, ?) AS input(sku_id, available_qty)
+            ORDER BY input.sku_id
+            ON CONFLICT (sku_id) DO UPDATE
+                SET available_qty = EXCLUDED.available_qty,
+                    updated_at = EXCLUDED.updated_at,
+                    version = sku_stocks.version + 1
+                WHERE sku_stocks.bucket_count = 0
+            RETURNING sku_id
+            """;
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InventoryStockCacheService stockCacheService;
+    private final RedisReservationEngine reservationEngine;
+    private final StockUpdateStream stockUpdateStream;
+    private final ObjectMapper objectMapper;
+    private final Counter upsertedCounter;
+    private final Counter skippedCounter;
+    private final Counter rejectedCounter;
+    private final int batchSize;
+
+    public StockIngestService(JdbcTemplate jdbcTemplate,
+                              InventoryStockCacheService stockCacheService,
+                              RedisReservationEngine reservationEngine,
+                              StockUpdateStream stockUpdateStream,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.stock-ingest.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.stockCacheService = stockCacheService;
+        this.reservationEngine = reservationEngine;
+        this.stockUpdateStream = stockUpdateStream;
+        this.objectMapper = objectMapper;
+        this.upsertedCounter = meterRegistry.counter("inventory_stock_ingest_rows", "result", "upserted");
+        this.skippedCounter = meterRegistry.counter("inventory_stock_ingest_rows", "result", "skipped");
+        this.rejectedCounter = meterRegistry.counter("inventory_stock_ingest_rows", "result", "rejected");
+        this.batchSize = Math.max(batchSize, 1);
+    }
+
+    /**
+     * Streams {@code body} into {@code sku_stocks}. CSV lines are {@code skuId,availableQty} with an optional
+     * header; NDJSON lines are {@code {"skuId":..,"availableQty":..}}. Invalid lines are counted and reported
+     * (up to {@value #MAX_REPORTED_ERRORS}) without failing the feed. A SKU repeated within one batch is written
+     * once with its last value, so {@code received} can exceed {@code upserted + skipped}. Batches already written
+     * stay written if the stream fails part way.
+     */
+    public StockIngestResult ingest(InputStream body, Format format) {
+        Progress progress = new Progress();
+        // Last value wins for a SKU repeated within a batch; a single upsert statement cannot touch a row twice.
+        Map<String, Integer> batch = new TreeMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNo = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                Row row;
+                try {
+                    row = format == Format.CSV ? parseCsv(line, lineNo) : parseNdjson(line);
+                } catch (IllegalArgumentException ex) {
+                    progress.reject(lineNo, ex.getMessage());
+                    continue;
+                }
+                if (row == null) {
+                    continue;
+                }
+                progress.received++;
+                batch.put(row.skuId(), row.availableQty());
+                if (batch.size() >= batchSize) {
+                    flush(batch, progress);
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read stock feed", ex);
+        }
+        flush(batch, progress);
+        return new StockIngestResult(progress.received, progress.upserted, progress.skipped, progress.rejected,
+                List.copyOf(progress.errors));
+    }
+
+    private void flush(Map<String, Integer> batch, Progress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<String> skuIds = new ArrayList<>(batch.size());
+        List<Integer> quantities = new ArrayList<>(batch.size());
+        int engineSkus = 0;
+        for (Map.Entry<String, Integer> entry : batch.entrySet()) {
+            if (reservationEngine.isEngineSku(entry.getKey())) {
+                engineSkus++;
+                continue;
+            }
+            skuIds.add(entry.getKey());
+            quantities.add(entry.getValue());
+        }
+        batch.clear();
+
+        List<String> upserted = skuIds.isEmpty() ? List.of() : upsert(skuIds, quantities);
+        // Each statement commits on its own, so the cache can be refreshed straight away.
+        stockCacheService.evictAll(upserted);
+        stockUpdateStream.publishAfterCommit(upserted);
+
+        long skipped = engineSkus + (skuIds.size() - upserted.size());
+        progress.upserted += upserted.size();
+        progress.skipped += skipped;
+        upsertedCounter.increment(upserted.size());
+        skippedCounter.increment(skipped);
+    }
+
+    private List<String> upsert(List<String> skuIds, List<Integer> quantities) {
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(UPSERT_SQL);
+            Array skuArray = connection.createArrayOf("varchar", skuIds.toArray());
+            Array qtyArray = connection.createArrayOf("int4", quantities.toArray());
+            statement.setArray(1, skuArray);
+            statement.setArray(2, qtyArray);
+            return statement;
+        }, (rs, rowNum) -> rs.getString(1));
+    }
+
+    private Row parseCsv(String line, long lineNo) {
+        String[] fields = line.split(",", -1);
+        if (fields.length != 2) {
+            throw new IllegalArgumentException("expected skuId,availableQty");
+        }
+        String skuId = unquote(fields[0]);
+        String qty = unquote(fields[1]);
+        if (lineNo == 1 && !qty.isEmpty() && !Character.isDigit(qty.charAt(qty.length() - 1))) {
+            return null;
+        }
+        return row(skuId, parseQty(qty));
+    }
+
+    private Row parseNdjson(String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (IOException ex) {
+            throw new IllegalArgumentException("invalid JSON");
+        }
+        JsonNode skuId = node.get("skuId");
+        JsonNode qty = node.get("availableQty");
+        if (skuId == null || !skuId.isTextual() || qty == null || !qty.canConvertToInt() || !qty.isIntegralNumber()) {
+            throw new IllegalArgumentException("expected {\"skuId\":string,\"availableQty\":integer}");
+        }
+        return row(skuId.asText(), qty.asInt());
+    }
+
+    private Row row(String skuId, int availableQty) {
+        String normalized = skuId.trim();
+        if (normalized.isEmpty() || normalized.length() > 64) {
+            throw new IllegalArgumentException("skuId must be 1-64 characters");
+        }
+        if (availableQty < 0) {
+            throw new IllegalArgumentException("availableQty must be >= 0");
+        }
+        return new Row(normalized, availableQty);
+    }
+
+    private static int parseQty(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("availableQty must be an integer");
+        }
+    }
+
+    private static String unquote(String value) {
+        String trimmed = value.trim();
+        if (trimmed.length() >= 2 && trimmed.startsWith("\"") && trimmed.endsWith("\"")) {
+            return trimmed.substring(1, trimmed.length() - 1).trim();
+        }
+        return trimmed;
+    }
+
+    private record Row(String skuId, int availableQty) {
+    }
+
+    private class Progress {
+        private long received;
+        private long upserted;
+        private long skipped;
+        private long rejected;
+        private final List<String> errors = new ArrayList<>();
+
+        private void reject(long lineNo, String message) {
+            rejected++;
+            rejectedCounter.increment();
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("line " + lineNo + ": " + message);
+            }
+        }
+    }
+}
@@ -0,0 +1,465 @@
+package com.cloud.inventory.service;
+
+import com.cloud.inventory.domain.SkuStockEntity;
+import com.cloud.inventory.engine.RedisReservationEngine;
+import com.cloud.inventory.repo.SkuStockRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Pushes stock changes to server-sent event subscribers. Writers call {@link #publishAfterCommit} with the SKUs
+ * they changed; once the transaction commits the SKUs are marked dirty here and announced on {@code channel} so
+ * other instances mark them too. Every {@code flush-interval-ms} the dirty SKUs that have subscribers are re-read in
+ * one batch, so a SKU changing a thousand times a second costs one read per tick however many clients watch it.
+ * <p>
+ * Each subscriber keeps only the latest unsent value per SKU and is drained by one of {@code send-threads}; a slow
+ * client falls behind on its own and gets the newest value when it catches up. Open streams are async requests and
+ * hold a socket, not a thread.
+ * <p>
+ * A send blocks while the client's socket buffer is full. A subscriber whose send has been in flight for longer than
+ * {@code send-timeout-ms} is dropped and its sending thread interrupted; until that send returns the pool runs one
+ * extra thread (at most {@code send-threads} extra), so stuck clients cannot starve the others.
+ */
+@Component
+public class StockUpdateStream {
+
+    private static final Logger log = LoggerFactory.getLogger(StockUpdateStream.class);
+    private static final int READ_CHUNK_SIZE = 500;
+
+    private final SkuStockRepository skuStockRepository;
+    private final StockBucketService stockBucketService;
+    private final RedisReservationEngine reservationEngine;
+    private final StringRedisTemplate redisTemplate;
+    private final boolean enabled;
+    private final String channel;
+    private final int maxSubscribers;
+    private final int maxSkusPerSubscription;
+    private final long timeoutMillis;
+    private final long sendTimeoutNanos;
+    private final Executor sender;
+    private final int baseSendThreads;
+    private int stalledSends;
+    private final Counter sentCounter;
+    private final Counter coalescedCounter;
+    private final Counter slowDroppedCounter;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Map<String, Set<Subscriber>> subscribersBySku = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    // Lets an instance skip change messages it published itself.
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Autowired
+    public StockUpdateStream(
+            SkuStockRepository skuStockRepository,
+            StockBucketService stockBucketService,
+            RedisReservationEngine reservationEngine,
+            StringRedisTemplate redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.stock-stream.enabled:true}") boolean enabled,
+            @Value("${app.stock-stream.channel:inventory:stock:changes}") String channel,
+            @Value("${app.stock-stream.max-subscribers:50000}") int maxSubscribers,
+            @Value("${app.stock-stream.max-skus-per-subscription:100}") int maxSkusPerSubscription,
+            @Value("${app.stock-stream.timeout-ms:1800000}") long timeoutMillis,
+            @Value("${app.stock-stream.send-threads:8}") int sendThreads,
+            @Value("${app.stock-stream.send-timeout-ms:5000}") long sendTimeoutMillis
+    ) {
+        this(skuStockRepository, stockBucketService, reservationEngine, redisTemplate, meterRegistry, enabled, channel,
+                maxSubscribers, maxSkusPerSubscription, timeoutMillis, sendTimeoutMillis, newSender(sendThreads));
+    }
+
+    StockUpdateStream(SkuStockRepository skuStockRepository, StockBucketService stockBucketService,
+                      RedisReservationEngine reservationEngine, StringRedisTemplate redisTemplate,
+                      MeterRegistry meterRegistry, boolean enabled, String channel, int maxSubscribers,
+                      int maxSkusPerSubscription, long timeoutMillis, long sendTimeoutMillis, Executor sender) {
+        this.skuStockRepository = skuStockRepository;
+        this.stockBucketService = stockBucketService;
+        this.reservationEngine = reservationEngine;
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.channel = channel;
+        this.maxSubscribers = Math.max(maxSubscribers, 1);
+        this.maxSkusPerSubscription = Math.max(maxSkusPerSubscription, 1);
+        this.timeoutMillis = timeoutMillis;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(sendTimeoutMillis, 1));
+        this.sender = sender;
+        this.baseSendThreads = sender instanceof ThreadPoolExecutor pool ? pool.getCorePoolSize() : 0;
+        this.sentCounter = meterRegistry.counter("inventory_stock_stream_events_sent");
+        this.coalescedCounter = meterRegistry.counter("inventory_stock_stream_updates_coalesced");
+        this.slowDroppedCounter = meterRegistry.counter("inventory_stock_stream_slow_subscribers_dropped");
+        Gauge.builder("inventory_stock_stream_subscribers", subscribers, Set::size).register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream for {@code skuIds}. The subscription is registered before {@code current} is read, so a change
+     * committed while the snapshot loads is still pushed afterwards.
+     */
+    public SseEmitter subscribe(Set<String> skuIds, Supplier<Collection<SkuStockEntity>> current) {
+        if (!enabled) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "stock stream is disabled");
+        }
+        if (skuIds.isEmpty() || skuIds.size() > maxSkusPerSubscription) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "skuIds must list between 1 and " + maxSkusPerSubscription + " SKUs");
+        }
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "too many stock stream subscribers");
+        }
+
+        SseEmitter emitter = newEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, Set.copyOf(skuIds));
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(ex -> unsubscribe(subscriber));
+        subscribers.add(subscriber);
+        for (String skuId : subscriber.skuIds) {
+            subscribersBySku.compute(skuId, (ignored, watching) -> {
+                Set<Subscriber> set = watching == null ? ConcurrentHashMap.newKeySet() : watching;
+                set.add(subscriber);
+                return set;
+            });
+        }
+
+        try {
+            current.get().forEach(stock -> subscriber.offer(Update.of(stock)));
+        } catch (RuntimeException ex) {
+            unsubscribe(subscriber);
+            throw ex;
+        }
+        schedule(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Announces changed SKUs once the surrounding transaction commits, or immediately outside one.
+     */
+    public void publishAfterCommit(Collection<String> skuIds) {
+        if (!enabled || skuIds.isEmpty()) {
+            return;
+        }
+        List<String> changed = List.copyOf(skuIds);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(changed);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(changed);
+            }
+        });
+    }
+
+    /**
+     * Handles a message from the change channel: the publishing instance id on the first line, then one SKU id per
+     * line. Messages this instance published are ignored; it marked those SKUs when it sent them.
+     */
+    public void onChangeMessage(String message) {
+        List<String> lines = Arrays.asList(message.split("\n"));
+        if (lines.size() < 2 || instanceId.equals(lines.get(0))) {
+            return;
+        }
+        markDirty(lines.subList(1, lines.size()));
+    }
+
+    @Scheduled(fixedDelayString = "${app.stock-stream.flush-interval-ms:100}")
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<String> skuIds = new ArrayList<>();
+        for (String skuId : dirty) {
+            dirty.remove(skuId);
+            if (subscribersBySku.containsKey(skuId)) {
+                skuIds.add(skuId);
+            }
+        }
+        if (skuIds.isEmpty()) {
+            return;
+        }
+        try {
+            for (Update update : readCurrent(skuIds)) {
+                Set<Subscriber> watching = subscribersBySku.get(update.skuId());
+                if (watching == null) {
+                    continue;
+                }
+                for (Subscriber subscriber : watching) {
+                    subscriber.offer(update);
+                    schedule(subscriber);
+                }
+            }
+        } catch (RuntimeException ex) {
+            // Retried on the next tick.
+            dirty.addAll(skuIds);
+            log.warn("Stock stream flush failed for {} skus: {}", skuIds.size(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Sends a comment to every subscriber so proxies keep idle streams open and dead connections are noticed.
+     */
+    @Scheduled(fixedDelayString = "${app.stock-stream.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatDue = true;
+            schedule(subscriber);
+        }
+    }
+
+    /**
+     * Drops subscribers stuck in one send for longer than {@code send-timeout-ms}. The emitter cannot be completed
+     * from here, since completing waits for the blocked send; the sending thread completes it once the send returns.
+     */
+    @Scheduled(fixedDelayString = "${app.stock-stream.slow-check-interval-ms:1000}")
+    public void dropSlowSubscribers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.abandonSendOlderThan(now - sendTimeoutNanos)) {
+                unsubscribe(subscriber);
+                subscriber.pending.clear();
+                slowDroppedCounter.increment();
+                resizeSender(1);
+            }
+        }
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Clients reconnect, most likely to another instance.
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        if (sender instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void publish(List<String> skuIds) {
+        markDirty(skuIds);
+        try {
+            redisTemplate.convertAndSend(channel, instanceId + "\n" + String.join("\n", skuIds));
+        } catch (RuntimeException ex) {
+            log.warn("Stock stream change publish failed: {}", ex.getMessage());
+        }
+    }
+
+    private void markDirty(Collection<String> skuIds) {
+        for (String skuId : skuIds) {
+            if (subscribersBySku.containsKey(skuId)) {
+                dirty.add(skuId);
+            }
+        }
+    }
+
+    private List<Update> readCurrent(List<String> skuIds) {
+        List<Update> updates = new ArrayList<>(skuIds.size());
+        List<String> rowSkuIds = new ArrayList<>(skuIds.size());
+        for (String skuId : skuIds) {
+            if (reservationEngine.isEngineSku(skuId)) {
+                reservationEngine.getStock(skuId).map(Update::of).ifPresent(updates::add);
+            } else {
+                rowSkuIds.add(skuId);
+            }
+        }
+        for (int from = 0; from < rowSkuIds.size(); from += READ_CHUNK_SIZE) {
+            List<String> chunk = rowSkuIds.subList(from, Math.min(from + READ_CHUNK_SIZE, rowSkuIds.size()));
+            for (SkuStockEntity stock : skuStockRepository.findAllById(chunk)) {
+                updates.add(Update.of(stock.getBucketCount() > 0 ? stockBucketService.summarize(stock) : stock));
+            }
+        }
+        return updates;
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (!subscriber.hasWork() || !subscriber.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sender.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException ex) {
+            subscriber.draining.set(false);
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            do {
+                for (String skuId : subscriber.pending.keySet()) {
+                    Update update = subscriber.pending.remove(skuId);
+                    if (update != null) {
+                        send(subscriber, SseEmitter.event().name("stock").data(update, MediaType.APPLICATION_JSON));
+                        sentCounter.increment();
+                    }
+                }
+                if (subscriber.heartbeatDue) {
+                    subscriber.heartbeatDue = false;
+                    send(subscriber, SseEmitter.event().comment("keepalive"));
+                }
+                // Re-check after clearing the flag: an update offered in between found it set and did not reschedule.
+                subscriber.draining.set(false);
+            } while (subscriber.hasWork() && subscriber.draining.compareAndSet(false, true));
+        } catch (IOException | IllegalStateException ex) {
+            // Client went away; the container completes the emitter. Left marked as draining so it is never resent.
+            unsubscribe(subscriber);
+            if (subscriber.slow) {
+                // The connection may still be open; close it so the client reconnects.
+                subscriber.emitter.complete();
+            }
+        }
+    }
+
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) throws IOException {
+        subscriber.beginSend();
+        try {
+            subscriber.emitter.send(event);
+        } finally {
+            if (subscriber.endSend()) {
+                // Clear an interrupt meant for this send before the thread drains another subscriber.
+                Thread.interrupted();
+                resizeSender(-1);
+            }
+        }
+        if (subscriber.slow) {
+            throw new IOException("send timed out");
+        }
+    }
+
+    /**
+     * Lends the pool one thread per send stuck on a dropped subscriber, so the others keep {@code send-threads}.
+     */
+    private synchronized void resizeSender(int delta) {
+        if (!(sender instanceof ThreadPoolExecutor pool) || pool.isShutdown()) {
+            return;
+        }
+        stalledSends += delta;
+        int size = baseSendThreads + Math.min(Math.max(stalledSends, 0), baseSendThreads);
+        if (size > pool.getMaximumPoolSize()) {
+            pool.setMaximumPoolSize(size);
+            pool.setCorePoolSize(size);
+        } else if (size < pool.getCorePoolSize()) {
+            pool.setCorePoolSize(size);
+            pool.setMaximumPoolSize(size);
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return;
+        }
+        for (String skuId : subscriber.skuIds) {
+            subscribersBySku.computeIfPresent(skuId, (ignored, watching) -> {
+                watching.remove(subscriber);
+                return watching.isEmpty() ? null : watching;
+            });
+        }
+    }
+
+    private static ExecutorService newSender(int sendThreads) {
+        AtomicInteger threadNo = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(sendThreads, 1), runnable -> {
+            Thread thread = new Thread(runnable, "stock-stream-" + threadNo.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Set<String> skuIds;
+        private final Map<String, Update> pending = new ConcurrentHashMap<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean heartbeatDue;
+        private volatile boolean slow;
+        private Thread sendingThread;
+        private long sendStartedAt;
+        private boolean sendAbandoned;
+
+        private Subscriber(SseEmitter emitter, Set<String> skuIds) {
+            this.emitter = emitter;
+            this.skuIds = skuIds;
+        }
+
+        private void offer(Update update) {
+            if (pending.put(update.skuId(), update) != null) {
+                coalescedCounter.increment();
+            }
+        }
+
+        private boolean hasWork() {
+            return !pending.isEmpty() || heartbeatDue;
+        }
+
+        private synchronized void beginSend() {
+            sendingThread = Thread.currentThread();
+            sendStartedAt = System.nanoTime();
+        }
+
+        /**
+         * Returns whether the send that just ended was abandoned as too slow.
+         */
+        private synchronized boolean endSend() {
+            boolean abandoned = sendAbandoned;
+            sendingThread = null;
+            sendAbandoned = false;
+            return abandoned;
+        }
+
+        private synchronized boolean abandonSendOlderThan(long startedBefore) {
+            if (sendingThread == null || sendAbandoned || slow || sendStartedAt - startedBefore > 0) {
+                return false;
+            }
+            slow = true;
+            sendAbandoned = true;
+            sendingThread.interrupt();
+            return true;
+        }
+    }
+
+    public record Update(String skuId, int availableQty, int reservedQty, Instant updatedAt) {
+
+        static Update of(SkuStockEntity stock) {
+            return new Update(stock.getSkuId(), stock.getAvailableQty(), stock.getReservedQty(), stock.getUpdatedAt());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+-- Writes a cached stock value unless the cached one carries a higher row version.
+-- KEYS[1] cache key. ARGV[1] payload, ARGV[2] row version ('' when unversioned), ARGV[3] TTL seconds.
+-- The cached value is either a compact record ('1|available|reserved|updatedAt|version|...') or legacy JSON.
+-- The missing-SKU marker '-' carries no version and is always replaced.
+local incoming = tonumber(ARGV[2])
+if incoming then
+  local current = redis.call('GET', KEYS[1])
+  if current then
+    local version
+    if string.sub(current, 1, 1) == '{' then
+      local ok, decoded = pcall(cjson.decode, current)
+      if ok and type(decoded) == 'table' and type(decoded.version) == 'number' then
+        version = decoded.version
+      end
+    else
+      version = tonumber(string.match(current, '^1|[^|]*|[^|]*|[^|]*|(%d+)|'))
+    end
+    if version and version > incoming then
+      return 0
+    end
+  end
+end
+redis.call('SET', KEYS[1], ARGV[1], 'EX', ARGV[3])
+return 1
@@ -0,0 +1,23 @@
+CREATE TABLE release_export_jobs (
+    id UUID PRIMARY KEY,
+    status VARCHAR(20) NOT NULL,
+    order_id UUID,
+    from_ts TIMESTAMPTZ,
+    to_ts TIMESTAMPTZ,
+    total_rows BIGINT,
+    rows_written BIGINT NOT NULL DEFAULT 0,
+    bytes_written BIGINT NOT NULL DEFAULT 0,
+    -- Keyset position of the last row in the committed part of the file.
+    cursor_created_at TIMESTAMPTZ,
+    cursor_id UUID,
+    owner_id VARCHAR(128),
+    heartbeat_at TIMESTAMPTZ,
+    error VARCHAR(500),
+    created_at TIMESTAMPTZ NOT NULL,
+    started_at TIMESTAMPTZ,
+    completed_at TIMESTAMPTZ
+);
+
+CREATE INDEX idx_release_export_jobs_unfinished
+    ON release_export_jobs (created_at)
+    WHERE status IN ('QUEUED', 'RUNNING');
@@ -0,0 +1,91 @@
+-- Monthly range partitions on created_at. Partitions are named inventory_release_events_pYYYYMM and cover
+-- [first of month, first of next month) in UTC; ReleaseEventPartitionMaintainer creates upcoming months and drops
+-- months past retention. There is deliberately no DEFAULT partition: it would disable ordered partition scans
+-- for "ORDER BY created_at DESC LIMIT n".
+--
+-- Schema only: existing rows stay in inventory_release_events_legacy, so this migration takes its locks for
+-- metadata changes alone. scripts/backfill-release-event-partitions.sh moves them over in small batches afterwards
+-- and drops the legacy table when it is empty (see docs/runbook.md).
+
+ALTER TABLE inventory_release_events RENAME TO inventory_release_events_legacy;
+ALTER TABLE inventory_release_events_legacy RENAME CONSTRAINT inventory_release_events_pkey
+    TO inventory_release_events_legacy_pkey;
+ALTER TABLE inventory_release_events_legacy RENAME CONSTRAINT inventory_release_events_order_id_key
+    TO inventory_release_events_legacy_order_id_key;
+ALTER INDEX idx_inventory_release_events_created_at RENAME TO idx_inventory_release_events_legacy_created_at;
+ALTER INDEX idx_inventory_release_events_created_at_id_desc
+    RENAME TO idx_inventory_release_events_legacy_created_at_id_desc;
+
+-- Unique constraints on a partitioned table must include the partition key, so the primary key becomes
+-- (id, created_at) and order_id uniqueness moves to inventory_release_event_orders below.
+CREATE TABLE inventory_release_events (
+    id UUID NOT NULL,
+    order_id UUID NOT NULL,
+    reservation_id UUID NOT NULL,
+    reason VARCHAR(255) NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX idx_inventory_release_events_created_at_id_desc
+    ON inventory_release_events (created_at DESC, id DESC);
+CREATE INDEX idx_inventory_release_events_order_id
+    ON inventory_release_events (order_id);
+
+CREATE FUNCTION inventory_release_events_ensure_partition(month_start DATE) RETURNS BOOLEAN
+LANGUAGE plpgsql AS $$
+DECLARE
+    lower_bound DATE := date_trunc('month', month_start::timestamp)::date;
+    upper_bound DATE := (date_trunc('month', month_start::timestamp) + interval '1 month')::date;
+    partition_name TEXT := 'inventory_release_events_p' || to_char(lower_bound, 'YYYYMM');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+    EXECUTE format(
+        'CREATE TABLE %I PARTITION OF inventory_release_events FOR VALUES FROM (%L) TO (%L)',
+        partition_name,
+        to_char(lower_bound, 'YYYY-MM-DD') || ' 00:00:00+00',
+        to_char(upper_bound, 'YYYY-MM-DD') || ' 00:00:00+00'
+    );
+    RETURN TRUE;
+END;
+$$;
+
+-- Partitions for every month the legacy rows span (min/max come from its created_at index) and three ahead.
+DO $$
+DECLARE
+    partition_month DATE;
+    last_month DATE;
+BEGIN
+    SELECT date_trunc('month', coalesce(min(created_at), now()) AT TIME ZONE 'UTC')::date,
+           date_trunc('month', greatest(max(created_at), now() + interval '3 months') AT TIME ZONE 'UTC')::date
+    INTO partition_month, last_month
+    FROM inventory_release_events_legacy;
+    WHILE partition_month <= last_month LOOP
+        PERFORM inventory_release_events_ensure_partition(partition_month);
+        partition_month := (partition_month + interval '1 month')::date;
+    END LOOP;
+END;
+$$;
+
+-- One row per order that has a release event; its primary key keeps order_id unique across partitions.
+CREATE TABLE inventory_release_event_orders (
+    order_id UUID PRIMARY KEY,
+    created_at TIMESTAMPTZ NOT NULL
+);
+
+CREATE INDEX idx_inventory_release_event_orders_created_at
+    ON inventory_release_event_orders (created_at);
+
+CREATE FUNCTION inventory_release_events_claim_order() RETURNS TRIGGER
+LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO inventory_release_event_orders (order_id, created_at) VALUES (NEW.order_id, NEW.created_at);
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_inventory_release_events_claim_order
+    AFTER INSERT ON inventory_release_events
+    FOR EACH ROW EXECUTE FUNCTION inventory_release_events_claim_order();
@@ -0,0 +1,14 @@
+-- Hourly release counts per reason (UTC hours). Each release adds 1 to one of several shard rows, so concurrent
+-- releases in the same hour do not queue on a single row lock; readers sum the shards.
+CREATE TABLE inventory_release_event_stats (
+    bucket_start TIMESTAMPTZ NOT NULL,
+    reason VARCHAR(255) NOT NULL,
+    shard SMALLINT NOT NULL,
+    event_count BIGINT NOT NULL,
+    PRIMARY KEY (bucket_start, reason, shard)
+);
+
+INSERT INTO inventory_release_event_stats (bucket_start, reason, shard, event_count)
+SELECT date_trunc('hour', created_at AT TIME ZONE 'UTC') AT TIME ZONE 'UTC', reason, 0, count(*)
+FROM inventory_release_events
+GROUP BY 1, 2;
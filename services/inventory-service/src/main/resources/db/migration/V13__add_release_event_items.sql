@@ -0,0 +1,19 @@
+-- SKUs and quantities returned to stock by each release event. No foreign key: the partitioned events table has a
+-- (id, created_at) key, so items carry created_at themselves and ReleaseEventPartitionMaintainer trims them with
+-- the partitions they belong to.
+CREATE TABLE inventory_release_event_items (
+    id UUID PRIMARY KEY,
+    release_event_id UUID NOT NULL,
+    sku_id VARCHAR(64) NOT NULL,
+    quantity INTEGER NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL
+);
+
+CREATE INDEX idx_inventory_release_event_items_release_event_id ON inventory_release_event_items(release_event_id);
+CREATE INDEX idx_inventory_release_event_items_created_at ON inventory_release_event_items(created_at);
+
+INSERT INTO inventory_release_event_items (id, release_event_id, sku_id, quantity, created_at)
+SELECT gen_random_uuid(), e.id, i.sku_id, sum(i.quantity), e.created_at
+FROM inventory_release_events e
+JOIN inventory_reservation_items i ON i.reservation_id = e.reservation_id
+GROUP BY e.id, e.created_at, i.sku_id;
@@ -0,0 +1,17 @@
+-- Result events written in the same transaction as the stock change they report and published after commit by
+-- InventoryOutboxRelay. Sent rows are deleted after app.outbox.retention-hours.
+CREATE TABLE inventory_outbox_events (
+    id UUID PRIMARY KEY,
+    event_type VARCHAR(80) NOT NULL,
+    routing_key VARCHAR(120) NOT NULL,
+    payload TEXT NOT NULL,
+    trace_id UUID,
+    status VARCHAR(20) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMPTZ NOT NULL,
+    sent_at TIMESTAMPTZ,
+    last_error TEXT
+);
+
+CREATE INDEX idx_inventory_outbox_events_pending ON inventory_outbox_events(created_at) WHERE status = 'PENDING';
+CREATE INDEX idx_inventory_outbox_events_sent_at ON inventory_outbox_events(sent_at) WHERE status = 'SENT';
@@ -0,0 +1,24 @@
+-- Quota chunks moved from sku_stocks.available_qty into reserved_qty and handed to one service instance
+-- so hot SKUs can be reserved without taking the sku_stocks row lock per order.
+CREATE TABLE sku_stock_leases (
+    id UUID PRIMARY KEY,
+    sku_id VARCHAR(64) NOT NULL REFERENCES sku_stocks(sku_id),
+    holder_id VARCHAR(128) NOT NULL,
+    granted_qty INTEGER NOT NULL,
+    consumed_qty INTEGER,
+    status VARCHAR(20) NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL,
+    renewed_at TIMESTAMPTZ NOT NULL,
+    closed_at TIMESTAMPTZ
+);
+
+CREATE INDEX idx_sku_stock_leases_active_renewed_at
+    ON sku_stock_leases (renewed_at)
+    WHERE status = 'ACTIVE';
+
+ALTER TABLE inventory_reservation_items
+    ADD COLUMN lease_id UUID REFERENCES sku_stock_leases(id);
+
+CREATE INDEX idx_inventory_reservation_items_lease_id
+    ON inventory_reservation_items (lease_id)
+    WHERE lease_id IS NOT NULL;
@@ -0,0 +1,18 @@
+-- Optional split of a SKU's stock across N bucket rows so concurrent reservations lock different rows.
+-- bucket_count = 0 keeps quantities on sku_stocks; bucket_count > 0 moves them to sku_stock_buckets.
+ALTER TABLE sku_stocks
+    ADD COLUMN bucket_count INTEGER NOT NULL DEFAULT 0;
+
+CREATE TABLE sku_stock_buckets (
+    sku_id VARCHAR(64) NOT NULL REFERENCES sku_stocks(sku_id),
+    bucket_no INTEGER NOT NULL,
+    available_qty INTEGER NOT NULL,
+    reserved_qty INTEGER NOT NULL DEFAULT 0,
+    updated_at TIMESTAMPTZ NOT NULL,
+    PRIMARY KEY (sku_id, bucket_no)
+);
+
+ALTER TABLE inventory_reservation_items
+    ADD COLUMN bucket_no INTEGER;
+
+CREATE INDEX idx_inventory_reservation_items_sku_id ON inventory_reservation_items(sku_id);
@@ -0,0 +1,4 @@
+-- Version of the reservation engine's Redis state last written to this row by the write-behind journal.
+-- Snapshots only apply when newer, so journal replay cannot move quantities backwards.
+ALTER TABLE sku_stocks
+    ADD COLUMN engine_version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,3 @@
+-- Row version bumped on every JPA update of a stock row; the stock cache uses it to reject out-of-order writes.
+ALTER TABLE sku_stocks
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,7 @@
+ALTER TABLE inventory_reservations ADD COLUMN expires_at TIMESTAMPTZ;
+
+-- Only live holds are indexed, so the expiry sweeper's range scan grows with the holds that are due,
+-- not with the reservation history.
+CREATE INDEX IF NOT EXISTS idx_inventory_reservations_reserved_expires_at
+    ON inventory_reservations (expires_at)
+    WHERE status = 'RESERVED';
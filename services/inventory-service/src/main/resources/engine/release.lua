@@ -0,0 +1,43 @@
+-- Releases a RESERVED order back to available stock and journals the result.
+-- KEYS[1] order record, KEYS[2] journal stream, KEYS[3..] stock hashes of the record's items, in record order.
+-- ARGV[1] reason, ARGV[2] released at (epoch millis), ARGV[3] release event id, ARGV[4] terminal record TTL
+-- seconds, ARGV[5] stock key prefix.
+local existing = redis.call('GET', KEYS[1])
+if not existing then
+  return cjson.encode({ result = 'NOT_FOUND' })
+end
+local order = cjson.decode(existing)
+if order.status ~= 'RESERVED' then
+  return cjson.encode({ result = 'NOOP', order = order })
+end
+if #order.items ~= #KEYS - 2 then
+  return cjson.encode({ result = 'STALE_KEYS' })
+end
+
+for i, item in ipairs(order.items) do
+  if KEYS[2 + i] ~= ARGV[5] .. item.skuId then
+    return cjson.encode({ result = 'STALE_KEYS' })
+  end
+  local reserved = tonumber(redis.call('HGET', KEYS[2 + i], 'reserved') or '0')
+  if reserved < item.quantity then
+    return redis.error_reply('RESERVED_UNDERFLOW:' .. item.skuId)
+  end
+end
+
+local stocks = {}
+for i, item in ipairs(order.items) do
+  stocks[i] = {
+    skuId = item.skuId,
+    availableQty = redis.call('HINCRBY', KEYS[2 + i], 'available', item.quantity),
+    reservedQty = redis.call('HINCRBY', KEYS[2 + i], 'reserved', -item.quantity),
+    version = redis.call('HINCRBY', KEYS[2 + i], 'version', 1)
+  }
+end
+
+order.status = 'RELEASED'
+order.reason = ARGV[1]
+order.releasedAt = tonumber(ARGV[2])
+order.releaseEventId = ARGV[3]
+redis.call('SET', KEYS[1], cjson.encode(order), 'EX', ARGV[4])
+redis.call('XADD', KEYS[2], '*', 'payload', cjson.encode({ type = 'RELEASED', order = order, stocks = stocks }))
+return cjson.encode({ result = 'RELEASED', order = order })
@@ -0,0 +1,59 @@
+-- Reserves every SKU of one order or none of them, and journals the result.
+-- KEYS[1] order record, KEYS[2] journal stream, KEYS[3..] stock hashes aligned with the sku/qty pairs.
+-- ARGV[1] order id, ARGV[2] reservation id, ARGV[3] created at (epoch millis), ARGV[4] terminal record TTL
+-- seconds, ARGV[5..] sku, qty pairs.
+local existing = redis.call('GET', KEYS[1])
+if existing then
+  return cjson.encode({ result = 'DUPLICATE', order = cjson.decode(existing) })
+end
+
+local count = #KEYS - 2
+local items = {}
+local reason = nil
+for i = 1, count do
+  local sku = ARGV[3 + 2 * i]
+  local qty = tonumber(ARGV[4 + 2 * i])
+  items[i] = { skuId = sku, quantity = qty }
+  if not reason then
+    local available = redis.call('HGET', KEYS[2 + i], 'available')
+    if not available then
+      reason = 'SKU_NOT_FOUND:' .. sku
+    elseif tonumber(available) < qty then
+      reason = 'INSUFFICIENT_STOCK:' .. sku .. ' available=' .. available .. ' requested=' .. qty
+    end
+  end
+end
+
+local order = {
+  orderId = ARGV[1],
+  reservationId = ARGV[2],
+  createdAt = tonumber(ARGV[3]),
+  status = 'RESERVED',
+  items = items
+}
+local entry = { type = 'RESERVED', order = order }
+
+if reason then
+  order.status = 'FAILED'
+  order.reason = reason
+  entry.type = 'FAILED'
+else
+  local stocks = {}
+  for i = 1, count do
+    local qty = items[i].quantity
+    stocks[i] = {
+      skuId = items[i].skuId,
+      availableQty = redis.call('HINCRBY', KEYS[2 + i], 'available', -qty),
+      reservedQty = redis.call('HINCRBY', KEYS[2 + i], 'reserved', qty),
+      version = redis.call('HINCRBY', KEYS[2 + i], 'version', 1)
+    }
+  end
+  entry.stocks = stocks
+end
+
+redis.call('SET', KEYS[1], cjson.encode(order))
+if reason then
+  redis.call('EXPIRE', KEYS[1], ARGV[4])
+end
+redis.call('XADD', KEYS[2], '*', 'payload', cjson.encode(entry))
+return cjson.encode({ result = entry.type, order = order })
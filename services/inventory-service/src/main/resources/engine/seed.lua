@@ -0,0 +1,7 @@
+-- Recreates a missing stock hash from Postgres during recovery; existing hashes are left untouched.
+-- KEYS[1] stock hash. ARGV[1] available qty, ARGV[2] reserved qty, ARGV[3] version.
+if redis.call('EXISTS', KEYS[1]) == 1 then
+  return 0
+end
+redis.call('HSET', KEYS[1], 'available', ARGV[1], 'reserved', ARGV[2], 'version', ARGV[3])
+return 1
@@ -0,0 +1,12 @@
+-- Sets available stock for one SKU and journals the new quantities.
+-- KEYS[1] stock hash, KEYS[2] journal stream. ARGV[1] sku, ARGV[2] available qty.
+redis.call('HSET', KEYS[1], 'available', ARGV[2])
+redis.call('HSETNX', KEYS[1], 'reserved', 0)
+local stock = {
+  skuId = ARGV[1],
+  availableQty = tonumber(ARGV[2]),
+  reservedQty = tonumber(redis.call('HGET', KEYS[1], 'reserved')),
+  version = redis.call('HINCRBY', KEYS[1], 'version', 1)
+}
+redis.call('XADD', KEYS[2], '*', 'payload', cjson.encode({ type = 'UPSERT', stocks = { stock } }))
+return cjson.encode(stock)
@@ -3,6 +3,10 @@
 
     const QUERY_ENDPOINT = "/api/stocks/release-events";
     const EXPORT_ENDPOINT = "/api/stocks/release-events/export";
+    const STATS_ENDPOINT = "/api/stocks/release-events/stats";
+    const TAIL_ENDPOINT = "/api/stocks/release-events/tail";
+    const TAIL_WAIT_MS = 25_000;
+    const STATS_DEFAULT_RANGE_MS = 7 * 24 * 60 * 60 * 1000;
     const UUID_PATTERN = /^[0-9a-f]{8}-[0-9a-f]{4}-[1-5][0-9a-f]{3}-[89ab][0-9a-f]{3}-[0-9a-f]{12}$/i;
     const SVG_NS = "http://www.w3.org/2000/svg";
     const DONUT_COLORS = [
@@ -87,7 +91,8 @@
         lastLoadedAt: null,
         autoRefreshEnabled: Boolean(elements.autoRefreshToggle?.checked),
         autoRefreshIntervalSec: parsePositiveInt(elements.autoRefreshInterval?.value, 30, 15, 600),
-        autoRefreshTimerId: null
+        tailGeneration: 0,
+        tailAbort: null
     };
 
     bindEvents();
@@ -245,6 +250,10 @@
             renderReasonShare(state.items);
             updatePager();
             updateAutoRefreshState();
+            if (!filters.orderId) {
+                // Charts cover the whole range from pre-aggregated counts, not just the rows on this page.
+                await loadStats(filters, currentRequest);
+            }
 
             if (!silent) {
                 setStatus(`Loaded ${state.items.length} rows. Total matched: ${state.totalElements}.`, "success");
@@ -261,6 +270,37 @@
         }
     }
 
+    async function loadStats(filters, requestId) {
+        const toMs = filters.to ? Date.parse(filters.to) : Date.now();
+        const fromMs = filters.from ? Date.parse(filters.from) : toMs - STATS_DEFAULT_RANGE_MS;
+        const granularity = toMs - fromMs > 3 * 24 * 60 * 60 * 1000 ? "DAY" : "HOUR";
+        const params = new URLSearchParams({
+            from: new Date(fromMs).toISOString(),
+            to: new Date(toMs).toISOString(),
+            granularity
+        });
+
+        try {
+            const response = await fetch(`${STATS_ENDPOINT}?${params.toString()}`, {
+                headers: {"Accept": "application/json"}
+            });
+            if (!response.ok || requestId !== state.requestId) {
+                return;
+            }
+            const payload = await response.json();
+            if (requestId !== state.requestId || !Array.isArray(payload.buckets)) {
+                return;
+            }
+            const buckets = payload.buckets
+                    .map((bucket) => ({ts: Date.parse(bucket?.bucketStart), count: Number(bucket?.total) || 0}))
+                    .filter((bucket) => Number.isFinite(bucket.ts));
+            renderTrendChart(state.items, {buckets, label: `${granularity.toLowerCase()} buckets`});
+            renderReasonShare(state.items, new Map(Object.entries(payload.totalsByReason || {})));
+        } catch (error) {
+            // Keep the page-based charts; the stats endpoint is an enhancement.
+        }
+    }
+
     async function exportCsv() {
         let filters;
         try {
@@ -402,13 +442,13 @@
         elements.eventRows.append(fragment);
     }
 
-    function renderTrendChart(items) {
+    function renderTrendChart(items, stats) {
         if (!elements.trendChart || !elements.trendHint) {
             return;
         }
 
         elements.trendChart.replaceChildren();
-        const buckets = buildTrendBuckets(items);
+        const buckets = stats ? stats.buckets : buildTrendBuckets(items);
         if (!buckets.length) {
             const empty = createSvgNode("text", {
                 x: 320,
@@ -499,21 +539,26 @@
         zeroLabel.textContent = "0";
         elements.trendChart.append(zeroLabel);
 
-        elements.trendHint.textContent = `${items.length} events on page, ${buckets.length} time buckets, peak ${maxCount}.`;
+        elements.trendHint.textContent = stats
+                ? `${buckets.reduce((sum, bucket) => sum + bucket.count, 0)} events in range, ${buckets.length} ${stats.label}, peak ${maxCount}.`
+                : `${items.length} events on page, ${buckets.length} time buckets, peak ${maxCount}.`;
     }
 
-    function renderReasonShare(items) {
+    function renderReasonShare(items, statsCounts) {
         if (!elements.reasonDonut || !elements.reasonLegend || !elements.reasonHint || !elements.reasonDonutCenter) {
             return;
         }
 
-        const counts = new Map();
-        for (const item of items) {
-            const key = (item?.reason && String(item.reason).trim()) || "UNKNOWN";
-            counts.set(key, (counts.get(key) || 0) + 1);
+        let counts = statsCounts;
+        if (!counts) {
+            counts = new Map();
+            for (const item of items) {
+                const key = (item?.reason && String(item.reason).trim()) || "UNKNOWN";
+                counts.set(key, (counts.get(key) || 0) + 1);
+            }
         }
 
-        const total = items.length;
+        const total = Array.from(counts.values()).reduce((sum, count) => sum + Number(count), 0);
         const totalText = elements.reasonDonutCenter.querySelector(".donut-total");
         if (totalText) {
             totalText.textContent = String(total);
@@ -614,35 +659,101 @@
 
     function syncAutoRefresh() {
         clearAutoRefreshTimer();
-        if (!state.autoRefreshEnabled) {
-            updateAutoRefreshState();
-            return;
-        }
-        if (document.hidden) {
+        if (!state.autoRefreshEnabled || document.hidden) {
             updateAutoRefreshState();
             return;
         }
+        runLiveTail(state.tailGeneration);
+        updateAutoRefreshState();
+    }
 
-        const delay = state.autoRefreshIntervalSec * 1000;
-        state.autoRefreshTimerId = window.setTimeout(async () => {
-            state.autoRefreshTimerId = null;
-            if (!state.autoRefreshEnabled) {
-                updateAutoRefreshState();
+    // Long-polls the tail endpoint and reloads the current page when new events arrive, at most once per interval.
+    async function runLiveTail(generation) {
+        const controller = new AbortController();
+        state.tailAbort = controller;
+        let since = null;
+        let atHead = false;
+        let lastReloadAt = Date.now();
+
+        while (generation === state.tailGeneration) {
+            let filters;
+            try {
+                filters = readFilters();
+            } catch (error) {
                 return;
             }
-            if (!document.hidden) {
+            const params = new URLSearchParams();
+            if (filters.orderId) {
+                params.set("orderId", filters.orderId);
+            }
+            if (filters.from) {
+                params.set("from", filters.from);
+            }
+            if (filters.to) {
+                params.set("to", filters.to);
+            }
+            params.set("size", "1");
+            if (atHead && since) {
+                params.set("since", since);
+            }
+            params.set("waitMs", atHead ? String(TAIL_WAIT_MS) : "0");
+
+            try {
+                const response = await fetch(`${TAIL_ENDPOINT}?${params.toString()}`, {
+                    headers: {"Accept": "application/json"},
+                    signal: controller.signal
+                });
+                if (response.status === 400) {
+                    // Filters changed under the cursor; start again from the newest event.
+                    atHead = false;
+                    continue;
+                }
+                if (!response.ok) {
+                    throw new Error(`Tail request failed with ${response.status}`);
+                }
+                const payload = await response.json();
+                const arrived = atHead && Array.isArray(payload.items) && payload.items.length > 0;
+                since = payload.nextCursor || since;
+                atHead = true;
+                if (!arrived || generation !== state.tailGeneration) {
+                    continue;
+                }
+
+                const waitMs = lastReloadAt + state.autoRefreshIntervalSec * 1000 - Date.now();
+                if (waitMs > 0) {
+                    await sleep(waitMs, controller.signal);
+                }
+                if (generation !== state.tailGeneration) {
+                    return;
+                }
                 await loadData({targetPage: state.page, silent: true});
+                lastReloadAt = Date.now();
+                // Skip whatever else arrived meanwhile; the reload already shows it.
+                atHead = false;
+            } catch (error) {
+                if (controller.signal.aborted) {
+                    return;
+                }
+                await sleep(state.autoRefreshIntervalSec * 1000, controller.signal).catch(() => {});
             }
-            syncAutoRefresh();
-        }, delay);
+        }
+    }
 
-        updateAutoRefreshState();
+    function sleep(ms, signal) {
+        return new Promise((resolve, reject) => {
+            const timerId = window.setTimeout(resolve, ms);
+            signal?.addEventListener("abort", () => {
+                window.clearTimeout(timerId);
+                reject(new DOMException("Aborted", "AbortError"));
+            }, {once: true});
+        });
     }
 
     function clearAutoRefreshTimer() {
-        if (state.autoRefreshTimerId !== null) {
-            window.clearTimeout(state.autoRefreshTimerId);
-            state.autoRefreshTimerId = null;
+        state.tailGeneration += 1;
+        if (state.tailAbort) {
+            state.tailAbort.abort();
+            state.tailAbort = null;
         }
     }
 
@@ -662,10 +773,10 @@
             return;
         }
         if (state.lastLoadedAt) {
-            elements.autoRefreshState.textContent = `Auto refresh every ${state.autoRefreshIntervalSec}s. Last sync ${clockFormatter.format(state.lastLoadedAt)}.`;
+            elements.autoRefreshState.textContent = `Live: reloads when new events arrive, at most every ${state.autoRefreshIntervalSec}s. Last sync ${clockFormatter.format(state.lastLoadedAt)}.`;
             return;
         }
-        elements.autoRefreshState.textContent = `Auto refresh every ${state.autoRefreshIntervalSec}s.`;
+        elements.autoRefreshState.textContent = `Live: reloads when new events arrive, at most every ${state.autoRefreshIntervalSec}s.`;
     }
 
     function buildTrendBuckets(items) {
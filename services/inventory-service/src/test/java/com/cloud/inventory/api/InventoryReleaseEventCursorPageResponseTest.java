@@ -11,11 +11,12 @@ class InventoryReleaseEventCursorPageResponseTest {
 
     @Test
     void recordHoldsValues() {
-        var resp = new InventoryReleaseEventCursorPageResponse(List.of(), 20, false, null);
+        var resp = new InventoryReleaseEventCursorPageResponse(List.of(), 20, false, null, null);
 
         assertEquals(20, resp.size());
         assertEquals(0, resp.items().size());
         assertNull(resp.nextCursor());
+        assertNull(resp.prevCursor());
     }
 }
 
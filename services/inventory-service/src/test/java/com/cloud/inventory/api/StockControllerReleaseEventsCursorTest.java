@@ -1,25 +1,37 @@
 package com.cloud.inventory.api;
 
 import com.cloud.inventory.domain.InventoryReleaseEventEntity;
+import com.cloud.inventory.hotsku.SkuVolumeTracker;
 import com.cloud.inventory.service.InventoryReleaseAuditService;
 import com.cloud.inventory.service.InventoryReservationService;
+import com.cloud.inventory.service.ReleaseEventTailWatcher;
+import com.cloud.inventory.service.ReleaseExportJobService;
+import com.cloud.inventory.service.StockBucketService;
+import com.cloud.inventory.service.StockIngestService;
+import com.cloud.inventory.service.StockUpdateStream;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.HttpStatus;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = StockController.class)
@@ -34,6 +46,24 @@ class StockControllerReleaseEventsCursorTest {
     @MockBean
     private InventoryReleaseAuditService releaseAuditService;
 
+    @MockBean
+    private StockBucketService stockBucketService;
+
+    @MockBean
+    private StockIngestService stockIngestService;
+
+    @MockBean
+    private ReleaseExportJobService releaseExportJobService;
+
+    @MockBean
+    private SkuVolumeTracker skuVolumeTracker;
+
+    @MockBean
+    private ReleaseEventTailWatcher releaseEventTailWatcher;
+
+    @MockBean
+    private StockUpdateStream stockUpdateStream;
+
     @Test
     void invalidAfterReturns400() throws Exception {
         when(releaseAuditService.listReleaseEventsCursor(
@@ -41,7 +71,8 @@ class StockControllerReleaseEventsCursorTest {
                 isNull(),
                 isNull(),
                 eq(20),
-                eq("!!!")
+                eq("!!!"),
+                isNull()
         ))
                 .thenThrow(new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid cursor"));
 
@@ -63,18 +94,20 @@ class StockControllerReleaseEventsCursorTest {
                 Instant.parse("2026-02-11T10:00:00Z")
         );
 
-        when(releaseAuditService.listReleaseEventsCursor(isNull(), isNull(), isNull(), eq(20), isNull()))
+        when(releaseAuditService.listReleaseEventsCursor(isNull(), isNull(), isNull(), eq(20), isNull(), eq("newer")))
                 .thenReturn(new InventoryReleaseAuditService.ReleaseEventsCursorPage(
                         List.of(event),
                         true,
-                        "next"
+                        "next",
+                        "prev"
                 ));
 
-        mockMvc.perform(get("/api/stocks/release-events/cursor"))
+        mockMvc.perform(get("/api/stocks/release-events/cursor").param("before", "newer"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.size").value(20))
                 .andExpect(jsonPath("$.hasMore").value(true))
                 .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.prevCursor").value("prev"))
                 .andExpect(jsonPath("$.items.length()").value(1))
                 .andExpect(jsonPath("$.items[0].releaseId").value(releaseId.toString()))
                 .andExpect(jsonPath("$.items[0].orderId").value(orderId.toString()))
@@ -82,5 +115,31 @@ class StockControllerReleaseEventsCursorTest {
                 .andExpect(jsonPath("$.items[0].reason").value("PAYMENT_FAILED"))
                 .andExpect(jsonPath("$.items[0].createdAt").value("2026-02-11T10:00:00Z"));
     }
-}
 
+    @Test
+    void tailReturnsNewEventsWithoutWaiting() throws Exception {
+        Instant settledBefore = Instant.parse("2026-02-11T10:00:05Z");
+        InventoryReleaseEventEntity event = new InventoryReleaseEventEntity(
+                UUID.fromString("a32ee3e5-0f81-4a88-a361-f1f2158dfdbf"),
+                UUID.fromString("4d8e1012-e736-4d43-b955-ed169d37efda"),
+                UUID.fromString("0fbdc2e2-7c24-4da1-ae4e-6a5b8ce4d7a2"),
+                "PAYMENT_FAILED",
+                Instant.parse("2026-02-11T10:00:00Z")
+        );
+        when(releaseEventTailWatcher.settledBefore()).thenReturn(settledBefore);
+        when(releaseAuditService.tailReleaseEvents(isNull(), isNull(), isNull(), eq(20), eq("since"), eq(settledBefore)))
+                .thenReturn(new InventoryReleaseAuditService.ReleaseEventsCursorPage(List.of(event), false, "newest", null));
+
+        MvcResult pending = mockMvc.perform(get("/api/stocks/release-events/tail")
+                        .param("since", "since")
+                        .param("waitMs", "20000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").value("newest"));
+        verify(releaseEventTailWatcher, never()).await(any(), any(), any(), any());
+    }
+}
@@ -0,0 +1,241 @@
+package com.cloud.inventory.cache;
+
+import com.cloud.inventory.domain.SkuStockEntity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.matches;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InventoryStockCacheServiceTest {
+
+    private StringRedisTemplate redisTemplate;
+    private ValueOperations<String, String> values;
+    private SimpleMeterRegistry meterRegistry;
+    private InventoryStockCacheService cacheService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        values = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        meterRegistry = new SimpleMeterRegistry();
+        cacheService = new InventoryStockCacheService(redisTemplate, new ObjectMapper().registerModule(new JavaTimeModule()),
+                meterRegistry, true, 100, 60_000, "inventory:stock:invalidate", StockCacheWriteMode.WRITE_THROUGH, 10);
+        ReflectionTestUtils.setField(cacheService, "enabled", true);
+        ReflectionTestUtils.setField(cacheService, "keyPrefix", "inventory:stock:");
+        ReflectionTestUtils.setField(cacheService, "ttlSeconds", 300L);
+    }
+
+    @Test
+    void shouldServeRepeatedReadsFromNearCacheAfterOneRedisHit() {
+        when(values.get("inventory:stock:SKU-1"))
+                .thenReturn("{\"skuId\":\"SKU-1\",\"availableQty\":7,\"reservedQty\":1,\"updatedAt\":\"2026-01-01T00:00:00Z\"}");
+
+        cacheService.get("SKU-1");
+        SkuStockEntity second = cacheService.get("SKU-1").orElseThrow();
+
+        assertEquals(7, second.getAvailableQty());
+        verify(values, times(1)).get("inventory:stock:SKU-1");
+        assertEquals(1.0, meterRegistry.counter("inventory_stock_near_cache_hits").count());
+    }
+
+    @Test
+    void shouldDropNearEntriesAndPublishOneInvalidationPerEvictAll() {
+        cacheService.put(new SkuStockEntity("SKU-1", 5, 0, Instant.now()));
+        cacheService.put(new SkuStockEntity("SKU-2", 5, 0, Instant.now()));
+
+        cacheService.evictAll(List.of("SKU-1", "SKU-2"));
+        cacheService.get("SKU-1");
+
+        verify(redisTemplate).convertAndSend(eq("inventory:stock:invalidate"), endsWith("\nSKU-1\nSKU-2"));
+        verify(values).get("inventory:stock:SKU-1");
+    }
+
+    @Test
+    void shouldApplyInvalidationsFromOtherInstancesLocallyOnly() {
+        cacheService.put(new SkuStockEntity("SKU-1", 5, 0, Instant.now()));
+
+        cacheService.onInvalidationMessage("other-instance\nSKU-1");
+        cacheService.get("SKU-1");
+
+        verify(values).get("inventory:stock:SKU-1");
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+        verify(redisTemplate, never()).delete(anyString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldWriteCommittedRowVersionThroughOnlyAfterCommit() {
+        SkuStockEntity stock = new SkuStockEntity("SKU-1", 9, 1, Instant.now());
+        ReflectionTestUtils.setField(stock, "version", 4L);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cacheService.refreshAfterCommit(List.of(stock), Set.of("SKU-HOT"));
+            verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any(Object[].class));
+
+            ReflectionTestUtils.setField(stock, "version", 5L);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("inventory:stock:SKU-1")),
+                matches("1\\|9\\|1\\|\\d+\\|5\\|.*"), eq("5"), eq("300"));
+        verify(redisTemplate).delete("inventory:stock:SKU-HOT");
+        verify(redisTemplate, never()).delete("inventory:stock:SKU-1");
+        assertEquals(9, cacheService.get("SKU-1").orElseThrow().getAvailableQty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldEvictInsteadOfWritingWhenModeIsEvict() {
+        cacheService = new InventoryStockCacheService(redisTemplate, new ObjectMapper().registerModule(new JavaTimeModule()),
+                meterRegistry, true, 100, 60_000, "inventory:stock:invalidate", StockCacheWriteMode.EVICT, 10);
+        ReflectionTestUtils.setField(cacheService, "enabled", true);
+        ReflectionTestUtils.setField(cacheService, "keyPrefix", "inventory:stock:");
+        SkuStockEntity stock = new SkuStockEntity("SKU-1", 9, 1, Instant.now());
+        ReflectionTestUtils.setField(stock, "version", 4L);
+
+        cacheService.refreshAfterCommit(List.of(stock), Set.of());
+
+        verify(redisTemplate).delete("inventory:stock:SKU-1");
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any(Object[].class));
+    }
+
+    @Test
+    void shouldRefreshEarlyOnlyNearExpiryInProportionToLoadCost() {
+        ReflectionTestUtils.setField(cacheService, "earlyRefreshBeta", 1.0);
+        InventoryStockCacheService.CachedStock cached = new InventoryStockCacheService.CachedStock(
+                "SKU-1", 5, 0, Instant.now(), 1L, 10_000L, 100L);
+
+        // -ln(0.5) * 100ms ~= 69ms of head start.
+        assertFalse(cacheService.shouldRefreshEarly(cached, 9_900L, 0.5));
+        assertTrue(cacheService.shouldRefreshEarly(cached, 9_940L, 0.5));
+        // An unlucky draw refreshes much earlier; a lucky one only at expiry.
+        assertTrue(cacheService.shouldRefreshEarly(cached, 9_600L, 0.001));
+        assertFalse(cacheService.shouldRefreshEarly(cached, 9_999L, 1.0));
+        assertTrue(cacheService.shouldRefreshEarly(cached, 10_000L, 1.0));
+
+        ReflectionTestUtils.setField(cacheService, "earlyRefreshBeta", 0.0);
+        assertFalse(cacheService.shouldRefreshEarly(cached, 9_999L, 0.001));
+    }
+
+    @Test
+    void shouldReadBatchFromNearCacheThenOneMultiGet() {
+        cacheService.put(new SkuStockEntity("SKU-1", 5, 0, Instant.now()));
+        when(values.multiGet(List.of("inventory:stock:SKU-2", "inventory:stock:SKU-3")))
+                .thenReturn(Arrays.asList(
+                        "{\"skuId\":\"SKU-2\",\"availableQty\":3,\"reservedQty\":0,\"updatedAt\":\"2026-01-01T00:00:00Z\"}",
+                        null));
+
+        Map<String, StockLookup> found = cacheService.lookupAll(List.of("SKU-1", "SKU-2", "SKU-3"));
+
+        assertEquals(Set.of("SKU-1", "SKU-2"), found.keySet());
+        assertEquals(3, found.get("SKU-2").stock().orElseThrow().getAvailableQty());
+        verify(values, never()).get(anyString());
+        assertEquals(1.0, meterRegistry.counter("inventory_stock_cache_misses").count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldBackFillBatchInOnePipelineAndCountStaleWrites() {
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(List.of(1L, 0L));
+
+        cacheService.putAll(List.of(
+                new SkuStockEntity("SKU-1", 5, 0, Instant.now()),
+                new SkuStockEntity("SKU-2", 6, 0, Instant.now())), 4L);
+
+        verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+        assertEquals(1.0, meterRegistry.counter("inventory_stock_cache_writes").count());
+        assertEquals(1.0, meterRegistry.counter("inventory_stock_cache_stale_writes_skipped").count());
+        assertEquals(6, cacheService.get("SKU-2").orElseThrow().getAvailableQty());
+        verify(values, never()).get(anyString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldWriteCompactRecordsAndStillReadLegacyJson() {
+        cacheService.put(new SkuStockEntity("SKU-1", 5, 0, Instant.parse("2026-01-01T00:00:00Z")));
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("inventory:stock:SKU-1")),
+                matches("1\\|5\\|0\\|1767225600000000\\|\\|\\d+\\|0"), eq(""), eq("300"));
+
+        cacheService.invalidateLocal(List.of("SKU-1", "SKU-2"));
+        when(values.get("inventory:stock:SKU-1")).thenReturn("1|5|0|1767225600000000|3||");
+        when(values.get("inventory:stock:SKU-2"))
+                .thenReturn("{\"skuId\":\"SKU-2\",\"availableQty\":4,\"reservedQty\":0,\"updatedAt\":\"2026-01-01T00:00:00Z\"}");
+
+        assertEquals(5, cacheService.get("SKU-1").orElseThrow().getAvailableQty());
+        assertEquals(4, cacheService.get("SKU-2").orElseThrow().getAvailableQty());
+        assertEquals(1.0, meterRegistry.counter("inventory_stock_cache_legacy_json_reads").count());
+    }
+
+    @Test
+    void shouldEvictUndecodableCompactRecords() {
+        when(values.get("inventory:stock:SKU-1")).thenReturn("1|5|oops");
+
+        assertTrue(cacheService.get("SKU-1").isEmpty());
+
+        verify(redisTemplate).delete("inventory:stock:SKU-1");
+        assertEquals(1.0, meterRegistry.counter("inventory_stock_cache_fallback").count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldServeKnownMissingSkusLocallyUntilTheSkuIsWritten() {
+        cacheService.putMissing("SKU-GONE");
+
+        verify(redisTemplate).executePipelined(any(RedisCallback.class));
+        assertTrue(cacheService.lookup("SKU-GONE").knownMissing());
+        assertEquals(Set.of("SKU-GONE"), cacheService.findKnownMissing(List.of("SKU-1", "SKU-GONE")));
+        verify(values, never()).get(anyString());
+        assertEquals(2.0, meterRegistry.counter("inventory_stock_cache_negative_hits", "tier", "near").count());
+
+        cacheService.put(new SkuStockEntity("SKU-GONE", 3, 0, Instant.now()));
+
+        assertTrue(cacheService.lookup("SKU-GONE").isHit());
+        assertTrue(cacheService.findKnownMissing(List.of("SKU-GONE")).isEmpty());
+    }
+
+    @Test
+    void shouldRecognizeMissingMarkerFromRedisAndDropItOnInvalidation() {
+        when(values.get("inventory:stock:SKU-GONE")).thenReturn("-");
+
+        assertTrue(cacheService.lookup("SKU-GONE").knownMissing());
+        assertEquals(1.0, meterRegistry.counter("inventory_stock_cache_negative_hits", "tier", "redis").count());
+        assertEquals(Set.of("SKU-GONE"), cacheService.findKnownMissing(List.of("SKU-GONE")));
+
+        cacheService.onInvalidationMessage("other-instance\nSKU-GONE");
+
+        assertTrue(cacheService.findKnownMissing(List.of("SKU-GONE")).isEmpty());
+    }
+}
@@ -0,0 +1,97 @@
+package com.cloud.inventory.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>(meterRegistry, "test_load");
+
+    @Test
+    void shouldRunOneLoaderForConcurrentCallersOfSameKey() throws Exception {
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Future<String> leader = executor.submit(() -> singleFlight.load("SKU-1", () -> {
+                loads.incrementAndGet();
+                loaderStarted.countDown();
+                await(releaseLoader);
+                return "stock";
+            }));
+            assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+
+            List<Future<String>> waiters = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                waiters.add(executor.submit(() -> singleFlight.load("SKU-1", () -> {
+                    loads.incrementAndGet();
+                    return "duplicate";
+                })));
+            }
+            while (meterRegistry.counter("test_load_coalesced_waiters").count() < 7) {
+                Thread.onSpinWait();
+            }
+            releaseLoader.countDown();
+
+            assertEquals("stock", leader.get(5, TimeUnit.SECONDS));
+            for (Future<String> waiter : waiters) {
+                assertEquals("stock", waiter.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.counter("test_load_loads").count());
+    }
+
+    @Test
+    void shouldShareLoaderFailureAndLoadAgainAfterwards() throws Exception {
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> leader = executor.submit(() -> singleFlight.load("SKU-1", () -> {
+                loaderStarted.countDown();
+                await(releaseLoader);
+                throw new IllegalStateException("db down");
+            }));
+            assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+            Thread waiter = new Thread(() -> assertThrows(IllegalStateException.class,
+                    () -> singleFlight.load("SKU-1", () -> "unused")));
+            waiter.start();
+            while (meterRegistry.counter("test_load_coalesced_waiters").count() < 1) {
+                Thread.onSpinWait();
+            }
+            releaseLoader.countDown();
+            waiter.join(5_000);
+            assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals("fresh", singleFlight.load("SKU-1", () -> "fresh"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
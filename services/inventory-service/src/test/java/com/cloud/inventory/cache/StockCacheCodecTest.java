@@ -0,0 +1,37 @@
+package com.cloud.inventory.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StockCacheCodecTest {
+
+    @Test
+    void shouldRoundTripWithMicrosecondTimestampsAndAbsentFields() {
+        InventoryStockCacheService.CachedStock full = new InventoryStockCacheService.CachedStock(
+                "SKU-1", 98, 2, Instant.parse("2026-01-01T00:00:00.123456Z"), 42L, 1_767_225_600_000L, 7L);
+        InventoryStockCacheService.CachedStock sparse = new InventoryStockCacheService.CachedStock(
+                "SKU-2", 0, 0, Instant.parse("1969-12-31T23:59:59.999999Z"), null, null, null);
+
+        String encoded = StockCacheCodec.encode(full);
+
+        assertEquals("1|98|2|1767225600123456|42|1767225600000|7", encoded);
+        assertEquals(full, StockCacheCodec.decode("SKU-1", encoded));
+        assertEquals(sparse, StockCacheCodec.decode("SKU-2", StockCacheCodec.encode(sparse)));
+        assertFalse(StockCacheCodec.isLegacyJson(encoded));
+        assertTrue(StockCacheCodec.isLegacyJson("{\"skuId\":\"SKU-1\"}"));
+    }
+
+    @Test
+    void shouldRejectMalformedPayloads() {
+        assertThrows(IllegalArgumentException.class, () -> StockCacheCodec.decode("SKU-1", "2|1|0|0|||"));
+        assertThrows(IllegalArgumentException.class, () -> StockCacheCodec.decode("SKU-1", "1|1|0|0||"));
+        assertThrows(IllegalArgumentException.class, () -> StockCacheCodec.decode("SKU-1", "1|1|0|0||||"));
+        assertThrows(IllegalArgumentException.class, () -> StockCacheCodec.decode("SKU-1", "1|x|0|0|||"));
+    }
+}
@@ -0,0 +1,55 @@
+package com.cloud.inventory.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StockNearCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void shouldExpireEntriesAfterTtl() {
+        StockNearCache<String> cache = new StockNearCache<>(10, 100, clock::get);
+        cache.put("SKU-1", "v1");
+
+        clock.addAndGet(99_000_000L);
+        assertEquals(Optional.of("v1"), cache.get("SKU-1"));
+
+        clock.addAndGet(2_000_000L);
+        assertTrue(cache.get("SKU-1").isEmpty());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldStayWithinCapPreferringToDropExpiredEntries() {
+        StockNearCache<String> cache = new StockNearCache<>(3, 100, clock::get);
+        cache.put("OLD-1", "x");
+        cache.put("OLD-2", "x");
+        clock.addAndGet(200_000_000L);
+        cache.put("NEW-1", "x");
+        cache.put("NEW-2", "x");
+
+        assertEquals(2, cache.size());
+        assertTrue(cache.get("NEW-1").isPresent());
+
+        cache.put("NEW-3", "x");
+        cache.put("NEW-4", "x");
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    void shouldKeepNewerVersionWhenOlderValueArrivesLate() {
+        StockNearCache<String> cache = new StockNearCache<>(10, 100, clock::get);
+        cache.putIfNewer("SKU-1", "v5", 5);
+        cache.putIfNewer("SKU-1", "v4", 4);
+        assertEquals(Optional.of("v5"), cache.get("SKU-1"));
+
+        cache.put("SKU-1", "unversioned");
+        assertEquals(Optional.of("unversioned"), cache.get("SKU-1"));
+    }
+}
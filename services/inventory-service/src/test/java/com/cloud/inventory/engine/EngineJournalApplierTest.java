@@ -0,0 +1,133 @@
+package com.cloud.inventory.engine;
+
+import com.cloud.inventory.domain.InventoryReleaseEventEntity;
+import com.cloud.inventory.domain.InventoryReservationEntity;
+import com.cloud.inventory.domain.ReservationStatus;
+import com.cloud.inventory.hotsku.SkuVolumeTracker;
+import com.cloud.inventory.repo.InventoryReleaseEventRepository;
+import com.cloud.inventory.repo.InventoryReservationRepository;
+import com.cloud.inventory.repo.SkuStockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EngineJournalApplierTest {
+
+    private SkuStockRepository skuStockRepository;
+    private InventoryReservationRepository reservationRepository;
+    private InventoryReleaseEventRepository releaseEventRepository;
+    private SkuVolumeTracker skuVolumeTracker;
+    private EngineJournalApplier applier;
+    private final Map<UUID, InventoryReservationEntity> reservations = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        skuStockRepository = mock(SkuStockRepository.class);
+        reservationRepository = mock(InventoryReservationRepository.class);
+        releaseEventRepository = mock(InventoryReleaseEventRepository.class);
+        skuVolumeTracker = mock(SkuVolumeTracker.class);
+        when(reservationRepository.findByOrderId(any(UUID.class)))
+                .thenAnswer(invocation -> Optional.ofNullable(reservations.get(invocation.<UUID>getArgument(0))));
+        when(reservationRepository.save(any(InventoryReservationEntity.class))).thenAnswer(invocation -> {
+            InventoryReservationEntity saved = invocation.getArgument(0);
+            reservations.put(saved.getOrderId(), saved);
+            return saved;
+        });
+        applier = new EngineJournalApplier(skuStockRepository, reservationRepository, releaseEventRepository, skuVolumeTracker);
+    }
+
+    @Test
+    void shouldInsertReservationOnceWhenEntryIsRedelivered() {
+        EngineOrderRecord order = order("RESERVED", null);
+        EngineJournalEntry entry = new EngineJournalEntry(EngineJournalEntry.RESERVED, order,
+                List.of(new EngineJournalEntry.StockSnapshot("SKU-1", 7, 3, 4)));
+
+        applier.apply(List.of(entry));
+        applier.apply(List.of(entry));
+
+        verify(reservationRepository, times(1)).save(any(InventoryReservationEntity.class));
+        InventoryReservationEntity saved = reservations.get(UUID.fromString(order.orderId()));
+        assertEquals(UUID.fromString(order.reservationId()), saved.getId());
+        assertEquals(ReservationStatus.RESERVED, saved.getStatus());
+        assertEquals(3, saved.getItems().get(0).getQuantity());
+        verify(skuStockRepository, times(2)).applyEngineSnapshot(eq("SKU-1"), eq(7), eq(3), eq(4L), any(Instant.class));
+        verify(skuVolumeTracker, times(1)).recordAfterCommit(SkuVolumeTracker.Kind.RESERVED, Map.of("SKU-1", 3));
+    }
+
+    @Test
+    void shouldPersistReleaseEvenWhenItIsAppliedBeforeItsReservation() {
+        EngineOrderRecord released = order("RELEASED", "PAYMENT_FAILED");
+        EngineOrderRecord reserved = new EngineOrderRecord(released.orderId(), released.reservationId(),
+                released.createdAt(), "RESERVED", null, released.items(), null, null);
+
+        applier.apply(List.of(new EngineJournalEntry(EngineJournalEntry.RELEASED, released,
+                List.of(new EngineJournalEntry.StockSnapshot("SKU-1", 10, 0, 5)))));
+        applier.apply(List.of(new EngineJournalEntry(EngineJournalEntry.RESERVED, reserved,
+                List.of(new EngineJournalEntry.StockSnapshot("SKU-1", 7, 3, 4)))));
+
+        InventoryReservationEntity saved = reservations.get(UUID.fromString(released.orderId()));
+        assertEquals(ReservationStatus.RELEASED, saved.getStatus());
+        assertEquals("PAYMENT_FAILED", saved.getReason());
+        verify(reservationRepository, times(1)).save(any(InventoryReservationEntity.class));
+        verify(releaseEventRepository).save(argThat((InventoryReleaseEventEntity event) ->
+                event.getItems().size() == 1 && event.getItems().get(0).getSkuId().equals("SKU-1")
+                        && event.getItems().get(0).getQuantity() == 3));
+        verify(skuVolumeTracker).recordAfterCommit(SkuVolumeTracker.Kind.RESERVED, Map.of("SKU-1", 3));
+        verify(skuVolumeTracker).recordAfterCommit(SkuVolumeTracker.Kind.RELEASED, Map.of("SKU-1", 3));
+        // The version guard in applyEngineSnapshot keeps the older snapshot from winning in Postgres.
+        verify(skuStockRepository).applyEngineSnapshot(eq("SKU-1"), eq(10), eq(0), eq(5L), any(Instant.class));
+        verify(skuStockRepository).applyEngineSnapshot(eq("SKU-1"), eq(7), eq(3), eq(4L), any(Instant.class));
+    }
+
+    @Test
+    void shouldStampReleaseEventWhenItIsPersisted() {
+        EngineOrderRecord released = order("RELEASED", "EXPIRED");
+        Instant before = Instant.now();
+
+        applier.apply(List.of(new EngineJournalEntry(EngineJournalEntry.RELEASED, released, null)));
+
+        // The engine released it long ago; the tail orders events by when they reached Postgres.
+        verify(releaseEventRepository).save(argThat((InventoryReleaseEventEntity event) ->
+                !event.getCreatedAt().isBefore(before)));
+    }
+
+    @Test
+    void shouldNotDuplicateReleaseEventOnReplay() {
+        EngineOrderRecord released = order("RELEASED", "PAYMENT_FAILED");
+        EngineJournalEntry entry = new EngineJournalEntry(EngineJournalEntry.RELEASED, released, null);
+        when(releaseEventRepository.existsByOrderId(UUID.fromString(released.orderId()))).thenReturn(false, true);
+
+        applier.apply(List.of(entry, entry));
+
+        verify(releaseEventRepository, times(1)).save(any(InventoryReleaseEventEntity.class));
+    }
+
+    private EngineOrderRecord order(String status, String reason) {
+        boolean released = "RELEASED".equals(status);
+        return new EngineOrderRecord(
+                UUID.randomUUID().toString(),
+                UUID.randomUUID().toString(),
+                Instant.parse("2026-01-01T00:00:00Z").toEpochMilli(),
+                status,
+                reason,
+                List.of(new EngineOrderRecord.Item("SKU-1", 3)),
+                released ? Instant.parse("2026-01-01T00:01:00Z").toEpochMilli() : null,
+                released ? UUID.randomUUID().toString() : null
+        );
+    }
+}
@@ -0,0 +1,206 @@
+package com.cloud.inventory.engine;
+
+import com.cloud.inventory.domain.InventoryReservationEntity;
+import com.cloud.inventory.domain.InventoryReservationItemEntity;
+import com.cloud.inventory.domain.ReservationStatus;
+import com.cloud.inventory.domain.SkuStockEntity;
+import com.cloud.inventory.repo.InventoryReservationRepository;
+import com.cloud.inventory.repo.SkuStockRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EngineJournalDrainerTest {
+
+    private static final String JOURNAL = "{inventory-engine}:journal";
+    private static final String GROUP = "inventory-write-behind";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private RedisReservationEngine engine;
+    private EngineJournalApplier applier;
+    private SkuStockRepository skuStockRepository;
+    private InventoryReservationRepository reservationRepository;
+    private StreamOperations<String, Object, Object> stream;
+    private FakeJournal journal;
+    private EngineJournalDrainer drainer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        engine = mock(RedisReservationEngine.class);
+        when(engine.isEnabled()).thenReturn(true);
+        when(engine.journalKey()).thenReturn(JOURNAL);
+        when(engine.getEngineSkus()).thenReturn(Set.of("SKU-1", "SKU-2"));
+        when(engine.isEngineSku(anyString())).thenAnswer(invocation -> Set.of("SKU-1", "SKU-2")
+                .contains(invocation.<String>getArgument(0)));
+        applier = mock(EngineJournalApplier.class);
+        skuStockRepository = mock(SkuStockRepository.class);
+        reservationRepository = mock(InventoryReservationRepository.class);
+
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        stream = mock(StreamOperations.class);
+        when(redisTemplate.opsForStream()).thenReturn((StreamOperations) stream);
+        journal = new FakeJournal(stream);
+
+        drainer = new EngineJournalDrainer(engine, applier, redisTemplate, objectMapper, skuStockRepository,
+                reservationRepository, new SimpleMeterRegistry(), GROUP, "instance-a", 10, 30);
+    }
+
+    @Test
+    void shouldKeepBatchPendingWhenApplyFailsAndApplyItAgainOnNextDrain() {
+        drainer.recover();
+        journal.append("1-0", entry("RESERVED", "SKU-1", 5, 5, 1));
+        journal.append("2-0", entry("RELEASED", "SKU-1", 10, 0, 2));
+        doThrow(new IllegalStateException("db down")).doNothing().when(applier).apply(any());
+
+        drainer.drain();
+        verify(stream, never()).acknowledge(anyString(), anyString(), any(RecordId[].class));
+        assertEquals(2, journal.pending.size());
+
+        drainer.drain();
+        verify(applier, times(2)).apply(any());
+        verify(stream).acknowledge(JOURNAL, GROUP, RecordId.of("1-0"), RecordId.of("2-0"));
+        verify(stream).delete(JOURNAL, RecordId.of("1-0"), RecordId.of("2-0"));
+        assertTrue(journal.pending.isEmpty());
+    }
+
+    @Test
+    void shouldClaimEntriesLeftPendingByStoppedConsumer() {
+        PendingMessage abandoned = new PendingMessage(RecordId.of("7-0"), Consumer.from(GROUP, "instance-b"),
+                Duration.ofSeconds(45), 1);
+        PendingMessage recent = new PendingMessage(RecordId.of("8-0"), Consumer.from(GROUP, "instance-c"),
+                Duration.ofSeconds(2), 1);
+        journal.otherPending = List.of(abandoned, recent);
+
+        drainer.drainOnce();
+
+        verify(stream).claim(JOURNAL, GROUP, "instance-a", Duration.ofSeconds(30), RecordId.of("7-0"));
+    }
+
+    @Test
+    void shouldAcknowledgeUnreadableEntriesWithoutApplyingThem() {
+        journal.append("1-0", "{not json");
+        journal.append("2-0", entry("UPSERT", "SKU-2", 3, 0, 4));
+
+        assertEquals(2, drainer.drainOnce());
+
+        verify(applier).apply(argThat(entries -> entries.size() == 1
+                && entries.get(0).type().equals(EngineJournalEntry.UPSERT)));
+        verify(stream).acknowledge(JOURNAL, GROUP, RecordId.of("1-0"), RecordId.of("2-0"));
+    }
+
+    @Test
+    void recoverShouldDrainJournalBeforeReseedingLostRedisStateFromPostgres() {
+        journal.append("1-0", entry("RESERVED", "SKU-1", 5, 5, 1));
+        SkuStockEntity stock = new SkuStockEntity("SKU-1", 5, 5, Instant.now());
+        when(skuStockRepository.findAllById(Set.of("SKU-1", "SKU-2"))).thenReturn(List.of(stock));
+        InventoryReservationEntity engineOnly = reservation("SKU-1");
+        InventoryReservationEntity mixed = reservation("SKU-1", "SKU-COLD");
+        when(reservationRepository.findReservedContainingSkus(Set.of("SKU-1", "SKU-2")))
+                .thenReturn(List.of(engineOnly, mixed));
+
+        drainer.recover();
+
+        InOrder order = inOrder(applier, engine);
+        order.verify(applier).apply(any());
+        order.verify(engine).seedStock("SKU-1", 5, 5, 0L);
+        verify(engine).seedReservation(engineOnly);
+        verify(engine, never()).seedReservation(mixed);
+        verify(stream).createGroup(JOURNAL, ReadOffset.from("0"), GROUP);
+    }
+
+    private String entry(String type, String skuId, int available, int reserved, long version) {
+        String order = type.equals("UPSERT") ? "" : """
+                "order":{"orderId":"%s","reservationId":"%s","createdAt":1,"status":"%s","items":[{"skuId":"%s","quantity":5}],
+                "releasedAt":2,"releaseEventId":"%s"},""".formatted(UUID.randomUUID(), UUID.randomUUID(), type, skuId,
+                UUID.randomUUID());
+        return """
+                {"type":"%s",%s"stocks":[{"skuId":"%s","availableQty":%d,"reservedQty":%d,"version":%d}]}"""
+                .formatted(type, order, skuId, available, reserved, version);
+    }
+
+    private InventoryReservationEntity reservation(String... skuIds) {
+        InventoryReservationEntity reservation = new InventoryReservationEntity(UUID.randomUUID(), UUID.randomUUID(),
+                ReservationStatus.RESERVED, null, Instant.now());
+        for (String skuId : skuIds) {
+            reservation.addItem(new InventoryReservationItemEntity(UUID.randomUUID(), skuId, 1));
+        }
+        return reservation;
+    }
+
+    /**
+     * Minimal stand-in for one consumer's view of a Redis stream consumer group: new entries move to the pending
+     * list when read and leave it when acknowledged.
+     */
+    private static final class FakeJournal {
+
+        private final List<MapRecord<String, Object, Object>> unread = new ArrayList<>();
+        private final List<MapRecord<String, Object, Object>> pending = new ArrayList<>();
+        private List<PendingMessage> otherPending = List.of();
+
+        @SuppressWarnings("unchecked")
+        private FakeJournal(StreamOperations<String, Object, Object> stream) {
+            when(stream.read(any(Consumer.class), any(StreamReadOptions.class), any(StreamOffset.class)))
+                    .thenAnswer(invocation -> {
+                        StreamOffset<String> offset = invocation.getArgument(2);
+                        if (offset.getOffset().equals(ReadOffset.from("0"))) {
+                            return new ArrayList<>(pending);
+                        }
+                        List<MapRecord<String, Object, Object>> delivered = new ArrayList<>(unread);
+                        pending.addAll(unread);
+                        unread.clear();
+                        return delivered;
+                    });
+            when(stream.acknowledge(anyString(), anyString(), any(RecordId[].class))).thenAnswer(invocation -> {
+                Object[] args = invocation.getArguments();
+                List<Object> ids = List.of(args).subList(2, args.length);
+                pending.removeIf(record -> ids.contains(record.getId()));
+                return (long) ids.size();
+            });
+            when(stream.pending(anyString(), anyString(), any(Range.class), anyLong()))
+                    .thenAnswer(invocation -> new PendingMessages(GROUP, otherPending));
+            when(stream.size(JOURNAL)).thenAnswer(invocation -> (long) (unread.size() + pending.size()));
+        }
+
+        private void append(String id, String payload) {
+            unread.add(StreamRecords.newRecord().in(JOURNAL).withId(RecordId.of(id))
+                    .ofMap(Map.<Object, Object>of("payload", payload)));
+        }
+    }
+}
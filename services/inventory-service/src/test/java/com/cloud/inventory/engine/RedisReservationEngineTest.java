@@ -0,0 +1,123 @@
+package com.cloud.inventory.engine;
+
+import com.cloud.inventory.domain.ReservationStatus;
+import com.cloud.inventory.service.InventoryReleaseOutcome;
+import com.cloud.inventory.service.ReservationOutcome;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RedisReservationEngineTest {
+
+    private static final UUID ORDER_ID = UUID.fromString("8c1f3a0e-1a4e-4c1b-9a53-5a3c2b1d0e11");
+    private static final UUID RESERVATION_ID = UUID.fromString("0f6e2b7a-3d7c-4f4e-8e0a-7b1d2c3e4f50");
+
+    private StringRedisTemplate redisTemplate;
+    private ValueOperations<String, String> values;
+    private RedisReservationEngine engine;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        values = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        engine = new RedisReservationEngine(redisTemplate, new ObjectMapper(), new SimpleMeterRegistry(),
+                true, "SKU-1, SKU-2", "{inventory-engine}:", 168);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldPassAlignedStockKeysAndArgumentsAndMapFailedOutcome() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn("""
+                {"result":"FAILED","order":{"orderId":"%s","reservationId":"%s","createdAt":1767225600000,
+                "status":"FAILED","reason":"INSUFFICIENT_STOCK:SKU-2 available=1 requested=4",
+                "items":[{"skuId":"SKU-1","quantity":2},{"skuId":"SKU-2","quantity":4}]}}"""
+                .formatted(ORDER_ID, RESERVATION_ID));
+        Map<String, Integer> requested = new LinkedHashMap<>();
+        requested.put("SKU-1", 2);
+        requested.put("SKU-2", 4);
+
+        ReservationOutcome outcome = engine.reserve(ORDER_ID, requested);
+
+        assertEquals(ReservationStatus.FAILED, outcome.status());
+        assertEquals(RESERVATION_ID, outcome.reservationId());
+        assertEquals("INSUFFICIENT_STOCK:SKU-2 available=1 requested=4", outcome.reason());
+        assertEquals(List.of(new ReservationOutcome.ReservedItem("SKU-1", 2), new ReservationOutcome.ReservedItem("SKU-2", 4)),
+                outcome.items());
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(
+                "{inventory-engine}:order:" + ORDER_ID,
+                "{inventory-engine}:journal",
+                "{inventory-engine}:stock:SKU-1",
+                "{inventory-engine}:stock:SKU-2"
+        )), any(Object[].class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldLeaveReleaseToPostgresWhenRedisHasNoOrderRecord() {
+        RedisReservationEngine.ReleaseResult result = engine.release(ORDER_ID, "PAYMENT_FAILED");
+
+        assertFalse(result.handled());
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any(Object[].class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldReleaseReservedOrderThroughScript() {
+        String items = "[{\"skuId\":\"SKU-1\",\"quantity\":2}]";
+        when(values.get("{inventory-engine}:order:" + ORDER_ID)).thenReturn("""
+                {"orderId":"%s","reservationId":"%s","createdAt":1767225600000,"status":"RESERVED","items":%s}"""
+                .formatted(ORDER_ID, RESERVATION_ID, items));
+        UUID releaseId = UUID.randomUUID();
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn("""
+                {"result":"RELEASED","order":{"orderId":"%s","reservationId":"%s","createdAt":1767225600000,
+                "status":"RELEASED","reason":"PAYMENT_FAILED","items":%s,"releasedAt":1767225660000,"releaseEventId":"%s"}}"""
+                .formatted(ORDER_ID, RESERVATION_ID, items, releaseId));
+
+        RedisReservationEngine.ReleaseResult result = engine.release(ORDER_ID, "PAYMENT_FAILED");
+
+        assertTrue(result.handled());
+        InventoryReleaseOutcome outcome = result.outcome().orElseThrow();
+        assertEquals(releaseId, outcome.releaseId());
+        assertEquals(RESERVATION_ID, outcome.reservationId());
+        assertEquals(List.of(new InventoryReleaseOutcome.ReleasedItem("SKU-1", 2)), outcome.items());
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(
+                "{inventory-engine}:order:" + ORDER_ID,
+                "{inventory-engine}:journal",
+                "{inventory-engine}:stock:SKU-1"
+        )), any(Object[].class));
+    }
+
+    @Test
+    void shouldTreatAlreadyReleasedOrderAsHandledNoop() {
+        when(values.get("{inventory-engine}:order:" + ORDER_ID)).thenReturn("""
+                {"orderId":"%s","reservationId":"%s","createdAt":1,"status":"RELEASED","items":[]}"""
+                .formatted(ORDER_ID, RESERVATION_ID));
+
+        RedisReservationEngine.ReleaseResult result = engine.release(ORDER_ID, "PAYMENT_FAILED");
+
+        assertTrue(result.handled());
+        assertTrue(result.outcome().isEmpty());
+    }
+}
@@ -0,0 +1,58 @@
+package com.cloud.inventory.hotsku;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountMinTopKTest {
+
+    @Test
+    void shouldFindHeavyHittersAmongManyLightKeysWithoutUndercounting() {
+        CountMinTopK sketch = new CountMinTopK(2048, 4, 20);
+        Map<String, Long> exact = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 50_000; i++) {
+            String key;
+            if (i % 10 == 0) {
+                key = "HOT-" + (i / 10) % 3;
+            } else {
+                key = "SKU-" + random.nextInt(20_000);
+            }
+            int weight = 1 + random.nextInt(3);
+            sketch.add(key, weight);
+            exact.merge(key, (long) weight, Long::sum);
+        }
+
+        List<CountMinTopK.Entry> top = sketch.top(3);
+
+        assertEquals(List.of("HOT-0", "HOT-1", "HOT-2"), top.stream().map(CountMinTopK.Entry::key).sorted().toList());
+        assertEquals(exact.values().stream().mapToLong(Long::longValue).sum(), sketch.total());
+        for (Map.Entry<String, Long> entry : exact.entrySet()) {
+            long estimate = sketch.estimate(entry.getKey());
+            assertTrue(estimate >= entry.getValue(), entry.getKey());
+        }
+        for (CountMinTopK.Entry entry : top) {
+            assertTrue(entry.estimate() - exact.get(entry.key()) <= sketch.errorBound(), entry.key());
+        }
+    }
+
+    @Test
+    void shouldAdmitLateHeavyKeyByEvictingTheLightestCandidate() {
+        CountMinTopK sketch = new CountMinTopK(1024, 4, 2);
+        sketch.add("A", 5);
+        sketch.add("B", 1);
+        sketch.add("C", 3);
+        sketch.add("D", 0);
+
+        List<CountMinTopK.Entry> top = sketch.top(10);
+
+        assertEquals(List.of(new CountMinTopK.Entry("A", 5), new CountMinTopK.Entry("C", 3)), top);
+        assertEquals(9, sketch.total());
+    }
+}
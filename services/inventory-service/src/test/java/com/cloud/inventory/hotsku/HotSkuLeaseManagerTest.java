@@ -0,0 +1,193 @@
+package com.cloud.inventory.hotsku;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HotSkuLeaseManagerTest {
+
+    private HotSkuLeaseStore leaseStore;
+    private final List<Runnable> grants = new ArrayList<>();
+    private HotSkuLeaseManager manager;
+
+    @BeforeEach
+    void setUp() {
+        leaseStore = mock(HotSkuLeaseStore.class);
+        when(leaseStore.renewLease(any())).thenReturn(true);
+        when(leaseStore.closeLease(any())).thenReturn(OptionalInt.of(0));
+        when(leaseStore.findStaleLeaseIds(any(Instant.class), anyInt())).thenReturn(List.of());
+        manager = new HotSkuLeaseManager(leaseStore, new SimpleMeterRegistry(), true, "SKU-HOT, SKU-HOT-2",
+                10, 4, 4, 30, 60, "test", grants::add);
+    }
+
+    @Test
+    void shouldFallBackToRowPathAndGrantOffTheRequestThreadWhenNoLeaseExists() {
+        UUID lease = UUID.randomUUID();
+        when(leaseStore.grantLease(eq("SKU-HOT"), anyString(), eq(10), eq(3)))
+                .thenReturn(HotSkuLeaseStore.LeaseGrant.granted(lease, 10, 90));
+
+        HotSkuLeaseManager.AllocationResult first = manager.allocate(Map.of("SKU-HOT", 3));
+        HotSkuLeaseManager.AllocationResult second = manager.allocate(Map.of("SKU-HOT", 3));
+
+        assertEquals(Map.of("SKU-HOT", 3), first.fallbackBySku());
+        assertEquals(Map.of("SKU-HOT", 3), second.fallbackBySku());
+        verify(leaseStore, never()).grantLease(anyString(), anyString(), anyInt(), anyInt());
+        assertEquals(1, grants.size());
+
+        runGrants();
+        HotSkuLeaseManager.AllocationResult local = manager.allocate(Map.of("SKU-HOT", 3));
+
+        assertTrue(local.fallbackBySku().isEmpty());
+        assertEquals(lease, local.allocations().get(0).leaseId());
+    }
+
+    @Test
+    void shouldPreGrantAndRefillBeforeTheLeaseRunsOut() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(leaseStore.grantLease(eq("SKU-HOT"), anyString(), eq(10), eq(1)))
+                .thenReturn(HotSkuLeaseStore.LeaseGrant.granted(first, 10, 90))
+                .thenReturn(HotSkuLeaseStore.LeaseGrant.granted(second, 10, 80));
+        when(leaseStore.grantLease(eq("SKU-HOT-2"), anyString(), anyInt(), anyInt()))
+                .thenReturn(HotSkuLeaseStore.LeaseGrant.insufficient(0));
+        manager.reconcile();
+        runGrants();
+
+        for (int i = 0; i < 3; i++) {
+            HotSkuLeaseManager.AllocationResult result = manager.allocate(Map.of("SKU-HOT", 3));
+            assertEquals(first, result.allocations().get(0).leaseId());
+        }
+        runGrants();
+
+        assertEquals(second, manager.allocate(Map.of("SKU-HOT", 3)).allocations().get(0).leaseId());
+        manager.reconcile();
+        verify(leaseStore).closeLease(first);
+        verify(leaseStore, never()).closeLease(second);
+    }
+
+    @Test
+    void shouldHandBackAbandonedAllocationsWhenTheTransactionCommits() {
+        when(leaseStore.grantLease(eq("SKU-HOT"), anyString(), anyInt(), anyInt()))
+                .thenReturn(HotSkuLeaseStore.LeaseGrant.granted(UUID.randomUUID(), 10, 0));
+        manager.allocate(Map.of("SKU-HOT", 1));
+        runGrants();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            HotSkuLeaseManager.AllocationResult result = manager.allocate(Map.of("SKU-HOT", 4, "SKU-HOT-2", 2));
+            assertEquals(Map.of("SKU-HOT-2", 2), result.fallbackBySku());
+            assertEquals(6, manager.localQuota());
+
+            result.abandon();
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(10, manager.localQuota());
+        assertTrue(manager.isHot("SKU-HOT"));
+        assertFalse(manager.isHot("SKU-COLD"));
+    }
+
+    @Test
+    void shouldMoveAllocationsFromLeasesClosedElsewhereToTheRowPath() {
+        UUID hot = UUID.randomUUID();
+        UUID hot2 = UUID.randomUUID();
+        when(leaseStore.grantLease(eq("SKU-HOT"), anyString(), anyInt(), anyInt()))
+                .thenReturn(HotSkuLeaseStore.LeaseGrant.granted(hot, 10, 0));
+        when(leaseStore.grantLease(eq("SKU-HOT-2"), anyString(), anyInt(), anyInt()))
+                .thenReturn(HotSkuLeaseStore.LeaseGrant.granted(hot2, 10, 0));
+        manager.reconcile();
+        runGrants();
+        when(leaseStore.lockActiveLeases(Set.of(hot, hot2))).thenReturn(Set.of(hot2));
+
+        HotSkuLeaseManager.AllocationResult confirmed = manager.confirmLeases(
+                manager.allocate(Map.of("SKU-HOT", 2, "SKU-HOT-2", 3)));
+
+        assertEquals(Map.of("SKU-HOT", 2), confirmed.fallbackBySku());
+        assertEquals(List.of(hot2), confirmed.allocations().stream().map(HotSkuLeaseManager.Allocation::leaseId).toList());
+        // The closed lease is no longer drawn from; a new one is requested instead.
+        assertEquals(Map.of("SKU-HOT", 1), manager.allocate(Map.of("SKU-HOT", 1)).fallbackBySku());
+    }
+
+    @Test
+    void shouldStopDrawingFromLeaseNotRenewedForHalfTheStaleWindow() {
+        UUID lease = UUID.randomUUID();
+        when(leaseStore.grantLease(eq("SKU-HOT"), anyString(), anyInt(), anyInt()))
+                .thenReturn(HotSkuLeaseStore.LeaseGrant.granted(lease, 10, 0));
+        HotSkuLeaseManager fenced = new HotSkuLeaseManager(leaseStore, new SimpleMeterRegistry(), true, "SKU-HOT",
+                10, 4, 4, 30, 1, "test", grants::add);
+        fenced.reconcile();
+        runGrants();
+        assertTrue(fenced.allocate(Map.of("SKU-HOT", 1)).fallbackBySku().isEmpty());
+
+        when(leaseStore.renewLease(lease)).thenThrow(new IllegalStateException("db down"));
+        fenced.reconcile();
+        await(600);
+
+        assertEquals(Map.of("SKU-HOT", 1), fenced.allocate(Map.of("SKU-HOT", 1)).fallbackBySku());
+    }
+
+    private static void await(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runGrants() {
+        while (!grants.isEmpty()) {
+            grants.remove(0).run();
+        }
+    }
+
+    @Test
+    void shouldNeverHandOutMoreThanLeasedUnderContention() throws Exception {
+        HotSkuLeaseManager.LocalLease lease = new HotSkuLeaseManager.LocalLease(
+                UUID.randomUUID(), "SKU-HOT", new StripedQuota(1_000, 8), Instant.now());
+        AtomicInteger taken = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int thread = 0; thread < 8; thread++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 500; i++) {
+                    if (lease.tryTake(3)) {
+                        taken.addAndGet(3);
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(1_000, taken.get() + lease.quota().remaining());
+        assertTrue(lease.quota().remaining() < 3);
+    }
+}
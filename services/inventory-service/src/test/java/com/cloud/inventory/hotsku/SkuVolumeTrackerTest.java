@@ -0,0 +1,98 @@
+package com.cloud.inventory.hotsku;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SkuVolumeTrackerTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-02-11T10:15:00Z"));
+    private SimpleMeterRegistry meterRegistry;
+    private SkuVolumeTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tracker = new SkuVolumeTracker(meterRegistry, 1024, 4, 50, Duration.ofHours(1), 1, clock);
+    }
+
+    @Test
+    void shouldRankByRequestedKindAndReportBothQuantities() {
+        tracker.recordAfterCommit(SkuVolumeTracker.Kind.RESERVED, Map.of("SKU-A", 10, "SKU-B", 4));
+        tracker.recordAfterCommit(SkuVolumeTracker.Kind.RELEASED, Map.of("SKU-B", 4));
+        tracker.recordAfterCommit(SkuVolumeTracker.Kind.RELEASED, Map.of("SKU-A", 1));
+
+        SkuVolumeTracker.Report report = tracker.report(SkuVolumeTracker.Kind.RELEASED, 10, SkuVolumeTracker.Period.CURRENT);
+
+        assertEquals(Instant.parse("2026-02-11T10:00:00Z"), report.windowStart());
+        assertEquals(Instant.parse("2026-02-11T11:00:00Z"), report.windowEnd());
+        assertEquals(List.of(
+                new SkuVolumeTracker.SkuVolume("SKU-B", 4, 4),
+                new SkuVolumeTracker.SkuVolume("SKU-A", 10, 1)
+        ), report.items());
+        assertEquals(14, report.totalReserved());
+        assertEquals(5, report.totalReleased());
+    }
+
+    @Test
+    void shouldRollWindowsAndPublishOnlyTheCurrentTop() {
+        tracker.recordAfterCommit(SkuVolumeTracker.Kind.RESERVED, Map.of("SKU-A", 10));
+        tracker.publishMetrics();
+        assertEquals(10.0, meterRegistry.get("inventory_sku_volume_top").tags("kind", "reserved", "sku", "SKU-A").gauge().value());
+
+        clock.advance(Duration.ofHours(1));
+        tracker.recordAfterCommit(SkuVolumeTracker.Kind.RESERVED, Map.of("SKU-B", 2));
+        tracker.publishMetrics();
+
+        SkuVolumeTracker.Report previous = tracker.report(SkuVolumeTracker.Kind.RESERVED, 10, SkuVolumeTracker.Period.PREVIOUS);
+        assertEquals(Instant.parse("2026-02-11T10:00:00Z"), previous.windowStart());
+        assertEquals(List.of(new SkuVolumeTracker.SkuVolume("SKU-A", 10, 0)), previous.items());
+        assertEquals(2.0, meterRegistry.get("inventory_sku_volume_top").tags("kind", "reserved", "sku", "SKU-B").gauge().value());
+        assertNull(meterRegistry.find("inventory_sku_volume_top").tags("sku", "SKU-A").gauge());
+
+        clock.advance(Duration.ofHours(3));
+        SkuVolumeTracker.Report afterIdleGap = tracker.report(SkuVolumeTracker.Kind.RESERVED, 10, SkuVolumeTracker.Period.PREVIOUS);
+        assertEquals(Instant.parse("2026-02-11T13:00:00Z"), afterIdleGap.windowStart());
+        assertTrue(afterIdleGap.items().isEmpty());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
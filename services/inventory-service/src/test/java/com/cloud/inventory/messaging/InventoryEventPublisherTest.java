@@ -0,0 +1,77 @@
+package com.cloud.inventory.messaging;
+
+import com.cloud.inventory.domain.InventoryOutboxEventEntity;
+import com.cloud.inventory.repo.InventoryOutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class InventoryEventPublisherTest {
+
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final InventoryOutboxEventRepository outboxRepository = mock(InventoryOutboxEventRepository.class);
+    private final InventoryOutboxRelay outboxRelay = mock(InventoryOutboxRelay.class);
+
+    @Test
+    void shouldQueueEventInTransactionAndWakeRelayOnlyAfterCommit() {
+        InventoryEventPublisher publisher = publisher(true);
+        UUID orderId = UUID.randomUUID();
+        UUID traceId = UUID.randomUUID();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            publisher.publishFailed(orderId, null, "OUT_OF_STOCK", traceId, null);
+            verify(outboxRelay, never()).requestRelay();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        ArgumentCaptor<InventoryOutboxEventEntity> saved = ArgumentCaptor.forClass(InventoryOutboxEventEntity.class);
+        verify(outboxRepository).save(saved.capture());
+        assertEquals("InventoryFailed", saved.getValue().getEventType());
+        assertEquals("inventory.failed", saved.getValue().getRoutingKey());
+        assertEquals(traceId, saved.getValue().getTraceId());
+        assertTrue(saved.getValue().getPayload().contains(orderId.toString()));
+        verify(outboxRelay).requestRelay();
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    @Test
+    void shouldSendDirectlyWhenOutboxIsDisabled() {
+        InventoryEventPublisher publisher = publisher(false);
+
+        publisher.publishFailed(UUID.randomUUID(), null, "OUT_OF_STOCK", null, null);
+
+        verify(rabbitTemplate).convertAndSend(eq("ecom.events"), eq("inventory.failed"), anyString(),
+                any(MessagePostProcessor.class));
+        verifyNoInteractions(outboxRepository, outboxRelay);
+    }
+
+    private InventoryEventPublisher publisher(boolean outboxEnabled) {
+        InventoryEventPublisher publisher = new InventoryEventPublisher(rabbitTemplate,
+                new ObjectMapper().registerModule(new JavaTimeModule()), outboxRepository, outboxRelay, outboxEnabled);
+        ReflectionTestUtils.setField(publisher, "eventsExchange", "ecom.events");
+        ReflectionTestUtils.setField(publisher, "inventoryFailedRoutingKey", "inventory.failed");
+        return publisher;
+    }
+}
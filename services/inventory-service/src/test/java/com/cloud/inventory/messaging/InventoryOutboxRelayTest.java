@@ -0,0 +1,164 @@
+package com.cloud.inventory.messaging;
+
+import com.cloud.inventory.domain.InventoryOutboxEventEntity;
+import com.cloud.inventory.repo.InventoryOutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InventoryOutboxRelayTest {
+
+    private InventoryOutboxEventRepository outboxRepository;
+    private RabbitTemplate rabbitTemplate;
+    private ConnectionFactory connectionFactory;
+    private SimpleMeterRegistry meterRegistry;
+    private InventoryOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository = mock(InventoryOutboxEventRepository.class);
+        rabbitTemplate = mock(RabbitTemplate.class);
+        connectionFactory = mock(ConnectionFactory.class);
+        when(rabbitTemplate.getConnectionFactory()).thenReturn(connectionFactory);
+        when(connectionFactory.isPublisherConfirms()).thenReturn(true);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new InventoryOutboxRelay(outboxRepository, rabbitTemplate, transactionManager, meterRegistry,
+                true, 2, 10, 50, 24, 3, 60_000);
+        ReflectionTestUtils.setField(relay, "eventsExchange", "ecom.events");
+    }
+
+    @Test
+    void shouldMarkAckedEventsSentAndKeepNackedOnesPending() {
+        InventoryOutboxEventEntity acked = event();
+        InventoryOutboxEventEntity nacked = event();
+        when(outboxRepository.lockPending(2)).thenReturn(List.of(acked, nacked)).thenReturn(List.of());
+        confirmWith(correlation -> new CorrelationData.Confirm(!correlation.getId().equals(nacked.getId().toString()),
+                "queue full"));
+
+        relay.relay();
+
+        verify(rabbitTemplate).convertAndSend(eq("ecom.events"), eq("inventory.reserved"), eq(acked.getPayload()),
+                any(MessagePostProcessor.class), any(CorrelationData.class));
+        verify(outboxRepository).markSent(eq(List.of(acked.getId())), any(Instant.class));
+        verify(outboxRepository).recordFailure(List.of(nacked.getId()), "nack: queue full");
+        verify(outboxRepository).parkExhausted(List.of(nacked.getId()), 3);
+        assertEquals(1.0, meterRegistry.counter("inventory_outbox_published", "result", "sent").count());
+        assertEquals(1.0, meterRegistry.counter("inventory_outbox_published", "result", "failed").count());
+    }
+
+    @Test
+    void shouldKeepRelayingWhileBatchesAreFullAndConfirmed() {
+        when(outboxRepository.lockPending(2)).thenReturn(List.of(event(), event())).thenReturn(List.of(event()));
+        confirmWith(correlation -> new CorrelationData.Confirm(true, null));
+
+        relay.relay();
+
+        verify(outboxRepository, times(2)).lockPending(2);
+        assertEquals(3.0, meterRegistry.counter("inventory_outbox_published", "result", "sent").count());
+    }
+
+    @Test
+    void shouldStopAndPauseAfterBatchWithUnconfirmedRows() {
+        InventoryOutboxEventEntity nacked = event();
+        when(outboxRepository.lockPending(2)).thenReturn(List.of(event(), nacked));
+        confirmWith(correlation -> new CorrelationData.Confirm(!correlation.getId().equals(nacked.getId().toString()),
+                "queue full"));
+
+        relay.relay();
+        relay.relay();
+
+        // The batch was full but not confirmed, so the run ended and the next one waits out the backoff.
+        verify(outboxRepository, times(1)).lockPending(2);
+    }
+
+    @Test
+    void shouldParkEventsThatRanOutOfAttempts() {
+        InventoryOutboxEventEntity event = event();
+        when(outboxRepository.lockPending(2)).thenReturn(List.of(event));
+        confirmWith(correlation -> new CorrelationData.Confirm(false, "queue full"));
+        when(outboxRepository.parkExhausted(List.of(event.getId()), 3)).thenReturn(1);
+
+        relay.relay();
+
+        assertEquals(1.0, meterRegistry.counter("inventory_outbox_parked").count());
+    }
+
+    @Test
+    void shouldKeepEventsPendingWhenConfirmsTimeOut() {
+        InventoryOutboxEventEntity event = event();
+        when(outboxRepository.lockPending(2)).thenReturn(List.of(event));
+
+        relay.relay();
+
+        verify(outboxRepository, never()).markSent(any(), any());
+        verify(outboxRepository).recordFailure(List.of(event.getId()), "confirm timeout");
+    }
+
+    @Test
+    void shouldTreatSendAsPublishedWhenConfirmsAreOff() {
+        when(connectionFactory.isPublisherConfirms()).thenReturn(false);
+        InventoryOutboxEventEntity event = event();
+        when(outboxRepository.lockPending(2)).thenReturn(List.of(event));
+
+        relay.relay();
+
+        verify(outboxRepository).markSent(eq(List.of(event.getId())), any(Instant.class));
+    }
+
+    @Test
+    void shouldLeaveBatchPendingWhenSendFails() {
+        when(outboxRepository.lockPending(anyInt())).thenReturn(List.of(event()));
+        doAnswer(invocation -> {
+            throw new IllegalStateException("broker down");
+        }).when(rabbitTemplate).convertAndSend(any(String.class), any(String.class), any(Object.class),
+                any(MessagePostProcessor.class), any(CorrelationData.class));
+
+        relay.relay();
+        relay.relay();
+
+        verify(outboxRepository, never()).markSent(any(), any());
+        verify(outboxRepository, never()).recordFailure(any(), any());
+        // The failed send paused the relay.
+        verify(outboxRepository, times(1)).lockPending(anyInt());
+    }
+
+    private void confirmWith(Function<CorrelationData, CorrelationData.Confirm> confirm) {
+        doAnswer(invocation -> {
+            CorrelationData correlation = invocation.getArgument(4);
+            correlation.getFuture().complete(confirm.apply(correlation));
+            return null;
+        }).when(rabbitTemplate).convertAndSend(any(String.class), any(String.class), any(Object.class),
+                any(MessagePostProcessor.class), any(CorrelationData.class));
+    }
+
+    private static InventoryOutboxEventEntity event() {
+        UUID id = UUID.randomUUID();
+        return new InventoryOutboxEventEntity(id, "InventoryReserved", "inventory.reserved",
+                "{\"event_id\":\"" + id + "\"}", UUID.randomUUID(), Instant.now());
+    }
+}
@@ -0,0 +1,108 @@
+package com.cloud.inventory.messaging;
+
+import com.cloud.inventory.service.ConsumedMessageService;
+import com.cloud.inventory.service.InventoryReservationService;
+import com.cloud.inventory.service.LockRetryExecutor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PaymentSucceededListenerTest {
+
+    private static final String QUEUE = "q.inventory.payment-succeeded";
+
+    private InventoryReservationService reservationService;
+    private ConsumedMessageService consumedMessageService;
+    private InventoryEventPublisher eventPublisher;
+    private LockRetryExecutor lockRetryExecutor;
+    private PaymentSucceededListener listener;
+
+    @BeforeEach
+    void setUp() {
+        reservationService = mock(InventoryReservationService.class);
+        consumedMessageService = mock(ConsumedMessageService.class);
+        eventPublisher = mock(InventoryEventPublisher.class);
+        lockRetryExecutor = mock(LockRetryExecutor.class);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return null;
+        }).when(lockRetryExecutor).runInTransaction(eq("payment_succeeded"), any(Runnable.class));
+        listener = new PaymentSucceededListener(new ObjectMapper().registerModule(new JavaTimeModule()),
+                reservationService, consumedMessageService, eventPublisher, lockRetryExecutor);
+        ReflectionTestUtils.setField(listener, "paymentSucceededQueue", QUEUE);
+        ReflectionTestUtils.setField(listener, "maxRetries", 3);
+    }
+
+    @Test
+    void shouldConfirmReservationAndMarkMessageConsumedInOneTransaction() {
+        UUID orderId = UUID.randomUUID();
+
+        listener.handlePaymentSucceeded(message(orderId, 0));
+
+        verify(lockRetryExecutor).runInTransaction(eq("payment_succeeded"), any(Runnable.class));
+        verify(reservationService).confirmReservationForOrder(orderId);
+        verify(consumedMessageService).markConsumed("m-1", "inventory.payment-succeeded");
+    }
+
+    @Test
+    void shouldSkipMessageAlreadyConsumed() {
+        when(consumedMessageService.isConsumed("m-1", "inventory.payment-succeeded")).thenReturn(true);
+
+        listener.handlePaymentSucceeded(message(UUID.randomUUID(), 0));
+
+        verify(reservationService, never()).confirmReservationForOrder(any());
+        verify(consumedMessageService, never()).markConsumed(any(), any());
+    }
+
+    @Test
+    void shouldRejectForRetryWhenConfirmationFails() {
+        doThrow(new IllegalStateException("db down")).when(reservationService).confirmReservationForOrder(any());
+
+        assertThrows(AmqpRejectAndDontRequeueException.class,
+                () -> listener.handlePaymentSucceeded(message(UUID.randomUUID(), 1)));
+
+        verify(eventPublisher, never()).publishPaymentSucceededToDlq(any(), any());
+    }
+
+    @Test
+    void shouldDeadLetterWhenRetriesAreExhausted() {
+        doThrow(new IllegalStateException("db down")).when(reservationService).confirmReservationForOrder(any());
+        Message message = message(UUID.randomUUID(), 3);
+
+        listener.handlePaymentSucceeded(message);
+
+        verify(eventPublisher).publishPaymentSucceededToDlq(eq(message), startsWith("RETRY_EXHAUSTED:db down"));
+    }
+
+    private static Message message(UUID orderId, long deaths) {
+        String body = "{\"event_id\":\"" + UUID.randomUUID() + "\",\"event_type\":\"PaymentSucceeded\","
+                + "\"data\":{\"order_id\":\"" + orderId + "\"},\"version\":1}";
+        MessageProperties properties = new MessageProperties();
+        properties.setMessageId("m-1");
+        if (deaths > 0) {
+            properties.setHeader("x-death", List.of(Map.of("queue", QUEUE, "count", deaths)));
+        }
+        return new Message(body.getBytes(StandardCharsets.UTF_8), properties);
+    }
+}
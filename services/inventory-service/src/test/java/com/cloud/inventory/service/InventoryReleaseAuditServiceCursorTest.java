@@ -18,8 +18,10 @@ import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
@@ -38,10 +40,23 @@ class InventoryReleaseAuditServiceCursorTest {
     void listReleaseEventsCursorRejectsInvalidAfter() {
         assertThrows(
                 ResponseStatusException.class,
-                () -> inventoryReleaseAuditService.listReleaseEventsCursor(null, null, null, 20, "!!!")
+                () -> inventoryReleaseAuditService.listReleaseEventsCursor(null, null, null, 20, "!!!", null)
         );
     }
 
+    @Test
+    void listReleaseEventsCursorRejectsCursorIssuedForOtherFilters() {
+        String cursor = ReleaseEventsCursor.encode(Instant.parse("2026-02-11T10:00:00Z"), UUID.randomUUID(),
+                ReleaseEventsCursor.filterHash(null, null, null));
+
+        ResponseStatusException ex = assertThrows(
+                ResponseStatusException.class,
+                () -> inventoryReleaseAuditService.listReleaseEventsCursor(
+                        UUID.randomUUID(), null, null, 20, cursor, null)
+        );
+        assertEquals("cursor was issued for different filters", ex.getReason());
+    }
+
     @Test
     void listReleaseEventsCursorUsesSizePlusOneAndStableSortAndComputesNextCursor() {
         int size = 2;
@@ -76,11 +91,13 @@ class InventoryReleaseAuditServiceCursorTest {
         ))
                 .thenReturn(List.of(e1, e2, extra));
 
-        var page = inventoryReleaseAuditService.listReleaseEventsCursor(null, null, null, size, null);
+        var page = inventoryReleaseAuditService.listReleaseEventsCursor(null, null, null, size, null, null);
 
         assertEquals(size, page.items().size());
         assertTrue(page.hasMore());
-        assertEquals(ReleaseEventsCursor.encode(e2.getCreatedAt(), e2.getId()), page.nextCursor());
+        assertEquals(ReleaseEventsCursor.encode(e2.getCreatedAt(), e2.getId(),
+                ReleaseEventsCursor.filterHash(null, null, null)), page.nextCursor());
+        assertNull(page.prevCursor());
 
         ArgumentCaptor<Sort> sortCaptor = ArgumentCaptor.forClass(Sort.class);
         verify(inventoryReleaseEventRepository).findCursorPage(
@@ -93,4 +110,72 @@ class InventoryReleaseAuditServiceCursorTest {
         assertEquals(Sort.Direction.DESC, sort.getOrderFor("createdAt").getDirection());
         assertEquals(Sort.Direction.DESC, sort.getOrderFor("id").getDirection());
     }
+
+    @Test
+    void listReleaseEventsCursorBeforeScansAscendingAndReturnsNewestFirst() {
+        int filterHash = ReleaseEventsCursor.filterHash(null, null, null);
+        Instant t = Instant.parse("2026-02-11T10:00:00Z");
+        InventoryReleaseEventEntity older = event("00000000-0000-0000-0000-000000000001", t.plusSeconds(1));
+        InventoryReleaseEventEntity newer = event("00000000-0000-0000-0000-000000000002", t.plusSeconds(2));
+        InventoryReleaseEventEntity newest = event("00000000-0000-0000-0000-000000000003", t.plusSeconds(3));
+        when(inventoryReleaseEventRepository.findCursorPage(
+                ArgumentMatchers.<Specification<InventoryReleaseEventEntity>>any(), any(Sort.class), eq(3)))
+                .thenReturn(List.of(older, newer, newest));
+        String before = ReleaseEventsCursor.encode(t, UUID.randomUUID(), filterHash);
+
+        var page = inventoryReleaseAuditService.listReleaseEventsCursor(null, null, null, 2, null, before);
+
+        assertEquals(List.of(newer, older), page.items());
+        assertEquals(ReleaseEventsCursor.encode(older.getCreatedAt(), older.getId(), filterHash), page.nextCursor());
+        assertEquals(ReleaseEventsCursor.encode(newer.getCreatedAt(), newer.getId(), filterHash), page.prevCursor());
+        ArgumentCaptor<Sort> sortCaptor = ArgumentCaptor.forClass(Sort.class);
+        verify(inventoryReleaseEventRepository).findCursorPage(
+                ArgumentMatchers.<Specification<InventoryReleaseEventEntity>>any(), sortCaptor.capture(), eq(3));
+        assertEquals(Sort.Direction.ASC, sortCaptor.getValue().getOrderFor("createdAt").getDirection());
+        assertEquals(Sort.Direction.ASC, sortCaptor.getValue().getOrderFor("id").getDirection());
+    }
+
+    @Test
+    void listReleaseEventsCursorRejectsAfterAndBeforeTogether() {
+        assertThrows(
+                ResponseStatusException.class,
+                () -> inventoryReleaseAuditService.listReleaseEventsCursor(null, null, null, 20, "a", "b")
+        );
+    }
+
+    @Test
+    void tailReleaseEventsKeepsSinceWhenNothingIsNew() {
+        int filterHash = ReleaseEventsCursor.filterHash(null, null, null);
+        String since = ReleaseEventsCursor.encode(Instant.parse("2026-02-11T10:00:00Z"), UUID.randomUUID(), filterHash);
+        when(inventoryReleaseEventRepository.findCursorPage(
+                ArgumentMatchers.<Specification<InventoryReleaseEventEntity>>any(), any(Sort.class), eq(21)))
+                .thenReturn(List.of());
+
+        var page = inventoryReleaseAuditService.tailReleaseEvents(null, null, null, 20, since, Instant.now());
+
+        assertTrue(page.items().isEmpty());
+        assertFalse(page.hasMore());
+        assertEquals(since, page.nextCursor());
+    }
+
+    @Test
+    void tailReleaseEventsWithoutSinceStartsFromNewestEventsOldestFirst() {
+        Instant t = Instant.parse("2026-02-11T10:00:00Z");
+        InventoryReleaseEventEntity newest = event("00000000-0000-0000-0000-000000000002", t.plusSeconds(2));
+        InventoryReleaseEventEntity older = event("00000000-0000-0000-0000-000000000001", t.plusSeconds(1));
+        when(inventoryReleaseEventRepository.findCursorPage(
+                ArgumentMatchers.<Specification<InventoryReleaseEventEntity>>any(), any(Sort.class), eq(2)))
+                .thenReturn(List.of(newest, older));
+
+        var page = inventoryReleaseAuditService.tailReleaseEvents(null, null, null, 2, null, Instant.now());
+
+        assertEquals(List.of(older, newest), page.items());
+        assertEquals(ReleaseEventsCursor.encode(newest.getCreatedAt(), newest.getId(),
+                ReleaseEventsCursor.filterHash(null, null, null)), page.nextCursor());
+    }
+
+    private static InventoryReleaseEventEntity event(String id, Instant createdAt) {
+        return new InventoryReleaseEventEntity(UUID.fromString(id), UUID.randomUUID(), UUID.randomUUID(),
+                "PAYMENT_FAILED", createdAt);
+    }
 }
@@ -0,0 +1,102 @@
+package com.cloud.inventory.service;
+
+import com.cloud.inventory.repo.InventoryReleaseEventRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.Writer;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs in its own surefire fork with {@code -Xmx64m} (see the inventory-service pom). The export below is well
+ * over 100 MB of CSV, so it only passes if rows go straight from the cursor to the writer.
+ */
+@Tag("heap-capped")
+class InventoryReleaseAuditServiceExportHeapTest {
+
+    private static final int ROWS = 1_000_000;
+
+    @Test
+    void exportsOneMillionRowsWithoutBufferingThem() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        long[] cursor = {0};
+        ResultSet row = generatedRow(cursor);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (cursor[0] = 0; cursor[0] < ROWS; cursor[0]++) {
+                handler.processRow(row);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        InventoryReleaseAuditService service = new InventoryReleaseAuditService(
+                mock(InventoryReleaseEventRepository.class), jdbcTemplate, mock(ReleaseEventCounter.class));
+        CountingWriter out = new CountingWriter();
+
+        long written = service.exportReleaseEventsCsv(null, null, null, ROWS, out);
+
+        assertEquals(ROWS, written);
+        assertEquals(ROWS + 1, out.lines);
+        assertTrue(out.chars > 100L * 1024 * 1024, "export should exceed the fork's heap cap");
+    }
+
+    private static ResultSet generatedRow(long[] cursor) {
+        Instant base = Instant.parse("2026-02-11T00:00:00Z");
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getObject" -> switch ((String) args[0]) {
+                        case "created_at" -> OffsetDateTime.ofInstant(base.minusMillis(cursor[0]), ZoneOffset.UTC);
+                        default -> new UUID(cursor[0], ((String) args[0]).hashCode());
+                    };
+                    case "getString" -> "PAYMENT_FAILED";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static final class CountingWriter extends Writer {
+
+        private long chars;
+        private long lines;
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            chars += length;
+            for (int i = offset; i < offset + length; i++) {
+                if (buffer[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+
+        @Override
+        public void write(String text) {
+            chars += text.length();
+            for (int i = 0; i < text.length(); i++) {
+                if (text.charAt(i) == '\n') {
+                    lines++;
+                }
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -11,18 +11,39 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.StringWriter;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.time.Instant;
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
 import java.util.UUID;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,6 +52,12 @@ class InventoryReleaseAuditServiceTest {
     @Mock
     private InventoryReleaseEventRepository inventoryReleaseEventRepository;
 
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ReleaseEventCounter releaseEventCounter;
+
     @InjectMocks
     private InventoryReleaseAuditService inventoryReleaseAuditService;
 
@@ -41,7 +68,7 @@ class InventoryReleaseAuditServiceTest {
 
         assertThrows(
                 ResponseStatusException.class,
-                () -> inventoryReleaseAuditService.listReleaseEvents(null, from, to, 0, 20)
+                () -> inventoryReleaseAuditService.listReleaseEvents(null, from, to, 0, 20, ReleaseEventCountMode.EXACT)
         );
     }
 
@@ -64,7 +91,7 @@ class InventoryReleaseAuditServiceTest {
         ))
                 .thenReturn(new PageImpl<>(List.of(sample)));
 
-        var result = inventoryReleaseAuditService.listReleaseEvents(orderId, from, to, 1, 5);
+        var result = inventoryReleaseAuditService.listReleaseEvents(orderId, from, to, 1, 5, ReleaseEventCountMode.EXACT);
 
         ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
         verify(inventoryReleaseEventRepository).findAll(
@@ -74,51 +101,146 @@ class InventoryReleaseAuditServiceTest {
 
         assertEquals(1, pageableCaptor.getValue().getPageNumber());
         assertEquals(5, pageableCaptor.getValue().getPageSize());
-        assertEquals(1, result.getTotalElements());
-        assertEquals(sample.getId(), result.getContent().get(0).getId());
+        assertEquals(1, result.totalElements());
+        assertEquals(ReleaseEventCountMode.EXACT, result.countMode());
+        assertEquals(sample.getId(), result.items().get(0).getId());
     }
 
     @Test
-    void exportReleaseEventsCsvDelegatesToRepositoryWithLimitAndEscapesCsv() {
-        UUID orderId = UUID.randomUUID();
-        Instant from = Instant.parse("2026-02-11T09:00:00Z");
-        Instant to = Instant.parse("2026-02-11T11:00:00Z");
-        InventoryReleaseEventEntity sample = new InventoryReleaseEventEntity(
-                UUID.fromString("a32ee3e5-0f81-4a88-a361-f1f2158dfdbf"),
-                orderId,
-                UUID.fromString("4d8e1012-e736-4d43-b955-ed169d37efda"),
-                "PAYMENT_FAILED,reason=\"hard\"",
-                Instant.parse("2026-02-11T10:00:00Z")
-        );
+    void listReleaseEventsWithoutCountFetchesOneExtraRowForHasNext() {
+        when(inventoryReleaseEventRepository.findOffsetPage(
+                ArgumentMatchers.<Specification<InventoryReleaseEventEntity>>any(), any(Sort.class), eq(40), eq(21)))
+                .thenReturn(events(21));
+
+        var result = inventoryReleaseAuditService.listReleaseEvents(null, null, null, 2, 20, ReleaseEventCountMode.NONE);
+
+        assertEquals(20, result.items().size());
+        assertTrue(result.hasNext());
+        assertNull(result.totalElements());
+        verify(inventoryReleaseEventRepository, never()).count(ArgumentMatchers.<Specification<InventoryReleaseEventEntity>>any());
+        verifyNoInteractions(releaseEventCounter);
+    }
 
-        when(inventoryReleaseEventRepository.findAll(
-                ArgumentMatchers.<Specification<InventoryReleaseEventEntity>>any(),
-                any(Pageable.class)
-        ))
-                .thenReturn(new PageImpl<>(List.of(sample)));
+    @Test
+    void listReleaseEventsUsesPlannerEstimateOnlyForUnfilteredQueries() {
+        when(inventoryReleaseEventRepository.findOffsetPage(
+                ArgumentMatchers.<Specification<InventoryReleaseEventEntity>>any(), any(Sort.class), eq(0), eq(21)))
+                .thenReturn(events(21));
+        when(releaseEventCounter.estimatedTotal()).thenReturn(OptionalLong.of(2_000_000L));
+        when(releaseEventCounter.cachedCount(any(), any(), any(), any())).thenReturn(300L);
+
+        var unfiltered = inventoryReleaseAuditService.listReleaseEvents(null, null, null, 0, 20, ReleaseEventCountMode.ESTIMATE);
+        var filtered = inventoryReleaseAuditService.listReleaseEvents(
+                null, Instant.parse("2026-02-11T09:00:00Z"), null, 0, 20, ReleaseEventCountMode.ESTIMATE);
+
+        assertEquals(2_000_000L, unfiltered.totalElements());
+        assertEquals(ReleaseEventCountMode.ESTIMATE, unfiltered.countMode());
+        assertEquals(300L, filtered.totalElements());
+        assertEquals(ReleaseEventCountMode.CACHED, filtered.countMode());
+        verify(releaseEventCounter).estimatedTotal();
+    }
 
-        String csv = inventoryReleaseAuditService.exportReleaseEventsCsv(orderId, from, to, 50);
+    @Test
+    void listReleaseEventsCorrectsStaleCachedCountOnLastPage() {
+        when(inventoryReleaseEventRepository.findOffsetPage(
+                ArgumentMatchers.<Specification<InventoryReleaseEventEntity>>any(), any(Sort.class), eq(20), eq(21)))
+                .thenReturn(events(7));
+        when(releaseEventCounter.cachedCount(any(), any(), any(), any())).thenReturn(25L);
 
-        ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
-        verify(inventoryReleaseEventRepository).findAll(
-                ArgumentMatchers.<Specification<InventoryReleaseEventEntity>>any(),
-                pageableCaptor.capture()
+        var result = inventoryReleaseAuditService.listReleaseEvents(null, null, null, 1, 20, ReleaseEventCountMode.CACHED);
+
+        assertFalse(result.hasNext());
+        assertEquals(27L, result.totalElements());
+    }
+
+    @Test
+    void releaseStatsFillsEveryBucketInRangeAndSumsShardsPerReason() {
+        Instant from = Instant.parse("2026-02-11T09:30:00Z");
+        Instant to = Instant.parse("2026-02-11T12:10:00Z");
+        when(jdbcTemplate.query(anyString(), ArgumentMatchers.<RowMapper<Object>>any(), any(Object[].class)))
+                .thenReturn(List.of(
+                        new InventoryReleaseAuditService.ReleaseStatsRow(Instant.parse("2026-02-11T09:00:00Z"), "PAYMENT_FAILED", 3),
+                        new InventoryReleaseAuditService.ReleaseStatsRow(Instant.parse("2026-02-11T11:00:00Z"), "PAYMENT_FAILED", 2),
+                        new InventoryReleaseAuditService.ReleaseStatsRow(Instant.parse("2026-02-11T11:00:00Z"), "EXPIRED", 5)
+                ));
+
+        var buckets = inventoryReleaseAuditService.releaseStats(from, to, ReleaseStatsGranularity.HOUR, null);
+
+        assertEquals(4, buckets.size());
+        assertEquals(Instant.parse("2026-02-11T09:00:00Z"), buckets.get(0).bucketStart());
+        assertEquals(3, buckets.get(0).total());
+        assertEquals(0, buckets.get(1).total());
+        assertEquals(Map.of("EXPIRED", 5L, "PAYMENT_FAILED", 2L), buckets.get(2).countsByReason());
+        assertEquals(Instant.parse("2026-02-11T12:00:00Z"), buckets.get(3).bucketStart());
+    }
+
+    @Test
+    void releaseStatsRejectsRangesWithTooManyBuckets() {
+        Instant from = Instant.parse("2020-01-01T00:00:00Z");
+        Instant to = Instant.parse("2026-01-01T00:00:00Z");
+
+        assertThrows(
+                ResponseStatusException.class,
+                () -> inventoryReleaseAuditService.releaseStats(from, to, ReleaseStatsGranularity.HOUR, null)
         );
-        assertEquals(0, pageableCaptor.getValue().getPageNumber());
-        assertEquals(50, pageableCaptor.getValue().getPageSize());
-        assertTrue(csv.startsWith("release_id,order_id,reservation_id,reason,created_at\n"));
-        assertTrue(csv.contains("\"PAYMENT_FAILED,reason=\"\"hard\"\"\""));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void exportReleaseEventsCsvStreamsFromForwardOnlyCursorAndEscapesCsv() throws Exception {
+        UUID orderId = UUID.randomUUID();
+        Instant from = Instant.parse("2026-02-11T09:00:00Z");
+        Instant to = Instant.parse("2026-02-11T11:00:00Z");
+        ResultSet row = mock(ResultSet.class);
+        when(row.getObject("id", UUID.class)).thenReturn(UUID.fromString("a32ee3e5-0f81-4a88-a361-f1f2158dfdbf"));
+        when(row.getObject("order_id", UUID.class)).thenReturn(orderId);
+        when(row.getObject("reservation_id", UUID.class)).thenReturn(UUID.fromString("4d8e1012-e736-4d43-b955-ed169d37efda"));
+        when(row.getString("reason")).thenReturn("PAYMENT_FAILED,reason=\"hard\"");
+        when(row.getObject("created_at", OffsetDateTime.class)).thenReturn(OffsetDateTime.parse("2026-02-11T10:00:00Z"));
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        StringWriter csv = new StringWriter();
+        long rows = inventoryReleaseAuditService.exportReleaseEventsCsv(orderId, from, to, 50, csv);
+
+        ArgumentCaptor<PreparedStatementCreator> creatorCaptor = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        verify(jdbcTemplate).query(creatorCaptor.capture(), any(RowCallbackHandler.class));
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+        when(connection.prepareStatement(sqlCaptor.capture(), eq(ResultSet.TYPE_FORWARD_ONLY), eq(ResultSet.CONCUR_READ_ONLY)))
+                .thenReturn(statement);
+        creatorCaptor.getValue().createPreparedStatement(connection);
+
+        verify(statement).setFetchSize(InventoryReleaseAuditService.EXPORT_FETCH_SIZE);
+        verify(statement).setObject(1, orderId);
+        verify(statement).setObject(4, 50L);
+        assertTrue(sqlCaptor.getValue().endsWith(
+                "where order_id = ? and created_at >= ? and created_at <= ? order by created_at desc, id desc limit ?"));
+        assertEquals(1, rows);
+        assertTrue(csv.toString().startsWith("release_id,order_id,reservation_id,reason,created_at\n"));
+        assertTrue(csv.toString().contains("\"PAYMENT_FAILED,reason=\"\"hard\"\"\",2026-02-11T10:00:00Z\n"));
     }
 
     @Test
     void exportReleaseEventsCsvRejectsInvalidLimit() {
         assertThrows(
                 ResponseStatusException.class,
-                () -> inventoryReleaseAuditService.exportReleaseEventsCsv(null, null, null, 0)
+                () -> inventoryReleaseAuditService.exportReleaseEventsCsv(null, null, null, 0, new StringWriter())
         );
         assertThrows(
                 ResponseStatusException.class,
-                () -> inventoryReleaseAuditService.exportReleaseEventsCsv(null, null, null, 10001)
+                () -> inventoryReleaseAuditService.validateExport(null, null, InventoryReleaseAuditService.MAX_EXPORT_LIMIT + 1)
         );
     }
+
+    private static List<InventoryReleaseEventEntity> events(int count) {
+        Instant newest = Instant.parse("2026-02-11T10:00:00Z");
+        return IntStream.range(0, count)
+                .mapToObj(i -> new InventoryReleaseEventEntity(
+                        UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), "PAYMENT_FAILED", newest.minusSeconds(i)))
+                .toList();
+    }
 }
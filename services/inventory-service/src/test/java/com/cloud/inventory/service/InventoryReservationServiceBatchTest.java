@@ -0,0 +1,132 @@
+package com.cloud.inventory.service;
+
+import com.cloud.inventory.cache.InventoryStockCacheService;
+import com.cloud.inventory.domain.InventoryReservationEntity;
+import com.cloud.inventory.domain.ReservationStatus;
+import com.cloud.inventory.domain.SkuStockEntity;
+import com.cloud.inventory.engine.RedisReservationEngine;
+import com.cloud.inventory.hotsku.HotSkuLeaseManager;
+import com.cloud.inventory.hotsku.SkuVolumeTracker;
+import com.cloud.inventory.repo.InventoryReleaseEventRepository;
+import com.cloud.inventory.repo.InventoryReservationRepository;
+import com.cloud.inventory.repo.SkuStockRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InventoryReservationServiceBatchTest {
+
+    private SkuStockRepository skuStockRepository;
+    private InventoryReservationRepository reservationRepository;
+    private InventoryStockCacheService stockCacheService;
+    private HotSkuLeaseManager hotSkuLeaseManager;
+    private SkuVolumeTracker skuVolumeTracker;
+    private StockUpdateStream stockUpdateStream;
+    private InventoryReservationService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        skuStockRepository = mock(SkuStockRepository.class);
+        reservationRepository = mock(InventoryReservationRepository.class);
+        stockCacheService = mock(InventoryStockCacheService.class);
+        hotSkuLeaseManager = mock(HotSkuLeaseManager.class);
+        skuVolumeTracker = mock(SkuVolumeTracker.class);
+        stockUpdateStream = mock(StockUpdateStream.class);
+        when(reservationRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        service = new InventoryReservationService(
+                skuStockRepository,
+                reservationRepository,
+                mock(InventoryReleaseEventRepository.class),
+                stockCacheService,
+                hotSkuLeaseManager,
+                mock(StockBucketService.class),
+                mock(RedisReservationEngine.class),
+                mock(LockRetryExecutor.class),
+                skuVolumeTracker,
+                stockUpdateStream,
+                new SimpleMeterRegistry(),
+                900
+        );
+    }
+
+    @Test
+    void shouldLockSkuUnionOnceAndDecideOrdersInArrivalOrder() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID unknownSku = UUID.randomUUID();
+        UUID hot = UUID.randomUUID();
+        SkuStockEntity stockA = new SkuStockEntity("SKU-A", 5, 0, Instant.now());
+        SkuStockEntity stockB = new SkuStockEntity("SKU-B", 9, 0, Instant.now());
+        when(hotSkuLeaseManager.isHot("SKU-HOT")).thenReturn(true);
+        when(skuStockRepository.findBucketedSkuIds(Set.of("SKU-A", "SKU-B", "SKU-GONE"))).thenReturn(Set.of());
+        when(skuStockRepository.findAllBySkuIdInForUpdate(Set.of("SKU-A", "SKU-B", "SKU-GONE")))
+                .thenReturn(List.of(stockA, stockB));
+
+        Map<UUID, ReservationOutcome> outcomes = service.reserveBatch(List.of(
+                request(first, "SKU-B", 2, "SKU-A", 3),
+                request(second, "SKU-A", 3),
+                request(unknownSku, "SKU-GONE", 1),
+                request(hot, "SKU-HOT", 1)
+        ));
+
+        assertEquals(ReservationStatus.RESERVED, outcomes.get(first).status());
+        assertEquals(ReservationStatus.FAILED, outcomes.get(second).status());
+        assertEquals("INSUFFICIENT_STOCK:SKU-A available=2 requested=3", outcomes.get(second).reason());
+        assertEquals("SKU_NOT_FOUND:SKU-GONE", outcomes.get(unknownSku).reason());
+        assertFalse(outcomes.containsKey(hot));
+        assertEquals(2, stockA.getAvailableQty());
+        assertEquals(3, stockA.getReservedQty());
+        assertEquals(7, stockB.getAvailableQty());
+        verify(skuStockRepository, times(1)).findAllBySkuIdInForUpdate(any());
+        verify(reservationRepository, times(1)).saveAll(any());
+        verify(stockCacheService).putAllMissing(Set.of("SKU-GONE"));
+        verify(stockCacheService).refreshAfterCommit(anyCollection(), anyCollection());
+        verify(skuVolumeTracker).recordAfterCommit(SkuVolumeTracker.Kind.RESERVED, Map.of("SKU-A", 3, "SKU-B", 2));
+        verify(stockUpdateStream).publishAfterCommit(Set.of("SKU-A", "SKU-B"));
+    }
+
+    @Test
+    void shouldReplayExistingReservationsAndLeaveBucketedOrdersToCaller() {
+        UUID existing = UUID.randomUUID();
+        UUID bucketed = UUID.randomUUID();
+        InventoryReservationEntity stored = new InventoryReservationEntity(
+                UUID.randomUUID(), existing, ReservationStatus.RESERVED, null, Instant.now());
+        when(reservationRepository.findAllByOrderIdIn(Set.of(existing, bucketed))).thenReturn(List.of(stored));
+        when(skuStockRepository.findBucketedSkuIds(Set.of("SKU-BUCKETED"))).thenReturn(Set.of("SKU-BUCKETED"));
+
+        Map<UUID, ReservationOutcome> outcomes = service.reserveBatch(List.of(
+                request(existing, "SKU-A", 1),
+                request(bucketed, "SKU-BUCKETED", 1)
+        ));
+
+        assertEquals(Set.of(existing), outcomes.keySet());
+        assertEquals(stored.getId(), outcomes.get(existing).reservationId());
+        assertTrue(outcomes.get(existing).items().isEmpty());
+    }
+
+    private static OrderReservationRequest request(UUID orderId, Object... skuAndQty) {
+        List<ReservationOutcome.ReservedItem> items = new ArrayList<>();
+        for (int i = 0; i < skuAndQty.length; i += 2) {
+            items.add(new ReservationOutcome.ReservedItem((String) skuAndQty[i], (Integer) skuAndQty[i + 1]));
+        }
+        return new OrderReservationRequest(orderId, items);
+    }
+}
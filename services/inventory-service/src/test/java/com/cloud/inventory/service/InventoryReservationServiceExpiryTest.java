@@ -0,0 +1,215 @@
+package com.cloud.inventory.service;
+
+import com.cloud.inventory.cache.InventoryStockCacheService;
+import com.cloud.inventory.domain.InventoryReleaseEventEntity;
+import com.cloud.inventory.domain.InventoryReleaseEventItemEntity;
+import com.cloud.inventory.domain.InventoryReservationEntity;
+import com.cloud.inventory.domain.InventoryReservationItemEntity;
+import com.cloud.inventory.domain.ReservationStatus;
+import com.cloud.inventory.domain.SkuStockEntity;
+import com.cloud.inventory.engine.RedisReservationEngine;
+import com.cloud.inventory.hotsku.HotSkuLeaseManager;
+import com.cloud.inventory.hotsku.SkuVolumeTracker;
+import com.cloud.inventory.repo.InventoryReleaseEventRepository;
+import com.cloud.inventory.repo.InventoryReservationRepository;
+import com.cloud.inventory.repo.SkuStockRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InventoryReservationServiceExpiryTest {
+
+    private SkuStockRepository skuStockRepository;
+    private InventoryReservationRepository reservationRepository;
+    private InventoryReleaseEventRepository releaseEventRepository;
+    private RedisReservationEngine reservationEngine;
+    private SkuVolumeTracker skuVolumeTracker;
+    private StockBucketService stockBucketService;
+    private SimpleMeterRegistry meterRegistry;
+    private InventoryReservationService service;
+
+    @BeforeEach
+    void setUp() {
+        skuStockRepository = mock(SkuStockRepository.class);
+        reservationRepository = mock(InventoryReservationRepository.class);
+        releaseEventRepository = mock(InventoryReleaseEventRepository.class);
+        reservationEngine = mock(RedisReservationEngine.class);
+        skuVolumeTracker = mock(SkuVolumeTracker.class);
+        stockBucketService = mock(StockBucketService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(releaseEventRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(reservationRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        service = new InventoryReservationService(
+                skuStockRepository,
+                reservationRepository,
+                releaseEventRepository,
+                mock(InventoryStockCacheService.class),
+                mock(HotSkuLeaseManager.class),
+                stockBucketService,
+                reservationEngine,
+                mock(LockRetryExecutor.class),
+                skuVolumeTracker,
+                mock(StockUpdateStream.class),
+                meterRegistry,
+                900
+        );
+    }
+
+    @Test
+    void shouldGiveNewHoldsAnExpiry() {
+        UUID orderId = UUID.randomUUID();
+        when(skuStockRepository.findBucketedSkuIds(Set.of("SKU-A"))).thenReturn(Set.of());
+        when(skuStockRepository.findAllBySkuIdInForUpdate(Set.of("SKU-A")))
+                .thenReturn(List.of(new SkuStockEntity("SKU-A", 5, 0, Instant.now())));
+        Instant before = Instant.now();
+
+        service.reserveBatch(List.of(new OrderReservationRequest(orderId,
+                List.of(new ReservationOutcome.ReservedItem("SKU-A", 1)))));
+
+        verify(reservationRepository).saveAll(argThat((Iterable<InventoryReservationEntity> saved) -> {
+            InventoryReservationEntity reservation = saved.iterator().next();
+            Instant expiresAt = reservation.getExpiresAt();
+            return expiresAt != null && !expiresAt.isBefore(before.plus(Duration.ofSeconds(900)));
+        }));
+    }
+
+    @Test
+    void shouldReleaseExpiredHoldsAfterLockingTheirSkusInOrder() {
+        Instant now = Instant.now();
+        InventoryReservationEntity first = held("SKU-B", 2, "SKU-A", 1);
+        InventoryReservationEntity second = held("SKU-A", 3);
+        SkuStockEntity stockA = new SkuStockEntity("SKU-A", 0, 4, now);
+        SkuStockEntity stockB = new SkuStockEntity("SKU-B", 0, 2, now);
+        when(reservationRepository.lockExpiredReservationIds(now, 100)).thenReturn(List.of(first.getId(), second.getId()));
+        when(reservationRepository.findAllWithItemsByIdIn(List.of(first.getId(), second.getId())))
+                .thenReturn(List.of(first, second));
+        when(skuStockRepository.findAllBySkuIdInForUpdate(any())).thenReturn(List.of(stockA, stockB));
+
+        List<InventoryReleaseOutcome> outcomes = service.expireReservations(now, 100);
+
+        assertEquals(2, outcomes.size());
+        assertTrue(outcomes.stream().allMatch(outcome -> InventoryReservationService.EXPIRED_REASON.equals(outcome.reason())));
+        assertEquals(ReservationStatus.RELEASED, first.getStatus());
+        assertEquals(ReservationStatus.RELEASED, second.getStatus());
+        assertEquals(4, stockA.getAvailableQty());
+        assertEquals(2, stockB.getAvailableQty());
+        verify(skuStockRepository).findAllBySkuIdInForUpdate(argThat(skuIds ->
+                skuIds instanceof TreeSet && skuIds.equals(Set.of("SKU-A", "SKU-B"))));
+        verify(releaseEventRepository, times(2)).recordStats(any());
+        verify(releaseEventRepository).save(argThat((InventoryReleaseEventEntity event) ->
+                event.getReservationId().equals(first.getId())
+                        && event.getItems().stream().collect(Collectors.toMap(
+                                InventoryReleaseEventItemEntity::getSkuId, InventoryReleaseEventItemEntity::getQuantity))
+                        .equals(Map.of("SKU-A", 1, "SKU-B", 2))
+                        && event.getItems().stream().allMatch(item -> item.getCreatedAt().equals(event.getCreatedAt()))));
+        verify(skuVolumeTracker).recordAfterCommit(SkuVolumeTracker.Kind.RELEASED, Map.of("SKU-A", 3));
+    }
+
+    @Test
+    void shouldReleaseBucketItemsOfTheWholeBatchInLockOrder() {
+        Instant now = Instant.now();
+        InventoryReservationEntity first = heldInBuckets("SKU-B", 1, "SKU-A", 2);
+        InventoryReservationEntity second = heldInBuckets("SKU-A", 0, "SKU-B", 0);
+        when(reservationRepository.lockExpiredReservationIds(now, 100)).thenReturn(List.of(first.getId(), second.getId()));
+        when(reservationRepository.findAllWithItemsByIdIn(List.of(first.getId(), second.getId())))
+                .thenReturn(List.of(first, second));
+
+        service.expireReservations(now, 100);
+
+        InOrder order = inOrder(stockBucketService);
+        order.verify(stockBucketService).release(bucketItem("SKU-A", 0));
+        order.verify(stockBucketService).release(bucketItem("SKU-A", 2));
+        order.verify(stockBucketService).release(bucketItem("SKU-B", 0));
+        order.verify(stockBucketService).release(bucketItem("SKU-B", 1));
+        verify(stockBucketService, times(4)).release(any());
+        assertEquals(ReservationStatus.RELEASED, first.getStatus());
+        assertEquals(ReservationStatus.RELEASED, second.getStatus());
+    }
+
+    @Test
+    void shouldDoNothingWhenNoHoldIsDue() {
+        Instant now = Instant.now();
+        when(reservationRepository.lockExpiredReservationIds(now, 100)).thenReturn(List.of());
+
+        assertTrue(service.expireReservations(now, 100).isEmpty());
+        verify(reservationRepository, never()).findAllWithItemsByIdIn(any());
+    }
+
+    @Test
+    void shouldConfirmHoldAndCountPaymentsThatArriveAfterExpiry() {
+        InventoryReservationEntity held = held("SKU-A", 1);
+        InventoryReservationEntity expired = held("SKU-A", 1);
+        expired.markReleased(InventoryReservationService.EXPIRED_REASON);
+        when(reservationRepository.findByOrderIdForUpdate(held.getOrderId())).thenReturn(Optional.of(held));
+        when(reservationRepository.findByOrderIdForUpdate(expired.getOrderId())).thenReturn(Optional.of(expired));
+
+        service.confirmReservationForOrder(held.getOrderId());
+        service.confirmReservationForOrder(expired.getOrderId());
+
+        assertEquals(ReservationStatus.CONFIRMED, held.getStatus());
+        assertNull(held.getExpiresAt());
+        assertEquals(ReservationStatus.RELEASED, expired.getStatus());
+        assertEquals(1.0, meterRegistry.counter("inventory_reservation_confirmations", "result", "confirmed").count());
+        assertEquals(1.0, meterRegistry.counter("inventory_reservation_confirmations", "result", "after_expiry").count());
+    }
+
+    @Test
+    void shouldLeaveEngineHeldReservationsToTheEngine() {
+        InventoryReservationEntity held = held("SKU-ENGINE", 1);
+        when(reservationEngine.isEngineSku("SKU-ENGINE")).thenReturn(true);
+        when(reservationRepository.findByOrderIdForUpdate(held.getOrderId())).thenReturn(Optional.of(held));
+
+        service.confirmReservationForOrder(held.getOrderId());
+
+        assertEquals(ReservationStatus.RESERVED, held.getStatus());
+        assertEquals(1.0, meterRegistry.counter("inventory_reservation_confirmations", "result", "engine").count());
+    }
+
+    private static InventoryReservationEntity held(Object... skuAndQty) {
+        Instant createdAt = Instant.now().minus(Duration.ofHours(1));
+        InventoryReservationEntity reservation = new InventoryReservationEntity(
+                UUID.randomUUID(), UUID.randomUUID(), ReservationStatus.RESERVED, null, createdAt);
+        reservation.setExpiresAt(createdAt.plus(Duration.ofMinutes(15)));
+        for (int i = 0; i < skuAndQty.length; i += 2) {
+            reservation.addItem(new InventoryReservationItemEntity(
+                    UUID.randomUUID(), (String) skuAndQty[i], (Integer) skuAndQty[i + 1]));
+        }
+        return reservation;
+    }
+
+    private static InventoryReservationEntity heldInBuckets(Object... skuAndBucket) {
+        InventoryReservationEntity reservation = held();
+        for (int i = 0; i < skuAndBucket.length; i += 2) {
+            reservation.addItem(new InventoryReservationItemEntity(
+                    UUID.randomUUID(), (String) skuAndBucket[i], 1, null, (Integer) skuAndBucket[i + 1]));
+        }
+        return reservation;
+    }
+
+    private static InventoryReservationItemEntity bucketItem(String skuId, int bucketNo) {
+        return argThat(item -> item.getSkuId().equals(skuId) && item.getBucketNo() == bucketNo);
+    }
+}
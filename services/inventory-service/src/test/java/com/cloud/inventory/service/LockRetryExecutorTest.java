@@ -0,0 +1,85 @@
+package com.cloud.inventory.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LockRetryExecutorTest {
+
+    private PlatformTransactionManager transactionManager;
+    private SimpleMeterRegistry meterRegistry;
+    private LockRetryExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new LockRetryExecutor(transactionManager, meterRegistry, 3, 0);
+    }
+
+    @Test
+    void shouldRetryDeadlockVictimInFreshTransaction() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = executor.inTransaction("reserve", () -> {
+            if (calls.incrementAndGet() == 1) {
+                throw lockFailure("40P01");
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(2, calls.get());
+        verify(transactionManager, times(2)).getTransaction(any());
+        verify(transactionManager).rollback(any());
+        assertEquals(1.0, meterRegistry.counter("inventory_lock_retries", "operation", "reserve").count());
+    }
+
+    @Test
+    void shouldGiveUpAfterMaxAttempts() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(CannotAcquireLockException.class, () -> executor.inTransaction("release", () -> {
+            calls.incrementAndGet();
+            throw lockFailure("40001");
+        }));
+
+        assertEquals(3, calls.get());
+        assertEquals(1.0, meterRegistry.counter("inventory_lock_retries_exhausted", "operation", "release").count());
+    }
+
+    @Test
+    void shouldNotRetryOtherFailures() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> executor.runInTransaction("reserve", () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals(1, calls.get());
+        assertFalse(LockRetryExecutor.isRetryable(lockFailure("55P03")));
+        assertTrue(LockRetryExecutor.isRetryable(new RuntimeException(lockFailure("40P01"))));
+    }
+
+    private CannotAcquireLockException lockFailure(String sqlState) {
+        return new CannotAcquireLockException("could not obtain lock", new SQLException("lock conflict", sqlState));
+    }
+}
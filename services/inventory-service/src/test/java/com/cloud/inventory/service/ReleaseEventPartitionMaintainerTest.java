@@ -0,0 +1,84 @@
+package com.cloud.inventory.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReleaseEventPartitionMaintainerTest {
+
+    private static final String ENSURE_SQL = "select inventory_release_events_ensure_partition(?)";
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(jdbcTemplate.queryForObject(eq(ENSURE_SQL), eq(Boolean.class), any(LocalDate.class))).thenReturn(false);
+    }
+
+    @Test
+    void shouldCreateCurrentAndUpcomingMonthsWithoutDroppingByDefault() {
+        when(jdbcTemplate.queryForObject(ENSURE_SQL, Boolean.class, LocalDate.of(2027, 1, 1))).thenReturn(true);
+        ReleaseEventPartitionMaintainer maintainer = new ReleaseEventPartitionMaintainer(jdbcTemplate, meterRegistry, true, 3, 0);
+
+        maintainer.maintain(YearMonth.of(2026, 10));
+
+        for (LocalDate month : List.of(LocalDate.of(2026, 10, 1), LocalDate.of(2026, 11, 1),
+                LocalDate.of(2026, 12, 1), LocalDate.of(2027, 1, 1))) {
+            verify(jdbcTemplate).queryForObject(ENSURE_SQL, Boolean.class, month);
+        }
+        assertEquals(1.0, meterRegistry.counter("inventory_release_event_partitions", "action", "created").count());
+        verify(jdbcTemplate, never()).queryForList(anyString());
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void shouldDetachAndDropMonthsOutsideRetention() {
+        when(jdbcTemplate.queryForList(anyString())).thenReturn(List.of(
+                partition("inventory_release_events_p202508", false),
+                partition("inventory_release_events_p202509", true),
+                partition("inventory_release_events_p202510", false),
+                partition("inventory_release_events_p202507", null)
+        ));
+        ReleaseEventPartitionMaintainer maintainer = new ReleaseEventPartitionMaintainer(jdbcTemplate, meterRegistry, true, 3, 12);
+
+        maintainer.maintain(YearMonth.of(2026, 10));
+
+        var ordered = inOrder(jdbcTemplate);
+        ordered.verify(jdbcTemplate).execute("alter table inventory_release_events detach partition inventory_release_events_p202508 concurrently");
+        ordered.verify(jdbcTemplate).execute("drop table if exists inventory_release_events_p202508");
+        verify(jdbcTemplate).execute("alter table inventory_release_events detach partition inventory_release_events_p202509 finalize");
+        verify(jdbcTemplate).execute("drop table if exists inventory_release_events_p202509");
+        verify(jdbcTemplate).execute("drop table if exists inventory_release_events_p202507");
+        verify(jdbcTemplate, never()).execute("drop table if exists inventory_release_events_p202510");
+        verify(jdbcTemplate).update(eq("delete from inventory_release_event_orders where created_at < ?"), any(Object[].class));
+        verify(jdbcTemplate).update(eq("delete from inventory_release_event_items where created_at < ?"), any(Object[].class));
+        assertEquals(3.0, meterRegistry.counter("inventory_release_event_partitions", "action", "dropped").count());
+    }
+
+    private static Map<String, Object> partition(String name, Boolean detachPending) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("name", name);
+        row.put("detach_pending", detachPending);
+        return row;
+    }
+}
@@ -0,0 +1,92 @@
+package com.cloud.inventory.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReleaseEventTailWatcherTest {
+
+    private static final Instant T = Instant.parse("2026-02-11T10:00:00Z");
+
+    private InventoryReleaseAuditService auditService;
+    private ReleaseEventTailWatcher watcher;
+
+    @BeforeEach
+    void setUp() {
+        auditService = mock(InventoryReleaseAuditService.class);
+        watcher = new ReleaseEventTailWatcher(auditService, new SimpleMeterRegistry(), 2, 1, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        watcher.shutdown();
+    }
+
+    @Test
+    void shouldOnlyRequeryWaitersBehindTheNewestEvent() throws InterruptedException {
+        ReleaseEventsCursor.Decoded since = new ReleaseEventsCursor.Decoded(T, UUID.randomUUID());
+        AtomicInteger queries = new AtomicInteger();
+        DeferredResult<String> result = watcher.await(since, () -> {
+            queries.incrementAndGet();
+            return Optional.of("new");
+        }, "timeout", Duration.ofSeconds(30));
+
+        when(auditService.newestPosition()).thenReturn(Optional.of(since));
+        watcher.poll();
+        assertEquals(0, queries.get());
+
+        when(auditService.newestPosition()).thenReturn(Optional.of(new ReleaseEventsCursor.Decoded(T.plusNanos(1_000), UUID.randomUUID())));
+        watcher.poll();
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!result.hasResult() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals("new", result.getResult());
+        assertEquals(1, queries.get());
+    }
+
+    @Test
+    void shouldKeepWaitingWhenTheQueryFindsNothingForItsFilters() throws InterruptedException {
+        AtomicInteger queries = new AtomicInteger();
+        DeferredResult<String> result = watcher.await(null, () -> {
+            queries.incrementAndGet();
+            return Optional.empty();
+        }, "timeout", Duration.ofSeconds(30));
+        when(auditService.newestPosition()).thenReturn(Optional.of(new ReleaseEventsCursor.Decoded(T, UUID.randomUUID())));
+
+        watcher.poll();
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (queries.get() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(1, queries.get());
+        assertFalse(result.hasResult());
+    }
+
+    @Test
+    void shouldRejectWaitersBeyondTheLimit() {
+        watcher.await(null, Optional::empty, "timeout", Duration.ofSeconds(30));
+        watcher.await(null, Optional::empty, "timeout", Duration.ofSeconds(30));
+
+        assertThrows(ResponseStatusException.class,
+                () -> watcher.await(null, Optional::empty, "timeout", Duration.ofSeconds(30)));
+        assertEquals(2, watcher.waiting());
+    }
+}
@@ -5,29 +5,89 @@ import org.springframework.web.server.ResponseStatusException;
 
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ReleaseEventsCursorTest {
 
+    private static final int NO_FILTERS = ReleaseEventsCursor.filterHash(null, null, null);
+
+    /**
+     * {@code ORDER BY created_at DESC, id DESC} as Postgres sorts it: uuid compares as unsigned bytes.
+     */
+    private static final Comparator<Row> NEWEST_FIRST = Comparator.comparing(Row::createdAt)
+            .thenComparing(Row::id, (a, b) -> {
+                int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+                return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+            })
+            .reversed();
+
     @Test
     void encodeDecodeRoundtrip() {
         Instant createdAt = Instant.parse("2026-02-11T10:00:00Z");
         UUID id = UUID.fromString("a32ee3e5-0f81-4a88-a361-f1f2158dfdbf");
 
-        String cursor = ReleaseEventsCursor.encode(createdAt, id);
-        ReleaseEventsCursor.Decoded decoded = ReleaseEventsCursor.decode(cursor);
+        String cursor = ReleaseEventsCursor.encode(createdAt, id, NO_FILTERS);
+        ReleaseEventsCursor.Decoded decoded = ReleaseEventsCursor.decode(cursor, NO_FILTERS);
 
         assertEquals(createdAt, decoded.createdAt());
         assertEquals(id, decoded.id());
     }
 
+    @Test
+    void encodeKeepsMicrosecondsAndIsShorterThanTheTextCursor() {
+        Instant createdAt = Instant.parse("2026-02-11T10:00:00.123456Z");
+        UUID id = UUID.fromString("a32ee3e5-0f81-4a88-a361-f1f2158dfdbf");
+        String legacy = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((createdAt.toEpochMilli() + ":" + id).getBytes(StandardCharsets.UTF_8));
+
+        String cursor = ReleaseEventsCursor.encode(createdAt, id, NO_FILTERS);
+
+        assertEquals(createdAt, ReleaseEventsCursor.decode(cursor, NO_FILTERS).createdAt());
+        assertEquals(39, cursor.length());
+        assertTrue(cursor.length() < legacy.length());
+    }
+
+    @Test
+    void decodeAcceptsLegacyTextCursor() {
+        UUID id = UUID.fromString("a32ee3e5-0f81-4a88-a361-f1f2158dfdbf");
+        String legacy = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("1770804000123:" + id).getBytes(StandardCharsets.UTF_8));
+
+        ReleaseEventsCursor.Decoded decoded = ReleaseEventsCursor.decode(legacy, NO_FILTERS);
+
+        assertEquals(Instant.ofEpochMilli(1770804000123L), decoded.createdAt());
+        assertEquals(id, decoded.id());
+    }
+
+    @Test
+    void decodeRejectsCursorIssuedForOtherFilters() {
+        UUID orderId = UUID.fromString("aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
+        Instant from = Instant.parse("2026-02-01T00:00:00Z");
+        int issuedFor = ReleaseEventsCursor.filterHash(orderId, from, null);
+        String cursor = ReleaseEventsCursor.encode(Instant.parse("2026-02-11T10:00:00Z"), UUID.randomUUID(), issuedFor);
+
+        assertEquals(issuedFor, ReleaseEventsCursor.filterHash(orderId, from, null));
+        assertThrows(ResponseStatusException.class, () -> ReleaseEventsCursor.decode(cursor, NO_FILTERS));
+        assertThrows(ResponseStatusException.class,
+                () -> ReleaseEventsCursor.decode(cursor, ReleaseEventsCursor.filterHash(orderId, null, from)));
+        assertThrows(ResponseStatusException.class,
+                () -> ReleaseEventsCursor.decode(cursor, ReleaseEventsCursor.filterHash(orderId, from.plusNanos(1_000), null)));
+        assertNotEquals(ReleaseEventsCursor.filterHash(null, Instant.EPOCH, null), NO_FILTERS);
+    }
+
     @Test
     void decodeRejectsInvalidBase64() {
-        assertThrows(ResponseStatusException.class, () -> ReleaseEventsCursor.decode("!!!"));
+        assertThrows(ResponseStatusException.class, () -> ReleaseEventsCursor.decode("!!!", NO_FILTERS));
     }
 
     @Test
@@ -36,7 +96,70 @@ class ReleaseEventsCursorTest {
         String cursor = Base64.getUrlEncoder().withoutPadding()
                 .encodeToString(payload.getBytes(StandardCharsets.UTF_8));
 
-        assertThrows(ResponseStatusException.class, () -> ReleaseEventsCursor.decode(cursor));
+        assertThrows(ResponseStatusException.class, () -> ReleaseEventsCursor.decode(cursor, NO_FILTERS));
+    }
+
+    @Test
+    void pagingVisitsEveryRowOnceWhenTimestampsTieAcrossMillisecondBoundaries() {
+        List<Row> rows = tieHeavyRows(20_000);
+        List<Row> expected = rows.stream().sorted(NEWEST_FIRST).toList();
+
+        for (int pageSize : new int[]{7, 100, 999}) {
+            List<Row> paged = pageThrough(rows, pageSize, false);
+            assertEquals(expected, paged, "page size " + pageSize);
+        }
+        // The millisecond text cursor skips rows that share the cursor's millisecond but are later within it.
+        assertTrue(pageThrough(rows, 100, true).size() < expected.size());
     }
-}
 
+    private static List<Row> pageThrough(List<Row> rows, int pageSize, boolean millisecondCursor) {
+        List<Row> sorted = rows.stream().sorted(NEWEST_FIRST).toList();
+        List<Row> visited = new ArrayList<>();
+        String cursor = null;
+        while (true) {
+            ReleaseEventsCursor.Decoded after = cursor == null ? null : ReleaseEventsCursor.decode(cursor, NO_FILTERS);
+            List<Row> page = sorted.stream()
+                    .filter(row -> after == null || isAfter(row, after))
+                    .limit(pageSize + 1L)
+                    .toList();
+            boolean hasMore = page.size() > pageSize;
+            List<Row> items = hasMore ? page.subList(0, pageSize) : page;
+            visited.addAll(items);
+            if (!hasMore) {
+                return visited;
+            }
+            Row last = items.get(items.size() - 1);
+            cursor = millisecondCursor
+                    ? Base64.getUrlEncoder().withoutPadding().encodeToString(
+                            (last.createdAt().toEpochMilli() + ":" + last.id()).getBytes(StandardCharsets.UTF_8))
+                    : ReleaseEventsCursor.encode(last.createdAt(), last.id(), NO_FILTERS);
+        }
+    }
+
+    /**
+     * The service's keyset predicate, {@code created_at <= :at AND (created_at < :at OR id < :id)}.
+     */
+    private static boolean isAfter(Row row, ReleaseEventsCursor.Decoded after) {
+        Row cursorRow = new Row(after.createdAt(), after.id());
+        return !row.createdAt().isAfter(after.createdAt()) && NEWEST_FIRST.compare(row, cursorRow) > 0;
+    }
+
+    /**
+     * Rows crowded onto a handful of microsecond timestamps on both sides of millisecond boundaries, many sharing
+     * the exact same microsecond.
+     */
+    private static List<Row> tieHeavyRows(int count) {
+        Random random = new Random(7);
+        Instant base = Instant.parse("2026-02-11T10:00:00Z");
+        long[] offsetsMicros = {998, 999, 1_000, 1_001, 1_999, 2_000, 2_001, 500_000};
+        List<Row> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long micros = offsetsMicros[random.nextInt(offsetsMicros.length)];
+            rows.add(new Row(base.plusNanos(micros * 1_000), new UUID(random.nextLong(), random.nextLong())));
+        }
+        return rows;
+    }
+
+    private record Row(Instant createdAt, UUID id) {
+    }
+}
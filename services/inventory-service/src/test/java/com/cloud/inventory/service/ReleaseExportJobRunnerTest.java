@@ -0,0 +1,164 @@
+package com.cloud.inventory.service;
+
+import com.cloud.inventory.domain.InventoryReleaseEventEntity;
+import com.cloud.inventory.domain.ReleaseExportJobEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReleaseExportJobRunnerTest {
+
+    @TempDir
+    Path directory;
+
+    private ReleaseExportJobService jobService;
+    private ReleaseExportJobRunner runner;
+    private final InventoryReleaseEventEntity first = event(3);
+    private final InventoryReleaseEventEntity second = event(2);
+    private final InventoryReleaseEventEntity third = event(1);
+
+    @BeforeEach
+    void setUp() {
+        jobService = mock(ReleaseExportJobService.class);
+        when(jobService.exportFile(any())).thenAnswer(invocation -> directory.resolve(invocation.getArgument(0) + ".csv.gz"));
+        when(jobService.checkpoint(any(), eq("node-1"), anyLong(), anyLong(), any(), any())).thenReturn(true);
+        when(jobService.countRows(any())).thenReturn(3L);
+        when(jobService.directory()).thenReturn(directory);
+        runner = new ReleaseExportJobRunner(jobService, new SimpleMeterRegistry(), "node-1", 1, 2, 60, 24, 168);
+    }
+
+    @Test
+    void shouldWriteChunksAsGzipMembersAndComplete() throws IOException {
+        ReleaseExportJobEntity job = runningJob();
+        when(jobService.readChunk(eq(job), isNull(), isNull(), anyInt())).thenReturn(List.of(first, second));
+        when(jobService.readChunk(job, second.getCreatedAt(), second.getId(), 2)).thenReturn(List.of(third));
+
+        runner.run(job);
+
+        assertEquals(csv(first, second, third), gunzip(jobService.exportFile(job.getId())));
+        verify(jobService).recordTotalRows(job.getId(), 3L);
+        verify(jobService).checkpoint(eq(job.getId()), eq("node-1"), eq(3L), anyLong(), eq(third.getCreatedAt()), eq(third.getId()));
+        verify(jobService).complete(job.getId(), "node-1");
+    }
+
+    @Test
+    void shouldResumeFromCheckpointAndDropUncommittedTail() throws IOException {
+        ReleaseExportJobEntity crashed = runningJob();
+        when(jobService.readChunk(eq(crashed), isNull(), isNull(), anyInt())).thenReturn(List.of(first, second));
+        when(jobService.readChunk(crashed, second.getCreatedAt(), second.getId(), 2))
+                .thenThrow(new IllegalStateException("connection reset"));
+        runner.run(crashed);
+        ArgumentCaptor<Long> committedBytes = ArgumentCaptor.forClass(Long.class);
+        verify(jobService).checkpoint(eq(crashed.getId()), eq("node-1"), eq(2L), committedBytes.capture(), any(), any());
+        Path file = jobService.exportFile(crashed.getId());
+        // A chunk written after the last checkpoint, e.g. by a process that died before committing it.
+        Files.write(file, new byte[]{0x1f, (byte) 0x8b, 8, 0, 42}, StandardOpenOption.APPEND);
+
+        ReleaseExportJobEntity resumed = runningJob(crashed.getId());
+        resumed.setTotalRows(3L);
+        resumed.checkpoint(2, committedBytes.getValue(), second.getCreatedAt(), second.getId(), Instant.now());
+        when(jobService.readChunk(resumed, second.getCreatedAt(), second.getId(), 2)).thenReturn(List.of(third));
+        runner.run(resumed);
+
+        assertEquals(csv(first, second, third), gunzip(file));
+        verify(jobService).complete(crashed.getId(), "node-1");
+    }
+
+    @Test
+    void shouldStopWhenAnotherInstanceTookTheJobOver() throws IOException {
+        ReleaseExportJobEntity job = runningJob();
+        when(jobService.readChunk(eq(job), isNull(), isNull(), anyInt())).thenReturn(List.of(first, second));
+        when(jobService.checkpoint(eq(job.getId()), eq("node-1"), anyLong(), anyLong(), any(), any())).thenReturn(false);
+
+        runner.run(job);
+
+        verify(jobService, never()).complete(any(), anyString());
+        verify(jobService, never()).fail(any(), anyString(), anyString());
+    }
+
+    @Test
+    void shouldExpireJobsAndDeleteExportFilesPastRetention() throws IOException {
+        Path expired = exportFileWrittenAgo(UUID.randomUUID(), Duration.ofHours(25));
+        Path recent = exportFileWrittenAgo(UUID.randomUUID(), Duration.ofHours(1));
+        Path unrelated = directory.resolve("backup.csv.gz");
+        Files.write(unrelated, new byte[]{1});
+        Files.setLastModifiedTime(unrelated, FileTime.from(Instant.now().minus(Duration.ofDays(30))));
+
+        runner.purgeExpired();
+
+        assertFalse(Files.exists(expired));
+        assertTrue(Files.exists(recent));
+        assertTrue(Files.exists(unrelated));
+        ArgumentCaptor<Instant> expireCutoff = ArgumentCaptor.forClass(Instant.class);
+        ArgumentCaptor<Instant> deleteCutoff = ArgumentCaptor.forClass(Instant.class);
+        verify(jobService).expireFinished(expireCutoff.capture());
+        verify(jobService).deleteExpired(deleteCutoff.capture(), anyInt());
+        assertEquals(Duration.ofHours(168), Duration.between(deleteCutoff.getValue(), expireCutoff.getValue()));
+    }
+
+    private Path exportFileWrittenAgo(UUID jobId, Duration age) throws IOException {
+        Path file = jobService.exportFile(jobId);
+        Files.write(file, new byte[]{1});
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(age)));
+        return file;
+    }
+
+    private static ReleaseExportJobEntity runningJob() {
+        return runningJob(UUID.randomUUID());
+    }
+
+    private static ReleaseExportJobEntity runningJob(UUID jobId) {
+        ReleaseExportJobEntity job = new ReleaseExportJobEntity(jobId, null, null, null, Instant.now());
+        job.markRunning("node-1", Instant.now());
+        return job;
+    }
+
+    private static InventoryReleaseEventEntity event(int minute) {
+        return new InventoryReleaseEventEntity(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+                "PAYMENT_FAILED", Instant.parse("2026-02-11T10:00:00Z").plusSeconds(60L * minute));
+    }
+
+    private static String csv(InventoryReleaseEventEntity... events) {
+        StringBuilder csv = new StringBuilder(InventoryReleaseAuditService.CSV_HEADER);
+        for (InventoryReleaseEventEntity event : events) {
+            csv.append(InventoryReleaseAuditService.csvLine(event.getId(), event.getOrderId(), event.getReservationId(),
+                    event.getReason(), event.getCreatedAt()));
+        }
+        return csv.toString();
+    }
+
+    private static String gunzip(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
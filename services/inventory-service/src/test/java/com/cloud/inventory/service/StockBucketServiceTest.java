@@ -0,0 +1,147 @@
+package com.cloud.inventory.service;
+
+import com.cloud.inventory.cache.InventoryStockCacheService;
+import com.cloud.inventory.domain.InventoryReservationItemEntity;
+import com.cloud.inventory.domain.SkuStockBucketEntity;
+import com.cloud.inventory.domain.SkuStockEntity;
+import com.cloud.inventory.engine.RedisReservationEngine;
+import com.cloud.inventory.hotsku.HotSkuLeaseManager;
+import com.cloud.inventory.repo.InventoryReservationRepository;
+import com.cloud.inventory.repo.SkuStockBucketRepository;
+import com.cloud.inventory.repo.SkuStockRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StockBucketServiceTest {
+
+    private static final String SKU = "SKU-001";
+
+    private SkuStockRepository skuStockRepository;
+    private SkuStockBucketRepository bucketRepository;
+    private InventoryReservationRepository reservationRepository;
+    private HotSkuLeaseManager hotSkuLeaseManager;
+    private StockBucketService service;
+
+    @BeforeEach
+    void setUp() {
+        skuStockRepository = mock(SkuStockRepository.class);
+        bucketRepository = mock(SkuStockBucketRepository.class);
+        reservationRepository = mock(InventoryReservationRepository.class);
+        hotSkuLeaseManager = mock(HotSkuLeaseManager.class);
+        when(bucketRepository.save(any(SkuStockBucketEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        service = new StockBucketService(
+                skuStockRepository,
+                bucketRepository,
+                reservationRepository,
+                mock(InventoryStockCacheService.class),
+                hotSkuLeaseManager,
+                mock(RedisReservationEngine.class),
+                new SimpleMeterRegistry(),
+                64
+        );
+    }
+
+    @Test
+    void shouldReserveFromSingleUnlockedBucketWhenOneCoversTheRequest() {
+        SkuStockBucketEntity bucket = bucket(2, 10, 0);
+        when(bucketRepository.lockAnyWithAvailable(SKU, 3)).thenReturn(Optional.of(bucket));
+
+        StockBucketService.BucketReservation reservation = service.reserve(SKU, 3);
+
+        assertEquals(List.of(new StockBucketService.Draw(SKU, 2, 3)), reservation.draws());
+        assertEquals(7, bucket.getAvailableQty());
+        assertEquals(3, bucket.getReservedQty());
+    }
+
+    @Test
+    void shouldDrawAcrossAllBucketsWhenNoSingleBucketSuffices() {
+        SkuStockBucketEntity first = bucket(0, 2, 0);
+        SkuStockBucketEntity second = bucket(1, 4, 0);
+        when(bucketRepository.lockAnyWithAvailable(SKU, 5)).thenReturn(Optional.empty());
+        when(bucketRepository.findAllBySkuIdForUpdate(SKU)).thenReturn(List.of(first, second));
+
+        StockBucketService.BucketReservation reservation = service.reserve(SKU, 5);
+        StockBucketService.BucketReservation tooMuch = service.reserve(SKU, 5);
+
+        assertEquals(List.of(new StockBucketService.Draw(SKU, 0, 2), new StockBucketService.Draw(SKU, 1, 3)), reservation.draws());
+        assertFalse(tooMuch.isDrawn());
+        assertEquals(1, tooMuch.availableQty());
+    }
+
+    @Test
+    void shouldConsolidateReservedIntoFirstBucketOnResize() {
+        SkuStockEntity stock = new SkuStockEntity(SKU, 10, 4, Instant.now());
+        when(skuStockRepository.findAllBySkuIdInForUpdate(Set.of(SKU))).thenReturn(List.of(stock));
+        when(bucketRepository.findAllBySkuIdForUpdate(SKU)).thenReturn(List.of());
+
+        List<SkuStockBucketEntity> buckets = service.resize(SKU, 3);
+
+        assertEquals(3, buckets.size());
+        assertEquals(List.of(4, 3, 3), buckets.stream().map(SkuStockBucketEntity::getAvailableQty).toList());
+        assertEquals(List.of(4, 0, 0), buckets.stream().map(SkuStockBucketEntity::getReservedQty).toList());
+        assertEquals(0, stock.getAvailableQty());
+        assertEquals(3, stock.getBucketCount());
+        verify(reservationRepository).reassignItemBuckets(SKU, 0);
+    }
+
+    @Test
+    void shouldRejectBucketingForHotSku() {
+        when(hotSkuLeaseManager.isHot(SKU)).thenReturn(true);
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> service.resize(SKU, 4));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+
+    @Test
+    void shouldFollowItemToItsCurrentBucketWhenReleasing() {
+        UUID itemId = UUID.randomUUID();
+        InventoryReservationItemEntity item = new InventoryReservationItemEntity(itemId, SKU, 2, null, 3);
+        SkuStockBucketEntity stale = bucket(3, 0, 0);
+        SkuStockBucketEntity current = bucket(0, 0, 2);
+        when(bucketRepository.findByIdForUpdate(SKU, 3)).thenReturn(Optional.of(stale));
+        when(bucketRepository.findByIdForUpdate(SKU, 0)).thenReturn(Optional.of(current));
+        when(reservationRepository.findItemBucketNo(itemId)).thenReturn(0);
+
+        service.release(item);
+
+        assertEquals(0, stale.getReservedQty());
+        assertEquals(0, current.getReservedQty());
+        assertEquals(2, current.getAvailableQty());
+    }
+
+    @Test
+    void shouldRebalanceOnlyWhenABucketFallsBelowHalfItsShare() {
+        SkuStockBucketEntity drained = bucket(0, 1, 0);
+        SkuStockBucketEntity full = bucket(1, 19, 0);
+        when(bucketRepository.lockUnlockedBySkuId(SKU)).thenReturn(List.of(drained, full));
+
+        assertTrue(service.rebalance(SKU));
+        assertEquals(10, drained.getAvailableQty());
+        assertFalse(service.rebalance(SKU));
+        assertArrayEquals(new int[]{3, 3, 2}, StockBucketService.split(8, 3));
+    }
+
+    private SkuStockBucketEntity bucket(int bucketNo, int available, int reserved) {
+        return new SkuStockBucketEntity(SKU, bucketNo, available, reserved, Instant.now());
+    }
+}
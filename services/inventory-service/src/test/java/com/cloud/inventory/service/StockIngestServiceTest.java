@@ -0,0 +1,103 @@
+package com.cloud.inventory.service;
+
+import com.cloud.inventory.cache.InventoryStockCacheService;
+import com.cloud.inventory.engine.RedisReservationEngine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StockIngestServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private InventoryStockCacheService stockCacheService;
+    private RedisReservationEngine reservationEngine;
+    private StockIngestService ingestService;
+    private final List<List<Object>> batches = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        stockCacheService = mock(InventoryStockCacheService.class);
+        reservationEngine = mock(RedisReservationEngine.class);
+        ingestService = new StockIngestService(jdbcTemplate, stockCacheService, reservationEngine,
+                mock(StockUpdateStream.class), new ObjectMapper(), new SimpleMeterRegistry(), 2);
+
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(mock(PreparedStatement.class));
+        when(connection.createArrayOf(eq("varchar"), any())).thenAnswer(invocation -> {
+            batches.add(Arrays.asList((Object[]) invocation.getArgument(1)));
+            return null;
+        });
+        // The statement reports back every SKU except bucketed ones, as its ON CONFLICT ... WHERE would.
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(RowMapper.class))).thenAnswer(invocation -> {
+            ((PreparedStatementCreator) invocation.getArgument(0)).createPreparedStatement(connection);
+            return batches.get(batches.size() - 1).stream()
+                    .map(String::valueOf)
+                    .filter(skuId -> !skuId.startsWith("BUCKETED"))
+                    .toList();
+        });
+    }
+
+    @Test
+    void shouldUpsertCsvInSortedBatchesAndEvictWrittenSkus() {
+        StockIngestResult result = ingest(StockIngestService.Format.CSV, """
+                sku_id,available_qty
+                SKU-2,5
+                SKU-1,7
+                "BUCKETED-1",3
+                """);
+
+        assertEquals(3, result.received());
+        assertEquals(2, result.upserted());
+        assertEquals(1, result.skipped());
+        assertEquals(List.of(List.of("SKU-1", "SKU-2"), List.of("BUCKETED-1")), batches);
+        verify(stockCacheService).evictAll(List.of("SKU-1", "SKU-2"));
+        verify(stockCacheService).evictAll(List.of());
+    }
+
+    @Test
+    void shouldRejectInvalidNdjsonLinesAndSkipEngineSkus() {
+        when(reservationEngine.isEngineSku("SKU-ENGINE")).thenReturn(true);
+
+        StockIngestResult result = ingest(StockIngestService.Format.NDJSON, """
+                {"skuId":"SKU-1","availableQty":4}
+                {"skuId":"SKU-ENGINE","availableQty":9}
+                {"skuId":"SKU-3","availableQty":-1}
+                not json
+                """);
+
+        assertEquals(2, result.received());
+        assertEquals(1, result.upserted());
+        assertEquals(1, result.skipped());
+        assertEquals(2, result.rejected());
+        assertTrue(result.errors().get(0).startsWith("line 3:"));
+        assertTrue(result.errors().get(1).startsWith("line 4:"));
+        assertEquals(List.of(List.of("SKU-1")), batches);
+    }
+
+    private StockIngestResult ingest(StockIngestService.Format format, String body) {
+        return ingestService.ingest(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), format);
+    }
+}
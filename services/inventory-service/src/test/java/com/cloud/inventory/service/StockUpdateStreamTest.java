@@ -0,0 +1,230 @@
+package com.cloud.inventory.service;
+
+import com.cloud.inventory.domain.SkuStockEntity;
+import com.cloud.inventory.engine.RedisReservationEngine;
+import com.cloud.inventory.repo.SkuStockRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StockUpdateStreamTest {
+
+    private static final Instant T = Instant.parse("2026-02-11T10:00:00Z");
+
+    private SkuStockRepository skuStockRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private final List<Runnable> sends = new ArrayList<>();
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+    private StockUpdateStream stream;
+
+    @BeforeEach
+    void setUp() {
+        skuStockRepository = mock(SkuStockRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        stream = new StockUpdateStream(skuStockRepository, mock(StockBucketService.class),
+                mock(RedisReservationEngine.class), mock(StringRedisTemplate.class), meterRegistry, true,
+                "inventory:stock:changes", 2, 2, 60_000, 5_000, sends::add) {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    @Test
+    void shouldSendOnlyTheLatestValueToASubscriberThatFellBehind() {
+        stream.subscribe(Set.of("SKU-A"), () -> List.of(stock("SKU-A", 5, 0)));
+
+        when(skuStockRepository.findAllById(List.of("SKU-A"))).thenReturn(List.of(stock("SKU-A", 4, 1)));
+        stream.publishAfterCommit(List.of("SKU-A"));
+        stream.flush();
+        when(skuStockRepository.findAllById(List.of("SKU-A"))).thenReturn(List.of(stock("SKU-A", 3, 2)));
+        stream.publishAfterCommit(List.of("SKU-A"));
+        stream.flush();
+        runSends();
+
+        assertEquals(List.of(new StockUpdateStream.Update("SKU-A", 3, 2, T)), emitters.get(0).updates);
+        assertEquals(2.0, meterRegistry.counter("inventory_stock_stream_updates_coalesced").count());
+    }
+
+    @Test
+    void shouldNotifyOnlySubscribersOfChangedSkusAnnouncedByOtherInstances() {
+        stream.subscribe(Set.of("SKU-A"), List::of);
+        stream.subscribe(Set.of("SKU-B"), List::of);
+        when(skuStockRepository.findAllById(List.of("SKU-B"))).thenReturn(List.of(stock("SKU-B", 7, 1)));
+
+        stream.onChangeMessage("other-instance\nSKU-B\nSKU-C");
+        stream.flush();
+        runSends();
+
+        assertTrue(emitters.get(0).updates.isEmpty());
+        assertEquals(List.of(new StockUpdateStream.Update("SKU-B", 7, 1, T)), emitters.get(1).updates);
+        verify(skuStockRepository, never()).findAllById(List.of("SKU-B", "SKU-C"));
+    }
+
+    @Test
+    void shouldRejectTooManySkusAndSubscribers() {
+        assertThrows(ResponseStatusException.class, () -> stream.subscribe(Set.of(), List::of));
+        assertThrows(ResponseStatusException.class, () -> stream.subscribe(Set.of("A", "B", "C"), List::of));
+
+        stream.subscribe(Set.of("SKU-A"), List::of);
+        stream.subscribe(Set.of("SKU-A"), List::of);
+
+        assertThrows(ResponseStatusException.class, () -> stream.subscribe(Set.of("SKU-A"), List::of));
+    }
+
+    @Test
+    void shouldNotKeepSubscriberWhenSnapshotFails() {
+        assertThrows(IllegalStateException.class, () -> stream.subscribe(Set.of("SKU-A"), () -> {
+            throw new IllegalStateException("db down");
+        }));
+
+        assertEquals(0, stream.subscriberCount());
+    }
+
+    @Test
+    void shouldDropSubscriberWhoseConnectionFailed() {
+        stream.subscribe(Set.of("SKU-A"), () -> List.of(stock("SKU-A", 5, 0)));
+        emitters.get(0).failing = true;
+        runSends();
+
+        assertEquals(0, stream.subscriberCount());
+        stream.publishAfterCommit(List.of("SKU-A"));
+        stream.flush();
+        verify(skuStockRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void shouldDropSlowSubscriberAndKeepServingOthersWhileItsSendIsStuck() throws Exception {
+        ThreadPoolExecutor pool = (ThreadPoolExecutor) Executors.newFixedThreadPool(1);
+        BlockingEmitter stuck = new BlockingEmitter();
+        RecordingEmitter healthy = new RecordingEmitter();
+        List<SseEmitter> opened = new ArrayList<>(List.of(stuck, healthy));
+        StockUpdateStream poolStream = new StockUpdateStream(skuStockRepository, mock(StockBucketService.class),
+                mock(RedisReservationEngine.class), mock(StringRedisTemplate.class), meterRegistry, true,
+                "inventory:stock:changes", 2, 2, 60_000, 1, pool) {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                return opened.remove(0);
+            }
+        };
+        try {
+            poolStream.subscribe(Set.of("SKU-A"), () -> List.of(stock("SKU-A", 5, 0)));
+            assertTrue(stuck.sending.await(5, TimeUnit.SECONDS));
+            poolStream.subscribe(Set.of("SKU-A"), () -> List.of(stock("SKU-A", 5, 0)));
+            Thread.sleep(5);
+
+            poolStream.dropSlowSubscribers();
+
+            assertEquals(1, poolStream.subscriberCount());
+            assertEquals(1.0, meterRegistry.counter("inventory_stock_stream_slow_subscribers_dropped").count());
+            // The only pool thread is still stuck, yet the healthy subscriber is served by the lent one.
+            assertTrue(healthy.sent.await(5, TimeUnit.SECONDS));
+            assertEquals(List.of(new StockUpdateStream.Update("SKU-A", 5, 0, T)), healthy.updates);
+
+            stuck.release.countDown();
+            assertTrue(stuck.completed.await(5, TimeUnit.SECONDS));
+            assertEquals(1, pool.getCorePoolSize());
+            assertTrue(stuck.interrupted);
+        } finally {
+            stuck.release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldKeepSubscriberWhoseSendIsWithinTheTimeout() {
+        stream.subscribe(Set.of("SKU-A"), () -> List.of(stock("SKU-A", 5, 0)));
+
+        stream.dropSlowSubscribers();
+        runSends();
+
+        assertEquals(1, stream.subscriberCount());
+        assertFalse(emitters.get(0).updates.isEmpty());
+    }
+
+    private void runSends() {
+        while (!sends.isEmpty()) {
+            sends.remove(0).run();
+        }
+    }
+
+    private static SkuStockEntity stock(String skuId, int available, int reserved) {
+        return new SkuStockEntity(skuId, available, reserved, T);
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<StockUpdateStream.Update> updates = new CopyOnWriteArrayList<>();
+        private final CountDownLatch sent = new CountDownLatch(1);
+        private boolean failing;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("broken pipe");
+            }
+            for (var part : builder.build()) {
+                if (part.getData() instanceof StockUpdateStream.Update update) {
+                    updates.add(update);
+                }
+            }
+            sent.countDown();
+        }
+    }
+
+    /**
+     * A client that stops reading: sends block, and like a socket write they do not give up when interrupted.
+     */
+    private static final class BlockingEmitter extends SseEmitter {
+
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private volatile boolean interrupted;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sending.countDown();
+            while (true) {
+                try {
+                    release.await();
+                    return;
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                }
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+    }
+}
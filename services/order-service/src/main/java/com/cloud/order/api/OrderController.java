@@ -41,9 +41,12 @@ public class OrderController {
     @ApiResponses({
             @ApiResponse(responseCode = "201", description = "Order created"),
             @ApiResponse(responseCode = "200", description = "Idempotent key reused existing order"),
-            @ApiResponse(responseCode = "400", description = "Invalid request or token subject mismatch"),
+            @ApiResponse(responseCode = "400", description = "Invalid request, token subject mismatch, or unknown/inactive SKU"),
             @ApiResponse(responseCode = "401", description = "Missing or invalid bearer token"),
-            @ApiResponse(responseCode = "403", description = "Bearer token does not include required role")
+            @ApiResponse(responseCode = "403", description = "Bearer token does not include required role"),
+            @ApiResponse(responseCode = "409", description = "Item price does not match the catalog price"),
+            @ApiResponse(responseCode = "429", description = "Concurrency limit reached; retry after the Retry-After delay"),
+            @ApiResponse(responseCode = "503", description = "Catalog snapshot is stale and stale policy is REJECT")
     })
     public ResponseEntity<OrderResponse> createOrder(
             @Parameter(description = "Client idempotency key", required = true)
@@ -61,7 +64,8 @@ public class OrderController {
     @Operation(summary = "Get order by ID")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Order found"),
-            @ApiResponse(responseCode = "404", description = "Order not found")
+            @ApiResponse(responseCode = "404", description = "Order not found"),
+            @ApiResponse(responseCode = "429", description = "Concurrency limit reached; retry after the Retry-After delay")
     })
     public OrderResponse getOrder(@PathVariable("orderId") UUID orderId) {
         return orderApplicationService.getOrder(orderId);
@@ -0,0 +1,12 @@
+package com.cloud.order.catalog;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record CatalogProduct(
+        String skuId,
+        BigDecimal price,
+        boolean active,
+        Instant updatedAt
+) {
+}
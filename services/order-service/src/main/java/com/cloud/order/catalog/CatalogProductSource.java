@@ -0,0 +1,12 @@
+package com.cloud.order.catalog;
+
+import java.time.Instant;
+import java.util.List;
+
+@FunctionalInterface
+public interface CatalogProductSource {
+    /**
+     * Fetches catalog products; a {@code null} {@code updatedSince} requests the full catalog.
+     */
+    List<CatalogProduct> fetchProducts(Instant updatedSince);
+}
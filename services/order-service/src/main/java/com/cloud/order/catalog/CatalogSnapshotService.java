@@ -0,0 +1,215 @@
+package com.cloud.order.catalog;
+
+import com.cloud.order.api.CreateOrderRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Locally replicated catalog used to validate order items without a remote call per request.
+ * <p>
+ * The snapshot is bulk-loaded on startup and kept fresh by delta pulls keyed on the highest {@code updatedAt}
+ * seen so far, with a periodic full reload to resynchronize. Readers always see an immutable map.
+ */
+@Service
+public class CatalogSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    // Re-read a small window behind the watermark so upserts that raced the previous pull are not missed.
+    private static final Duration DELTA_OVERLAP = Duration.ofSeconds(2);
+
+    private final CatalogProductSource productSource;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Duration maxStaleness;
+    private final Duration fullRefreshInterval;
+    private final StaleCatalogPolicy stalePolicy;
+    private final Supplier<Instant> clock;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final Counter staleBypassCounter;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    @Autowired
+    public CatalogSnapshotService(
+            CatalogProductSource productSource,
+            MeterRegistry meterRegistry,
+            @Value("${app.catalog.snapshot.enabled:false}") boolean enabled,
+            @Value("${app.catalog.snapshot.max-staleness-seconds:60}") long maxStalenessSeconds,
+            @Value("${app.catalog.snapshot.full-refresh-interval-seconds:600}") long fullRefreshIntervalSeconds,
+            @Value("${app.catalog.snapshot.stale-policy:REJECT}") StaleCatalogPolicy stalePolicy
+    ) {
+        this(productSource, meterRegistry, enabled, maxStalenessSeconds, fullRefreshIntervalSeconds, stalePolicy, Instant::now);
+    }
+
+    CatalogSnapshotService(CatalogProductSource productSource,
+                           MeterRegistry meterRegistry,
+                           boolean enabled,
+                           long maxStalenessSeconds,
+                           long fullRefreshIntervalSeconds,
+                           StaleCatalogPolicy stalePolicy,
+                           Supplier<Instant> clock) {
+        this.productSource = productSource;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxStaleness = Duration.ofSeconds(Math.max(maxStalenessSeconds, 1));
+        this.fullRefreshInterval = Duration.ofSeconds(Math.max(fullRefreshIntervalSeconds, 1));
+        this.stalePolicy = stalePolicy;
+        this.clock = clock;
+        this.staleBypassCounter = meterRegistry.counter("order_catalog_snapshot_stale_bypass");
+
+        Gauge.builder("order_catalog_snapshot_age_seconds", this, CatalogSnapshotService::snapshotAgeSeconds)
+                .register(meterRegistry);
+        Gauge.builder("order_catalog_snapshot_size", this, service -> service.snapshot.products().size())
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (enabled) {
+            refresh();
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.catalog.snapshot.refresh-interval-ms:5000}",
+            fixedDelayString = "${app.catalog.snapshot.refresh-interval-ms:5000}"
+    )
+    public void refreshScheduled() {
+        if (enabled) {
+            refresh();
+        }
+    }
+
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            Snapshot current = snapshot;
+            Instant now = clock.get();
+            boolean full = current.syncedAt() == null
+                    || now.isAfter(current.fullLoadedAt().plus(fullRefreshInterval));
+            String mode = full ? "full" : "delta";
+            try {
+                List<CatalogProduct> fetched = productSource.fetchProducts(
+                        full ? null : current.watermark().minus(DELTA_OVERLAP)
+                );
+                snapshot = full ? current.replacedBy(fetched, now) : current.mergedWith(fetched, now);
+                log.debug("Refreshed catalog snapshot mode={} fetched={} size={}",
+                        mode, fetched.size(), snapshot.products().size());
+            } catch (RuntimeException exception) {
+                meterRegistry.counter("order_catalog_snapshot_refresh_failures", "mode", mode).increment();
+                log.warn("Catalog snapshot refresh failed mode={} ageSeconds={}", mode, snapshotAgeSeconds(), exception);
+            }
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    public void validateItems(List<CreateOrderRequest.OrderItemRequest> items) {
+        if (!enabled) {
+            return;
+        }
+
+        Snapshot current = snapshot;
+        if (isStale(current)) {
+            if (stalePolicy == StaleCatalogPolicy.TRUST_CLIENT) {
+                staleBypassCounter.increment();
+                return;
+            }
+            reject("stale_snapshot");
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Catalog snapshot is stale; retry later");
+        }
+
+        for (CreateOrderRequest.OrderItemRequest item : items) {
+            String skuId = item.skuId().trim();
+            CatalogProduct product = current.products().get(skuId);
+            if (product == null) {
+                reject("unknown_sku");
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown skuId: " + skuId);
+            }
+            if (!product.active()) {
+                reject("inactive_sku");
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "SKU is not active: " + skuId);
+            }
+            BigDecimal catalogPrice = product.price().setScale(2, RoundingMode.HALF_UP);
+            if (catalogPrice.compareTo(item.price().setScale(2, RoundingMode.HALF_UP)) != 0) {
+                reject("price_mismatch");
+                throw new ResponseStatusException(
+                        HttpStatus.CONFLICT,
+                        "Price for " + skuId + " does not match catalog price " + catalogPrice
+                );
+            }
+        }
+    }
+
+    double snapshotAgeSeconds() {
+        Instant syncedAt = snapshot.syncedAt();
+        if (syncedAt == null) {
+            return Double.NaN;
+        }
+        return Duration.between(syncedAt, clock.get()).toMillis() / 1000.0;
+    }
+
+    private boolean isStale(Snapshot current) {
+        return current.syncedAt() == null || clock.get().isAfter(current.syncedAt().plus(maxStaleness));
+    }
+
+    private void reject(String reason) {
+        meterRegistry.counter("order_catalog_validation_rejections", "reason", reason).increment();
+    }
+
+    private record Snapshot(Map<String, CatalogProduct> products, Instant watermark, Instant syncedAt, Instant fullLoadedAt) {
+
+        private static final Snapshot EMPTY = new Snapshot(Map.of(), Instant.EPOCH, null, null);
+
+        private Snapshot replacedBy(List<CatalogProduct> fetched, Instant now) {
+            Map<String, CatalogProduct> products = new HashMap<>();
+            fetched.forEach(product -> products.put(product.skuId(), product));
+            return new Snapshot(Map.copyOf(products), maxUpdatedAt(Instant.EPOCH, fetched), now, now);
+        }
+
+        private Snapshot mergedWith(List<CatalogProduct> fetched, Instant now) {
+            if (fetched.isEmpty()) {
+                return new Snapshot(products, watermark, now, fullLoadedAt);
+            }
+            Map<String, CatalogProduct> merged = new HashMap<>(products);
+            fetched.forEach(product -> merged.merge(product.skuId(), product, Snapshot::newer));
+            return new Snapshot(Map.copyOf(merged), maxUpdatedAt(watermark, fetched), now, fullLoadedAt);
+        }
+
+        private static CatalogProduct newer(CatalogProduct existing, CatalogProduct candidate) {
+            return candidate.updatedAt().isBefore(existing.updatedAt()) ? existing : candidate;
+        }
+
+        private static Instant maxUpdatedAt(Instant initial, List<CatalogProduct> fetched) {
+            Instant max = initial;
+            for (CatalogProduct product : fetched) {
+                if (product.updatedAt().isAfter(max)) {
+                    max = product.updatedAt();
+                }
+            }
+            return max;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.cloud.order.catalog;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class HttpCatalogProductSource implements CatalogProductSource {
+
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final String productsUri;
+
+    public HttpCatalogProductSource(
+            ObjectMapper objectMapper,
+            @Value("${app.catalog.base-url:http://localhost:8085}") String baseUrl
+    ) {
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+        this.productsUri = stripTrailingSlash(baseUrl) + "/api/catalog/products";
+    }
+
+    @Override
+    public List<CatalogProduct> fetchProducts(Instant updatedSince) {
+        String uri = updatedSince == null
+                ? productsUri
+                : productsUri + "?updatedSince=" + URLEncoder.encode(updatedSince.toString(), StandardCharsets.UTF_8);
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(uri))
+                    .timeout(Duration.ofSeconds(5))
+                    .header("Accept", "application/json")
+                    .GET()
+                    .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Failed to fetch catalog products: HTTP " + response.statusCode());
+            }
+
+            JsonNode root = objectMapper.readTree(response.body());
+            if (!root.isArray()) {
+                throw new IllegalStateException("Invalid catalog products payload");
+            }
+
+            List<CatalogProduct> products = new ArrayList<>(root.size());
+            for (JsonNode node : root) {
+                String skuId = node.path("skuId").asText("").trim();
+                if (skuId.isEmpty() || !node.path("price").isNumber()) {
+                    continue;
+                }
+                products.add(new CatalogProduct(
+                        skuId,
+                        node.path("price").decimalValue(),
+                        node.path("active").asBoolean(false),
+                        Instant.parse(node.path("updatedAt").asText())
+                ));
+            }
+            return products;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while fetching catalog products", exception);
+        } catch (IllegalStateException exception) {
+            throw exception;
+        } catch (Exception exception) {
+            throw new IllegalStateException("Unable to fetch catalog products", exception);
+        }
+    }
+
+    private String stripTrailingSlash(String value) {
+        String trimmed = value.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+}
@@ -0,0 +1,12 @@
+package com.cloud.order.catalog;
+
+public enum StaleCatalogPolicy {
+    /**
+     * Reject order creation with 503 until the snapshot is fresh again.
+     */
+    REJECT,
+    /**
+     * Skip catalog validation and accept client-supplied prices.
+     */
+    TRUST_CLIENT
+}
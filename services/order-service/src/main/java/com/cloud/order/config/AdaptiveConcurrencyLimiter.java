@@ -0,0 +1,139 @@
+package com.cloud.order.config;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * AIMD concurrency limiter driven by observed request latency.
+ * <p>
+ * The limiter keeps a windowed minimum of request latency as the "no load" baseline. A completion slower than
+ * {@code baseline * latencyTolerance}, or one reported as dropped, shrinks the limit multiplicatively; a healthy
+ * completion while the limiter is at least half utilized grows it by one.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double latencyTolerance;
+    private final double backoffRatio;
+    private final int baselineWindowSize;
+    private final LongSupplier nanoClock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private double limit;
+    private long baselineRttNanos = Long.MAX_VALUE;
+    private long windowMinRttNanos = Long.MAX_VALUE;
+    private int windowSamples;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit,
+                                      int minLimit,
+                                      int maxLimit,
+                                      double latencyTolerance,
+                                      double backoffRatio,
+                                      int baselineWindowSize) {
+        this(initialLimit, minLimit, maxLimit, latencyTolerance, backoffRatio, baselineWindowSize, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(int initialLimit,
+                               int minLimit,
+                               int maxLimit,
+                               double latencyTolerance,
+                               double backoffRatio,
+                               int baselineWindowSize,
+                               LongSupplier nanoClock) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= minLimit <= maxLimit");
+        }
+        if (latencyTolerance < 1.0) {
+            throw new IllegalArgumentException("latencyTolerance must be >= 1.0");
+        }
+        if (backoffRatio <= 0.0 || backoffRatio >= 1.0) {
+            throw new IllegalArgumentException("backoffRatio must be between 0 and 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTolerance = latencyTolerance;
+        this.backoffRatio = backoffRatio;
+        this.baselineWindowSize = Math.max(baselineWindowSize, 1);
+        this.nanoClock = nanoClock;
+        this.limit = Math.min(Math.max(initialLimit, minLimit), maxLimit);
+    }
+
+    public Optional<Permit> tryAcquire() {
+        int currentLimit = getLimit();
+        while (true) {
+            int current = inFlight.get();
+            if (current >= currentLimit) {
+                rejected.incrementAndGet();
+                return Optional.empty();
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return Optional.of(new Permit(nanoClock.getAsLong(), current + 1));
+            }
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtStart, boolean dropped) {
+        windowMinRttNanos = Math.min(windowMinRttNanos, rttNanos);
+        if (++windowSamples >= baselineWindowSize) {
+            // Roll the window so the baseline can recover after a permanent latency shift (e.g. a slower DB).
+            baselineRttNanos = windowMinRttNanos;
+            windowMinRttNanos = Long.MAX_VALUE;
+            windowSamples = 0;
+        }
+        long baseline = Math.min(baselineRttNanos, windowMinRttNanos);
+
+        if (dropped || rttNanos > baseline * latencyTolerance) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+            return;
+        }
+        if (inFlightAtStart * 2 >= (int) limit) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+
+    public final class Permit {
+
+        private final long startedAtNanos;
+        private final int inFlightAtStart;
+        private boolean released;
+
+        private Permit(long startedAtNanos, int inFlightAtStart) {
+            this.startedAtNanos = startedAtNanos;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        public void onSuccess() {
+            release(false);
+        }
+
+        public void onDropped() {
+            release(true);
+        }
+
+        private void release(boolean dropped) {
+            if (released) {
+                return;
+            }
+            released = true;
+            inFlight.decrementAndGet();
+            onSample(nanoClock.getAsLong() - startedAtNanos, inFlightAtStart, dropped);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.cloud.order.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final String ORDERS_PATH = "/api/orders";
+
+    private final boolean enabled;
+    private final long retryAfterSeconds;
+    private final AdmissionBudget createOrderBudget;
+    private final AdmissionBudget getOrderBudget;
+
+    public AdmissionControlFilter(
+            MeterRegistry meterRegistry,
+            @Value("${app.admission.enabled:true}") boolean enabled,
+            @Value("${app.admission.retry-after-seconds:1}") long retryAfterSeconds,
+            @Value("${app.admission.latency-tolerance:2.0}") double latencyTolerance,
+            @Value("${app.admission.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${app.admission.baseline-window:500}") int baselineWindow,
+            @Value("${app.admission.create-order.initial-limit:20}") int createInitialLimit,
+            @Value("${app.admission.create-order.min-limit:4}") int createMinLimit,
+            @Value("${app.admission.create-order.max-limit:200}") int createMaxLimit,
+            @Value("${app.admission.get-order.initial-limit:100}") int getInitialLimit,
+            @Value("${app.admission.get-order.min-limit:10}") int getMinLimit,
+            @Value("${app.admission.get-order.max-limit:1000}") int getMaxLimit
+    ) {
+        this.enabled = enabled;
+        this.retryAfterSeconds = Math.max(retryAfterSeconds, 1);
+        this.createOrderBudget = new AdmissionBudget(
+                "create-order",
+                new AdaptiveConcurrencyLimiter(createInitialLimit, createMinLimit, createMaxLimit,
+                        latencyTolerance, backoffRatio, baselineWindow),
+                meterRegistry
+        );
+        this.getOrderBudget = new AdmissionBudget(
+                "get-order",
+                new AdaptiveConcurrencyLimiter(getInitialLimit, getMinLimit, getMaxLimit,
+                        latencyTolerance, backoffRatio, baselineWindow),
+                meterRegistry
+        );
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || resolveBudget(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        AdmissionBudget budget = resolveBudget(request);
+        Optional<AdaptiveConcurrencyLimiter.Permit> permit = budget.limiter().tryAcquire();
+        if (permit.isEmpty()) {
+            budget.rejections().increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Order service is at its concurrency limit");
+            return;
+        }
+
+        boolean dropped = true;
+        try {
+            filterChain.doFilter(request, response);
+            dropped = response.getStatus() >= 500;
+        } finally {
+            if (dropped) {
+                permit.get().onDropped();
+            } else {
+                permit.get().onSuccess();
+            }
+        }
+    }
+
+    private AdmissionBudget resolveBudget(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if ("POST".equals(request.getMethod()) && (ORDERS_PATH.equals(path) || (ORDERS_PATH + "/").equals(path))) {
+            return createOrderBudget;
+        }
+        if ("GET".equals(request.getMethod()) && path.startsWith(ORDERS_PATH + "/") && path.length() > ORDERS_PATH.length() + 1) {
+            return getOrderBudget;
+        }
+        return null;
+    }
+
+    private record AdmissionBudget(AdaptiveConcurrencyLimiter limiter, Counter rejections) {
+
+        private AdmissionBudget(String endpoint, AdaptiveConcurrencyLimiter limiter, MeterRegistry meterRegistry) {
+            this(limiter, meterRegistry.counter("order_admission_rejections", "endpoint", endpoint));
+            Gauge.builder("order_admission_limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry);
+            Gauge.builder("order_admission_in_flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry);
+        }
+    }
+}
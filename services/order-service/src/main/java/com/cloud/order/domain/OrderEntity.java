@@ -32,6 +32,9 @@ public class OrderEntity {
     @Column(nullable = false, length = 20)
     private OrderStatus status;
 
+    @Column(name = "failure_reason", length = 40)
+    private String failureReason;
+
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
@@ -78,6 +81,15 @@ public class OrderEntity {
         this.status = status;
     }
 
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    public void fail(String reason) {
+        this.status = OrderStatus.FAILED;
+        this.failureReason = reason;
+    }
+
     public Instant getCreatedAt() {
         return createdAt;
     }
@@ -51,7 +51,8 @@ public class InventoryResultListener {
             if ("InventoryReleased".equals(eventType)) {
                 EventEnvelope<InventoryReleasedData> envelope = parseReleased(raw);
                 String messageId = resolveMessageId(message, envelope.eventId());
-                orderStatusUpdateService.markInventoryReleased(messageId, envelope.data().orderId());
+                orderStatusUpdateService.markInventoryReleased(messageId, envelope.data().orderId(), envelope.data().reason(),
+                        envelope.traceId(), envelope.identity());
                 return;
             }
         } finally {
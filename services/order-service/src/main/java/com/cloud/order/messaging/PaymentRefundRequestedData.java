@@ -0,0 +1,11 @@
+package com.cloud.order.messaging;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.UUID;
+
+public record PaymentRefundRequestedData(
+        @JsonProperty("order_id") UUID orderId,
+        String reason
+) {
+}
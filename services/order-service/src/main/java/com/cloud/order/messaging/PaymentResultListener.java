@@ -37,7 +37,7 @@ public class PaymentResultListener {
             if ("PaymentSucceeded".equals(eventType)) {
                 EventEnvelope<PaymentSucceededData> envelope = parseSucceeded(raw);
                 String messageId = resolveMessageId(message, envelope.eventId());
-                orderStatusUpdateService.markPaymentSucceeded(messageId, envelope.data().orderId());
+                orderStatusUpdateService.markPaymentSucceeded(messageId, envelope.data().orderId(), envelope.traceId(), envelope.identity());
                 return;
             }
 
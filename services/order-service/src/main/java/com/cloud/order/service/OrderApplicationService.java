@@ -8,6 +8,7 @@ import com.cloud.order.api.OrderCreatedItem;
 import com.cloud.order.api.OrderResponse;
 import com.cloud.order.auth.AuthTokenClaims;
 import com.cloud.order.auth.AuthTokenVerifier;
+import com.cloud.order.catalog.CatalogSnapshotService;
 import com.cloud.order.domain.IdempotencyKeyEntity;
 import com.cloud.order.domain.OrderEntity;
 import com.cloud.order.domain.OrderItemEntity;
@@ -43,6 +44,7 @@ public class OrderApplicationService {
     private final ObjectMapper objectMapper;
     private final AuthTokenVerifier authTokenVerifier;
     private final TraceIdContextResolver traceIdContextResolver;
+    private final CatalogSnapshotService catalogSnapshotService;
 
     @Value("${app.auth.required-order-role:buyer}")
     private String requiredOrderRole;
@@ -52,13 +54,15 @@ public class OrderApplicationService {
                                    OutboxEventRepository outboxEventRepository,
                                    ObjectMapper objectMapper,
                                    AuthTokenVerifier authTokenVerifier,
-                                   TraceIdContextResolver traceIdContextResolver) {
+                                   TraceIdContextResolver traceIdContextResolver,
+                                   CatalogSnapshotService catalogSnapshotService) {
         this.orderRepository = orderRepository;
         this.idempotencyKeyRepository = idempotencyKeyRepository;
         this.outboxEventRepository = outboxEventRepository;
         this.objectMapper = objectMapper;
         this.authTokenVerifier = authTokenVerifier;
         this.traceIdContextResolver = traceIdContextResolver;
+        this.catalogSnapshotService = catalogSnapshotService;
     }
 
     @Transactional
@@ -82,6 +86,7 @@ public class OrderApplicationService {
         if (existing.isPresent()) {
             return getOrder(existing.get().getOrderId(), true);
         }
+        catalogSnapshotService.validateItems(request.items());
 
         Instant now = Instant.now();
         OrderEntity order = new OrderEntity(
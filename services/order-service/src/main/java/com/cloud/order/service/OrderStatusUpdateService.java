@@ -6,6 +6,7 @@ import com.cloud.order.domain.OrderStatus;
 import com.cloud.order.domain.OutboxEventEntity;
 import com.cloud.order.domain.OutboxStatus;
 import com.cloud.order.messaging.InventoryReleaseRequestedData;
+import com.cloud.order.messaging.PaymentRefundRequestedData;
 import com.cloud.order.repo.ConsumedMessageRepository;
 import com.cloud.order.repo.OrderRepository;
 import com.cloud.order.repo.OutboxEventRepository;
@@ -22,6 +23,10 @@ import java.util.UUID;
 @Service
 public class OrderStatusUpdateService {
 
+    static final String INVENTORY_FAILED = "INVENTORY_FAILED";
+    static final String PAYMENT_FAILED = "PAYMENT_FAILED";
+    static final String RESERVATION_EXPIRED = "RESERVATION_EXPIRED";
+
     private final OrderRepository orderRepository;
     private final ConsumedMessageRepository consumedMessageRepository;
     private final OutboxEventRepository outboxEventRepository;
@@ -61,32 +66,51 @@ public class OrderStatusUpdateService {
 
         OrderEntity order = orderRepository.findById(orderId).orElse(null);
         if (order != null && order.getStatus() != OrderStatus.CONFIRMED) {
-            order.setStatus(OrderStatus.FAILED);
+            order.fail(INVENTORY_FAILED);
         }
 
         markConsumed(messageId, consumer);
     }
 
+    /**
+     * A compensation release only audits an order that is already terminal; an expired hold ends the order.
+     * Inventory only expires a hold it has not seen confirmed, so an order already paid here was charged for
+     * stock that is back on sale: it fails too, and the payment is refunded.
+     */
     @Transactional
-    public void markInventoryReleased(String messageId, UUID orderId) {
+    public void markInventoryReleased(String messageId, UUID orderId, String reason, UUID traceId, EventIdentity identity) {
         String consumer = "order.inventory-result";
         if (consumedMessageRepository.existsByMessageIdAndConsumer(messageId, consumer)) {
             return;
         }
 
-        // Inventory release is a compensation audit signal; order state is already terminal.
+        if ("EXPIRED".equals(reason)) {
+            OrderEntity order = orderRepository.findById(orderId).orElse(null);
+            if (order != null && order.getStatus() == OrderStatus.CONFIRMED) {
+                order.fail(RESERVATION_EXPIRED);
+                requestRefund(orderId, traceId, identity);
+            } else if (order != null && order.getStatus() != OrderStatus.FAILED) {
+                order.fail(RESERVATION_EXPIRED);
+            }
+        }
         markConsumed(messageId, consumer);
     }
 
+    /**
+     * A payment that succeeds after the order failed on an expired hold cannot be fulfilled, so it is refunded.
+     */
     @Transactional
-    public void markPaymentSucceeded(String messageId, UUID orderId) {
+    public void markPaymentSucceeded(String messageId, UUID orderId, UUID traceId, EventIdentity identity) {
         String consumer = "order.payment-result";
         if (consumedMessageRepository.existsByMessageIdAndConsumer(messageId, consumer)) {
             return;
         }
 
         OrderEntity order = orderRepository.findById(orderId).orElse(null);
-        if (order != null && order.getStatus() != OrderStatus.FAILED) {
+        if (order != null && order.getStatus() == OrderStatus.FAILED
+                && RESERVATION_EXPIRED.equals(order.getFailureReason())) {
+            requestRefund(orderId, traceId, identity);
+        } else if (order != null && order.getStatus() != OrderStatus.FAILED) {
             order.setStatus(OrderStatus.CONFIRMED);
         }
 
@@ -103,7 +127,7 @@ public class OrderStatusUpdateService {
         Instant now = Instant.now();
         OrderEntity order = orderRepository.findById(orderId).orElse(null);
         if (order != null && order.getStatus() != OrderStatus.CONFIRMED && order.getStatus() != OrderStatus.FAILED) {
-            order.setStatus(OrderStatus.FAILED);
+            order.fail(PAYMENT_FAILED);
             outboxEventRepository.save(new OutboxEventEntity(
                     UUID.randomUUID(),
                     "InventoryReleaseRequested",
@@ -119,6 +143,29 @@ public class OrderStatusUpdateService {
         markConsumed(messageId, consumer);
     }
 
+    private void requestRefund(UUID orderId, UUID traceId, EventIdentity identity) {
+        EventEnvelope<PaymentRefundRequestedData> envelope = EventEnvelope.of("PaymentRefundRequested",
+                new PaymentRefundRequestedData(orderId, RESERVATION_EXPIRED),
+                traceId,
+                identity);
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(envelope);
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException("Failed to serialize PaymentRefundRequested event", exception);
+        }
+        outboxEventRepository.save(new OutboxEventEntity(
+                UUID.randomUUID(),
+                "PaymentRefundRequested",
+                "payment.refund.requested",
+                payload,
+                OutboxStatus.PENDING,
+                Instant.now(),
+                null,
+                null
+        ));
+    }
+
     private String createInventoryReleaseRequestedPayload(UUID orderId, String reason, UUID traceId, EventIdentity identity) {
         EventEnvelope<InventoryReleaseRequestedData> envelope = EventEnvelope.of("InventoryReleaseRequested",
                 new InventoryReleaseRequestedData(orderId, reason),
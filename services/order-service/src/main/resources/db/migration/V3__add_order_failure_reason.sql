@@ -0,0 +1 @@
+ALTER TABLE orders ADD COLUMN failure_reason VARCHAR(40);
@@ -0,0 +1,111 @@
+package com.cloud.order.catalog;
+
+import com.cloud.order.api.CreateOrderRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CatalogSnapshotServiceTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final AtomicReference<Instant> now = new AtomicReference<>(T0);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Instant> requestedSince = new ArrayList<>();
+    private final AtomicReference<List<CatalogProduct>> nextFetch = new AtomicReference<>(List.of());
+
+    @Test
+    void shouldBulkLoadThenApplyDeltasFromWatermark() {
+        CatalogSnapshotService service = service(StaleCatalogPolicy.REJECT);
+        nextFetch.set(List.of(product("SKU-001", "19.90", true, T0.minusSeconds(30))));
+        service.refresh();
+
+        now.set(T0.plusSeconds(5));
+        nextFetch.set(List.of(product("SKU-001", "21.00", true, T0.plusSeconds(3))));
+        service.refresh();
+
+        assertNull(requestedSince.get(0));
+        assertEquals(T0.minusSeconds(32), requestedSince.get(1));
+        assertDoesNotThrow(() -> service.validateItems(List.of(item("SKU-001", "21.00"))));
+        ResponseStatusException exception = assertThrows(
+                ResponseStatusException.class,
+                () -> service.validateItems(List.of(item("SKU-001", "19.90")))
+        );
+        assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+    }
+
+    @Test
+    void shouldRejectUnknownAndInactiveSkus() {
+        CatalogSnapshotService service = service(StaleCatalogPolicy.REJECT);
+        nextFetch.set(List.of(product("SKU-OFF", "5.00", false, T0)));
+        service.refresh();
+
+        ResponseStatusException unknown = assertThrows(
+                ResponseStatusException.class,
+                () -> service.validateItems(List.of(item("SKU-404", "5.00")))
+        );
+        ResponseStatusException inactive = assertThrows(
+                ResponseStatusException.class,
+                () -> service.validateItems(List.of(item("SKU-OFF", "5.00")))
+        );
+
+        assertEquals(HttpStatus.BAD_REQUEST, unknown.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, inactive.getStatusCode());
+        assertEquals(1.0, meterRegistry.counter("order_catalog_validation_rejections", "reason", "unknown_sku").count());
+    }
+
+    @Test
+    void shouldApplyStalePolicyWhenRefreshKeepsFailing() {
+        CatalogSnapshotService rejecting = service(StaleCatalogPolicy.REJECT);
+        CatalogSnapshotService trusting = service(StaleCatalogPolicy.TRUST_CLIENT);
+        nextFetch.set(List.of(product("SKU-001", "19.90", true, T0)));
+        rejecting.refresh();
+        trusting.refresh();
+
+        nextFetch.set(null);
+        now.set(T0.plusSeconds(61));
+        rejecting.refresh();
+
+        ResponseStatusException exception = assertThrows(
+                ResponseStatusException.class,
+                () -> rejecting.validateItems(List.of(item("SKU-001", "19.90")))
+        );
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+        assertDoesNotThrow(() -> trusting.validateItems(List.of(item("SKU-001", "1.00"))));
+        assertEquals(61.0, rejecting.snapshotAgeSeconds());
+        assertEquals(1.0, meterRegistry.counter("order_catalog_snapshot_refresh_failures", "mode", "delta").count());
+        assertEquals(1.0, meterRegistry.counter("order_catalog_snapshot_stale_bypass").count());
+    }
+
+    private CatalogSnapshotService service(StaleCatalogPolicy policy) {
+        CatalogProductSource source = updatedSince -> {
+            requestedSince.add(updatedSince);
+            List<CatalogProduct> products = nextFetch.get();
+            if (products == null) {
+                throw new IllegalStateException("catalog unavailable");
+            }
+            return products;
+        };
+        return new CatalogSnapshotService(source, meterRegistry, true, 60, 600, policy, now::get);
+    }
+
+    private CatalogProduct product(String skuId, String price, boolean active, Instant updatedAt) {
+        return new CatalogProduct(skuId, new BigDecimal(price), active, updatedAt);
+    }
+
+    private CreateOrderRequest.OrderItemRequest item(String skuId, String price) {
+        return new CreateOrderRequest.OrderItemRequest(skuId, 1, new BigDecimal(price));
+    }
+}
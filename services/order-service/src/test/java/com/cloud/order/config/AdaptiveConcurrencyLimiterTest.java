@@ -0,0 +1,91 @@
+package com.cloud.order.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void shouldRejectWhenInFlightReachesLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(2, 1, 10);
+
+        assertTrue(limiter.tryAcquire().isPresent());
+        assertTrue(limiter.tryAcquire().isPresent());
+        assertTrue(limiter.tryAcquire().isEmpty());
+
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(1, limiter.getRejectedCount());
+    }
+
+    @Test
+    void shouldGrowLimitWhileLatencyStaysNearBaseline() {
+        AdaptiveConcurrencyLimiter limiter = limiter(4, 1, 10);
+
+        for (int round = 0; round < 5; round++) {
+            List<AdaptiveConcurrencyLimiter.Permit> permits = acquireAll(limiter);
+            clock.addAndGet(10_000_000L);
+            permits.forEach(AdaptiveConcurrencyLimiter.Permit::onSuccess);
+        }
+
+        assertEquals(10, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void shouldBackOffWhenLatencyExceedsToleranceOrRequestIsDropped() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10, 2, 10);
+
+        AdaptiveConcurrencyLimiter.Permit fast = limiter.tryAcquire().orElseThrow();
+        clock.addAndGet(10_000_000L);
+        fast.onSuccess();
+
+        AdaptiveConcurrencyLimiter.Permit slow = limiter.tryAcquire().orElseThrow();
+        clock.addAndGet(50_000_000L);
+        slow.onSuccess();
+        assertEquals(5, limiter.getLimit());
+
+        AdaptiveConcurrencyLimiter.Permit dropped = limiter.tryAcquire().orElseThrow();
+        clock.addAndGet(10_000_000L);
+        dropped.onDropped();
+        assertEquals(2, limiter.getLimit());
+
+        AdaptiveConcurrencyLimiter.Permit droppedAgain = limiter.tryAcquire().orElseThrow();
+        droppedAgain.onDropped();
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void shouldReleasePermitOnlyOnce() {
+        AdaptiveConcurrencyLimiter limiter = limiter(4, 1, 10);
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire().orElseThrow();
+
+        permit.onSuccess();
+        permit.onDropped();
+
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(4, limiter.getLimit());
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(int initial, int min, int max) {
+        return new AdaptiveConcurrencyLimiter(initial, min, max, 2.0, 0.5, 100, clock::get);
+    }
+
+    private List<AdaptiveConcurrencyLimiter.Permit> acquireAll(AdaptiveConcurrencyLimiter limiter) {
+        List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        while (true) {
+            var permit = limiter.tryAcquire();
+            if (permit.isEmpty()) {
+                return permits;
+            }
+            permits.add(permit.get());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.cloud.order.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AdmissionControlFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AdmissionControlFilter filter = new AdmissionControlFilter(meterRegistry, true, 3,
+            2.0, 0.9, 500, 1, 1, 1, 1, 1, 1);
+
+    @Test
+    void shouldRejectWithRetryAfterWhenCreateOrderBudgetIsFull() throws Exception {
+        AtomicReference<MockHttpServletResponse> nested = new AtomicReference<>();
+
+        filter.doFilter(request("POST", "/api/orders"), new MockHttpServletResponse(), (req, res) ->
+                nested.set(run(request("POST", "/api/orders"), (innerReq, innerRes) -> {
+                })));
+
+        assertEquals(429, nested.get().getStatus());
+        assertEquals("3", nested.get().getHeader("Retry-After"));
+        assertEquals(1.0, meterRegistry.counter("order_admission_rejections", "endpoint", "create-order").count());
+        assertEquals(0.0, inFlight("create-order"));
+    }
+
+    @Test
+    void shouldGiveCreateAndGetOrderSeparateBudgets() throws Exception {
+        AtomicReference<MockHttpServletResponse> nested = new AtomicReference<>();
+
+        filter.doFilter(request("POST", "/api/orders"), new MockHttpServletResponse(), (req, res) ->
+                nested.set(run(request("GET", "/api/orders/42"), (innerReq, innerRes) -> {
+                    assertEquals(1.0, inFlight("create-order"));
+                    assertEquals(1.0, inFlight("get-order"));
+                })));
+
+        assertEquals(200, nested.get().getStatus());
+    }
+
+    @Test
+    void shouldNotLimitOtherRoutes() throws Exception {
+        AtomicReference<MockHttpServletResponse> nested = new AtomicReference<>();
+
+        filter.doFilter(request("GET", "/api/orders/42"), new MockHttpServletResponse(), (req, res) ->
+                nested.set(run(request("GET", "/api/orders"), (innerReq, innerRes) -> {
+                })));
+
+        assertEquals(200, nested.get().getStatus());
+        assertNull(nested.get().getHeader("Retry-After"));
+    }
+
+    @Test
+    void shouldReleasePermitWhenChainThrows() throws Exception {
+        assertThrows(IllegalStateException.class, () -> filter.doFilter(request("GET", "/api/orders/42"),
+                new MockHttpServletResponse(), (req, res) -> {
+                    throw new IllegalStateException("boom");
+                }));
+        assertEquals(0.0, inFlight("get-order"));
+
+        MockHttpServletResponse response = run(request("GET", "/api/orders/42"), (req, res) -> {
+        });
+
+        assertEquals(200, response.getStatus());
+        assertEquals(0.0, meterRegistry.counter("order_admission_rejections", "endpoint", "get-order").count());
+    }
+
+    private MockHttpServletResponse run(MockHttpServletRequest request, FilterChain chain)
+            throws IOException, ServletException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private double inFlight(String endpoint) {
+        return meterRegistry.get("order_admission_in_flight").tag("endpoint", endpoint).gauge().value();
+    }
+
+    private static MockHttpServletRequest request(String method, String uri) {
+        return new MockHttpServletRequest(method, uri);
+    }
+}
@@ -3,6 +3,7 @@ package com.cloud.order.service;
 import com.cloud.order.api.CreateOrderRequest;
 import com.cloud.order.auth.AuthTokenClaims;
 import com.cloud.order.auth.AuthTokenVerifier;
+import com.cloud.order.catalog.CatalogSnapshotService;
 import com.cloud.order.repo.IdempotencyKeyRepository;
 import com.cloud.order.repo.OrderRepository;
 import com.cloud.order.repo.OutboxEventRepository;
@@ -47,7 +48,8 @@ class OrderApplicationServiceRoleTest {
                 outboxEventRepository,
                 new ObjectMapper(),
                 authTokenVerifier,
-                traceIdContextResolver
+                traceIdContextResolver,
+                mock(CatalogSnapshotService.class)
         );
         ReflectionTestUtils.setField(service, "requiredOrderRole", "buyer");
     }
@@ -0,0 +1,124 @@
+package com.cloud.order.service;
+
+import com.cloud.order.domain.OrderEntity;
+import com.cloud.order.domain.OrderStatus;
+import com.cloud.order.domain.OutboxEventEntity;
+import com.cloud.order.repo.ConsumedMessageRepository;
+import com.cloud.order.repo.OrderRepository;
+import com.cloud.order.repo.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderStatusUpdateServiceTest {
+
+    private OrderRepository orderRepository;
+    private OutboxEventRepository outboxEventRepository;
+    private OrderStatusUpdateService service;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = mock(OrderRepository.class);
+        outboxEventRepository = mock(OutboxEventRepository.class);
+        service = new OrderStatusUpdateService(
+                orderRepository,
+                mock(ConsumedMessageRepository.class),
+                outboxEventRepository,
+                new ObjectMapper().registerModule(new JavaTimeModule())
+        );
+    }
+
+    @Test
+    void shouldFailReservedOrderWhenHoldExpires() {
+        OrderEntity order = order(OrderStatus.RESERVED);
+
+        service.markInventoryReleased("m-1", order.getId(), "EXPIRED", UUID.randomUUID(), null);
+
+        assertEquals(OrderStatus.FAILED, order.getStatus());
+        assertEquals(OrderStatusUpdateService.RESERVATION_EXPIRED, order.getFailureReason());
+        verify(outboxEventRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldIgnoreCompensationRelease() {
+        OrderEntity order = order(OrderStatus.CONFIRMED);
+
+        service.markInventoryReleased("m-1", order.getId(), "PAYMENT_FAILED", UUID.randomUUID(), null);
+
+        assertEquals(OrderStatus.CONFIRMED, order.getStatus());
+        verify(outboxEventRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldRefundConfirmedOrderWhenExpiryArrivesLate() {
+        OrderEntity order = order(OrderStatus.CONFIRMED);
+
+        service.markInventoryReleased("m-1", order.getId(), "EXPIRED", UUID.randomUUID(), null);
+
+        assertEquals(OrderStatus.FAILED, order.getStatus());
+        assertRefundRequested(order);
+    }
+
+    @Test
+    void shouldRefundPaymentThatSucceedsAfterHoldExpired() {
+        OrderEntity order = order(OrderStatus.RESERVED);
+        service.markInventoryReleased("m-1", order.getId(), "EXPIRED", UUID.randomUUID(), null);
+
+        service.markPaymentSucceeded("m-2", order.getId(), UUID.randomUUID(), null);
+
+        assertEquals(OrderStatus.FAILED, order.getStatus());
+        assertRefundRequested(order);
+    }
+
+    @Test
+    void shouldNotRefundPaymentForOrderFailedByInventory() {
+        OrderEntity order = order(OrderStatus.NEW);
+        service.markInventoryFailed("m-1", order.getId());
+
+        service.markPaymentSucceeded("m-2", order.getId(), UUID.randomUUID(), null);
+
+        assertEquals(OrderStatus.FAILED, order.getStatus());
+        assertEquals(OrderStatusUpdateService.INVENTORY_FAILED, order.getFailureReason());
+        verify(outboxEventRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldConfirmReservedOrderOnPayment() {
+        OrderEntity order = order(OrderStatus.RESERVED);
+
+        service.markPaymentSucceeded("m-1", order.getId(), UUID.randomUUID(), null);
+
+        assertEquals(OrderStatus.CONFIRMED, order.getStatus());
+        verify(outboxEventRepository, never()).save(any());
+    }
+
+    private void assertRefundRequested(OrderEntity order) {
+        ArgumentCaptor<OutboxEventEntity> saved = ArgumentCaptor.forClass(OutboxEventEntity.class);
+        verify(outboxEventRepository).save(saved.capture());
+        assertEquals("PaymentRefundRequested", saved.getValue().getEventType());
+        assertEquals("payment.refund.requested", saved.getValue().getRoutingKey());
+        assertTrue(saved.getValue().getPayload().contains(order.getId().toString()));
+        assertTrue(saved.getValue().getPayload().contains(OrderStatusUpdateService.RESERVATION_EXPIRED));
+    }
+
+    private OrderEntity order(OrderStatus status) {
+        OrderEntity order = new OrderEntity(UUID.randomUUID(), "user-1", BigDecimal.TEN, status, Instant.now());
+        when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+        return order;
+    }
+}
@@ -81,4 +81,57 @@ public class PaymentMessagingTopologyConfig {
             @Value("${app.messaging.routing-keys.inventory-reserved-dlq:q.payment.inventory-reserved.dlq}") String dlqRoutingKey) {
         return BindingBuilder.bind(inventoryReservedDlqQueue).to(dlqExchange).with(dlqRoutingKey);
     }
+
+    @Bean
+    public Queue refundRequestedQueue(
+            @Value("${app.messaging.queues.refund-requested:q.payment.refund-requested}") String queueName,
+            @Value("${app.messaging.retry-exchange:payment.retry.exchange}") String retryExchange,
+            @Value("${app.messaging.routing-keys.refund-requested-retry:q.payment.refund-requested.retry}") String retryRoutingKey) {
+        return QueueBuilder.durable(queueName)
+                .withArgument("x-dead-letter-exchange", retryExchange)
+                .withArgument("x-dead-letter-routing-key", retryRoutingKey)
+                .build();
+    }
+
+    @Bean
+    public Queue refundRequestedRetryQueue(
+            @Value("${app.messaging.queues.refund-requested-retry:q.payment.refund-requested.retry}") String queueName,
+            @Value("${app.messaging.retry-ttl-ms:10000}") long ttl,
+            @Value("${app.messaging.exchange:ecom.events}") String eventsExchange,
+            @Value("${app.messaging.routing-keys.refund-requested:payment.refund.requested}") String refundRequestedRoutingKey) {
+        return QueueBuilder.durable(queueName)
+                .withArgument("x-message-ttl", ttl)
+                .withArgument("x-dead-letter-exchange", eventsExchange)
+                .withArgument("x-dead-letter-routing-key", refundRequestedRoutingKey)
+                .build();
+    }
+
+    @Bean
+    public Queue refundRequestedDlqQueue(@Value("${app.messaging.queues.refund-requested-dlq:q.payment.refund-requested.dlq}") String queueName) {
+        return QueueBuilder.durable(queueName).build();
+    }
+
+    @Bean
+    public Binding refundRequestedBinding(
+            @Qualifier("refundRequestedQueue") Queue refundRequestedQueue,
+            TopicExchange eventsExchange,
+            @Value("${app.messaging.routing-keys.refund-requested:payment.refund.requested}") String routingKey) {
+        return BindingBuilder.bind(refundRequestedQueue).to(eventsExchange).with(routingKey);
+    }
+
+    @Bean
+    public Binding refundRequestedRetryBinding(
+            @Qualifier("refundRequestedRetryQueue") Queue refundRequestedRetryQueue,
+            @Qualifier("retryExchange") DirectExchange retryExchange,
+            @Value("${app.messaging.routing-keys.refund-requested-retry:q.payment.refund-requested.retry}") String retryRoutingKey) {
+        return BindingBuilder.bind(refundRequestedRetryQueue).to(retryExchange).with(retryRoutingKey);
+    }
+
+    @Bean
+    public Binding refundRequestedDlqBinding(
+            @Qualifier("refundRequestedDlqQueue") Queue refundRequestedDlqQueue,
+            @Qualifier("dlqExchange") DirectExchange dlqExchange,
+            @Value("${app.messaging.routing-keys.refund-requested-dlq:q.payment.refund-requested.dlq}") String dlqRoutingKey) {
+        return BindingBuilder.bind(refundRequestedDlqQueue).to(dlqExchange).with(dlqRoutingKey);
+    }
 }
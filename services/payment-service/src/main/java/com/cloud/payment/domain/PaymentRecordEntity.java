@@ -60,4 +60,9 @@ public class PaymentRecordEntity {
     public Instant getCreatedAt() {
         return createdAt;
     }
+
+    public void markRefunded(String reason) {
+        this.status = PaymentStatus.REFUNDED;
+        this.reason = reason;
+    }
 }
@@ -2,5 +2,6 @@ package com.cloud.payment.domain;
 
 public enum PaymentStatus {
     SUCCEEDED,
-    FAILED
+    FAILED,
+    REFUNDED
 }
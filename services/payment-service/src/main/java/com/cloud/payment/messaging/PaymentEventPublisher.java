@@ -36,6 +36,9 @@ public class PaymentEventPublisher {
     @Value("${app.messaging.routing-keys.inventory-reserved-dlq:q.payment.inventory-reserved.dlq}")
     private String inventoryReservedDlqRoutingKey;
 
+    @Value("${app.messaging.routing-keys.refund-requested-dlq:q.payment.refund-requested.dlq}")
+    private String refundRequestedDlqRoutingKey;
+
     public PaymentEventPublisher(RabbitTemplate rabbitTemplate, ObjectMapper objectMapper) {
         this.rabbitTemplate = rabbitTemplate;
         this.objectMapper = objectMapper;
@@ -54,7 +57,15 @@ public class PaymentEventPublisher {
     }
 
     public void publishToDlq(Message originalMessage, String reason) {
-        rabbitTemplate.convertAndSend(dlqExchange, inventoryReservedDlqRoutingKey, new String(originalMessage.getBody(), StandardCharsets.UTF_8), message -> {
+        publishToDlq(originalMessage, inventoryReservedDlqRoutingKey, reason);
+    }
+
+    public void publishRefundRequestedToDlq(Message originalMessage, String reason) {
+        publishToDlq(originalMessage, refundRequestedDlqRoutingKey, reason);
+    }
+
+    private void publishToDlq(Message originalMessage, String routingKey, String reason) {
+        rabbitTemplate.convertAndSend(dlqExchange, routingKey, new String(originalMessage.getBody(), StandardCharsets.UTF_8), message -> {
             message.getMessageProperties().setContentType("application/json");
             message.getMessageProperties().setHeader("x-dlq-reason", reason);
             if (originalMessage.getMessageProperties().getMessageId() != null) {
@@ -0,0 +1,119 @@
+package com.cloud.payment.messaging;
+
+import com.cloud.payment.service.PaymentProcessingService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.MDC;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Component
+public class PaymentRefundRequestedListener {
+
+    private final ObjectMapper objectMapper;
+    private final PaymentProcessingService paymentProcessingService;
+    private final PaymentEventPublisher paymentEventPublisher;
+
+    @Value("${app.messaging.queues.refund-requested:q.payment.refund-requested}")
+    private String refundRequestedQueue;
+
+    @Value("${app.messaging.max-retries:3}")
+    private int maxRetries;
+
+    public PaymentRefundRequestedListener(ObjectMapper objectMapper,
+                                          PaymentProcessingService paymentProcessingService,
+                                          PaymentEventPublisher paymentEventPublisher) {
+        this.objectMapper = objectMapper;
+        this.paymentProcessingService = paymentProcessingService;
+        this.paymentEventPublisher = paymentEventPublisher;
+    }
+
+    @RabbitListener(queues = "${app.messaging.queues.refund-requested:q.payment.refund-requested}")
+    public void handleRefundRequested(Message message) {
+        long retryCount = extractRetryCount(message);
+        String raw = new String(message.getBody(), StandardCharsets.UTF_8);
+
+        try {
+            EventEnvelope<PaymentRefundRequestedData> envelope = parse(raw);
+            bindTraceToMdc(envelope.traceId());
+            String messageId = resolveMessageId(message, envelope.eventId());
+            paymentProcessingService.refund(messageId, envelope.data().orderId(), envelope.data().reason());
+        } catch (RuntimeException exception) {
+            if (retryCount >= maxRetries) {
+                paymentEventPublisher.publishRefundRequestedToDlq(message, "RETRY_EXHAUSTED:" + shortError(exception));
+                return;
+            }
+            throw new AmqpRejectAndDontRequeueException("Transient refund processing failure", exception);
+        } finally {
+            MDC.remove("trace_id");
+        }
+    }
+
+    private void bindTraceToMdc(UUID traceId) {
+        if (traceId == null) {
+            return;
+        }
+        MDC.put("trace_id", traceId.toString());
+    }
+
+    private EventEnvelope<PaymentRefundRequestedData> parse(String raw) {
+        try {
+            return objectMapper.readValue(raw, new TypeReference<>() {
+            });
+        } catch (JsonProcessingException exception) {
+            throw new IllegalArgumentException("Invalid payment.refund.requested payload", exception);
+        }
+    }
+
+    private String resolveMessageId(Message message, UUID fallbackEventId) {
+        String messageId = message.getMessageProperties().getMessageId();
+        if (messageId != null && !messageId.isBlank()) {
+            return messageId;
+        }
+        return fallbackEventId == null ? UUID.randomUUID().toString() : fallbackEventId.toString();
+    }
+
+    private long extractRetryCount(Message message) {
+        List<Map<String, ?>> xDeath = message.getMessageProperties().getXDeathHeader();
+        if (xDeath == null) {
+            return 0;
+        }
+        for (Map<String, ?> entry : xDeath) {
+            String queue = asString(entry.get("queue"));
+            if (refundRequestedQueue.equals(queue)) {
+                Object count = entry.get("count");
+                if (count instanceof Number number) {
+                    return number.longValue();
+                }
+            }
+        }
+        return 0;
+    }
+
+    private String asString(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        return String.valueOf(value);
+    }
+
+    private String shortError(Throwable throwable) {
+        String message = throwable.getMessage();
+        if (message == null || message.isBlank()) {
+            message = throwable.getClass().getSimpleName();
+        }
+        return message.length() <= 300 ? message : message.substring(0, 300);
+    }
+}
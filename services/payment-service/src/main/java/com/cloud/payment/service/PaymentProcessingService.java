@@ -19,6 +19,7 @@ import java.util.UUID;
 public class PaymentProcessingService {
 
     private static final String CONSUMER_NAME = "payment.inventory-reserved";
+    private static final String REFUND_CONSUMER_NAME = "payment.refund-requested";
 
     private final PaymentRecordRepository paymentRecordRepository;
     private final ConsumedMessageRepository consumedMessageRepository;
@@ -60,9 +61,30 @@ public class PaymentProcessingService {
             return;
         }
 
+        if (record.getStatus() == PaymentStatus.REFUNDED) {
+            // The order was already compensated; a redelivered reservation must not report it paid again.
+            markConsumed(messageId);
+            return;
+        }
+
         throw new IllegalStateException("Unsupported payment status");
     }
 
+    /**
+     * Refunds a succeeded payment whose order could not be fulfilled. Anything other than a succeeded payment has
+     * nothing to refund.
+     */
+    @Transactional
+    public void refund(String messageId, UUID orderId, String reason) {
+        if (consumedMessageRepository.existsByMessageIdAndConsumer(messageId, REFUND_CONSUMER_NAME)) {
+            return;
+        }
+        paymentRecordRepository.findByOrderId(orderId)
+                .filter(record -> record.getStatus() == PaymentStatus.SUCCEEDED)
+                .ifPresent(record -> record.markRefunded(reason));
+        markConsumed(messageId, REFUND_CONSUMER_NAME);
+    }
+
     private PaymentRecordEntity createPaymentRecord(UUID orderId) {
         PaymentMockMode mode = parseMode(mockModeValue);
         boolean success = decideSuccess(mode, orderId);
@@ -79,10 +101,14 @@ public class PaymentProcessingService {
     }
 
     private void markConsumed(String messageId) {
+        markConsumed(messageId, CONSUMER_NAME);
+    }
+
+    private void markConsumed(String messageId, String consumer) {
         consumedMessageRepository.save(new ConsumedMessageEntity(
                 UUID.randomUUID(),
                 messageId,
-                CONSUMER_NAME,
+                consumer,
                 Instant.now()
         ));
     }